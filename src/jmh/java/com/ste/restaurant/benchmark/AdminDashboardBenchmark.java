@@ -0,0 +1,73 @@
+package com.ste.restaurant.benchmark;
+
+import com.ste.restaurant.dto.dashboard.*;
+import com.ste.restaurant.service.AdminDashboardService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// every dashboard aggregation over the whole generated range
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdminDashboardBenchmark {
+
+    private AdminDashboardService dashboardService;
+    private final LocalDate from = ApplicationState.firstDay();
+    private final LocalDate to = ApplicationState.lastDay();
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        dashboardService = application.bean(AdminDashboardService.class);
+    }
+
+    @Benchmark
+    public DashboardSummaryDto summary() {
+        return dashboardService.getDashboardSummary(from, to);
+    }
+
+    @Benchmark
+    public DashboardSummaryDto summaryApproximate() {
+        return dashboardService.getDashboardSummary(from, to, true);
+    }
+
+    @Benchmark
+    public DashboardStatsDto stats() {
+        return dashboardService.getDashboardStats(from, to);
+    }
+
+    @Benchmark
+    public DashboardStatsDto statsApproximate() {
+        return dashboardService.getDashboardStats(from, to, true);
+    }
+
+    @Benchmark
+    public List<RevenueDataPointDto> revenueChart() {
+        return dashboardService.getRevenueChart(from, to);
+    }
+
+    @Benchmark
+    public List<TopPerformingItemDto> topPerformingItems() {
+        return dashboardService.getTopPerformingItems(from, to);
+    }
+
+    @Benchmark
+    public List<TopPerformingCategoryDto> topPerformingCategories() {
+        return dashboardService.getTopPerformingCategories(from, to);
+    }
+
+    @Benchmark
+    public List<BusiestTableDto> busiestTables() {
+        return dashboardService.getBusiestTables(from, to);
+    }
+
+    @Benchmark
+    public List<RevenueHeatmapPointDto> revenueHeatmap() {
+        return dashboardService.getRevenueHeatmap(from, to);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ste.restaurant.benchmark;
+
+import com.ste.restaurant.RestaurantApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+// The application started once per fork on the in-memory H2 test database (Postgres mode), with the
+// synthetic generator adding three months of orders so the queries see a realistic amount of data.
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    public static final int DAYS = 90;
+    public static final String CUSTOMER = "synthetic-42-1@example.com";
+    public static final String TABLE = "synthetic-42-1";
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(RestaurantApplication.class)
+                .profiles("test", "synthetic")
+                .run("--server.port=0",
+                        "--logging.level.root=WARN",
+                        "--app.synthetic.orders=" + Integer.getInteger("benchmark.orders", 20000),
+                        "--app.synthetic.days=" + DAYS,
+                        "--app.synthetic.customers=500",
+                        "--app.synthetic.tables=50",
+                        "--app.synthetic.call-requests=1000",
+                        "--app.synthetic.exit-when-done=false");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // for code that walks lazy relations and is only ever called inside a transaction
+    public <T> T readOnly(Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> work.get());
+    }
+
+    // the generated orders end yesterday
+    public static LocalDate firstDay() {
+        return LocalDate.now().minusDays(DAYS);
+    }
+
+    public static LocalDate lastDay() {
+        return LocalDate.now().minusDays(1);
+    }
+}
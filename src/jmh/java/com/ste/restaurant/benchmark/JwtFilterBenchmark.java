@@ -0,0 +1,48 @@
+package com.ste.restaurant.benchmark;
+
+import com.ste.restaurant.repository.UserRepository;
+import com.ste.restaurant.security.JwtAuthenticationFilter;
+import com.ste.restaurant.security.JwtUtil;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// one authenticated api request through the jwt filter, token verification and user lookup included
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        filter = application.bean(JwtAuthenticationFilter.class);
+        String token = application.bean(JwtUtil.class).generateToken(
+                application.bean(UserRepository.class).findByEmail(ApplicationState.CUSTOMER).orElseThrow());
+        authorization = "Bearer " + token;
+    }
+
+    @Benchmark
+    public Object authenticate() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rest/api/orders");
+        request.setServletPath("/rest/api/orders");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
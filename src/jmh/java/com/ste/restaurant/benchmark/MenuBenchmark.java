@@ -0,0 +1,40 @@
+package com.ste.restaurant.benchmark;
+
+import com.ste.restaurant.dto.CategoryMenuDto;
+import com.ste.restaurant.service.MenuService;
+import com.ste.restaurant.service.MenuSnapshotService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// the public active menu as served from the snapshot, and the build behind a snapshot miss
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuBenchmark {
+
+    private ApplicationState application;
+    private MenuService menuService;
+    private MenuSnapshotService menuSnapshotService;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        this.application = application;
+        menuService = application.bean(MenuService.class);
+        menuSnapshotService = application.bean(MenuSnapshotService.class);
+    }
+
+    @Benchmark
+    public MenuSnapshotService.MenuSnapshot activeMenuSnapshot() {
+        return menuSnapshotService.getSnapshot("en");
+    }
+
+    @Benchmark
+    public List<CategoryMenuDto> buildActiveMenu() {
+        return application.readOnly(() -> menuService.buildActiveMenu("en"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.ste.restaurant.benchmark;
+
+import com.ste.restaurant.dto.OrderDto;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.Order;
+import com.ste.restaurant.entity.OrderItem;
+import com.ste.restaurant.entity.TableTop;
+import com.ste.restaurant.entity.User;
+import com.ste.restaurant.mapper.OrderMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// mapping a detached order graph, no spring context or database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int lines;
+
+    private final OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        User customer = new User();
+        customer.setUserId(1L);
+        customer.setEmail(ApplicationState.CUSTOMER);
+        TableTop table = new TableTop();
+        table.setTableId(1L);
+        table.setTableNumber(ApplicationState.TABLE);
+
+        order = new Order();
+        order.setOrderId(1L);
+        order.setOrderTime(LocalDateTime.now());
+        order.setCustomer(customer);
+        order.setTable(table);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            FoodItem food = new FoodItem();
+            food.setFoodId((long) i % 40);
+            food.setFoodName("Food " + i % 40);
+            food.setImageHash("hash" + i % 40);
+            food.setPrice(BigDecimal.valueOf(5 + i % 40));
+
+            OrderItem item = new OrderItem();
+            item.setOrderItemId((long) i);
+            item.setQuantity(1 + i % 3);
+            item.setUnitPrice(food.getPrice());
+            item.setTotalPrice(food.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            item.setFoodItem(food);
+            item.setOrder(order);
+            order.getOrderItems().add(item);
+            total = total.add(item.getTotalPrice());
+        }
+        order.setTotalPrice(total);
+    }
+
+    @Benchmark
+    public OrderDto orderToOrderDto() {
+        return orderMapper.orderToOrderDto(order);
+    }
+}
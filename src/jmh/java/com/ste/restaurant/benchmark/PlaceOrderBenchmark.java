@@ -0,0 +1,56 @@
+package com.ste.restaurant.benchmark;
+
+import com.ste.restaurant.dto.CategoryMenuDto;
+import com.ste.restaurant.dto.FoodItemMenuDto;
+import com.ste.restaurant.dto.OrderDto;
+import com.ste.restaurant.dto.OrderItemDtoBasic;
+import com.ste.restaurant.dto.PlaceOrderDto;
+import com.ste.restaurant.dto.common.WarningResponse;
+import com.ste.restaurant.service.MenuService;
+import com.ste.restaurant.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// every invocation commits a new order, the table keeps growing like it would on a busy night
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceOrderBenchmark {
+
+    @Param({"3", "20"})
+    private int lines;
+
+    private OrderService orderService;
+    private PlaceOrderDto placeOrderDto;
+
+    @Setup
+    public void setUp(ApplicationState application) {
+        orderService = application.bean(OrderService.class);
+
+        List<String> foodNames = new ArrayList<>();
+        MenuService menuService = application.bean(MenuService.class);
+        for (CategoryMenuDto category : application.readOnly(() -> menuService.buildActiveMenu("en"))) {
+            for (FoodItemMenuDto food : category.getFoodItems()) {
+                foodNames.add(food.getOriginalFoodName() != null ? food.getOriginalFoodName() : food.getFoodName());
+            }
+        }
+        List<OrderItemDtoBasic> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItemDtoBasic(1 + i % 3, null, foodNames.get(i % foodNames.size())));
+        }
+        placeOrderDto = new PlaceOrderDto();
+        placeOrderDto.setTableNumber(ApplicationState.TABLE);
+        placeOrderDto.setOrderItems(items);
+    }
+
+    @Benchmark
+    public WarningResponse<OrderDto> placeOrder() {
+        return orderService.placeOrder(placeOrderDto, ApplicationState.CUSTOMER);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ste.restaurant.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+// Cropping and scaling one upload to a rendition, without encoding or disk. Lives next to
+// ImageRenditionService for its package-private helpers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageRenditionBenchmark {
+
+    @Param({"1600", "4000"})
+    private int sourceWidth;
+
+    @Param({"THUMBNAIL", "CARD", "FULL"})
+    private ImageRendition rendition;
+
+    private BufferedImage source;
+
+    @Setup
+    public void setUp() {
+        // a phone photo is 4:3
+        source = new BufferedImage(sourceWidth, sourceWidth * 3 / 4, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = source.createGraphics();
+        g2d.setPaint(new GradientPaint(0, 0, Color.ORANGE, sourceWidth, sourceWidth, Color.DARK_GRAY));
+        g2d.fillRect(0, 0, source.getWidth(), source.getHeight());
+        g2d.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage render() {
+        return ImageRenditionService.scaleDown(ImageRenditionService.cropToSquare(source), rendition.getSize());
+    }
+}
@@ -0,0 +1,44 @@
+package com.ste.restaurant.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+// Per region cache.gets / cache.puts / cache.evictions / cache.size under /actuator/metrics,
+// same names and tags as the Spring cache metrics with cacheManager=hibernate.
+@Component
+public class CatalogCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CatalogCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory();
+        if (!(regionFactory instanceof CatalogCacheRegionFactory catalogCache)) return;
+
+        for (BoundedCacheStorage storage : catalogCache.getStorages()) {
+            Tags tags = Tags.of("cache", storage.getRegionName(), "cacheManager", "hibernate");
+            FunctionCounter.builder("cache.gets", storage, BoundedCacheStorage::getHits)
+                    .tags(tags).tag("result", "hit").register(registry);
+            FunctionCounter.builder("cache.gets", storage, BoundedCacheStorage::getMisses)
+                    .tags(tags).tag("result", "miss").register(registry);
+            FunctionCounter.builder("cache.puts", storage, BoundedCacheStorage::getPuts)
+                    .tags(tags).register(registry);
+            FunctionCounter.builder("cache.evictions", storage, BoundedCacheStorage::getEvictions)
+                    .tags(tags).register(registry);
+            Gauge.builder("cache.size", storage, BoundedCacheStorage::size)
+                    .tags(tags).register(registry);
+        }
+    }
+}
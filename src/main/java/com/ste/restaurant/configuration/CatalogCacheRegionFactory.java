@@ -0,0 +1,73 @@
+package com.ste.restaurant.configuration;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Second level cache for the catalog (menus, food items, categories, tables and translations), in
+// process and bounded per region. Hibernate keeps it consistent for every write it executes, bulk
+// JPQL updates included, so the services need no cache code of their own.
+public class CatalogCacheRegionFactory extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRIES = "hibernate.cache.catalog.max_entries";
+
+    private int maxEntries = 10_000;
+    private final Map<String, BoundedCacheStorage> storages = new ConcurrentHashMap<>();
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object configured = configValues.get(MAX_ENTRIES);
+        if (configured != null) {
+            maxEntries = Integer.parseInt(configured.toString());
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        storages.values().forEach(BoundedCacheStorage::release);
+        storages.clear();
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return register(new BoundedCacheStorage(regionConfig.getRegionName(), maxEntries));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return register(new BoundedCacheStorage(regionName, maxEntries));
+    }
+
+    // never evicts, a missing update timestamp would make every cached query result look current
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return register(new BoundedCacheStorage(regionName, Integer.MAX_VALUE));
+    }
+
+    public Collection<BoundedCacheStorage> getStorages() {
+        return Collections.unmodifiableCollection(storages.values());
+    }
+
+    private BoundedCacheStorage register(BoundedCacheStorage storage) {
+        storages.put(storage.getRegionName(), storage);
+        return storage;
+    }
+}
@@ -0,0 +1,78 @@
+package com.ste.restaurant.configuration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Ids used to come from identity columns. On a database from before the switch to sequences the
+// new sequences start at 1, below the ids already in the tables, so at startup each sequence is
+// moved past the highest id of its table. This happens while the context is still being built,
+// before the seeder or any request can insert. Costs one id block per sequence per start.
+@Component
+public class IdSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(descriptor -> {
+            if (!(descriptor.getGenerator() instanceof SequenceStyleGenerator generator)
+                    || !(descriptor instanceof AbstractEntityPersister persister)) {
+                return;
+            }
+            String sequence = generator.getDatabaseStructure().getPhysicalName().render();
+            Long maxId = maxId(persister);
+            if (maxId == null) return;
+
+            long next = nextValue(dialect, sequence);
+            if (next <= maxId) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + 1));
+                logger.info("Moved sequence {} past existing id {}", sequence, maxId);
+            }
+        });
+    }
+
+    // start of an id range that is clear of the rows in the table and of every id block Hibernate
+    // already holds, for bulk loads that write their own ids; call alignSequences() afterwards
+    public long firstFreeId(Class<?> entityType) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(entityType);
+        SequenceStyleGenerator generator = (SequenceStyleGenerator) persister.getGenerator();
+        String sequence = generator.getDatabaseStructure().getPhysicalName().render();
+
+        Long maxId = maxId(persister);
+        long next = nextValue(sessionFactory.getJdbcServices().getDialect(), sequence);
+        return Math.max(maxId == null ? 1 : maxId + 1, next);
+    }
+
+    private Long maxId(AbstractEntityPersister persister) {
+        return jdbcTemplate.queryForObject("select max(" + persister.getIdentifierColumnNames()[0] + ") from "
+                + persister.getTableName(), Long.class);
+    }
+
+    private long nextValue(Dialect dialect, String sequence) {
+        Long next = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+        return next != null ? next : 1;
+    }
+}
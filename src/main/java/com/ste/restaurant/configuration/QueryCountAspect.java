@@ -0,0 +1,47 @@
+package com.ste.restaurant.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// SQL statements per public service call on service.method.queries, tagged with the service and
+// method. Calls between services count towards both, calls within a service don't go through the
+// proxy and only count towards the outer method.
+@Aspect
+@Component
+public class QueryCountAspect {
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public QueryCountAspect(QueryCounter queryCounter, MeterRegistry meterRegistry) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * com.ste.restaurant.service..*(..))")
+    public Object count(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = queryCounter.count();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            summaries.computeIfAbsent(method, m -> DistributionSummary.builder("service.method.queries")
+                            .description("SQL statements issued by a service call")
+                            .baseUnit("queries")
+                            .tag("service", m.getDeclaringClass().getSimpleName())
+                            .tag("method", m.getName())
+                            .register(meterRegistry))
+                    .record(queryCounter.count() - start);
+        }
+    }
+}
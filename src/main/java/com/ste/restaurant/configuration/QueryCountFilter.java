@@ -0,0 +1,75 @@
+package com.ste.restaurant.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// SQL statements per API request on http.server.requests.queries, tagged like the request
+// timer. Runs ahead of the security chain so the user lookup is counted too. The total is left
+// on the request for the query budget tests; in dev it is also sent as X-Query-Count, counted
+// up to the moment the response is committed since headers can't change after that.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_ATTRIBUTE = QueryCountFilter.class.getName() + ".queries";
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final boolean sendHeader;
+
+    public QueryCountFilter(QueryCounter queryCounter, MeterRegistry meterRegistry,
+                            @Value("${app.query-count.header:false}") boolean sendHeader) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+        this.sendHeader = sendHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = queryCounter.count();
+        HttpServletResponse countedResponse = !sendHeader ? response : new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                setHeader(QUERY_COUNT_HEADER, String.valueOf(queryCounter.count() - start));
+            }
+        };
+        try {
+            filterChain.doFilter(request, countedResponse);
+        } finally {
+            long queries = queryCounter.count() - start;
+            request.setAttribute(QUERY_COUNT_ATTRIBUTE, queries);
+            if (sendHeader && !response.isCommitted()) {
+                response.setHeader(QUERY_COUNT_HEADER, String.valueOf(queries));
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.queries")
+                    .description("SQL statements issued while serving a request")
+                    .baseUnit("queries")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(queries);
+        }
+    }
+
+    // api calls only, static files and the spa never touch the database
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/rest/api");
+    }
+}
@@ -0,0 +1,34 @@
+package com.ste.restaurant.configuration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Counts the SQL statements Hibernate prepares on each thread, lazy loads included. A JDBC batch
+// is prepared once, so the count is close to the database round trips. Statements sent through
+// JdbcTemplate are not seen. Callers read count() before and after the work they measure,
+// nested measurements don't interfere.
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<long[]> counts = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        counts.get()[0]++;
+        return sql;
+    }
+
+    // statements prepared on the current thread since it started
+    public long count() {
+        return counts.get()[0];
+    }
+}
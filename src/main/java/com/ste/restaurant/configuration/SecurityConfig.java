@@ -1,6 +1,7 @@
 package com.ste.restaurant.configuration;
 
 import com.ste.restaurant.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -36,6 +37,7 @@ public class SecurityConfig {
         return http.csrf().disable()
                 .authorizeHttpRequests(auth -> auth // "/rest/api/orders/**"
                         .requestMatchers("/actuator/**").permitAll()  // delete in prod
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()  // sse streams, already authorized on the initial request
                         .requestMatchers(
                                 "/",
                                 "/index.html",
@@ -1,25 +0,0 @@
-package com.ste.restaurant.configuration;
-
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-@Configuration
-public class WebConfig implements WebMvcConfigurer {
-
-    @Value("${app.image.upload-dir}")
-    private String uploadDir;
-
-    @Value("${app.image.qr-code-dir}")
-    private String qrUploadDir;
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/images/**")
-                .addResourceLocations("file:" + uploadDir);
-
-        registry.addResourceHandler("/qr-codes/**")
-                .addResourceLocations("file:" + qrUploadDir);
-    }    
-}
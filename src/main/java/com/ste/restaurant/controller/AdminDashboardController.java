@@ -2,6 +2,8 @@ package com.ste.restaurant.controller;
 
 import com.ste.restaurant.dto.dashboard.*;
 import com.ste.restaurant.service.AdminDashboardService;
+import com.ste.restaurant.service.CustomerActivityService;
+import com.ste.restaurant.service.RevenueRollupService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -9,6 +11,7 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -22,22 +25,71 @@ import java.util.List;
 public class AdminDashboardController {
 
     private final AdminDashboardService dashboardService;
+    private final RevenueRollupService revenueRollupService;
+    private final CustomerActivityService customerActivityService;
 
-    public AdminDashboardController(AdminDashboardService dashboardService) {
+    public AdminDashboardController(AdminDashboardService dashboardService, RevenueRollupService revenueRollupService,
+                                    CustomerActivityService customerActivityService) {
         this.dashboardService = dashboardService;
+        this.revenueRollupService = revenueRollupService;
+        this.customerActivityService = customerActivityService;
+    }
+
+    // rebuilds the revenue rollups from the orders, the whole history when no range is given
+    @PostMapping(path = "/rollups/backfill")
+    public int backfillRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (startDate == null && endDate == null) {
+            return revenueRollupService.backfillAll();
+        }
+        if (startDate == null) {
+            startDate = LocalDate.of(2000, 1, 1);
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        return revenueRollupService.backfill(startDate, endDate);
+    }
+
+    // rebuilds the daily customer sketches behind the approximate customer counts
+    @PostMapping(path = "/customer-sketches/rebuild")
+    public int rebuildCustomerSketches(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        return customerActivityService.rebuildSketches(startDate, endDate);
+    }
+
+    // everything the dashboard page shows, from a single read of the range
+    @GetMapping(path = "/summary")
+    public DashboardSummaryDto getDashboardSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean approximate) {
+        if (startDate == null) {
+            startDate = LocalDate.of(2000, 1, 1);
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        return dashboardService.getDashboardSummary(startDate, endDate, approximate);
     }
 
     @GetMapping(path = "/stats")
     public DashboardStatsDto getDashboardStats(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean approximate) {
         if (startDate == null) {
             startDate = LocalDate.of(2000, 1, 1);
         }
         if (endDate == null) {
             endDate = LocalDate.now();
         }
-        return dashboardService.getDashboardStats(startDate, endDate);
+        return dashboardService.getDashboardStats(startDate, endDate, approximate);
     }
 
     @GetMapping(path = "/revenue-chart")
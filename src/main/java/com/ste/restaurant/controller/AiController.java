@@ -1,10 +1,8 @@
 package com.ste.restaurant.controller;
 
 import com.ste.restaurant.dto.TranslationPackDto;
-import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.service.AiService;
 
-import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -32,21 +30,14 @@ public class AiController {
         return aiService.getFoodDescriptionFromAi(foodName.toLowerCase());
     }
 
+    // generates the missing food descriptions in the background, the body is how many are missing
+    @PostMapping("/descriptions/warm-up")
+    public ResponseEntity<Integer> warmUpDescriptions() {
+        return ResponseEntity.accepted().body(aiService.warmUpDescriptions());
+    }
+
     @GetMapping("/translate/{language}")
     public TranslationPackDto getTranslations(@PathVariable String language) {
         return aiService.getTranslationsForLanguage(language);
     }
-
-    @PostMapping("/translate")  // not saving to the db
-    public TranslationPackDto translateAllTo(@RequestBody @Valid StringDto language) {
-        return aiService.translateAllTo(language.getName());
-    }
-
-    @PostMapping("/translate/finalize")  // after user previewed and changed the translations, it request with
-    public ResponseEntity<Boolean> finalizeTranslations(@RequestBody TranslationPackDto translationPack) {
-        boolean created = aiService.finalizeTranslations(translationPack);
-        return created
-                ? ResponseEntity.ok().build()
-                : ResponseEntity.notFound().build();
-    }
 }
@@ -2,6 +2,7 @@ package com.ste.restaurant.controller;
 
 import com.ste.restaurant.dto.CallRequestDto;
 import com.ste.restaurant.dto.CallRequestDtoBasic;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.service.CallRequestService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
@@ -57,6 +58,14 @@ public class CallRequestController {
         return callRequestService.getAllCallRequests(pageable);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/scroll")
+    public CursorPageDto<CallRequestDto> scrollCallRequests(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size,
+                                                            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return callRequestService.scrollCallRequests(cursor, size, includeTotal);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'WAITER')")
     @PatchMapping(path = "/{id}/resolve")
     public CallRequestDto resolveCallRequest(@PathVariable Long id) {
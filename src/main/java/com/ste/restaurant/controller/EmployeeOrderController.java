@@ -1,17 +1,27 @@
 package com.ste.restaurant.controller;
 
+import com.ste.restaurant.dto.KitchenLatencyDto;
+import com.ste.restaurant.dto.OrderBookReconciliationDto;
 import com.ste.restaurant.dto.OrderDto;
 import com.ste.restaurant.dto.OrderItemDto;
+import com.ste.restaurant.dto.OrderStatusChangeDto;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.entity.enums.UserRole;
+import com.ste.restaurant.service.LiveOrderBookService;
+import com.ste.restaurant.service.OrderBoardService;
 import com.ste.restaurant.service.OrderService;
+import com.ste.restaurant.service.OrderStatusHistoryService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -20,9 +30,36 @@ import java.util.List;
 public class EmployeeOrderController {
 
     private final OrderService orderService;
+    private final OrderBoardService orderBoardService;
+    private final LiveOrderBookService liveOrderBook;
+    private final OrderStatusHistoryService statusHistory;
 
-    public EmployeeOrderController(OrderService orderService) {
+    public EmployeeOrderController(OrderService orderService, OrderBoardService orderBoardService,
+                                   LiveOrderBookService liveOrderBook, OrderStatusHistoryService statusHistory) {
         this.orderService = orderService;
+        this.orderBoardService = orderBoardService;
+        this.liveOrderBook = liveOrderBook;
+        this.statusHistory = statusHistory;
+    }
+
+    // live board for waiter and chef screens, snapshot first then deltas, resumes from Last-Event-ID
+    @PreAuthorize("hasAnyRole('WAITER', 'CHEF')")
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long since,
+            Authentication auth) {
+        String role = auth.getAuthorities().iterator().next().getAuthority();
+        UserRole userRole = role.equals("ROLE_CHEF") ? UserRole.CHEF : UserRole.WAITER;
+        return orderBoardService.subscribe(userRole, lastEventId != null ? lastEventId : since,
+                () -> orderService.getOrders(auth.getName()));
+    }
+
+    // checks the in-memory order book against the database
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/live-book/reconcile")
+    public OrderBookReconciliationDto reconcileLiveOrderBook() {
+        return liveOrderBook.reconcile();
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -43,6 +80,23 @@ public class EmployeeOrderController {
         return orderService.getOrderItemList(pageable);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/items/scroll")
+    public CursorPageDto<OrderItemDto> scrollOrderItems(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") int size,
+                                                        @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return orderService.scrollOrderItems(cursor, size, includeTotal);
+    }
+
+    // newest first, pass nextCursor back for the following page
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/scroll")
+    public CursorPageDto<OrderDto> scrollOrders(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return orderService.scrollOrders(cursor, size, includeTotal);
+    }
+
     // by admin, waiter and chef
     @PreAuthorize("hasAnyRole('ADMIN', 'WAITER', 'CHEF')")
     @GetMapping(path = "/{id}")
@@ -52,8 +106,22 @@ public class EmployeeOrderController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'WAITER', 'CHEF')")
     @PatchMapping(path = "/{id}/status")
-    public OrderDto updateOrderStatus(@PathVariable Long id, @Valid @RequestBody StringDto status) {
-        return orderService.updateOrderStatus(id, status);
+    public OrderDto updateOrderStatus(@PathVariable Long id, @Valid @RequestBody StringDto status,
+                                      Authentication auth) {
+        return orderService.updateOrderStatus(id, status, auth.getName());
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAITER')")
+    @GetMapping(path = "/{id}/status-history")
+    public List<OrderStatusChangeDto> getStatusHistory(@PathVariable Long id) {
+        return statusHistory.getHistory(id);
+    }
+
+    // p50/p95/p99 of placed->preparing, preparing->ready and ready->delivered over the recent window
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAITER', 'CHEF')")
+    @GetMapping(path = "/kitchen-latency")
+    public List<KitchenLatencyDto> getKitchenLatency() {
+        return statusHistory.getKitchenLatency();
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'WAITER', 'CHEF')")
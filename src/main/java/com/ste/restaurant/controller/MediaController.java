@@ -0,0 +1,128 @@
+package com.ste.restaurant.controller;
+
+import com.ste.restaurant.service.MediaFileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+// Serves /images and /qr-codes. Files from memory are written directly, files from disk go out
+// through the connector's sendfile when it offers it (tomcat nio does), FileChannel.transferTo otherwise.
+@RestController
+public class MediaController {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaFileService mediaFileService;
+    private final String immutableCacheControl;
+
+    public MediaController(MediaFileService mediaFileService,
+                           @Value("${app.media.immutable-max-age:P365D}") Duration immutableMaxAge) {
+        this.mediaFileService = mediaFileService;
+        this.immutableCacheControl = CacheControl.maxAge(immutableMaxAge).cachePublic().immutable().getHeaderValue();
+    }
+
+    @GetMapping("/images/{fileName:.+}")
+    public void getImage(@PathVariable String fileName, WebRequest webRequest,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(MediaFileService.Directory.IMAGES, fileName, webRequest, request, response);
+    }
+
+    @GetMapping("/qr-codes/{fileName:.+}")
+    public void getQrCode(@PathVariable String fileName, WebRequest webRequest,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(MediaFileService.Directory.QR_CODES, fileName, webRequest, request, response);
+    }
+
+    private void serve(MediaFileService.Directory directory, String fileName, WebRequest webRequest,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MediaFileService.MediaFile file = mediaFileService.resolve(directory, fileName,
+                request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        // headers a 304 has to carry as well
+        response.setHeader(HttpHeaders.CACHE_CONTROL, file.isFingerprinted()
+                ? immutableCacheControl
+                : CacheControl.noCache().cachePublic().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (webRequest.checkNotModified(file.getEtag(), file.getLastModified())) {
+            return;
+        }
+
+        response.setContentType(file.getContentType().toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (file.getContentEncoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, file.getContentEncoding());
+        } else {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        }
+
+        long start = 0;
+        long end = file.getLength(); // exclusive
+        HttpRange range = requestedRange(request, file);
+        if (range != null) {
+            if (file.getLength() == 0 || range.getRangeStart(file.getLength()) >= file.getLength()) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.getLength());
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = range.getRangeStart(file.getLength());
+            end = range.getRangeEnd(file.getLength()) + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + (end - 1) + "/" + file.getLength());
+        }
+        response.setContentLengthLong(end - start);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        byte[] content = mediaFileService.content(file);
+        if (content != null) {
+            response.getOutputStream().write(content, (int) start, (int) (end - start));
+        } else if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+        } else {
+            try (FileChannel channel = FileChannel.open(file.getPath(), StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+                long position = start;
+                while (position < end) {
+                    position += channel.transferTo(position, end - position, target);
+                }
+            }
+        }
+    }
+
+    // a single byte range of the original file, anything else gets the whole file
+    private static HttpRange requestedRange(HttpServletRequest request, MediaFileService.MediaFile file) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || file.getContentEncoding() != null) return null;
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(file.getEtag())) return null;
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -4,9 +4,15 @@ import com.ste.restaurant.dto.*;
 import com.ste.restaurant.dto.common.StringsDto;
 import com.ste.restaurant.dto.common.WarningResponse;
 import com.ste.restaurant.service.MenuService;
+import com.ste.restaurant.service.MenuSnapshotService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,9 +21,11 @@ import java.util.List;
 public class MenuController {
 
     private final MenuService menuService;
+    private final MenuSnapshotService menuSnapshotService;
 
-    public MenuController(MenuService menuService) {
+    public MenuController(MenuService menuService, MenuSnapshotService menuSnapshotService) {
         this.menuService = menuService;
+        this.menuSnapshotService = menuSnapshotService;
     }
 
     // by admin
@@ -73,7 +81,17 @@ public class MenuController {
     // by customer // todo get menu that named "website menu" which has 3 exact food for showcase in main page
     @PreAuthorize("permitAll()")
     @GetMapping(path = "/active")
-    public List<CategoryMenuDto> getActiveMenu(@RequestHeader(value = "Accept-Language", defaultValue = "en") String langCode) {
-        return menuService.getActiveMenu(langCode);
+    public ResponseEntity<byte[]> getActiveMenu(@RequestHeader(value = "Accept-Language", defaultValue = "en") String langCode,
+                                                WebRequest request) {
+        MenuSnapshotService.MenuSnapshot snapshot = menuSnapshotService.getSnapshot(langCode);
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return null; // 304, the client's copy is current
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_LANGUAGE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getJson());
     }
 }
\ No newline at end of file
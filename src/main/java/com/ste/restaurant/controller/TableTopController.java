@@ -3,23 +3,30 @@ package com.ste.restaurant.controller;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.dto.TableTopDto;
 import com.ste.restaurant.dto.TableTopDtoQr;
+import com.ste.restaurant.service.QrCodeService;
 import com.ste.restaurant.service.TableTopService;
 import jakarta.validation.Valid;
 
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 @RequestMapping("/rest/api/tables")
 @RestController
 public class TableTopController {
 
     private final TableTopService tableTopService;
+    private final QrCodeService qrCodeService;
 
-    public TableTopController(TableTopService tableTopService) {
+    public TableTopController(TableTopService tableTopService, QrCodeService qrCodeService) {
         this.tableTopService = tableTopService;
+        this.qrCodeService = qrCodeService;
     }
 
     // by admin
@@ -68,6 +75,18 @@ public class TableTopController {
         return tableTopService.getAllQrCodes(); 
     }
 
+    // written entry by entry while the client downloads
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAITER')")
+    @GetMapping(path = "/qr-codes/export", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> exportQrCodes() {
+        Map<Long, String> tableNumbers = tableTopService.getTableNumbersById();
+        StreamingResponseBody body = output -> qrCodeService.writeZip(tableNumbers, output);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("table-qr-codes.zip").build().toString())
+                .body(body);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'WAITER')")
     @GetMapping
     public List<TableTopDto> getAllTables() {
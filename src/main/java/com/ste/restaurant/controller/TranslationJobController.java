@@ -0,0 +1,76 @@
+package com.ste.restaurant.controller;
+
+import com.ste.restaurant.dto.TranslationJobDto;
+import com.ste.restaurant.dto.TranslationPackDto;
+import com.ste.restaurant.dto.common.StringDto;
+import com.ste.restaurant.service.TranslationJobService;
+import com.ste.restaurant.service.TranslationPackService;
+import com.ste.restaurant.service.TranslationProgressService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/rest/api/ai/translate")
+@PreAuthorize("hasRole('ADMIN')")
+public class TranslationJobController {
+
+    private final TranslationJobService translationJobService;
+    private final TranslationProgressService translationProgressService;
+    private final TranslationPackService translationPackService;
+
+    public TranslationJobController(TranslationJobService translationJobService,
+                                    TranslationProgressService translationProgressService,
+                                    TranslationPackService translationPackService) {
+        this.translationJobService = translationJobService;
+        this.translationProgressService = translationProgressService;
+        this.translationPackService = translationPackService;
+    }
+
+    // only queues the job, progress is read from /jobs/{jobId} or followed on /stream
+    @PostMapping
+    public ResponseEntity<TranslationJobDto> translateAllTo(@RequestBody @Valid StringDto language) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(translationJobService.enqueue(language.getName()));
+    }
+
+    @GetMapping("/jobs")
+    public List<TranslationJobDto> getJobs() {
+        return translationJobService.getJobs();
+    }
+
+    // live progress, a snapshot of the jobs first then item, progress and rate limit events
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProgress(@RequestParam(required = false) Long jobId) {
+        return translationProgressService.subscribe(jobId, translationJobService::getJobs);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public TranslationJobDto getJob(@PathVariable Long jobId) {
+        return translationJobService.getJob(jobId);
+    }
+
+    // the translations done so far, reviewed and then saved through /finalize
+    @GetMapping("/jobs/{jobId}/result")
+    public TranslationPackDto getJobResult(@PathVariable Long jobId) {
+        return translationJobService.getJobResult(jobId);
+    }
+
+    @PostMapping("/finalize")  // after the admin previewed and changed the translations
+    public ResponseEntity<Boolean> finalizeTranslations(@RequestBody TranslationPackDto translationPack) {
+        boolean created = translationPackService.finalizeTranslations(translationPack);
+        return created
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/jobs/{jobId}/cancel")
+    public TranslationJobDto cancel(@PathVariable Long jobId) {
+        return translationJobService.cancel(jobId);
+    }
+}
@@ -2,6 +2,7 @@ package com.ste.restaurant.controller;
 
 import com.ste.restaurant.dto.AddressDto;
 import com.ste.restaurant.dto.common.BigDecimalDto;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.dto.userdto.*;
 import com.ste.restaurant.service.AddressService;
@@ -42,6 +43,13 @@ public class UserController {
         return userService.getAllUsersByRole(role, pageable);
     }
 
+    @GetMapping(path = "/scroll")
+    public CursorPageDto<UserDto> scrollUsers(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return userService.scrollUsers(cursor, size, includeTotal);
+    }
+
     @GetMapping(path = "/{id}")
     public UserDto getUserById(@PathVariable Long id) {
         return  userService.getUserById(id);
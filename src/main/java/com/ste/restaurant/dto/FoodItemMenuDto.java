@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.Set;
 
 @Data
@@ -22,6 +23,10 @@ public class FoodItemMenuDto {
 
     private String image;
 
+    private String imageStatus; // PENDING while a new upload is rendered, FAILED when it could not be
+
+    private Map<String, String> imageRenditions; // thumbnail, card and full file names under /images
+
     private String description;
 
     @NotNull(message = "Price is required")
@@ -0,0 +1,21 @@
+package com.ste.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KitchenLatencyDto {
+    private String stage; // placed-preparing, preparing-ready or ready-delivered
+
+    private long count; // since startup
+
+    // over the recent window, in seconds
+    private double p50Seconds;
+
+    private double p95Seconds;
+
+    private double p99Seconds;
+}
@@ -0,0 +1,22 @@
+package com.ste.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBoardEventDto {
+    private long sequence;
+
+    private String type;
+
+    private String previousStatus;
+
+    private OrderDto order;
+
+    private List<OrderDto> orders; // only filled for the snapshot event
+}
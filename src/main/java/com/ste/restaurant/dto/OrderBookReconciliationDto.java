@@ -0,0 +1,24 @@
+package com.ste.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBookReconciliationDto {
+    private boolean consistent;
+
+    private int bookSize;
+
+    private int databaseSize;
+
+    private List<Long> missingOrderIds; // in the database but not in the book
+
+    private List<Long> unexpectedOrderIds; // in the book but not in the database
+
+    private List<Long> mismatchedOrderIds;
+}
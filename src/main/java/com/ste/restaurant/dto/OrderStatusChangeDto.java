@@ -0,0 +1,20 @@
+package com.ste.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatusChangeDto {
+    private String fromStatus;
+
+    private String toStatus;
+
+    private LocalDateTime changedAt;
+
+    private String actor;
+}
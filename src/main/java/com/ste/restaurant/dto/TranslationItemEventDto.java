@@ -0,0 +1,23 @@
+package com.ste.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranslationItemEventDto {
+
+    private String itemType;
+
+    private String sourceName;
+
+    private String status;
+
+    private String translatedName;
+
+    private String translatedDescription;
+
+    private String error;
+}
@@ -0,0 +1,35 @@
+package com.ste.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranslationJobDto {
+
+    private Long jobId;
+
+    private String language;
+
+    private String status;
+
+    private int totalItems;
+
+    private int doneItems;
+
+    private int failedItems;
+
+    private int pendingItems;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime resumeAt;
+
+    private String lastError;
+}
@@ -0,0 +1,28 @@
+package com.ste.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranslationProgressEventDto {
+    private long sequence;
+
+    private String type;
+
+    private Long jobId;
+
+    private TranslationItemEventDto item; // ITEM events
+
+    private TranslationJobDto job; // job state after the change
+
+    private Double itemsPerMinute;
+
+    private Long etaSeconds;
+
+    private List<TranslationJobDto> jobs; // only filled for SNAPSHOT and RESYNC
+}
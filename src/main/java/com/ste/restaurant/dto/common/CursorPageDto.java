@@ -0,0 +1,16 @@
+package com.ste.restaurant.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;
+    private String nextCursor;   // null on the last page
+    private Long totalElements;  // only when asked for, counting is the expensive part
+}
@@ -14,4 +14,5 @@ public class DashboardStatsDto {
     private long totalOrders;
     private BigDecimal averageOrderValue;
     private long newCustomers;
+    private long uniqueCustomers;
 }
@@ -0,0 +1,19 @@
+package com.ste.restaurant.dto.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardSummaryDto {
+    private DashboardStatsDto stats;
+    private List<RevenueDataPointDto> revenueChart;
+    private List<RevenueHeatmapPointDto> revenueHeatmap;
+    private List<TopPerformingItemDto> topItems;
+    private List<TopPerformingCategoryDto> topCategories;
+    private List<BusiestTableDto> busiestTables;
+}
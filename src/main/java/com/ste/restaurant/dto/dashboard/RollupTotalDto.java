@@ -0,0 +1,19 @@
+package com.ste.restaurant.dto.dashboard;
+
+import com.ste.restaurant.entity.enums.RollupDimension;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupTotalDto {
+    private RollupDimension dimension;
+    private String dimensionKey;
+    private Long orderCount;
+    private Long quantity;
+    private BigDecimal revenue;
+}
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Table(name = "call_requests")
 public class CallRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "call_requests_seq")
+    @SequenceGenerator(name = "call_requests_seq", sequenceName = "call_requests_seq", allocationSize = 50)
     private Long callRequestId;
 
     @Enumerated(EnumType.STRING)
@@ -6,27 +6,34 @@ import java.util.Map;
 import java.util.Set;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Table(name = "categories")
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long categoryId;
 
     @Column(nullable = false, unique = true)
     private String categoryName;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @MapKey(name = "categoryTranslationId.languageCode")
     private Map<String, CategoryTranslation> translations = new HashMap<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @ManyToMany
@@ -2,11 +2,15 @@ package com.ste.restaurant.entity;
 
 import com.ste.restaurant.entity.id.CategoryTranslationId;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Table(name = "category_translations")
 public class CategoryTranslation {
@@ -0,0 +1,23 @@
+package com.ste.restaurant.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// HyperLogLog registers of the customers with a completed order on one business day
+@Entity
+@Data
+@Table(name = "customer_day_sketches")
+public class CustomerDaySketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_day_sketches_seq")
+    @SequenceGenerator(name = "customer_day_sketches_seq", sequenceName = "customer_day_sketches_seq", allocationSize = 50)
+    private Long sketchId;
+
+    @Column(name = "business_day", nullable = false, unique = true)
+    private LocalDate businessDay;
+
+    @Column(nullable = false, length = 1024)
+    private byte[] registers;
+}
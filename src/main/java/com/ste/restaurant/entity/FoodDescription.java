@@ -0,0 +1,30 @@
+package com.ste.restaurant.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// a generated menu description, kept so the same food is never described by the model twice
+@Entity
+@Data
+@Table(name = "food_descriptions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_food_descriptions_name_model", columnNames = {"food_name", "model"}))
+public class FoodDescription {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "food_descriptions_seq")
+    @SequenceGenerator(name = "food_descriptions_seq", sequenceName = "food_descriptions_seq", allocationSize = 50)
+    private Long descriptionId;
+
+    // normalized, see FoodDescriptionCache.normalize
+    @Column(name = "food_name", nullable = false)
+    private String foodName;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(nullable = false, length = 1000)
+    private String description;
+
+    private LocalDateTime createdAt;
+}
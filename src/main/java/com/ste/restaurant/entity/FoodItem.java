@@ -1,6 +1,9 @@
 package com.ste.restaurant.entity;
 
+import com.ste.restaurant.entity.enums.ImageStatus;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -12,11 +15,14 @@ import java.util.Map;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Table(name = "food_items")
 public class FoodItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "food_items_seq")
+    @SequenceGenerator(name = "food_items_seq", sequenceName = "food_items_seq", allocationSize = 50)
     private Long foodId;
 
     @Column(nullable = false, unique = true)
@@ -24,16 +30,27 @@ public class FoodItem {
 
     private String image;
 
+    // hash of the photo whose renditions image points at, null for images from before renditions
+    private String imageHash;
+
+    // hash of an upload still being rendered, image keeps showing the previous photo until it is done
+    private String pendingImageHash;
+
+    @Enumerated(EnumType.STRING)
+    private ImageStatus imageStatus;
+
     private String description;
 
     private BigDecimal price;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @OneToMany(mappedBy = "foodItem", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @MapKey(name = "foodItemTranslationId.languageCode")
     private Map<String, FoodItemTranslation> translations = new HashMap<>();
 
+    // not cached, changes are written through Category.foodItems and would not evict this side
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @ManyToMany(mappedBy = "foodItems")
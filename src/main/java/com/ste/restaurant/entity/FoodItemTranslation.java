@@ -3,11 +3,15 @@ package com.ste.restaurant.entity;
 import com.ste.restaurant.entity.id.FoodItemTranslationId;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Table(name = "food_item_translations")
 public class FoodItemTranslation {
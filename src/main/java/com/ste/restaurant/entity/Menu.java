@@ -1,17 +1,22 @@
 package com.ste.restaurant.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Table(name = "menus")
 public class Menu {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menus_seq")
+    @SequenceGenerator(name = "menus_seq", sequenceName = "menus_seq", allocationSize = 50)
     private Long menuId;
 
     @Column(nullable = false, unique = true)
@@ -21,6 +26,7 @@ public class Menu {
 
     private boolean active = false;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @ManyToMany
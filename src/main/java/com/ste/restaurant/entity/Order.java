@@ -13,10 +13,11 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_order_time_id", columnList = "order_time, order_id"))
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long orderId;
 
     private LocalDateTime orderTime;
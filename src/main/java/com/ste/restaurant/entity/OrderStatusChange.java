@@ -0,0 +1,47 @@
+package com.ste.restaurant.entity;
+
+import com.ste.restaurant.entity.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// append only log of order status transitions, order_id is a plain column so the
+// history outlives deleted and merged orders
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "order_status_changes",
+        indexes = @Index(name = "idx_order_status_changes_order", columnList = "order_id, changed_at"))
+public class OrderStatusChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_status_changes_seq")
+    @SequenceGenerator(name = "order_status_changes_seq", sequenceName = "order_status_changes_seq", allocationSize = 50)
+    private Long changeId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 16)
+    private OrderStatus fromStatus; // null when the order is placed
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 16)
+    private OrderStatus toStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    private String actor; // email of the user who made the change, null for the system
+
+    public OrderStatusChange(Long orderId, OrderStatus fromStatus, OrderStatus toStatus,
+                             LocalDateTime changedAt, String actor) {
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.changedAt = changedAt;
+        this.actor = actor;
+    }
+}
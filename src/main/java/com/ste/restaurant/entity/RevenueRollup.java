@@ -0,0 +1,37 @@
+package com.ste.restaurant.entity;
+
+import com.ste.restaurant.entity.enums.RollupDimension;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// completed order revenue summed per hour, per food item, category or table
+@Entity
+@Data
+@Table(name = "revenue_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"dimension", "dimension_key", "bucket_hour"}),
+        indexes = @Index(name = "idx_revenue_rollups_dimension_hour", columnList = "dimension, bucket_hour"))
+public class RevenueRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revenue_rollups_seq")
+    @SequenceGenerator(name = "revenue_rollups_seq", sequenceName = "revenue_rollups_seq", allocationSize = 50)
+    private Long rollupId;
+
+    @Column(name = "bucket_hour", nullable = false)
+    private LocalDateTime bucketHour;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RollupDimension dimension;
+
+    @Column(name = "dimension_key", nullable = false)
+    private String dimensionKey; // food, category or table id, empty for TOTAL and uncategorized
+
+    private long orderCount;
+
+    private long quantity;
+
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
@@ -0,0 +1,21 @@
+package com.ste.restaurant.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// how far the startup rollup backfill got, one row, so a restart resumes instead of starting over
+@Entity
+@Data
+@Table(name = "rollup_backfills")
+public class RollupBackfill {
+    @Id
+    private Long backfillId;
+
+    @Column(name = "backfilled_until", nullable = false)
+    private LocalDateTime backfilledUntil;
+
+    @Column(name = "backfill_end", nullable = false)
+    private LocalDateTime backfillEnd; // orders from here on were rolled up as they completed
+}
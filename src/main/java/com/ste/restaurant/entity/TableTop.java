@@ -2,14 +2,19 @@ package com.ste.restaurant.entity;
 
 import com.ste.restaurant.entity.enums.TableStatus;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Table(name = "tables")
 public class TableTop {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tables_seq")
+    @SequenceGenerator(name = "tables_seq", sequenceName = "tables_seq", allocationSize = 50)
     private Long tableId;
 
     @Column(nullable = false, unique = true)
@@ -0,0 +1,53 @@
+package com.ste.restaurant.entity;
+
+import com.ste.restaurant.entity.enums.TranslationJobStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Data
+@Table(name = "translation_jobs", indexes = @Index(name = "idx_translation_jobs_status", columnList = "status"))
+public class TranslationJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "translation_jobs_seq")
+    @SequenceGenerator(name = "translation_jobs_seq", sequenceName = "translation_jobs_seq", allocationSize = 50)
+    private Long jobId;
+
+    @Column(nullable = false)
+    private String language;
+
+    @Column(nullable = false)
+    private String languageCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TranslationJobStatus status = TranslationJobStatus.QUEUED;
+
+    // kept by the worker as items finish, status reads need no count over the items
+    private int totalItems;
+
+    private int doneItems;
+
+    private int failedItems;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime resumeAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @OneToMany(mappedBy = "job", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("itemId")
+    private List<TranslationJobItem> items = new ArrayList<>();
+}
@@ -0,0 +1,51 @@
+package com.ste.restaurant.entity;
+
+import com.ste.restaurant.entity.enums.TranslationItemStatus;
+import com.ste.restaurant.entity.enums.TranslationItemType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@Entity
+@Data
+@Table(name = "translation_job_items",
+        indexes = @Index(name = "idx_translation_job_items_job_status", columnList = "job_id, status"))
+public class TranslationJobItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "translation_job_items_seq")
+    @SequenceGenerator(name = "translation_job_items_seq", sequenceName = "translation_job_items_seq", allocationSize = 50)
+    private Long itemId;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private TranslationJob job;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TranslationItemType itemType;
+
+    // category or food id, the name is kept as it was when the job started
+    private Long sourceId;
+
+    private String sourceName;
+
+    @Column(length = 1000)
+    private String sourceDescription;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TranslationItemStatus status = TranslationItemStatus.PENDING;
+
+    private int attempts;
+
+    private String translatedName;
+
+    @Column(length = 1000)
+    private String translatedDescription;
+
+    @Column(length = 500)
+    private String error;
+}
@@ -7,15 +7,17 @@ import lombok.EqualsAndHashCode;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_first_order_at", columnList = "first_order_at"))
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long userId;
 
     private String firstName;
@@ -36,6 +38,10 @@ public class User {
 
     private BigDecimal salary;
 
+    // time of the customer's first order, kept by OrderService so new customers are a range count
+    @Column(name = "first_order_at")
+    private LocalDateTime firstOrderAt;
+
     @EqualsAndHashCode.Exclude
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "user_id")
@@ -0,0 +1,7 @@
+package com.ste.restaurant.entity.enums;
+
+public enum ImageStatus {
+    PENDING,
+    READY,
+    FAILED
+}
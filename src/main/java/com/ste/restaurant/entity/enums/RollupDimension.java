@@ -0,0 +1,8 @@
+package com.ste.restaurant.entity.enums;
+
+public enum RollupDimension {
+    TOTAL,
+    FOOD_ITEM,
+    CATEGORY,
+    TABLE
+}
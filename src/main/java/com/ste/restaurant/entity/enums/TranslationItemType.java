@@ -0,0 +1,6 @@
+package com.ste.restaurant.entity.enums;
+
+public enum TranslationItemType {
+    CATEGORY,
+    FOOD_ITEM
+}
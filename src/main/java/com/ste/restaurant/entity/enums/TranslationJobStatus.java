@@ -0,0 +1,9 @@
+package com.ste.restaurant.entity.enums;
+
+public enum TranslationJobStatus {
+    QUEUED,
+    RUNNING,
+    PAUSED,     // rate limited, picked up again at resumeAt
+    COMPLETED,
+    CANCELLED
+}
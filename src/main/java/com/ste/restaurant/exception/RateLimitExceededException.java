@@ -0,0 +1,26 @@
+package com.ste.restaurant.exception;
+
+import java.time.Duration;
+
+public class RateLimitExceededException extends CustomException {
+
+    // how long the provider asked us to wait, null when it did not say
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String service, String detail) {
+        this(service, detail, null);
+    }
+
+    public RateLimitExceededException(String service, String detail, Duration retryAfter) {
+        super("Rate limit exceeded on " + service,
+                service.toUpperCase() + "_RATE_LIMITED",
+                429,
+                detail
+        );
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -6,13 +6,14 @@ import com.ste.restaurant.dto.userdto.UserDtoCustomer;
 import com.ste.restaurant.dto.userdto.UserDtoEmployee;
 import com.ste.restaurant.dto.userdto.UserDtoIO;
 import com.ste.restaurant.entity.*;
+import com.ste.restaurant.service.ImageRendition;
 
 import org.mapstruct.*;
 
 import java.util.List;
 import java.util.Set;
 
-@Mapper(componentModel = "spring", uses = {})
+@Mapper(componentModel = "spring", uses = {}, imports = ImageRendition.class)
 public interface OrderMapper {
     Address addressDtoToAddress(AddressDto addressDto);
     AddressDto addressToAddressDto(Address address);
@@ -30,9 +31,12 @@ public interface OrderMapper {
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateCategoryTranslationFromDto(CategoryTranslationDto translationDto, @MappingTarget CategoryTranslation translation);
 
+    @Mapping(target = "imageStatus", ignore = true)
     FoodItem foodItemDtoToFoodItem(FoodItemDto foodItemDto);
+    @Mapping(target = "imageRenditions", expression = "java(ImageRendition.fileNames(foodItem.getImageHash()))")
     FoodItemDto foodItemToFoodItemDto(FoodItem foodItem);
     List<FoodItemDto> foodItemsToFoodItemDtos(List<FoodItem> foodItems);
+    @Mapping(target = "imageRenditions", expression = "java(ImageRendition.fileNames(food.getImageHash()))")
     FoodItemMenuDto foodItemToFoodItemMenuDto(FoodItem food);
 
     FoodItemTranslation foodItemTranslationDtoToFoodItemTranslation(FoodItemTranslationDto foodItemTranslationDto);
@@ -75,6 +79,7 @@ public interface OrderMapper {
     void updateUserFromDtoEmployee(UserDtoEmployee userDtoEmployee, @MappingTarget User user);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "imageStatus", ignore = true)
     void updateFoodItemFromDto(FoodItemDto foodItem, @MappingTarget FoodItem foodItemOld);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -3,6 +3,7 @@ package com.ste.restaurant.repository;
 import com.ste.restaurant.entity.CallRequest;
 import com.ste.restaurant.entity.enums.RequestType;
 import com.ste.restaurant.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -21,4 +22,8 @@ public interface CallRequestRepository extends JpaRepository<CallRequest, Long>
     Page<CallRequest> findAllByActive(boolean active, Pageable pageable);
 
     Page<CallRequest> findAllByTypeAndActive(RequestType type, boolean isActive, Pageable pageable);
+
+    List<CallRequest> findAllByOrderByCallRequestIdDesc(Limit limit);
+
+    List<CallRequest> findAllByCallRequestIdLessThanOrderByCallRequestIdDesc(Long callRequestId, Limit limit);
 }
\ No newline at end of file
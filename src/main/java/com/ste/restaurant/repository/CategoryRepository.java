@@ -4,20 +4,28 @@ import com.ste.restaurant.entity.Category;
 import com.ste.restaurant.entity.FoodItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
      boolean existsCategoryByCategoryName(String s);
 
+     @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
      Optional<Category> findByCategoryName(String categoryName);
 
+    List<Category> findAllByCategoryNameIn(Collection<String> categoryNames);
+
     // Find categories that contain any of the specified food items
     List<Category> findByFoodItemsIn(Set<FoodItem> foodItems);
 
@@ -4,9 +4,11 @@ import com.ste.restaurant.entity.CategoryTranslation;
 import com.ste.restaurant.entity.id.CategoryTranslationId;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -21,7 +23,9 @@ public interface CategoryTranslationRepository extends JpaRepository<CategoryTra
 
     boolean existsByCategoryTranslationId_LanguageCode(String categoryTranslationIdLanguageCode);
 
-    boolean existsByCategoryTranslationId_CategoryIdAndCategoryTranslationId_LanguageCode(Long categoryTranslationIdCategoryId, String categoryTranslationIdLanguageCode);
+    // ids of the categories already translated to the language
+    @Query("SELECT t.categoryTranslationId.categoryId FROM CategoryTranslation t WHERE t.categoryTranslationId.languageCode = :languageCode")
+    Set<Long> findTranslatedCategoryIds(@Param("languageCode") String languageCode);
 
     List<CategoryTranslation> findByCategoryTranslationId_LanguageCode(String categoryTranslationIdLanguageCode);
 }
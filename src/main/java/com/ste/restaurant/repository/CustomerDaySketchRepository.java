@@ -0,0 +1,28 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.entity.CustomerDaySketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerDaySketchRepository
+        extends JpaRepository<CustomerDaySketch, Long>, CustomerDaySketchRepositoryCustom {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CustomerDaySketch> findByBusinessDay(LocalDate businessDay);
+
+    List<CustomerDaySketch> findAllByBusinessDayBetween(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM CustomerDaySketch s WHERE s.businessDay >= :from AND s.businessDay <= :to")
+    void deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
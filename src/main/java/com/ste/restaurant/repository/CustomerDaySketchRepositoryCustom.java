@@ -0,0 +1,10 @@
+package com.ste.restaurant.repository;
+
+import java.time.LocalDate;
+
+public interface CustomerDaySketchRepositoryCustom {
+
+    // creates the day's sketch with the given registers unless it already exists; a concurrent
+    // insert of the same day waits for the other transaction and then does nothing
+    void insertIfAbsent(LocalDate businessDay, byte[] registers);
+}
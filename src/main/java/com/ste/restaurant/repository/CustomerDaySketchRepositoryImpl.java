@@ -0,0 +1,35 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.entity.CustomerDaySketch;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.time.LocalDate;
+
+class CustomerDaySketchRepositoryImpl implements CustomerDaySketchRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertIfAbsent(LocalDate businessDay, byte[] registers) {
+        entityManager.createNativeQuery("""
+                INSERT INTO {h-schema}customer_day_sketches (sketch_id, business_day, registers)
+                VALUES (:sketchId, :businessDay, :registers)
+                ON CONFLICT DO NOTHING
+                """)
+                .setParameter("sketchId", nextId())
+                .setParameter("businessDay", businessDay)
+                .setParameter("registers", registers)
+                .executeUpdate();
+    }
+
+    private Object nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(CustomerDaySketch.class).getGenerator();
+        return generator.generate(session, null);
+    }
+}
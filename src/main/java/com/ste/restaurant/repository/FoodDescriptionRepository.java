@@ -0,0 +1,13 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.entity.FoodDescription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface FoodDescriptionRepository extends JpaRepository<FoodDescription, Long> {
+
+    Optional<FoodDescription> findByFoodNameAndModel(String foodName, String model);
+}
@@ -3,23 +3,60 @@ package com.ste.restaurant.repository;
 import com.ste.restaurant.dto.dashboard.TopPerformingItemDto;
 import com.ste.restaurant.entity.FoodItem;
 import com.ste.restaurant.entity.FoodItemTranslation;
+import com.ste.restaurant.entity.enums.ImageStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
     boolean existsFoodItemByFoodName(String foodName);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<FoodItem> findByFoodName(String name);
 
+    List<FoodItem> findAllByFoodNameIn(Collection<String> names);
+
+    // foods showing or rendering this photo, its files are only removed once none is left
+    @Query("SELECT COUNT(f) FROM FoodItem f WHERE f.imageHash = :hash OR f.pendingImageHash = :hash")
+    long countUsingImage(@Param("hash") String hash);
+
+    List<FoodItem> findAllByImageStatus(ImageStatus imageStatus);
+
+    @Query("SELECT f FROM FoodItem f WHERE f.description IS NULL OR TRIM(f.description) = ''")
+    List<FoodItem> findAllWithoutDescription();
+
+    // resolve the requested food names that are on at least one active menu in a single round trip,
+    // categories are fetched along since the placed order is mapped right after
+    @Query("""
+        SELECT DISTINCT f FROM Menu m
+        JOIN m.foodItems f
+        LEFT JOIN FETCH f.categories
+        WHERE m.active = true AND f.foodName IN :names
+    """)
+    List<FoodItem> findAllInActiveMenuByFoodNameIn(@Param("names") Collection<String> names);
+
+    // every food on an active menu once, with its categories; the translations are batch fetched
+    @Query("""
+        SELECT DISTINCT f FROM Menu m
+        JOIN m.foodItems f
+        LEFT JOIN FETCH f.categories
+        WHERE m.active = true
+    """)
+    List<FoodItem> findAllInActiveMenus();
+
     Page<FoodItem> findAllByFoodNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String foodName, String description, Pageable pageable);
 
     // get popular food items from featured menu if food in active menu
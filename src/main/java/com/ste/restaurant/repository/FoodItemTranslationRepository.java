@@ -7,10 +7,12 @@ import com.ste.restaurant.entity.id.FoodItemTranslationId;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface FoodItemTranslationRepository extends JpaRepository<FoodItemTranslation, FoodItemTranslationId> {
@@ -24,7 +26,9 @@ public interface FoodItemTranslationRepository extends JpaRepository<FoodItemTra
 
     boolean existsByFoodItemTranslationId_LanguageCode(String foodItemTranslationIdLanguageCode);
 
-    boolean existsByFoodItemTranslationId_FoodItemIdAndFoodItemTranslationId_LanguageCode(Long foodItemTranslationIdFoodItemId, String foodItemTranslationIdLanguageCode);
+    // ids of the food items already translated to the language, one query for the whole catalog
+    @Query("SELECT t.foodItemTranslationId.foodItemId FROM FoodItemTranslation t WHERE t.foodItemTranslationId.languageCode = :languageCode")
+    Set<Long> findTranslatedFoodItemIds(@Param("languageCode") String languageCode);
 
     List<FoodItemTranslation> findByFoodItemTranslationId_LanguageCode(String foodItemTranslationIdLanguageCode);
 }
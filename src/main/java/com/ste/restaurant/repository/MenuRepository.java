@@ -2,7 +2,9 @@ package com.ste.restaurant.repository;
 
 import com.ste.restaurant.entity.FoodItem;
 import com.ste.restaurant.entity.Menu;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -11,10 +13,13 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface MenuRepository extends JpaRepository<Menu, Long> {
     boolean existsMenuByMenuName(String menuName);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Menu> findByMenuName(String name);
 
     List<Menu> findAllByActive(boolean active);
@@ -1,10 +1,17 @@
 package com.ste.restaurant.repository;
 
 import com.ste.restaurant.entity.OrderItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     void delete(OrderItem orderItem);
+
+    List<OrderItem> findAllByOrderByOrderItemIdDesc(Limit limit);
+
+    List<OrderItem> findAllByOrderItemIdLessThanOrderByOrderItemIdDesc(Long orderItemId, Limit limit);
 }
@@ -2,6 +2,7 @@ package com.ste.restaurant.repository;
 
 import com.ste.restaurant.entity.*;
 import com.ste.restaurant.entity.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -26,6 +27,16 @@ public interface OrderRepository extends JpaRepository<Order,Long> {
 
     List<Order> findAllByStatus(OrderStatus status);
 
+    // keyset pages, newest first, the (order_time, order_id) index serves both
+    List<Order> findAllByOrderByOrderTimeDescOrderIdDesc(Limit limit);
+
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.orderTime < :orderTime OR (o.orderTime = :orderTime AND o.orderId < :orderId)
+        ORDER BY o.orderTime DESC, o.orderId DESC
+    """)
+    List<Order> findAllBefore(@Param("orderTime") LocalDateTime orderTime, @Param("orderId") Long orderId, Limit limit);
+
     List<Order> findAllByStatusAndOrderTimeBetween(OrderStatus status, LocalDateTime start, LocalDateTime end);
 
     Order findFirstByCustomerOrderByOrderTimeAsc(User customer);
@@ -54,4 +65,20 @@ public interface OrderRepository extends JpaRepository<Order,Long> {
     List<Order> findAllByStatusInAndOrderTimeAfterOrderByOrderTimeDesc(Collection<OrderStatus> statuses, LocalDateTime orderTimeAfter);
 
     List<Order> findAllByStatusNotAndOrderTimeAfterOrderByOrderTimeDesc(OrderStatus status, LocalDateTime orderTimeAfter);
+
+    List<Order> findAllByOrderTimeAfter(LocalDateTime orderTimeAfter);
+
+    List<Order> findAllByStatusAndOrderTimeGreaterThanEqualAndOrderTimeLessThan(OrderStatus status, LocalDateTime from, LocalDateTime to);
+
+    Order findFirstByStatusOrderByOrderTimeAsc(OrderStatus status);
+
+    @Query("SELECT DISTINCT o.customer FROM Order o WHERE o.status = :status AND o.orderTime BETWEEN :start AND :end")
+    List<User> findDistinctCustomersByStatusAndOrderTimeBetween(@Param("status") OrderStatus status,
+                                                                @Param("start") LocalDateTime start,
+                                                                @Param("end") LocalDateTime end);
+
+    @Query("SELECT COUNT(DISTINCT o.customer) FROM Order o WHERE o.status = :status AND o.orderTime BETWEEN :start AND :end")
+    long countDistinctCustomersByStatusAndOrderTimeBetween(@Param("status") OrderStatus status,
+                                                          @Param("start") LocalDateTime start,
+                                                          @Param("end") LocalDateTime end);
 }
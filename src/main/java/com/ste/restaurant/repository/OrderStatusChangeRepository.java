@@ -0,0 +1,17 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.entity.OrderStatusChange;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderStatusChangeRepository extends JpaRepository<OrderStatusChange, Long> {
+
+    List<OrderStatusChange> findAllByOrderIdOrderByChangedAtAscChangeIdAsc(Long orderId);
+
+    Optional<OrderStatusChange> findFirstByOrderIdAndToStatusOrderByChangedAtDesc(Long orderId, OrderStatus toStatus);
+}
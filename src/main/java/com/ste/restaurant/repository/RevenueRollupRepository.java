@@ -0,0 +1,64 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.dto.dashboard.RollupTotalDto;
+import com.ste.restaurant.entity.RevenueRollup;
+import com.ste.restaurant.entity.enums.RollupDimension;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long>, RevenueRollupRepositoryCustom {
+
+    List<RevenueRollup> findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+            RollupDimension dimension, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+        SELECT new com.ste.restaurant.dto.dashboard.RollupTotalDto(
+            r.dimension, r.dimensionKey, SUM(r.orderCount), SUM(r.quantity), SUM(r.revenue))
+        FROM RevenueRollup r
+        WHERE r.dimension = :dimension AND r.bucketHour >= :from AND r.bucketHour < :to
+        GROUP BY r.dimension, r.dimensionKey
+        HAVING SUM(r.orderCount) > 0
+    """)
+    List<RollupTotalDto> sumByDimensionKey(@Param("dimension") RollupDimension dimension,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    // every dimension in one round trip, for the combined dashboard summary
+    @Query("""
+        SELECT new com.ste.restaurant.dto.dashboard.RollupTotalDto(
+            r.dimension, r.dimensionKey, SUM(r.orderCount), SUM(r.quantity), SUM(r.revenue))
+        FROM RevenueRollup r
+        WHERE r.bucketHour >= :from AND r.bucketHour < :to
+        GROUP BY r.dimension, r.dimensionKey
+        HAVING SUM(r.orderCount) > 0
+    """)
+    List<RollupTotalDto> sumAllDimensions(@Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("""
+        UPDATE RevenueRollup r
+        SET r.orderCount = r.orderCount + :orderCount,
+            r.quantity = r.quantity + :quantity,
+            r.revenue = r.revenue + :revenue
+        WHERE r.dimension = :dimension AND r.dimensionKey = :dimensionKey AND r.bucketHour = :bucketHour
+    """)
+    int increment(@Param("dimension") RollupDimension dimension,
+                  @Param("dimensionKey") String dimensionKey,
+                  @Param("bucketHour") LocalDateTime bucketHour,
+                  @Param("orderCount") long orderCount,
+                  @Param("quantity") long quantity,
+                  @Param("revenue") BigDecimal revenue);
+
+    @Modifying
+    @Query("DELETE FROM RevenueRollup r WHERE r.bucketHour >= :from AND r.bucketHour < :to")
+    void deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,12 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.entity.enums.RollupDimension;
+
+import java.time.LocalDateTime;
+
+public interface RevenueRollupRepositoryCustom {
+
+    // creates the empty row for a bucket unless it already exists; a concurrent insert of the
+    // same row waits for the other transaction and then does nothing
+    void insertIfAbsent(RollupDimension dimension, String dimensionKey, LocalDateTime bucketHour);
+}
@@ -0,0 +1,39 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.entity.RevenueRollup;
+import com.ste.restaurant.entity.enums.RollupDimension;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.time.LocalDateTime;
+
+class RevenueRollupRepositoryImpl implements RevenueRollupRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertIfAbsent(RollupDimension dimension, String dimensionKey, LocalDateTime bucketHour) {
+        entityManager.createNativeQuery("""
+                INSERT INTO {h-schema}revenue_rollups
+                    (rollup_id, bucket_hour, dimension, dimension_key, order_count, quantity, revenue)
+                VALUES (:rollupId, :bucketHour, :dimension, :dimensionKey, 0, 0, 0)
+                ON CONFLICT DO NOTHING
+                """)
+                .setParameter("rollupId", nextId())
+                .setParameter("bucketHour", bucketHour)
+                .setParameter("dimension", dimension.name())
+                .setParameter("dimensionKey", dimensionKey)
+                .executeUpdate();
+    }
+
+    // from the entity's own generator, so the id comes out of the same pooled block as a save() would
+    private Object nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(RevenueRollup.class).getGenerator();
+        return generator.generate(session, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.entity.RollupBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupBackfillRepository extends JpaRepository<RollupBackfill, Long> {
+}
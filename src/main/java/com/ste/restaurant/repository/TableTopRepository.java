@@ -2,16 +2,21 @@ package com.ste.restaurant.repository;
 
 import com.ste.restaurant.entity.enums.TableStatus;
 import com.ste.restaurant.entity.TableTop;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface TableTopRepository extends JpaRepository<TableTop, Long> {
     boolean existsTableTopByTableNumber(String tableNumber);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<TableTop> findByTableNumber(String tableNumber);
 
     List<TableTop> findAllByTableStatus(TableStatus tableStatus);
@@ -0,0 +1,19 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.entity.TranslationJobItem;
+import com.ste.restaurant.entity.enums.TranslationItemStatus;
+import com.ste.restaurant.entity.enums.TranslationItemType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TranslationJobItemRepository extends JpaRepository<TranslationJobItem, Long> {
+
+    List<TranslationJobItem> findAllByJobJobIdAndItemTypeAndStatusOrderByItemId(
+            Long jobId, TranslationItemType itemType, TranslationItemStatus status, Limit limit);
+
+    List<TranslationJobItem> findAllByJobJobIdAndStatus(Long jobId, TranslationItemStatus status);
+}
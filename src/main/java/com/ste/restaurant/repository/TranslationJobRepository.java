@@ -0,0 +1,32 @@
+package com.ste.restaurant.repository;
+
+import com.ste.restaurant.entity.TranslationJob;
+import com.ste.restaurant.entity.enums.TranslationJobStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TranslationJobRepository extends JpaRepository<TranslationJob, Long> {
+
+    List<TranslationJob> findAllByOrderByJobIdDesc();
+
+    Optional<TranslationJob> findFirstByLanguageAndStatusIn(String language, Collection<TranslationJobStatus> statuses);
+
+    // started and queued jobs, and paused ones whose rate limit wait is over, oldest first
+    @Query("""
+        SELECT j FROM TranslationJob j
+        WHERE j.status IN (com.ste.restaurant.entity.enums.TranslationJobStatus.QUEUED,
+                           com.ste.restaurant.entity.enums.TranslationJobStatus.RUNNING)
+           OR (j.status = com.ste.restaurant.entity.enums.TranslationJobStatus.PAUSED AND j.resumeAt <= :now)
+        ORDER BY j.jobId
+    """)
+    List<TranslationJob> findRunnable(@Param("now") LocalDateTime now, Limit limit);
+}
@@ -1,12 +1,18 @@
 package com.ste.restaurant.repository;
 
 import com.ste.restaurant.entity.User;
+import com.ste.restaurant.entity.enums.OrderStatus;
 import com.ste.restaurant.entity.enums.UserRole;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,5 +29,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Page<User> findAllByRole(UserRole role, Pageable pageable);
 
+    List<User> findAllByOrderByUserIdAsc(Limit limit);
+
+    List<User> findAllByUserIdGreaterThanOrderByUserIdAsc(Long userId, Limit limit);
+
     Page<User> findAllByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String firstName, String lastName, String email, Pageable pageable);
+
+    // customers whose first order falls in [firstFrom, firstTo) and who completed an order in the range,
+    // driven by the first_order_at index instead of a lookup per customer
+    @Query("""
+        SELECT COUNT(u) FROM User u
+        WHERE u.firstOrderAt >= :firstFrom AND u.firstOrderAt < :firstTo
+        AND EXISTS (SELECT 1 FROM Order o WHERE o.customer = u AND o.status = :status
+                    AND o.orderTime BETWEEN :start AND :end)
+    """)
+    long countNewCustomers(@Param("firstFrom") LocalDateTime firstFrom,
+                           @Param("firstTo") LocalDateTime firstTo,
+                           @Param("status") OrderStatus status,
+                           @Param("start") LocalDateTime start,
+                           @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("""
+        UPDATE User u SET u.firstOrderAt = (SELECT MIN(o.orderTime) FROM Order o WHERE o.customer = u)
+        WHERE u.firstOrderAt IS NULL
+        AND EXISTS (SELECT 1 FROM Order o WHERE o.customer = u)
+    """)
+    int backfillFirstOrderAt();
+
+    // after orders of the customer were deleted or merged away
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE User u SET u.firstOrderAt = (SELECT MIN(o.orderTime) FROM Order o WHERE o.customer = u)
+        WHERE u = :customer
+    """)
+    void refreshFirstOrderAt(@Param("customer") User customer);
 }
@@ -26,6 +26,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 @Component
+@org.springframework.core.annotation.Order(1) // before SyntheticDataGenerator
 public class DataSeeder implements CommandLineRunner {
     private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
 
@@ -140,24 +141,26 @@ public class DataSeeder implements CommandLineRunner {
                 fi.setPrice(new BigDecimal(raw.get("price").toString()));
                 foodItems.add(fi);
             }
-            foodItemRepository.saveAll(foodItems);
-            // Now set up category associations
+            Map<String, FoodItem> savedByName = new HashMap<>();
+            for (FoodItem fi : foodItemRepository.saveAll(foodItems)) {
+                savedByName.put(fi.getFoodName(), fi);
+            }
+            // Now set up category associations, one lookup per food and one save per category
+            Set<Category> touched = new LinkedHashSet<>();
             for (Map<String, Object> raw : foodItemsRaw) {
-                String foodName = (String) raw.get("foodName");
                 List<String> categories = (List<String>) raw.get("categories");
-                if (categories != null) {
-                    FoodItem fi = foodItemRepository.findAll().stream().filter(f -> f.getFoodName().equals(foodName)).findFirst().orElse(null);
-                    if (fi != null) {
-                        for (String catName : categories) {
-                            Category cat = categoryMap.get(catName);
-                            if (cat != null) {
-                                cat.getFoodItems().add(fi);
-                                categoryRepository.save(cat);
-                            }
+                FoodItem fi = savedByName.get((String) raw.get("foodName"));
+                if (categories != null && fi != null) {
+                    for (String catName : categories) {
+                        Category cat = categoryMap.get(catName);
+                        if (cat != null) {
+                            cat.getFoodItems().add(fi);
+                            touched.add(cat);
                         }
                     }
                 }
             }
+            categoryRepository.saveAll(touched);
         }
     }
 
@@ -0,0 +1,441 @@
+package com.ste.restaurant.resources;
+
+import com.ste.restaurant.configuration.IdSequenceAligner;
+import com.ste.restaurant.entity.*;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.entity.enums.RequestType;
+import com.ste.restaurant.entity.enums.TableStatus;
+import com.ste.restaurant.entity.enums.UserRole;
+import com.ste.restaurant.service.CustomerActivityService;
+import com.ste.restaurant.service.RevenueRollupService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Load and benchmark data on top of the seed fixtures: customers with addresses, tables, call
+// requests and months of orders shaped by hour of day and day of week, all ending before endDate.
+// Rows go out as JDBC batches on one connection and are committed every batch, so millions of
+// orders take minutes. Ids are taken past the table maximum and the sequences, which are moved
+// past the new rows afterwards. The same seed, end date and catalog give the same rows.
+// Revenue rollups, customer sketches and first order times are rebuilt for the generated days.
+@Component
+@Profile("synthetic")
+@org.springframework.core.annotation.Order(2) // after DataSeeder
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // relative order volume per hour, lunch and dinner peaks, closed between 02:00 and 10:00
+    static final double[] HOUR_WEIGHTS = {
+            0.6, 0.3, 0, 0, 0, 0, 0, 0, 0, 0, 0.8, 1.5,
+            4.0, 5.0, 3.5, 1.5, 1.2, 2.0, 4.5, 6.0, 5.5, 3.5, 2.0, 1.2};
+    private static final double[] HOURS = cumulative(HOUR_WEIGHTS);
+
+    // Monday first, busier towards the weekend
+    static final double[] DAY_WEIGHTS = {0.8, 0.8, 0.9, 1.0, 1.3, 1.5, 1.2};
+
+    private static final String[] FIRST_NAMES = {"Ali", "Ayse", "Mehmet", "Zeynep", "Can", "Elif", "John", "Maria",
+            "Emre", "Selin", "David", "Anna", "Murat", "Deniz", "Sofia", "Lucas"};
+    private static final String[] LAST_NAMES = {"Yilmaz", "Kaya", "Demir", "Sahin", "Celik", "Smith", "Garcia",
+            "Ozturk", "Aydin", "Arslan", "Muller", "Rossi", "Dogan", "Kilic"};
+    private static final String[] DISTRICTS = {"Kadikoy", "Besiktas", "Sisli", "Uskudar", "Beyoglu", "Atasehir"};
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final IdSequenceAligner idSequenceAligner;
+    private final RevenueRollupService revenueRollupService;
+    private final CustomerActivityService customerActivity;
+    private final PasswordEncoder passwordEncoder;
+    private final ConfigurableApplicationContext context;
+
+    private final long seed;
+    private final long orders;
+    private final int days;
+    private final int customers;
+    private final int tables;
+    private final int callRequests;
+    private final int batchSize;
+    private final String endDate;
+    private final boolean exitWhenDone;
+
+    public SyntheticDataGenerator(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+                                  IdSequenceAligner idSequenceAligner, RevenueRollupService revenueRollupService,
+                                  CustomerActivityService customerActivity, PasswordEncoder passwordEncoder,
+                                  ConfigurableApplicationContext context,
+                                  @Value("${app.synthetic.seed:42}") long seed,
+                                  @Value("${app.synthetic.orders:1000000}") long orders,
+                                  @Value("${app.synthetic.days:365}") int days,
+                                  @Value("${app.synthetic.customers:5000}") int customers,
+                                  @Value("${app.synthetic.tables:2000}") int tables,
+                                  @Value("${app.synthetic.call-requests:50000}") int callRequests,
+                                  @Value("${app.synthetic.batch-size:1000}") int batchSize,
+                                  @Value("${app.synthetic.end-date:}") String endDate,
+                                  @Value("${app.synthetic.exit-when-done:false}") boolean exitWhenDone) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.idSequenceAligner = idSequenceAligner;
+        this.revenueRollupService = revenueRollupService;
+        this.customerActivity = customerActivity;
+        this.passwordEncoder = passwordEncoder;
+        this.context = context;
+        this.seed = seed;
+        this.orders = orders;
+        this.days = days;
+        this.customers = customers;
+        this.tables = tables;
+        this.callRequests = callRequests;
+        this.batchSize = batchSize;
+        this.endDate = endDate;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        generate(endDate.isBlank() ? LocalDate.now() : LocalDate.parse(endDate));
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    public void generate(LocalDate endDate) throws SQLException {
+        String prefix = "synthetic-" + seed + "-";
+        LocalDate firstDay = endDate.minusDays(days);
+        long started = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (alreadyGenerated(connection, prefix)) {
+                logger.warn("Synthetic data for seed {} is already there, nothing generated", seed);
+                return;
+            }
+            connection.setAutoCommit(false);
+            SplittableRandom random = new SplittableRandom(seed);
+
+            long[] tableIds = insertTables(connection, prefix, random.split());
+            long[][] customerIds = insertCustomers(connection, prefix, random.split());
+            long written = insertOrders(connection, firstDay, tableIds, customerIds, random.split());
+            insertCallRequests(connection, firstDay, tableIds, customerIds[0], random.split());
+            connection.commit();
+            logger.info("Synthetic data for seed {}: {} customers, {} tables, {} orders and {} call requests in {} ms",
+                    seed, customers, tables, written, callRequests, (System.nanoTime() - started) / 1_000_000);
+        }
+        idSequenceAligner.alignSequences();
+        rebuildDerivedData(firstDay, endDate);
+        logger.info("Synthetic data ready after {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private boolean alreadyGenerated(Connection connection, String prefix) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select count(*) from " + tableOf(User.class) + " where email = ?")) {
+            statement.setString(1, prefix + "1@example.com");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1) > 0;
+            }
+        }
+    }
+
+    private long[] insertTables(Connection connection, String prefix, SplittableRandom random) throws SQLException {
+        long firstId = idSequenceAligner.firstFreeId(TableTop.class);
+        long[] ids = new long[tables];
+        try (Batch batch = new Batch(connection, "insert into " + tableOf(TableTop.class)
+                + " (table_id, table_number, capacity, table_status) values (?, ?, ?, ?)")) {
+            for (int i = 0; i < tables; i++) {
+                ids[i] = firstId + i;
+                batch.statement.setLong(1, ids[i]);
+                batch.statement.setString(2, prefix + (i + 1));
+                batch.statement.setInt(3, 2 + 2 * random.nextInt(4));
+                batch.statement.setString(4, TableStatus.AVAILABLE.name());
+                batch.add();
+            }
+        }
+        connection.commit();
+        return ids;
+    }
+
+    // customer ids and, at the same index, the customer's delivery address id or 0
+    private long[][] insertCustomers(Connection connection, String prefix, SplittableRandom random) throws SQLException {
+        long firstUserId = idSequenceAligner.firstFreeId(User.class);
+        long firstAddressId = idSequenceAligner.firstFreeId(Address.class);
+        long[] userIds = new long[customers];
+        long[] addressIds = new long[customers];
+        String password = passwordEncoder.encode("password"); // hashing once, bcrypt per user would take longer than the orders
+
+        try (Batch users = new Batch(connection, "insert into " + tableOf(User.class)
+                + " (user_id, first_name, last_name, role, email, password, birthday, loyalty_points)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?)");
+             Batch addresses = new Batch(connection, "insert into " + tableOf(Address.class)
+                     + " (address_id, name, country, city, district, street, user_id) values (?, ?, ?, ?, ?, ?, ?)")) {
+            long addressId = firstAddressId;
+            for (int i = 0; i < customers; i++) {
+                userIds[i] = firstUserId + i;
+                users.statement.setLong(1, userIds[i]);
+                users.statement.setString(2, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                users.statement.setString(3, LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                users.statement.setString(4, UserRole.CUSTOMER.name());
+                users.statement.setString(5, prefix + (i + 1) + "@example.com");
+                users.statement.setString(6, password);
+                users.statement.setObject(7, LocalDate.of(1950, 1, 1).plusDays(random.nextInt(20000)));
+                users.statement.setInt(8, random.nextInt(500));
+
+                if (random.nextInt(10) < 4) {
+                    addressIds[i] = addressId++;
+                    addresses.statement.setLong(1, addressIds[i]);
+                    addresses.statement.setString(2, prefix + "address-" + (i + 1));
+                    addresses.statement.setString(3, "Turkey");
+                    addresses.statement.setString(4, "Istanbul");
+                    addresses.statement.setString(5, DISTRICTS[random.nextInt(DISTRICTS.length)]);
+                    addresses.statement.setString(6, "Street " + (1 + random.nextInt(300)));
+                    addresses.statement.setLong(7, userIds[i]);
+                    addresses.queue();
+                }
+                if (users.add()) {
+                    addresses.flush();
+                }
+            }
+            users.flush();
+            addresses.flush();
+        }
+        connection.commit();
+        return new long[][]{userIds, addressIds};
+    }
+
+    private long insertOrders(Connection connection, LocalDate firstDay, long[] tableIds, long[][] customerIds,
+                              SplittableRandom random) throws SQLException {
+        List<Long> foods = new ArrayList<>();
+        List<BigDecimal> prices = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "select food_id, price from " + tableOf(FoodItem.class) + " order by food_id")) {
+            while (resultSet.next()) {
+                foods.add(resultSet.getLong(1));
+                prices.add(resultSet.getBigDecimal(2) != null ? resultSet.getBigDecimal(2) : BigDecimal.ONE);
+            }
+        }
+        if (foods.isEmpty()) {
+            throw new IllegalStateException("No food items to order, seed the catalog first");
+        }
+        double[] popularity = popularity(foods.size(), random);
+
+        long orderId = idSequenceAligner.firstFreeId(Order.class);
+        long itemId = idSequenceAligner.firstFreeId(OrderItem.class);
+        long[] perDay = ordersPerDay(orders, firstDay, days);
+        long written = 0;
+
+        try (Batch orderBatch = new Batch(connection, "insert into " + tableOf(Order.class)
+                + " (order_id, order_time, status, total_price, customer_id, address_id, table_id)"
+                + " values (?, ?, ?, ?, ?, ?, ?)");
+             Batch itemBatch = new Batch(connection, "insert into " + tableOf(OrderItem.class)
+                     + " (order_item_id, quantity, unit_price, total_price, food_id, order_id) values (?, ?, ?, ?, ?, ?)")) {
+            for (int day = 0; day < days; day++) {
+                LocalDate date = firstDay.plusDays(day);
+                for (long n = 0; n < perDay[day]; n++, orderId++) {
+                    int lines = 1 + Math.min(7, geometric(random, 0.45));
+                    BigDecimal total = BigDecimal.ZERO;
+                    for (int line = 0; line < lines; line++) {
+                        int food = pick(popularity, random);
+                        int quantity = random.nextInt(20) < 15 ? 1 : random.nextInt(4) < 3 ? 2 : 3;
+                        BigDecimal lineTotal = prices.get(food).multiply(BigDecimal.valueOf(quantity));
+                        total = total.add(lineTotal);
+
+                        itemBatch.statement.setLong(1, itemId++);
+                        itemBatch.statement.setInt(2, quantity);
+                        itemBatch.statement.setBigDecimal(3, prices.get(food));
+                        itemBatch.statement.setBigDecimal(4, lineTotal);
+                        itemBatch.statement.setLong(5, foods.get(food));
+                        itemBatch.statement.setLong(6, orderId);
+                        itemBatch.queue();
+                    }
+
+                    // regulars order far more often than most customers
+                    int customer = (int) (customerIds[0].length * Math.pow(random.nextDouble(), 2.5));
+                    long addressId = customerIds[1][customer];
+                    boolean delivery = addressId != 0 && random.nextInt(10) < 4;
+
+                    orderBatch.statement.setLong(1, orderId);
+                    orderBatch.statement.setObject(2, orderTime(random, date));
+                    orderBatch.statement.setString(3, (random.nextInt(100) < 94 ? OrderStatus.COMPLETED : OrderStatus.CANCELLED).name());
+                    orderBatch.statement.setBigDecimal(4, total);
+                    orderBatch.statement.setLong(5, customerIds[0][customer]);
+                    if (delivery) {
+                        orderBatch.statement.setLong(6, addressId);
+                        orderBatch.statement.setNull(7, Types.BIGINT);
+                    } else {
+                        orderBatch.statement.setNull(6, Types.BIGINT);
+                        orderBatch.statement.setLong(7, tableIds[random.nextInt(tableIds.length)]);
+                    }
+                    if (orderBatch.add()) {
+                        itemBatch.flush();
+                        connection.commit();
+                    }
+                    written++;
+                }
+                if (day % 30 == 29) {
+                    logger.info("Synthetic orders up to {}: {}", date, written);
+                }
+            }
+            orderBatch.flush();
+            itemBatch.flush();
+        }
+        connection.commit();
+        return written;
+    }
+
+    private void insertCallRequests(Connection connection, LocalDate firstDay, long[] tableIds, long[] customerIds,
+                                    SplittableRandom random) throws SQLException {
+        long firstId = idSequenceAligner.firstFreeId(CallRequest.class);
+        RequestType[] types = RequestType.values();
+        try (Batch batch = new Batch(connection, "insert into " + tableOf(CallRequest.class)
+                + " (call_request_id, type, active, table_id, user_id, created_at) values (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < callRequests; i++) {
+                batch.statement.setLong(1, firstId + i);
+                batch.statement.setString(2, types[random.nextInt(types.length)].name());
+                batch.statement.setBoolean(3, false);
+                batch.statement.setLong(4, tableIds[random.nextInt(tableIds.length)]);
+                batch.statement.setLong(5, customerIds[random.nextInt(customerIds.length)]);
+                batch.statement.setObject(6, orderTime(random, firstDay.plusDays(random.nextInt(days))));
+                if (batch.add()) {
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    // one transaction per week, the rebuilds load whole weeks of orders
+    private void rebuildDerivedData(LocalDate firstDay, LocalDate endDate) {
+        customerActivity.backfillFirstOrders();
+        for (LocalDate week = firstDay; week.isBefore(endDate); week = week.plusWeeks(1)) {
+            LocalDate weekEnd = week.plusWeeks(1).isBefore(endDate) ? week.plusWeeks(1) : endDate;
+            revenueRollupService.backfill(week.atStartOfDay(), weekEnd.atStartOfDay());
+            customerActivity.rebuildSketches(week.minusDays(1), weekEnd.minusDays(1));
+        }
+    }
+
+    // splits the total over the days by weekday weight, the rounding remainder goes to the last day
+    static long[] ordersPerDay(long orders, LocalDate firstDay, int days) {
+        double[] weights = new double[days];
+        double sum = 0;
+        for (int day = 0; day < days; day++) {
+            weights[day] = DAY_WEIGHTS[firstDay.plusDays(day).getDayOfWeek().getValue() - 1];
+            sum += weights[day];
+        }
+        long[] perDay = new long[days];
+        long assigned = 0;
+        for (int day = 0; day < days; day++) {
+            perDay[day] = (long) Math.floor(orders * weights[day] / sum);
+            assigned += perDay[day];
+        }
+        if (days > 0) perDay[days - 1] += orders - assigned;
+        return perDay;
+    }
+
+    static LocalDateTime orderTime(SplittableRandom random, LocalDate date) {
+        int hour = pick(HOURS, random);
+        return date.atTime(hour, random.nextInt(60), random.nextInt(60));
+    }
+
+    // zipf like, a few dishes sell most, which ones is decided by the seed
+    private static double[] popularity(int foods, SplittableRandom random) {
+        double[] weights = new double[foods];
+        for (int i = 0; i < foods; i++) {
+            weights[i] = 1 / Math.pow(i + 1, 0.9);
+        }
+        for (int i = foods - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double swap = weights[i];
+            weights[i] = weights[j];
+            weights[j] = swap;
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        // first entry past the target, never one with zero weight
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > target) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    private static int geometric(SplittableRandom random, double p) {
+        int failures = 0;
+        while (random.nextDouble() >= p) failures++;
+        return failures;
+    }
+
+    private String tableOf(Class<?> entityType) {
+        return ((AbstractEntityPersister) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(entityType)).getTableName();
+    }
+
+    // a prepared insert sent every batchSize rows; rows referencing another batch are queued and
+    // flushed right after that one, so parent rows always reach the database first
+    private final class Batch implements AutoCloseable {
+        private final PreparedStatement statement;
+        private int pending;
+
+        Batch(Connection connection, String sql) throws SQLException {
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        // true when the batch was just sent
+        boolean add() throws SQLException {
+            statement.addBatch();
+            if (++pending < batchSize) return false;
+            flush();
+            return true;
+        }
+
+        void queue() throws SQLException {
+            statement.addBatch();
+            pending++;
+        }
+
+        void flush() throws SQLException {
+            if (pending == 0) return;
+            statement.executeBatch();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
@@ -2,21 +2,47 @@ package com.ste.restaurant.security;
 
 import com.ste.restaurant.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Component
 public class JwtUtil {
 
     private static final String SECRET = "mySecretKey123456789012345678901234567890";
     private final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // sha-256 of the token -> claims that already passed the signature check, least recently used first
+    private final Map<String, VerifiedToken> verifiedTokens;
+
+    public JwtUtil(@Value("${app.security.token-cache.max-entries:10000}") int maxCachedTokens) {
+        this.verifiedTokens = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > maxCachedTokens;
+            }
+        };
+    }
+
+    public record VerifiedToken(String username, Date expiresAt) {
+        public boolean isExpired() {
+            return expiresAt.before(new Date());
+        }
+    }
 
     public String generateToken(User user) {
         try {
@@ -33,27 +59,31 @@ public class JwtUtil {
         }
     }
 
-    public String extractUsername(String token) {
-        return getClaims(token).getSubject();
-    }
-
-    public String extractRole(String token) {
-        return (String) getClaims(token).get("role");
-    }
-
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isExpired(token);
-    }
-
-    private boolean isExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
+    // one parse and signature check per token, later requests with the same token are a hash and a lookup
+    public VerifiedToken verify(String token) {
+        String tokenHash = hash(token);
+        VerifiedToken verified;
+        synchronized (verifiedTokens) {
+            verified = verifiedTokens.get(tokenHash);
+        }
+        if (verified == null) {
+            Claims claims = getClaims(token);
+            verified = new VerifiedToken(claims.getSubject(), claims.getExpiration());
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(tokenHash, verified);
+            }
+        }
+        if (verified.isExpired()) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.remove(tokenHash);
+            }
+            throw new ExpiredJwtException(null, null, "JWT expired at " + verified.expiresAt());
+        }
+        return verified;
     }
 
     private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
 //        return Jwts.parser()
@@ -62,4 +92,13 @@ public class JwtUtil {
 //                .getBody();
 //
     }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -23,13 +23,15 @@ public class AddressService {
     private final UserRepository userRepository;
     private final OrderMapper orderMapper;
     private final OrderRepository orderRepository;
+    private final LiveOrderBookService liveOrderBook;
 
     public AddressService(AddressRepository addressRepository, UserRepository userRepository,
-                          OrderMapper orderMapper, OrderRepository orderRepository) {
+                          OrderMapper orderMapper, OrderRepository orderRepository, LiveOrderBookService liveOrderBook) {
         this.addressRepository = addressRepository;
         this.userRepository = userRepository;
         this.orderMapper = orderMapper;
         this.orderRepository = orderRepository;
+        this.liveOrderBook = liveOrderBook;
     }
 
     // admin
@@ -54,6 +56,7 @@ public class AddressService {
         List<Order> ordersUsingAddress = orderRepository.findByAddress(address);
         ordersUsingAddress.forEach(order -> order.setAddress(null));
         orderRepository.saveAll(ordersUsingAddress);
+        ordersUsingAddress.forEach(order -> liveOrderBook.put(orderMapper.orderToOrderDto(order)));
 
         AddressDto addressDto = orderMapper.addressToAddressDto(address);
 
@@ -3,14 +3,15 @@ package com.ste.restaurant.service;
 import com.ste.restaurant.dto.dashboard.*;
 import com.ste.restaurant.entity.*;
 import com.ste.restaurant.entity.enums.OrderStatus;
-import com.ste.restaurant.repository.OrderRepository;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.ste.restaurant.entity.enums.RollupDimension;
+import com.ste.restaurant.repository.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -19,72 +20,142 @@ import java.util.*;
 public class AdminDashboardService {
 
     private final OrderRepository orderRepository;
-
-    public AdminDashboardService(OrderRepository orderRepository) {
+    private final RevenueRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final FoodItemRepository foodItemRepository;
+    private final CategoryRepository categoryRepository;
+    private final TableTopRepository tableRepository;
+    private final CustomerActivityService customerActivity;
+
+    public AdminDashboardService(OrderRepository orderRepository, RevenueRollupRepository rollupRepository,
+                                 UserRepository userRepository, FoodItemRepository foodItemRepository,
+                                 CategoryRepository categoryRepository, TableTopRepository tableRepository,
+                                 CustomerActivityService customerActivity) {
         this.orderRepository = orderRepository;
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.foodItemRepository = foodItemRepository;
+        this.categoryRepository = categoryRepository;
+        this.tableRepository = tableRepository;
+        this.customerActivity = customerActivity;
+    }
+
+    // business day window, 06:00 on the start date until 03:00 after the end date
+    private LocalDateTime rangeStart(LocalDate startDate) {
+        return startDate.atStartOfDay().plusHours(6);
+    }
+
+    private LocalDateTime rangeEnd(LocalDate endDate) {
+        return endDate.plusDays(1).atStartOfDay().plusHours(3);
+    }
+
+    private List<RollupTotalDto> sumBy(RollupDimension dimension, LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.sumByDimensionKey(dimension, rangeStart(startDate), rangeEnd(endDate));
+    }
+
+    // hours emptied by a retracted order stay behind with a zero count, skip them
+    private List<RevenueRollup> hourlyTotals(LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL, rangeStart(startDate), rangeEnd(endDate)).stream()
+                .filter(hour -> hour.getOrderCount() > 0)
+                .toList();
+    }
+
+    // all six widgets from one read of the range: the per key sums of every dimension in a single
+    // grouped query plus the hourly totals shared by the chart and the heatmap
+    public DashboardSummaryDto getDashboardSummary(LocalDate startDate, LocalDate endDate) {
+        return getDashboardSummary(startDate, endDate, false);
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardSummaryDto getDashboardSummary(LocalDate startDate, LocalDate endDate, boolean approximate) {
+        Map<RollupDimension, List<RollupTotalDto>> sums = new EnumMap<>(RollupDimension.class);
+        for (RollupDimension dimension : RollupDimension.values()) {
+            sums.put(dimension, new ArrayList<>());
+        }
+        for (RollupTotalDto total : rollupRepository.sumAllDimensions(rangeStart(startDate), rangeEnd(endDate))) {
+            sums.get(total.getDimension()).add(total);
+        }
+        List<RevenueRollup> hourlyTotals = hourlyTotals(startDate, endDate);
+
+        return new DashboardSummaryDto(
+                statsOf(sums.get(RollupDimension.TOTAL), startDate, endDate, approximate),
+                revenueChartOf(hourlyTotals, startDate, endDate),
+                revenueHeatmapOf(hourlyTotals),
+                topPerformingItemsOf(sums.get(RollupDimension.FOOD_ITEM)),
+                topPerformingCategoriesOf(sums.get(RollupDimension.CATEGORY)),
+                busiestTablesOf(sums.get(RollupDimension.TABLE)));
     }
 
     public DashboardStatsDto getDashboardStats(LocalDate startDate, LocalDate endDate) {
-        List<Order> orders = orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
-                startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        );
+        return getDashboardStats(startDate, endDate, false);
+    }
+
+    // approximate counts the distinct customers from the daily sketches instead of the orders
+    public DashboardStatsDto getDashboardStats(LocalDate startDate, LocalDate endDate, boolean approximate) {
+        return statsOf(sumBy(RollupDimension.TOTAL, startDate, endDate), startDate, endDate, approximate);
+    }
+
+    public List<RevenueDataPointDto> getRevenueChart(LocalDate startDate, LocalDate endDate) {
+        return revenueChartOf(hourlyTotals(startDate, endDate), startDate, endDate);
+    }
+
+    public List<TopPerformingItemDto> getTopPerformingItems(LocalDate startDate, LocalDate endDate) {
+        return topPerformingItemsOf(sumBy(RollupDimension.FOOD_ITEM, startDate, endDate));
+    }
+
+    public List<TopPerformingCategoryDto> getTopPerformingCategories(LocalDate startDate, LocalDate endDate) {
+        return topPerformingCategoriesOf(sumBy(RollupDimension.CATEGORY, startDate, endDate));
+    }
 
-        BigDecimal totalRevenue = orders.stream()
-                .map(Order::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public List<BusiestTableDto> getBusiestTables(LocalDate startDate, LocalDate endDate) {
+        return busiestTablesOf(sumBy(RollupDimension.TABLE, startDate, endDate));
+    }
 
-        long totalOrders = orders.size();
+    public List<RevenueHeatmapPointDto> getRevenueHeatmap(LocalDate startDate, LocalDate endDate) {
+        return revenueHeatmapOf(hourlyTotals(startDate, endDate));
+    }
+
+    private DashboardStatsDto statsOf(List<RollupTotalDto> totals, LocalDate startDate, LocalDate endDate,
+                                      boolean approximate) {
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalOrders = 0;
+        for (RollupTotalDto total : totals) {
+            totalRevenue = totalRevenue.add(total.getRevenue());
+            totalOrders += total.getOrderCount();
+        }
 
         BigDecimal averageOrderValue = totalOrders > 0
                 ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        Set<User> uniqueCustomers = new HashSet<>();
-        for (Order order : orders) {
-            if (order.getCustomer() != null) {
-                uniqueCustomers.add(order.getCustomer());
-            }
+        long newCustomers = 0;
+        long uniqueCustomers = 0;
+        if (totalOrders > 0) {
+            LocalDateTime start = startDate.atStartOfDay().plusHours(6);
+            LocalDateTime end = endDate.atTime(LocalTime.MAX).plusHours(3);
+
+            // first order on a calendar day of the range, with a completed order in the business range
+            newCustomers = userRepository.countNewCustomers(startDate.atStartOfDay(),
+                    endDate.plusDays(1).atStartOfDay(), OrderStatus.COMPLETED, start, end);
+            uniqueCustomers = approximate
+                    ? customerActivity.estimateCustomers(startDate, endDate)
+                    : orderRepository.countDistinctCustomersByStatusAndOrderTimeBetween(OrderStatus.COMPLETED, start, end);
         }
 
-        long newCustomers = uniqueCustomers.stream()
-                .filter(customer -> {
-                    Order firstOrder = orderRepository.findFirstByCustomerOrderByOrderTimeAsc(customer);
-                    if (firstOrder == null) {
-                        return false;
-                    }
-                    LocalDate firstOrderDate = firstOrder.getOrderTime().toLocalDate();
-                    return !firstOrderDate.isBefore(startDate) && !firstOrderDate.isAfter(endDate);
-                })
-                .count();
-
-        return new DashboardStatsDto(totalRevenue, totalOrders, averageOrderValue, newCustomers);
+        return new DashboardStatsDto(totalRevenue, totalOrders, averageOrderValue, newCustomers, uniqueCustomers);
     }
 
-    public List<RevenueDataPointDto> getRevenueChart(LocalDate startDate, LocalDate endDate) {
-        List<Order> orders = orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
-                startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        );
-
+    private List<RevenueDataPointDto> revenueChartOf(List<RevenueRollup> hourlyTotals,
+                                                     LocalDate startDate, LocalDate endDate) {
         Map<String, BigDecimal> revenueByTimeSlot = new LinkedHashMap<>();
-        DateTimeFormatter formatter;
 
         // If the range is 3 days or less, group by hour. Otherwise, group by day.
-        if (startDate.plusDays(3).isAfter(endDate)) {
-            formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:00");
-            orders.forEach(order -> {
-                String hourSlot = order.getOrderTime().format(formatter);
-                revenueByTimeSlot.merge(hourSlot, order.getTotalPrice(), BigDecimal::add);
-            });
-        } else {
-            formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            orders.forEach(order -> {
-                String daySlot = order.getOrderTime().format(formatter);
-                revenueByTimeSlot.merge(daySlot, order.getTotalPrice(), BigDecimal::add);
-            });
+        DateTimeFormatter formatter = startDate.plusDays(3).isAfter(endDate)
+                ? DateTimeFormatter.ofPattern("yyyy-MM-dd HH:00")
+                : DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        for (RevenueRollup hour : hourlyTotals) {
+            revenueByTimeSlot.merge(hour.getBucketHour().format(formatter), hour.getRevenue(), BigDecimal::add);
         }
 
         List<RevenueDataPointDto> revenueDataPoints = new ArrayList<>();
@@ -98,25 +169,50 @@ public class AdminDashboardService {
         return revenueDataPoints;
     }
 
-    public List<TopPerformingItemDto> getTopPerformingItems(LocalDate startDate, LocalDate endDate) {
-        // Get ALL orders in the date range to calculate accurate top performers
-        List<Order>  orders = orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
-                startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        );
-        Map<String, TopPerformingItemDto> map = new HashMap<>();
-
-        for (Order order : orders) {
-            for (OrderItem item : order.getOrderItems()) {
-                String foodName = item.getFoodItem().getFoodName();
-                map.merge(foodName,
-                    new TopPerformingItemDto(foodName, item.getQuantity(), item.getTotalPrice()),
-                    TopPerformingItemDto::add
-                );
-            }
+    // rollups are keyed by id, the current names are looked up once per read. Ids whose row was
+    // deleted since drop out, like order items that lost their food always have
+    private Map<String, String> namesOf(RollupDimension dimension, List<RollupTotalDto> totals) {
+        Map<String, String> names = new HashMap<>();
+        if (dimension == RollupDimension.CATEGORY) {
+            names.put(RevenueRollupService.UNCATEGORIZED_KEY, "Uncategorized");
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (RollupTotalDto total : totals) {
+            Long id = idOf(total.getDimensionKey());
+            if (id != null) ids.add(id);
+        }
+        if (ids.isEmpty()) return names;
+
+        switch (dimension) {
+            case FOOD_ITEM -> foodItemRepository.findAllById(ids)
+                    .forEach(food -> names.put(String.valueOf(food.getFoodId()), food.getFoodName()));
+            case CATEGORY -> categoryRepository.findAllById(ids)
+                    .forEach(category -> names.put(String.valueOf(category.getCategoryId()), category.getCategoryName()));
+            case TABLE -> tableRepository.findAllById(ids)
+                    .forEach(table -> names.put(String.valueOf(table.getTableId()), table.getTableNumber()));
+            default -> { }
+        }
+        return names;
+    }
+
+    // rows written before the keys were ids are skipped until the next backfill replaces them
+    private static Long idOf(String dimensionKey) {
+        try {
+            return Long.valueOf(dimensionKey);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private List<TopPerformingItemDto> topPerformingItemsOf(List<RollupTotalDto> totals) {
+        Map<String, String> names = namesOf(RollupDimension.FOOD_ITEM, totals);
+        List<TopPerformingItemDto> topPerformingItems = new ArrayList<>();
+        for (RollupTotalDto total : totals) {
+            String name = names.get(total.getDimensionKey());
+            if (name == null) continue;
+            topPerformingItems.add(new TopPerformingItemDto(name, total.getQuantity(), total.getRevenue()));
         }
-        List<TopPerformingItemDto> topPerformingItems = new ArrayList<>(map.values());
 
         topPerformingItems.sort(Comparator.comparing(
                 TopPerformingItemDto::getTotalRevenue).reversed());
@@ -124,87 +220,41 @@ public class AdminDashboardService {
         return topPerformingItems;
     }
 
-    public List<TopPerformingCategoryDto> getTopPerformingCategories(LocalDate startDate, LocalDate endDate) {
-        // Get ALL orders in the date range to calculate accurate top performers
-        List<Order> orders = orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
-                startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        );
-
-        // Map to accumulate revenue by category name
-        Map<String, BigDecimal> categoryRevenueMap = new HashMap<>();
-
-        for (Order order : orders) {
-            for (OrderItem orderItem : order.getOrderItems()) {
-                Set<Category> categories = orderItem.getFoodItem().getCategories();
-                BigDecimal itemRevenue = orderItem.getTotalPrice();
-
-                if (!categories.isEmpty()) {
-                    BigDecimal revenuePerCategory = itemRevenue.divide(
-                            BigDecimal.valueOf(categories.size()),
-                            2,
-                            RoundingMode.HALF_UP
-                    );
-
-                    for (Category category : categories) {
-                        categoryRevenueMap.merge(category.getCategoryName(), revenuePerCategory, BigDecimal::add);
-                    }
-                } else {
-                    categoryRevenueMap.merge("Uncategorized", itemRevenue, BigDecimal::add);
-                }
-            }
-        }
-
-        // Convert map entries to DTOs and sort by revenue (highest first)
+    private List<TopPerformingCategoryDto> topPerformingCategoriesOf(List<RollupTotalDto> totals) {
+        Map<String, String> names = namesOf(RollupDimension.CATEGORY, totals);
         List<TopPerformingCategoryDto> topPerformingCategories = new ArrayList<>();
-        for (Map.Entry<String, BigDecimal> entry : categoryRevenueMap.entrySet()) {
-            topPerformingCategories.add(new TopPerformingCategoryDto(entry.getKey(), entry.getValue()));
+        for (RollupTotalDto total : totals) {
+            String name = names.get(total.getDimensionKey());
+            if (name == null) continue;
+            topPerformingCategories.add(new TopPerformingCategoryDto(name, total.getRevenue()));
         }
         topPerformingCategories.sort(Comparator.comparing(TopPerformingCategoryDto::getTotalRevenue).reversed());
 
         return topPerformingCategories;
     }
 
-    public List<BusiestTableDto> getBusiestTables(LocalDate startDate, LocalDate endDate) {
-        // Get ALL orders in the date range to calculate accurate busiest tables
-        List<Order> orders = orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
-                startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        );
-
-        Map<String, Long> tableOrderCounts = new HashMap<>();
-
-        for (Order order : orders) {
-            if (order.getTable() != null && order.getTable().getTableNumber() != null) {
-                String tableNumber = order.getTable().getTableNumber();
-                tableOrderCounts.merge(tableNumber, 1L, Long::sum);
-            }
-        }
+    private List<BusiestTableDto> busiestTablesOf(List<RollupTotalDto> totals) {
+        Map<String, String> names = namesOf(RollupDimension.TABLE, totals);
         List<BusiestTableDto> busiestTables = new ArrayList<>();
-        for (Map.Entry<String, Long> entry : tableOrderCounts.entrySet()) {
-            busiestTables.add(new BusiestTableDto(entry.getKey(), entry.getValue()));
+        for (RollupTotalDto total : totals) {
+            String name = names.get(total.getDimensionKey());
+            if (name == null) continue;
+            busiestTables.add(new BusiestTableDto(name, total.getOrderCount()));
         }
         busiestTables.sort(Comparator.comparing(BusiestTableDto::getOrderCount).reversed());
 
         return busiestTables;
     }
 
-    public List<RevenueHeatmapPointDto> getRevenueHeatmap(LocalDate startDate, LocalDate endDate) {
-        List<Order> orders = orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
-                startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        );
+    private List<RevenueHeatmapPointDto> revenueHeatmapOf(List<RevenueRollup> hourlyTotals) {
         Map<String, BigDecimal> heatmapData = new HashMap<>();
 
-        for (Order order : orders) {
-            String dayOfWeek = order.getOrderTime().getDayOfWeek().toString();
-            int hourOfDay = order.getOrderTime().getHour();
+        for (RevenueRollup hour : hourlyTotals) {
+            String dayOfWeek = hour.getBucketHour().getDayOfWeek().toString();
+            int hourOfDay = hour.getBucketHour().getHour();
             String timeSlotKey = dayOfWeek + "-" + hourOfDay;
 
-            heatmapData.merge(timeSlotKey, order.getTotalPrice(), BigDecimal::add);
+            heatmapData.merge(timeSlotKey, hour.getRevenue(), BigDecimal::add);
         }
 
         List<RevenueHeatmapPointDto> heatmapPoints = new ArrayList<>();
@@ -2,6 +2,7 @@ package com.ste.restaurant.service;
 
 import com.ste.restaurant.dto.CallRequestDto;
 import com.ste.restaurant.dto.CallRequestDtoBasic;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.entity.*;
 import com.ste.restaurant.entity.enums.OrderStatus;
 import com.ste.restaurant.entity.enums.RequestType;
@@ -14,6 +15,7 @@ import com.ste.restaurant.repository.UserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -53,6 +55,17 @@ public class CallRequestService {
         return calls.map(orderMapper::callRequestToCallRequestDto);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<CallRequestDto> scrollCallRequests(String cursor, int size, boolean includeTotal) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<CallRequest> calls = cursor == null
+                ? callRequestRepository.findAllByOrderByCallRequestIdDesc(KeysetCursor.limitFor(pageSize))
+                : callRequestRepository.findAllByCallRequestIdLessThanOrderByCallRequestIdDesc(
+                        KeysetCursor.decode(cursor).id(), KeysetCursor.limitFor(pageSize));
+        return KeysetCursor.page(calls, pageSize, call -> KeysetCursor.ofId(call.getCallRequestId()),
+                orderMapper::callRequestToCallRequestDto, includeTotal ? callRequestRepository.count() : null);
+    }
+
     public Page<CallRequestDto> getAllCallRequestsBy(String type, Pageable pageable) {
         RequestType requestType;
         try {
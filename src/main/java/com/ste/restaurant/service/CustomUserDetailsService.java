@@ -1,19 +1,43 @@
 package com.ste.restaurant.service;
 
 import com.ste.restaurant.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import com.ste.restaurant.entity.User;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final long ttlMillis;
+
+    // email -> details for already authenticated requests, least recently used first. login still
+    // goes through loadUserByUsername, it needs the current password hash
+    private final Map<String, CachedUser> authenticatedUsers;
+
+    private record CachedUser(UserDetails details, long loadedAt) {
+    }
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${app.security.user-cache.max-entries:10000}") int maxCachedUsers,
+                                    @Value("${app.security.user-cache.ttl:PT5M}") Duration ttl) {
         this.userRepository = userRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.authenticatedUsers = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > maxCachedUsers;
+            }
+        };
     }
 
     @Override
@@ -27,4 +51,43 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .authorities("ROLE_" + user.getRole().name())
                 .build();
     }
+
+    // the ttl only bounds staleness for changes made outside UserService
+    public UserDetails loadAuthenticatedUser(String email) {
+        long now = System.currentTimeMillis();
+        synchronized (authenticatedUsers) {
+            CachedUser cached = authenticatedUsers.get(email);
+            if (cached != null && now - cached.loadedAt() < ttlMillis) {
+                return cached.details();
+            }
+        }
+        UserDetails loaded = loadUserByUsername(email);
+        UserDetails details = org.springframework.security.core.userdetails.User.withUserDetails(loaded)
+                .password("")
+                .build();
+        synchronized (authenticatedUsers) {
+            authenticatedUsers.put(email, new CachedUser(details, now));
+        }
+        return details;
+    }
+
+    // evicts now and again after the transaction, a request in between may have cached the old role
+    public void evict(String email) {
+        if (email == null) return;
+        remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(email);
+                }
+            });
+        }
+    }
+
+    private void remove(String email) {
+        synchronized (authenticatedUsers) {
+            authenticatedUsers.remove(email);
+        }
+    }
 }
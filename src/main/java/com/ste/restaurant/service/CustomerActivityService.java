@@ -0,0 +1,222 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.CustomerDaySketch;
+import com.ste.restaurant.entity.Order;
+import com.ste.restaurant.entity.User;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.repository.CustomerDaySketchRepository;
+import com.ste.restaurant.repository.OrderRepository;
+import com.ste.restaurant.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+// Keeps the customer facts the dashboard counts with: the first order time on every user and a
+// HyperLogLog sketch per business day of the customers with a completed order on that day.
+// Sketches only grow, an order leaving COMPLETED stays counted until the days are rebuilt.
+// A completed order reaches its sketch after the status change commits, in a transaction of
+// its own, so a failed sketch update is logged and never undoes the status change.
+// The startup backfill runs on its own thread and a rebuild commits week by week, like the
+// revenue rollups.
+@Service
+public class CustomerActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerActivityService.class);
+
+    private static final int REBUILD_CHUNK_DAYS = 7;
+
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final CustomerDaySketchRepository sketchRepository;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate sketchTransaction;
+    private final boolean backfillInBackground;
+
+    private final ExecutorService startupBackfill = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-activity-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CustomerActivityService(UserRepository userRepository, OrderRepository orderRepository,
+                                   CustomerDaySketchRepository sketchRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.customer-activity.backfill-in-background:true}") boolean backfillInBackground) {
+        this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.sketchRepository = sketchRepository;
+        this.backfillInBackground = backfillInBackground;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.sketchTransaction = new TransactionTemplate(transactionManager);
+        // afterCommit still has the finished transaction bound
+        this.sketchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // users created before first_order_at existed, or orders written around OrderService (seeding)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillInBackground) {
+            backfillIfNeeded();
+            return;
+        }
+        try {
+            startupBackfill.execute(this::backfillIfNeeded);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+        }
+    }
+
+    public void backfillIfNeeded() {
+        try {
+            Integer users = transaction.execute(status -> backfillFirstOrders());
+            if (users != null && users > 0) {
+                logger.info("First order time backfilled for {} users", users);
+            }
+            if (sketchRepository.count() == 0) {
+                Order firstOrder = orderRepository.findFirstByStatusOrderByOrderTimeAsc(OrderStatus.COMPLETED);
+                if (firstOrder != null) {
+                    rebuildSketches(businessDayOf(firstOrder.getOrderTime()), LocalDate.now());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Customer activity backfill failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdownBackfill() {
+        startupBackfill.shutdownNow();
+    }
+
+    @Transactional
+    public int backfillFirstOrders() {
+        return userRepository.backfillFirstOrderAt();
+    }
+
+    public void orderPlaced(User customer, LocalDateTime orderTime) {
+        if (customer.getFirstOrderAt() == null || orderTime.isBefore(customer.getFirstOrderAt())) {
+            customer.setFirstOrderAt(orderTime);
+        }
+    }
+
+    // the earliest order may be the one that is gone
+    public void ordersRemoved(User customer) {
+        if (customer != null) {
+            userRepository.refreshFirstOrderAt(customer);
+        }
+    }
+
+    public void orderCompleted(Order order) {
+        if (order.getCustomer() == null || order.getCustomer().getUserId() == null) return;
+
+        Long customerId = order.getCustomer().getUserId();
+        LocalDate businessDay = businessDayOf(order.getOrderTime());
+        afterCommit(() -> {
+            try {
+                sketchTransaction.executeWithoutResult(status -> addToSketch(businessDay, customerId));
+            } catch (RuntimeException e) {
+                logger.warn("Could not add customer {} to the sketch of {}", customerId, businessDay, e);
+            }
+        });
+    }
+
+    // the first order of a day creates its row, the locked read is what serializes the updates
+    private void addToSketch(LocalDate businessDay, Long customerId) {
+        CustomerDaySketch sketch = sketchRepository.findByBusinessDay(businessDay).orElseGet(() -> {
+            sketchRepository.insertIfAbsent(businessDay, new byte[HyperLogLog.REGISTER_COUNT]);
+            return sketchRepository.findByBusinessDay(businessDay).orElseThrow();
+        });
+        HyperLogLog customers = new HyperLogLog(sketch.getRegisters());
+        customers.add(customerId);
+        sketch.setRegisters(customers.toBytes());
+        sketchRepository.save(sketch);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // recomputes the sketches of every business day in [startDate, endDate], a week per transaction
+    public int rebuildSketches(LocalDate startDate, LocalDate endDate) {
+        int orderCount = 0;
+        for (LocalDate chunkStart = startDate; !chunkStart.isAfter(endDate); ) {
+            LocalDate chunkEnd = chunkStart.plusDays(REBUILD_CHUNK_DAYS - 1);
+            if (chunkEnd.isAfter(endDate)) chunkEnd = endDate;
+
+            LocalDate firstDay = chunkStart;
+            LocalDate lastDay = chunkEnd;
+            Integer orders = transaction.execute(status -> rebuildChunk(firstDay, lastDay));
+            orderCount += orders != null ? orders : 0;
+            chunkStart = chunkEnd.plusDays(1);
+        }
+        return orderCount;
+    }
+
+    private int rebuildChunk(LocalDate firstDay, LocalDate lastDay) {
+        sketchRepository.deleteRange(firstDay, lastDay);
+
+        List<Order> orders = orderRepository.findAllByStatusAndOrderTimeGreaterThanEqualAndOrderTimeLessThan(
+                OrderStatus.COMPLETED, businessDayStart(firstDay), businessDayStart(lastDay.plusDays(1)));
+
+        Map<LocalDate, HyperLogLog> days = new TreeMap<>();
+        for (Order order : orders) {
+            if (order.getCustomer() == null) continue;
+            days.computeIfAbsent(businessDayOf(order.getOrderTime()), day -> new HyperLogLog())
+                    .add(order.getCustomer().getUserId());
+        }
+        List<CustomerDaySketch> sketches = new ArrayList<>();
+        for (Map.Entry<LocalDate, HyperLogLog> day : days.entrySet()) {
+            CustomerDaySketch sketch = new CustomerDaySketch();
+            sketch.setBusinessDay(day.getKey());
+            sketch.setRegisters(day.getValue().toBytes());
+            sketches.add(sketch);
+        }
+        sketchRepository.saveAll(sketches);
+        return orders.size();
+    }
+
+    // approximate number of distinct customers with a completed order in [startDate, endDate]
+    @Transactional(readOnly = true)
+    public long estimateCustomers(LocalDate startDate, LocalDate endDate) {
+        HyperLogLog customers = new HyperLogLog();
+        for (CustomerDaySketch sketch : sketchRepository.findAllByBusinessDayBetween(startDate, endDate)) {
+            customers.merge(new HyperLogLog(sketch.getRegisters()));
+        }
+        return customers.estimate();
+    }
+
+    // orders until 03:00 belong to the day before, the same window the dashboard ranges use
+    static LocalDate businessDayOf(LocalDateTime orderTime) {
+        return orderTime.minusHours(3).toLocalDate();
+    }
+
+    private static LocalDateTime businessDayStart(LocalDate day) {
+        return day.atStartOfDay().plusHours(3);
+    }
+}
@@ -0,0 +1,170 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.FoodDescription;
+import com.ste.restaurant.repository.FoodDescriptionRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Generated food descriptions in two tiers, keyed by normalized food name and model: a bounded LRU
+// with a ttl in the heap, in front of the food_descriptions table that survives restarts and is
+// shared by every instance. The model is only asked when both miss, and only once at a time per key.
+// Hit and miss counts per tier are published as cache.gets with cache=foodDescriptions.
+@Service
+public class FoodDescriptionCache implements MeterBinder {
+
+    private final FoodDescriptionRepository foodDescriptionRepository;
+    private final long ttlMillis;
+
+    private final Map<String, CachedDescription> memory;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder memoryMisses = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder databaseMisses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record CachedDescription(String description, long loadedAt) {
+    }
+
+    public FoodDescriptionCache(FoodDescriptionRepository foodDescriptionRepository,
+                                @Value("${app.ai.description-cache.max-entries:1000}") int maxEntries,
+                                @Value("${app.ai.description-cache.ttl:PT24H}") Duration ttl) {
+        this.foodDescriptionRepository = foodDescriptionRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.memory = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedDescription> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String get(String foodName, String model, Supplier<String> generator) {
+        String name = normalize(foodName);
+        String key = model + "|" + name;
+
+        String cached = fromMemory(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+        memoryMisses.increment();
+
+        CompletableFuture<String> loading = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, loading);
+        if (running != null) {
+            return join(running);
+        }
+        try {
+            String description = load(name, model, generator);
+            putInMemory(key, description);
+            loading.complete(description);
+            return description;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, loading);
+        }
+    }
+
+    private String load(String name, String model, Supplier<String> generator) {
+        FoodDescription stored = foodDescriptionRepository.findByFoodNameAndModel(name, model).orElse(null);
+        if (stored != null) {
+            databaseHits.increment();
+            return stored.getDescription();
+        }
+        databaseMisses.increment();
+
+        String description = generator.get();
+        FoodDescription generated = new FoodDescription();
+        generated.setFoodName(name);
+        generated.setModel(model);
+        generated.setDescription(description);
+        generated.setCreatedAt(LocalDateTime.now());
+        try {
+            foodDescriptionRepository.save(generated);
+        } catch (DataIntegrityViolationException e) {
+            // another instance stored the same food meanwhile, either description will do
+        }
+        return description;
+    }
+
+    private String fromMemory(String key) {
+        synchronized (memory) {
+            CachedDescription cached = memory.get(key);
+            if (cached == null) return null;
+            if (System.currentTimeMillis() - cached.loadedAt() >= ttlMillis) {
+                memory.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return cached.description();
+        }
+    }
+
+    private void putInMemory(String key, String description) {
+        synchronized (memory) {
+            memory.put(key, new CachedDescription(description, System.currentTimeMillis()));
+        }
+    }
+
+    private static String join(CompletableFuture<String> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    // "  Adana  KEBAB " and "adana kebab" are the same food
+    static String normalize(String foodName) {
+        return foodName.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("cache", "foodDescriptions", "cacheManager", "ai");
+        FunctionCounter.builder("cache.gets", memoryHits, LongAdder::sum)
+                .tags(tags).tag("tier", "memory").tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", memoryMisses, LongAdder::sum)
+                .tags(tags).tag("tier", "memory").tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.gets", databaseHits, LongAdder::sum)
+                .tags(tags).tag("tier", "database").tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", databaseMisses, LongAdder::sum)
+                .tags(tags).tag("tier", "database").tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tags(tags).register(registry);
+        Gauge.builder("cache.size", this, FoodDescriptionCache::size)
+                .tags(tags).register(registry);
+    }
+}
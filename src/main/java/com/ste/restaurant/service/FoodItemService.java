@@ -7,6 +7,7 @@ import com.ste.restaurant.dto.FoodItemTranslationDto;
 import com.ste.restaurant.entity.Category;
 import com.ste.restaurant.entity.FoodItem;
 import com.ste.restaurant.entity.FoodItemTranslation;
+import com.ste.restaurant.entity.enums.ImageStatus;
 import com.ste.restaurant.exception.AlreadyExistsException;
 import com.ste.restaurant.exception.ImageProcessingException;
 import com.ste.restaurant.exception.InvalidValueException;
@@ -21,14 +22,17 @@ import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -39,16 +43,22 @@ public class FoodItemService {
     private final FoodItemTranslationRepository foodItemTranslationRepository;
     private final LanguageService languageService;
     private final OrderMapper orderMapper;
+    private final ImageRenditionService imageRenditionService;
+    private final FoodSearchIndex foodSearchIndex;
     private final String uploadDir;
 
     public FoodItemService(FoodItemRepository foodItemRepo,
                            FoodItemTranslationRepository foodItemTranslationRepo,
                            LanguageService languageService, OrderMapper orderMapper,
+                           ImageRenditionService imageRenditionService,
+                           FoodSearchIndex foodSearchIndex,
                            @Value("${app.image.upload-dir}") String uploadDir) {
         this.foodItemRepository = foodItemRepo;
         this.foodItemTranslationRepository = foodItemTranslationRepo;
         this.languageService = languageService;
         this.orderMapper = orderMapper;
+        this.imageRenditionService = imageRenditionService;
+        this.foodSearchIndex = foodSearchIndex;
         this.uploadDir = uploadDir;
     }
 
@@ -109,7 +119,10 @@ public class FoodItemService {
         return orderMapper.categoriesToCategoryDtoBasics(foodItem.getCategories());
     }
 
-    // process image
+    // stores the upload and returns right away with the image PENDING, the renditions are rendered
+    // by ImageRenditionService. a photo rendered before is reused without rendering it again.
+    // a rejected or unwritable upload rolls the PENDING status back with it
+    @Transactional
     public FoodItemDto addImageToFood(String name, MultipartFile imageFile) {
         String originalFilename = imageFile.getOriginalFilename();
         if (originalFilename == null || originalFilename.isEmpty()) {
@@ -118,37 +131,49 @@ public class FoodItemService {
 
         FoodItem food = foodItemRepository.findByFoodName(name)
                 .orElseThrow(() -> new NotFoundException("Food", name));
-        String oldImage = food.getImage();
 
+        byte[] bytes;
         try {
-            String extension = ServiceUtil.getFileExtension(originalFilename);
-            if (extension.isEmpty()) throw new NullValueException("Image", "extension");
-            String fileName = name.replaceAll("\s+", "-") + LocalDateTime.now().format(DateTimeFormatter.ofPattern("_yyyy-MM-dd_HH-mm-ss.")) +
-                    extension;
-            java.io.File dirFile = new java.io.File(uploadDir);
-            if (!dirFile.exists()) {
-                if (!dirFile.mkdirs()) {
-                    throw new ImageProcessingException("Image folder not created!");
-                }
-            }
-            String filePath = uploadDir + fileName;
-
-            if (!ServiceUtil.cropAndResizeToSquare(imageFile, filePath, 600)){
-                throw new ImageProcessingException("Image crop and resizing failed");
-            }
-
-            // delete old image
-            if (oldImage != null) {
-                deleteImageFile(food);
-            }
+            bytes = imageFile.getBytes();
+        } catch (IOException e) {
+            throw new ImageProcessingException(e.getMessage());
+        }
+        imageRenditionService.requireReadableImage(bytes);
+        String hash = ImageRenditionService.hashOf(bytes);
 
-            food.setImage(fileName);
+        if (hash.equals(food.getImageHash()) && food.getPendingImageHash() == null) {
+            return orderMapper.foodItemToFoodItemDto(food);
+        }
 
+        if (imageRenditionService.hasRenditions(hash)) {
+            String oldImage = food.getImage();
+            String oldHash = food.getImageHash();
+            food.setImage(ImageRendition.CARD.fileName(hash));
+            food.setImageHash(hash);
+            food.setPendingImageHash(null);
+            food.setImageStatus(ImageStatus.READY);
             FoodItem savedFood = foodItemRepository.save(food);
+            afterCommit(() -> imageRenditionService.deleteIfUnused(oldImage, oldHash));
             return orderMapper.foodItemToFoodItemDto(savedFood);
+        }
 
-        } catch (Exception e) {
-            throw new ImageProcessingException(e.getMessage());
+        food.setPendingImageHash(hash);
+        food.setImageStatus(ImageStatus.PENDING);
+        FoodItem savedFood = foodItemRepository.save(food);
+        imageRenditionService.submit(savedFood.getFoodId(), hash, bytes);
+        return orderMapper.foodItemToFoodItemDto(savedFood);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
     }
 
@@ -161,15 +186,24 @@ public class FoodItemService {
 
     public Boolean deleteImageFile(FoodItem food) {
         String oldImage = food.getImage();
-        if (oldImage != null) {
+        if (oldImage == null) {
+            return false;
+        }
+        String oldHash = food.getImageHash();
+        if (oldHash == null) {
             File oldImageFile = new File(uploadDir + oldImage);
-            if (oldImageFile.exists() && oldImageFile.delete()) {  // after delete operations
-                food.setImage(null);
-                foodItemRepository.save(food);
-                return true;
+            if (!oldImageFile.exists() || !oldImageFile.delete()) {  // after delete operations
+                return false;
             }
         }
-        return false;
+        food.setImage(null);
+        food.setImageHash(null);
+        food.setImageStatus(null);
+        foodItemRepository.save(food);
+        if (oldHash != null) {
+            imageRenditionService.deleteIfUnused(null, oldHash);
+        }
+        return true;
     }
 
     public List<FoodItemTranslationDto> getFoodItemTranslations(String name) {
@@ -231,9 +265,35 @@ public class FoodItemService {
         return orderMapper.foodItemTranslationToFoodItemTranslationDto(translation);
     }
 
+    // ranked by relevance, the requested sort only applies to the database fallback
     public Page<FoodItemDto> searchFoodItems(String query, Pageable pageable) {
-        Page<FoodItem> foodItems = foodItemRepository.findAllByFoodNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query, pageable);
-        return foodItems.map(orderMapper::foodItemToFoodItemDto);
+        if (!foodSearchIndex.isReady() || query == null || query.isBlank()) {
+            Page<FoodItem> foodItems = foodItemRepository.findAllByFoodNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query, pageable);
+            return foodItems.map(orderMapper::foodItemToFoodItemDto);
+        }
+
+        List<Long> foodIds = foodSearchIndex.search(query);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(loadInOrder(foodIds), pageable, foodIds.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), foodIds.size());
+        int to = Math.min(from + pageable.getPageSize(), foodIds.size());
+        return new PageImpl<>(loadInOrder(foodIds.subList(from, to)), pageable, foodIds.size());
+    }
+
+    private List<FoodItemDto> loadInOrder(List<Long> foodIds) {
+        Map<Long, FoodItem> foods = new HashMap<>();
+        for (FoodItem food : foodItemRepository.findAllById(foodIds)) {
+            foods.put(food.getFoodId(), food);
+        }
+        List<FoodItemDto> result = new ArrayList<>(foodIds.size());
+        for (Long foodId : foodIds) {
+            FoodItem food = foods.get(foodId);
+            if (food != null) {
+                result.add(orderMapper.foodItemToFoodItemDto(food));
+            }
+        }
+        return result;
     }
     
     public List<FoodItemDto> getLandingPageFoodItems() {
@@ -0,0 +1,396 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.FoodItemTranslation;
+import com.ste.restaurant.repository.FoodItemRepository;
+import com.ste.restaurant.repository.FoodItemTranslationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over food names, descriptions and every translation of them. Query
+// words match whole words, word prefixes, and from four letters on words one edit away (found
+// through an index of single letter deletions). Every query word has to match, foods are ranked by
+// which field matched and how closely. Hibernate events collect the changed foods and translations,
+// they are applied once their transaction commits. Until the startup build is done callers use the database,
+// changes that commit before or while a build reads are held back and replayed on top of what it read.
+@Service
+public class FoodSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodSearchIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float TRANSLATED_NAME_WEIGHT = 2.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float EXACT_MATCH = 1f;
+    private static final float PREFIX_MATCH = 0.6f;
+    private static final float FUZZY_MATCH = 0.5f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final FoodItemRepository foodItemRepository;
+    private final FoodItemTranslationRepository foodItemTranslationRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean enabled;
+
+    // food id -> indexed text, the terms it was posted under and the text of each translation
+    private final Map<Long, Document> documents = new HashMap<>();
+    // term -> food id -> best weight of the fields it appears in
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // term with one letter removed -> terms, for typo lookups
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+    private boolean ready = false;
+    private List<Change> changesDuringLoad = new ArrayList<>(); // null once built, unless a rebuild is reading
+
+    private static class Document {
+        String name;
+        String description;
+        final Map<String, String[]> translations = new HashMap<>();
+        Map<String, Float> terms = Map.of();
+    }
+
+    private record Change(Long foodId, String languageCode, String name, String description, boolean deleted) {
+    }
+
+    public FoodSearchIndex(FoodItemRepository foodItemRepository,
+                           FoodItemTranslationRepository foodItemTranslationRepository,
+                           EntityManagerFactory entityManagerFactory,
+                           @Value("${app.search.index.enabled:true}") boolean enabled) {
+        this.foodItemRepository = foodItemRepository;
+        this.foodItemTranslationRepository = foodItemTranslationRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        if (!enabled) return;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        Listener listener = new Listener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) return;
+
+        synchronized (this) {
+            if (changesDuringLoad == null) changesDuringLoad = new ArrayList<>();
+        }
+        List<Change> loaded = new ArrayList<>();
+        try {
+            for (FoodItem food : foodItemRepository.findAll()) {
+                loaded.add(new Change(food.getFoodId(), null, food.getFoodName(), food.getDescription(), false));
+            }
+            for (FoodItemTranslation translation : foodItemTranslationRepository.findAll()) {
+                loaded.add(translationChange(translation, false));
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringLoad.forEach(this::apply);
+                changesDuringLoad = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            documents.clear();
+            postings.clear();
+            deletions.clear();
+            loaded.forEach(this::apply);
+            // replaying a change the read already saw only writes the same text again
+            changesDuringLoad.forEach(this::apply);
+            changesDuringLoad = null;
+            ready = true;
+        }
+        logger.info("Food search index built with {} foods and {} terms", documents.size(), postings.size());
+    }
+
+    public synchronized boolean isReady() {
+        return enabled && ready;
+    }
+
+    // ids of the matching foods, best match first
+    public synchronized List<Long> search(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) return List.of();
+
+        Map<Long, Float> scores = null;
+        for (String word : words) {
+            Map<Long, Float> matches = match(word);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((foodId, score) -> score + matches.get(foodId));
+            }
+            if (scores.isEmpty()) return List.of();
+        }
+
+        List<Long> foodIds = new ArrayList<>(scores.keySet());
+        Map<Long, Float> finalScores = scores;
+        foodIds.sort(Comparator.<Long>comparingDouble(foodId -> -finalScores.get(foodId))
+                .thenComparingInt(foodId -> documents.get(foodId).name.length())
+                .thenComparing(Comparator.naturalOrder()));
+        return foodIds;
+    }
+
+    // best score of one query word per food: the word itself, words starting with it, words one edit away
+    private Map<Long, Float> match(String word) {
+        Map<Long, Float> scores = new HashMap<>();
+        addMatches(scores, word, EXACT_MATCH);
+        if (word.length() >= MIN_PREFIX_LENGTH) {
+            for (String term : postings.subMap(word, false, word + Character.MAX_VALUE, false).keySet()) {
+                addMatches(scores, term, PREFIX_MATCH * word.length() / term.length());
+            }
+        }
+        if (word.length() >= MIN_FUZZY_LENGTH) {
+            for (String term : fuzzyCandidates(word)) {
+                addMatches(scores, term, FUZZY_MATCH);
+            }
+        }
+        return scores;
+    }
+
+    private void addMatches(Map<Long, Float> scores, String term, float quality) {
+        Map<Long, Float> posting = postings.get(term);
+        if (posting == null) return;
+        posting.forEach((foodId, weight) -> scores.merge(foodId, quality * weight, Math::max));
+    }
+
+    private Set<String> fuzzyCandidates(String word) {
+        Set<String> candidates = new HashSet<>();
+        List<String> keys = new ArrayList<>(deletionsOf(word));
+        keys.add(word);
+        for (String key : keys) {
+            // a deleted letter (key is the word), an inserted one (key is a deletion of the word) or a replaced one
+            if (postings.containsKey(key) && !key.equals(word)) candidates.add(key);
+            for (String term : deletions.getOrDefault(key, Set.of())) {
+                if (!term.equals(word) && withinOneEdit(word, term)) candidates.add(term);
+            }
+        }
+        return candidates;
+    }
+
+    // levenshtein distance of at most one, or two neighbouring letters swapped
+    static boolean withinOneEdit(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) return false;
+        int start = 0;
+        while (start < a.length() && start < b.length() && a.charAt(start) == b.charAt(start)) start++;
+        if (a.length() == b.length()) {
+            if (start == a.length()) return true;
+            if (a.substring(start + 1).equals(b.substring(start + 1))) return true;
+            return start + 1 < a.length() && a.charAt(start) == b.charAt(start + 1)
+                    && a.charAt(start + 1) == b.charAt(start) && a.substring(start + 2).equals(b.substring(start + 2));
+        }
+        String longer = a.length() > b.length() ? a : b;
+        String shorter = a.length() > b.length() ? b : a;
+        return longer.substring(start + 1).equals(shorter.substring(start));
+    }
+
+    // records what changed, the index only sees it when the transaction commits
+    private void changed(Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed(List.of(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Change> pending = (List<Change>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Change> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(FoodSearchIndex.this);
+                    if (status != STATUS_COMMITTED) return;
+                    committed(changes);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    private synchronized void committed(List<Change> changes) {
+        if (changesDuringLoad != null) {
+            changesDuringLoad.addAll(changes);
+        } else {
+            changes.forEach(this::apply);
+        }
+    }
+
+    private void apply(Change change) {
+        Document document = documents.get(change.foodId());
+        if (change.languageCode() == null) {
+            if (change.deleted()) {
+                if (document != null) {
+                    post(change.foodId(), document.terms, Map.of());
+                    documents.remove(change.foodId());
+                }
+                return;
+            }
+            if (document == null) {
+                document = new Document();
+                documents.put(change.foodId(), document);
+            }
+            document.name = change.name();
+            document.description = change.description();
+        } else {
+            // a translation can arrive before its food when both are loaded at startup
+            if (document == null) {
+                if (change.deleted()) return;
+                document = new Document();
+                document.name = "";
+                documents.put(change.foodId(), document);
+            }
+            if (change.deleted()) {
+                document.translations.remove(change.languageCode());
+            } else {
+                document.translations.put(change.languageCode(), new String[]{change.name(), change.description()});
+            }
+        }
+        Map<String, Float> terms = termsOf(document);
+        post(change.foodId(), document.terms, terms);
+        document.terms = terms;
+    }
+
+    private static Map<String, Float> termsOf(Document document) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, document.name, NAME_WEIGHT);
+        addTerms(terms, document.description, DESCRIPTION_WEIGHT);
+        for (String[] translation : document.translations.values()) {
+            addTerms(terms, translation[0], TRANSLATED_NAME_WEIGHT);
+            addTerms(terms, translation[1], DESCRIPTION_WEIGHT);
+        }
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Math::max);
+        }
+    }
+
+    // moves the food from its old terms to its new ones, terms without foods are dropped
+    private void post(Long foodId, Map<String, Float> oldTerms, Map<String, Float> newTerms) {
+        for (String term : oldTerms.keySet()) {
+            if (newTerms.containsKey(term)) continue;
+            Map<Long, Float> posting = postings.get(term);
+            if (posting == null) continue;
+            posting.remove(foodId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String deletion : deletionsOf(term)) {
+                    Set<String> terms = deletions.get(deletion);
+                    if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                        deletions.remove(deletion);
+                    }
+                }
+            }
+        }
+        newTerms.forEach((term, weight) -> {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(term, posting);
+                if (term.length() >= MIN_FUZZY_LENGTH - 1) {
+                    for (String deletion : deletionsOf(term)) {
+                        deletions.computeIfAbsent(deletion, key -> new HashSet<>()).add(term);
+                    }
+                }
+            }
+            posting.put(foodId, weight);
+        });
+    }
+
+    private static Set<String> deletionsOf(String term) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    // lower case words without accents, so "Crème brûlée" is found by "creme brulee"
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(normalized)) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    private static Change translationChange(FoodItemTranslation translation, boolean deleted) {
+        return new Change(translation.getFoodItemTranslationId().getFoodItemId(),
+                translation.getFoodItemTranslationId().getLanguageCode(),
+                translation.getName(), translation.getDescription(), deleted);
+    }
+
+    synchronized int termCount() {
+        return postings.size();
+    }
+
+    private class Listener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changed(event.getEntity(), false);
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            changed(event.getEntity(), false);
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changed(event.getEntity(), true);
+        }
+
+        private void changed(Object entity, boolean deleted) {
+            if (entity == null) return;
+            Class<?> type = Hibernate.getClass(entity);
+            if (type == FoodItem.class) {
+                FoodItem food = (FoodItem) entity;
+                FoodSearchIndex.this.changed(new Change(food.getFoodId(), null, food.getFoodName(), food.getDescription(), deleted));
+            } else if (type == FoodItemTranslation.class) {
+                FoodSearchIndex.this.changed(translationChange((FoodItemTranslation) entity, deleted));
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ste.restaurant.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The sizes a food photo is rendered to, square and never upscaled. Files are named after the
+// hash of the uploaded bytes, the same photo always maps to the same files.
+public enum ImageRendition {
+    THUMBNAIL(160),
+    CARD(600),
+    FULL(1200);
+
+    private final int size;
+
+    ImageRendition(int size) {
+        this.size = size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String fileName(String hash) {
+        return hash + "-" + name().toLowerCase() + ".jpg";
+    }
+
+    public String key() {
+        return name().toLowerCase();
+    }
+
+    // rendition -> file name under /images, null for images uploaded before renditions existed
+    public static Map<String, String> fileNames(String hash) {
+        if (hash == null) return null;
+        Map<String, String> fileNames = new LinkedHashMap<>();
+        for (ImageRendition rendition : values()) {
+            fileNames.put(rendition.key(), rendition.fileName(hash));
+        }
+        return fileNames;
+    }
+}
@@ -0,0 +1,319 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.enums.ImageStatus;
+import com.ste.restaurant.exception.ImageProcessingException;
+import com.ste.restaurant.exception.RateLimitExceededException;
+import com.ste.restaurant.repository.FoodItemRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Renders uploaded food photos off the request thread. The upload is stored under its content hash
+// and the food marked PENDING, a small worker pool with a bounded queue then decodes it once and
+// writes every ImageRendition as jpeg. The food switches to the new files when all are written,
+// until then it keeps showing its previous image. A full queue turns uploads away with a 429.
+@Service
+public class ImageRenditionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageRenditionService.class);
+
+    private static final String ORIGINALS_DIR = "originals";
+
+    private final FoodItemRepository foodItemRepository;
+    private final TransactionTemplate transaction;
+    private final Path uploadDir;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor workers;
+
+    public ImageRenditionService(FoodItemRepository foodItemRepository, PlatformTransactionManager transactionManager,
+                                 @Value("${app.image.upload-dir}") String uploadDir,
+                                 @Value("${app.image.workers:2}") int workerCount,
+                                 @Value("${app.image.queue-capacity:32}") int queueCapacity,
+                                 @Value("${app.image.jpeg-quality:0.85}") float jpegQuality) {
+        this.foodItemRepository = foodItemRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.uploadDir = Paths.get(uploadDir);
+        this.jpegQuality = jpegQuality;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "image-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // first 128 bits of the sha-256 of the upload, enough to never collide within one menu
+    public static String hashOf(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // checks the format from the header only, decoding is left to the workers
+    public void requireReadableImage(byte[] bytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            if (input == null || !ImageIO.getImageReaders(input).hasNext()) {
+                throw new ImageProcessingException("Unsupported image format");
+            }
+        } catch (IOException e) {
+            throw new ImageProcessingException(e.getMessage());
+        }
+    }
+
+    public boolean hasRenditions(String hash) {
+        for (ImageRendition rendition : ImageRendition.values()) {
+            if (!Files.exists(uploadDir.resolve(rendition.fileName(hash)))) return false;
+        }
+        return true;
+    }
+
+    // stores the upload and queues it once the transaction marking the food PENDING has committed,
+    // a rolled back transaction takes the stored upload with it
+    public void submit(Long foodId, String hash, byte[] bytes) {
+        if (workers.getQueue().remainingCapacity() == 0) {
+            throw new RateLimitExceededException("Images", "Too many images are being processed, try again shortly",
+                    Duration.ofSeconds(5));
+        }
+        Path original = originalOf(hash);
+        // another pending food may be waiting on the same upload
+        boolean alreadyStored = Files.exists(original);
+        try {
+            Files.createDirectories(original.getParent());
+            writeAtomically(original, bytes);
+        } catch (IOException e) {
+            throw new ImageProcessingException(e.getMessage());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        execute(foodId, hash);
+                    } else if (!alreadyStored) {
+                        deleteQuietly(original);
+                    }
+                }
+            });
+        } else {
+            execute(foodId, hash);
+        }
+    }
+
+    // uploads that were still queued when the application stopped
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        for (FoodItem food : foodItemRepository.findAllByImageStatus(ImageStatus.PENDING)) {
+            if (food.getPendingImageHash() != null && Files.exists(originalOf(food.getPendingImageHash()))) {
+                execute(food.getFoodId(), food.getPendingImageHash());
+            } else {
+                finish(food.getFoodId(), food.getPendingImageHash(), false);
+            }
+        }
+    }
+
+    private void execute(Long foodId, String hash) {
+        try {
+            workers.execute(() -> process(foodId, hash));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image queue full, dropping upload {} of food {}", hash, foodId);
+            finish(foodId, hash, false);
+        }
+    }
+
+    void process(Long foodId, String hash) {
+        boolean rendered = false;
+        try {
+            if (!hasRenditions(hash)) {
+                renderAll(Files.readAllBytes(originalOf(hash)), hash);
+            }
+            rendered = true;
+        } catch (Exception e) {
+            logger.warn("Image {} of food {} could not be processed: {}", hash, foodId, e.getMessage());
+        }
+        try {
+            finish(foodId, hash, rendered);
+        } finally {
+            deleteQuietly(originalOf(hash));
+        }
+    }
+
+    // decodes once, each rendition is scaled down from the cropped source
+    void renderAll(byte[] bytes, String hash) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(bytes));
+        if (source == null) {
+            throw new IOException("Image could not be decoded");
+        }
+        BufferedImage square = cropToSquare(source);
+        for (ImageRendition rendition : ImageRendition.values()) {
+            int size = Math.min(rendition.getSize(), square.getWidth());
+            writeJpeg(scaleDown(square, size), uploadDir.resolve(rendition.fileName(hash)));
+        }
+    }
+
+    // the food may have been given another photo or deleted while this one was rendered
+    private void finish(Long foodId, String hash, boolean rendered) {
+        ReplacedImage replaced = transaction.execute(status -> {
+            FoodItem food = foodItemRepository.findById(foodId).orElse(null);
+            if (food == null || food.getImageStatus() != ImageStatus.PENDING
+                    || !Objects.equals(hash, food.getPendingImageHash())) {
+                return null;
+            }
+            ReplacedImage previous = new ReplacedImage(food.getImage(), food.getImageHash());
+            food.setPendingImageHash(null);
+            if (rendered) {
+                food.setImage(ImageRendition.CARD.fileName(hash));
+                food.setImageHash(hash);
+                food.setImageStatus(ImageStatus.READY);
+            } else {
+                food.setImageStatus(ImageStatus.FAILED);
+                previous = null;
+            }
+            foodItemRepository.save(food);
+            return previous;
+        });
+        if (replaced != null) {
+            deleteIfUnused(replaced.image(), replaced.hash());
+        }
+        if (rendered && replaced == null) {
+            // rendered for a food that moved on, nobody else may need the files either
+            deleteIfUnused(null, hash);
+        }
+    }
+
+    private record ReplacedImage(String image, String hash) {
+    }
+
+    // legacy images belong to one food, rendition files may be shared by foods with the same photo
+    public void deleteIfUnused(String image, String hash) {
+        if (hash == null) {
+            if (image != null) deleteQuietly(uploadDir.resolve(image));
+            return;
+        }
+        Long users = transaction.execute(status -> foodItemRepository.countUsingImage(hash));
+        if (users != null && users > 0) return;
+        for (ImageRendition rendition : ImageRendition.values()) {
+            deleteQuietly(uploadDir.resolve(rendition.fileName(hash)));
+        }
+    }
+
+    static BufferedImage cropToSquare(BufferedImage source) {
+        int squareSize = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - squareSize) / 2;
+        int y = (source.getHeight() - squareSize) / 2;
+        return source.getSubimage(x, y, squareSize, squareSize);
+    }
+
+    // halves with bilinear filtering until within 2x of the target, one bicubic step for the rest;
+    // a single large step skips most source pixels and aliases. transparency is flattened on white
+    static BufferedImage scaleDown(BufferedImage source, int size) {
+        BufferedImage current = source;
+        int currentSize = source.getWidth();
+        do {
+            int nextSize = currentSize / 2 >= size ? currentSize / 2 : size;
+            BufferedImage next = new BufferedImage(nextSize, nextSize, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = next.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, nextSize == size
+                    ? RenderingHints.VALUE_INTERPOLATION_BICUBIC
+                    : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, nextSize, nextSize);
+            g2d.drawImage(current, 0, 0, nextSize, nextSize, null);
+            g2d.dispose();
+            current = next;
+            currentSize = nextSize;
+        } while (currentSize > size);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temp = Files.createTempFile(uploadDir, ".rendition-", ".tmp");
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path originalOf(String hash) {
+        return uploadDir.resolve(ORIGINALS_DIR).resolve(hash);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    int queuedImages() {
+        return workers.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdownWorkers() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.common.CursorPageDto;
+import com.ste.restaurant.exception.InvalidValueException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Continuation token of a keyset page, the sort key of the last row handed out. The next page
+// seeks past it through the index instead of skipping rows, so every page costs the same.
+record KeysetCursor(LocalDateTime time, long id) {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    static KeysetCursor ofId(long id) {
+        return new KeysetCursor(null, id);
+    }
+
+    // the database keeps microseconds, a nanosecond key of an entity that was never reloaded would
+    // sort just after its own row and repeat it on the next page
+    String encode() {
+        String key = time == null ? Long.toString(id) : time.truncatedTo(ChronoUnit.MICROS) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf('|');
+            if (separator < 0) {
+                return ofId(Long.parseLong(key));
+            }
+            return new KeysetCursor(LocalDateTime.parse(key.substring(0, separator)),
+                    Long.parseLong(key.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidValueException("cursor", cursor);
+        }
+    }
+
+    static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    // one row more than the page tells whether there is a next page without counting
+    static Limit limitFor(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    static <E, D> CursorPageDto<D> page(List<E> rows, int pageSize, Function<E, KeysetCursor> keyOf,
+                                        Function<E, D> mapper, Long total) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? keyOf.apply(content.get(pageSize - 1)).encode() : null;
+        return new CursorPageDto<>(content.stream().map(mapper).toList(), nextCursor, total);
+    }
+}
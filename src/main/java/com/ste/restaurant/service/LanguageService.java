@@ -3,10 +3,17 @@ package com.ste.restaurant.service;
 import com.ste.restaurant.repository.CategoryTranslationRepository;
 import com.ste.restaurant.repository.FoodItemTranslationRepository;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,6 +22,9 @@ public class LanguageService {
     private final FoodItemTranslationRepository foodItemTranslationRepository;
     private final CategoryTranslationRepository categoryTranslationRepository;
 
+    // language name -> code of the languages menus can be translated to, from languages.json
+    private volatile Map<String, String> translatableLanguages;
+
     public LanguageService(FoodItemTranslationRepository foodItemTranslationRepository,
                            CategoryTranslationRepository categoryTranslationRepository) {
         this.foodItemTranslationRepository = foodItemTranslationRepository;
@@ -40,4 +50,24 @@ public class LanguageService {
                      .distinct()
                      .collect(Collectors.toList());
     }
+
+    public Map<String, String> getTranslatableLanguages() {
+        Map<String, String> languages = translatableLanguages;
+        if (languages != null) {
+            return languages;
+        }
+        try (InputStream inputStream = new ClassPathResource("languages.json").getInputStream()) {
+            languages = Map.copyOf(new ObjectMapper().readValue(inputStream, new TypeReference<Map<String, String>>() {
+            }));
+        } catch (IOException e) {
+            throw new IllegalStateException("Supported languages could not be loaded", e);
+        }
+        translatableLanguages = languages;
+        return languages;
+    }
+
+    // null when the language name is not in languages.json
+    public String getTranslatableLanguageCode(String languageName) {
+        return languageName == null ? null : getTranslatableLanguages().get(languageName);
+    }
 }
@@ -0,0 +1,328 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.OrderBookReconciliationDto;
+import com.ste.restaurant.dto.OrderDto;
+import com.ste.restaurant.entity.Order;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.mapper.OrderMapper;
+import com.ste.restaurant.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Write-through copy of today's orders (the same "since 06:00" window the kitchen and waiter
+// screens use), so their lists are served from memory instead of re-reading the same rows.
+// OrderService pushes every committed change here, the book is rebuilt from the database at startup.
+// Changes that commit while the rebuild reads are held back and replayed on top of what it read,
+// so an order committed between the read and the swap is not lost.
+@Service
+public class LiveOrderBookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveOrderBookService.class);
+
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final boolean enabled;
+
+    private final Map<Long, OrderDto> orders = new HashMap<>();
+    private final Map<OrderStatus, Set<Long>> byStatus = new EnumMap<>(OrderStatus.class);
+    private final Map<String, Set<Long>> byTable = new HashMap<>();
+    private final Map<String, Set<Long>> byCustomer = new HashMap<>();
+    private LocalDateTime loadedWindowStart;
+    private boolean ready = false;
+    private List<Runnable> changesDuringLoad; // null unless a rebuild is reading
+
+    public LiveOrderBookService(OrderRepository orderRepository, OrderMapper orderMapper,
+                                @Value("${app.orders.live-book.enabled:true}") boolean enabled) {
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) return;
+
+        synchronized (this) {
+            changesDuringLoad = new ArrayList<>();
+        }
+        LocalDateTime windowStart = windowStart();
+        List<OrderDto> loaded;
+        try {
+            loaded = orderMapper.ordersToOrderDtos(orderRepository.findAllByOrderTimeAfter(windowStart));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringLoad.forEach(Runnable::run);
+                changesDuringLoad = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            clear();
+            loadedWindowStart = windowStart;
+            for (OrderDto orderDto : loaded) {
+                add(orderDto);
+            }
+            // replaying a change the read already saw only puts the same version back
+            changesDuringLoad.forEach(Runnable::run);
+            changesDuringLoad = null;
+            ready = true;
+        }
+        logger.info("Live order book loaded with {} orders", loaded.size());
+    }
+
+    // the book only answers once it is loaded, before that callers go to the database
+    public synchronized boolean isReady() {
+        return enabled && ready;
+    }
+
+    public boolean canServe(Pageable pageable) {
+        if (!isReady()) return false;
+        for (Sort.Order sortOrder : pageable.getSort()) {
+            if (!sortOrder.getProperty().equals("orderTime")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(OrderDto orderDto) {
+        afterCommit(() -> {
+            remove(orderDto.getOrderId());
+            if (orderDto.getOrderTime() != null && orderDto.getOrderTime().isAfter(windowStart())) {
+                add(orderDto);
+            }
+        });
+    }
+
+    public void evict(Long orderId) {
+        afterCommit(() -> remove(orderId));
+    }
+
+    // mirrors OrderRepository.updateCustomerAndAddressToNull when a user is deleted
+    public void detachCustomer(String email) {
+        afterCommit(() -> {
+            for (Long orderId : new ArrayList<>(byCustomer.getOrDefault(email, Set.of()))) {
+                OrderDto detached = copyOf(orders.get(orderId));
+                detached.setCustomer(null);
+                detached.setAddress(null);
+                remove(orderId);
+                add(detached);
+            }
+        });
+    }
+
+    // newest first, same order as the repository queries it replaces
+    public synchronized List<OrderDto> getOrders(Collection<OrderStatus> statuses) {
+        rollWindow();
+        List<OrderDto> result = new ArrayList<>();
+        for (OrderStatus status : statuses) {
+            for (Long orderId : byStatus.getOrDefault(status, Set.of())) {
+                result.add(copyOf(orders.get(orderId)));
+            }
+        }
+        result.sort(Comparator.comparing(OrderDto::getOrderTime).reversed());
+        return result;
+    }
+
+    public Page<OrderDto> getOrders(Collection<OrderStatus> statuses, Pageable pageable) {
+        List<OrderDto> result = getOrders(statuses);
+        Sort.Order sortOrder = pageable.getSort().getOrderFor("orderTime");
+        if (sortOrder != null && sortOrder.isAscending()) {
+            Collections.reverse(result);
+        }
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(result, pageable, result.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), result.size());
+        int to = Math.min(from + pageable.getPageSize(), result.size());
+        return new PageImpl<>(result.subList(from, to), pageable, result.size());
+    }
+
+    public synchronized List<OrderDto> getOrdersOfTable(String tableNumber) {
+        rollWindow();
+        List<OrderDto> result = new ArrayList<>();
+        for (Long orderId : byTable.getOrDefault(tableNumber, Set.of())) {
+            result.add(copyOf(orders.get(orderId)));
+        }
+        result.sort(Comparator.comparing(OrderDto::getOrderTime).reversed());
+        return result;
+    }
+
+    // empty when the customer has not ordered today, the caller then falls back to the database
+    public synchronized Optional<OrderDto> getLastOrderOf(String email) {
+        rollWindow();
+        return byCustomer.getOrDefault(email, Set.of()).stream()
+                .map(orders::get)
+                .max(Comparator.comparing(OrderDto::getOrderTime))
+                .map(this::copyOf);
+    }
+
+    // compares the book against a fresh read of the same window, changes committed while
+    // this runs can show up as a mismatch, so run it again before acting on a single report
+    @Transactional(readOnly = true)
+    public OrderBookReconciliationDto reconcile() {
+        List<Order> dbOrders = orderRepository.findAllByOrderTimeAfter(windowStart());
+
+        Map<Long, OrderDto> bookOrders;
+        synchronized (this) {
+            rollWindow();
+            bookOrders = new HashMap<>(orders);
+        }
+
+        List<Long> missing = new ArrayList<>();
+        List<Long> mismatched = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Order order : dbOrders) {
+            seen.add(order.getOrderId());
+            OrderDto bookOrder = bookOrders.get(order.getOrderId());
+            if (bookOrder == null) {
+                missing.add(order.getOrderId());
+            } else if (!matches(order, bookOrder)) {
+                mismatched.add(order.getOrderId());
+            }
+        }
+        List<Long> unexpected = new ArrayList<>();
+        for (Long orderId : bookOrders.keySet()) {
+            if (!seen.contains(orderId)) {
+                unexpected.add(orderId);
+            }
+        }
+
+        boolean consistent = missing.isEmpty() && unexpected.isEmpty() && mismatched.isEmpty();
+        if (!consistent) {
+            logger.warn("Live order book differs from database: missing={}, unexpected={}, mismatched={}",
+                    missing, unexpected, mismatched);
+        }
+        return new OrderBookReconciliationDto(consistent, bookOrders.size(), dbOrders.size(),
+                missing, unexpected, mismatched);
+    }
+
+    private boolean matches(Order order, OrderDto bookOrder) {
+        return Objects.equals(order.getStatus().name(), bookOrder.getStatus())
+                && Objects.equals(order.getOrderTime(), bookOrder.getOrderTime())
+                && Objects.equals(order.getNotes(), bookOrder.getNotes())
+                && compare(order.getTotalPrice(), bookOrder.getTotalPrice())
+                && Objects.equals(order.getTable() != null ? order.getTable().getTableNumber() : null,
+                        tableNumberOf(bookOrder))
+                && Objects.equals(order.getCustomer() != null ? order.getCustomer().getEmail() : null,
+                        customerEmailOf(bookOrder))
+                && Objects.equals(order.getAddress() != null ? order.getAddress().getAddressId() : null,
+                        bookOrder.getAddress() != null ? bookOrder.getAddress().getAddressId() : null)
+                && order.getOrderItems().size() == (bookOrder.getOrderItems() != null ? bookOrder.getOrderItems().size() : 0);
+    }
+
+    private boolean compare(BigDecimal a, BigDecimal b) {
+        if (a == null || b == null) return a == b;
+        return a.compareTo(b) == 0;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!enabled) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Runnable change) {
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(change);
+        } else {
+            change.run();
+        }
+    }
+
+    // the window moves once a day, drop what fell out of it
+    private void rollWindow() {
+        LocalDateTime windowStart = windowStart();
+        if (windowStart.equals(loadedWindowStart)) return;
+
+        for (OrderDto orderDto : new ArrayList<>(orders.values())) {
+            if (!orderDto.getOrderTime().isAfter(windowStart)) {
+                remove(orderDto.getOrderId());
+            }
+        }
+        loadedWindowStart = windowStart;
+    }
+
+    private LocalDateTime windowStart() {
+        return LocalDate.now().atStartOfDay().plusHours(6);
+    }
+
+    private void add(OrderDto orderDto) {
+        Long orderId = orderDto.getOrderId();
+        orders.put(orderId, orderDto);
+        byStatus.computeIfAbsent(OrderStatus.valueOf(orderDto.getStatus()), k -> new HashSet<>()).add(orderId);
+        if (tableNumberOf(orderDto) != null) {
+            byTable.computeIfAbsent(tableNumberOf(orderDto), k -> new HashSet<>()).add(orderId);
+        }
+        if (customerEmailOf(orderDto) != null) {
+            byCustomer.computeIfAbsent(customerEmailOf(orderDto), k -> new HashSet<>()).add(orderId);
+        }
+    }
+
+    private void remove(Long orderId) {
+        OrderDto removed = orders.remove(orderId);
+        if (removed == null) return;
+
+        removeFromIndex(byStatus, OrderStatus.valueOf(removed.getStatus()), orderId);
+        removeFromIndex(byTable, tableNumberOf(removed), orderId);
+        removeFromIndex(byCustomer, customerEmailOf(removed), orderId);
+    }
+
+    private <K> void removeFromIndex(Map<K, Set<Long>> index, K key, Long orderId) {
+        if (key == null) return;
+        Set<Long> ids = index.get(key);
+        if (ids == null) return;
+        ids.remove(orderId);
+        if (ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private void clear() {
+        orders.clear();
+        byStatus.clear();
+        byTable.clear();
+        byCustomer.clear();
+    }
+
+    private String tableNumberOf(OrderDto orderDto) {
+        return orderDto.getTable() != null ? orderDto.getTable().getTableNumber() : null;
+    }
+
+    private String customerEmailOf(OrderDto orderDto) {
+        return orderDto.getCustomer() != null ? orderDto.getCustomer().getEmail() : null;
+    }
+
+    // callers trim fields on what they get back (customer for the customer views), keep the book untouched
+    private OrderDto copyOf(OrderDto orderDto) {
+        return new OrderDto(orderDto.getOrderId(), orderDto.getOrderTime(), orderDto.getStatus(),
+                orderDto.getTotalPrice(), orderDto.getNotes(), orderDto.getCustomer(),
+                orderDto.getAddress(), orderDto.getOrderItems(), orderDto.getTable());
+    }
+}
@@ -0,0 +1,173 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.exception.NotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Looks up the photos and qr codes served under /images and /qr-codes. File names carrying a
+// content hash never change content, those are cached by browsers for a year; anything else is
+// revalidated with its etag. A .br or .gz file next to the original is served instead when the
+// client accepts it. Small files are kept in a byte bounded LRU, larger ones are streamed from disk.
+// resolve() only reads file attributes, the content is loaded once a conditional request misses.
+@Service
+public class MediaFileService {
+
+    // a 32 hex digit content hash as its own part of the name, like <hash>-card.jpg
+    private static final Pattern FINGERPRINT = Pattern.compile("(^|[-_.])[0-9a-f]{32}([-_.]|$)");
+
+    private static final String[][] ENCODINGS = {{"br", ".br"}, {"gzip", ".gz"}};
+
+    public enum Directory {
+        IMAGES,
+        QR_CODES
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class MediaFile {
+        private final Path path;
+        private final long length;
+        private final long lastModified;
+        private final String etag;
+        private final MediaType contentType;
+        private final String contentEncoding; // null for the original file
+        private final boolean fingerprinted;
+    }
+
+    private record CachedContent(long lastModified, byte[] bytes) {
+    }
+
+    private final Map<Directory, Path> directories;
+    private final int maxCachedFileSize;
+    private final long maxCachedBytes;
+
+    private final LinkedHashMap<Path, CachedContent> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    public MediaFileService(@Value("${app.image.upload-dir}") String uploadDir,
+                            @Value("${app.image.qr-code-dir}") String qrCodeDir,
+                            @Value("${app.media.cache.max-file-size:65536}") int maxCachedFileSize,
+                            @Value("${app.media.cache.max-bytes:33554432}") long maxCachedBytes) {
+        this.directories = Map.of(
+                Directory.IMAGES, Paths.get(uploadDir).toAbsolutePath().normalize(),
+                Directory.QR_CODES, Paths.get(qrCodeDir).toAbsolutePath().normalize());
+        this.maxCachedFileSize = maxCachedFileSize;
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    public MediaFile resolve(Directory directory, String fileName, String acceptEncoding) {
+        // a single plain segment, hidden files are the temp files of writes in progress
+        if (fileName == null || fileName.isEmpty() || fileName.startsWith(".")
+                || fileName.contains("/") || fileName.contains("\\")) {
+            throw new NotFoundException("Media", fileName);
+        }
+        Path base = directories.get(directory);
+        Path path = base.resolve(fileName).normalize();
+        if (!path.getParent().equals(base)) {
+            throw new NotFoundException("Media", fileName);
+        }
+
+        BasicFileAttributes original = attributes(path);
+        if (original == null || !original.isRegularFile()) {
+            throw new NotFoundException("Media", fileName);
+        }
+        MediaType contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        boolean fingerprinted = FINGERPRINT.matcher(fileName).find();
+
+        for (String[] encoding : ENCODINGS) {
+            if (!accepts(acceptEncoding, encoding[0])) continue;
+            Path variant = path.resolveSibling(fileName + encoding[1]);
+            BasicFileAttributes attributes = attributes(variant);
+            // a variant older than the original was left behind by a replaced file
+            if (attributes != null && attributes.isRegularFile()
+                    && attributes.lastModifiedTime().toMillis() >= original.lastModifiedTime().toMillis()) {
+                return mediaFile(variant, attributes, contentType, encoding[0], fingerprinted);
+            }
+        }
+        return mediaFile(path, original, contentType, null, fingerprinted);
+    }
+
+    private MediaFile mediaFile(Path path, BasicFileAttributes attributes, MediaType contentType,
+                                String contentEncoding, boolean fingerprinted) {
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length)
+                + (contentEncoding != null ? "-" + contentEncoding : "") + "\"";
+        return new MediaFile(path, length, lastModified, etag, contentType, contentEncoding, fingerprinted);
+    }
+
+    // small files from the cache, read through; null when the file has to be streamed from disk.
+    // a file changed on disk since it was cached is read again
+    public byte[] content(MediaFile file) {
+        Path path = file.getPath();
+        long length = file.getLength();
+        long lastModified = file.getLastModified();
+        if (length > maxCachedFileSize) return null;
+        synchronized (cache) {
+            CachedContent cached = cache.get(path);
+            if (cached != null && cached.lastModified() == lastModified && cached.bytes().length == length) {
+                return cached.bytes();
+            }
+        }
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (IOException e) {
+            return null;
+        }
+        synchronized (cache) {
+            CachedContent previous = cache.put(path, new CachedContent(lastModified, bytes));
+            cachedBytes += bytes.length - (previous != null ? previous.bytes().length : 0);
+            var eldest = cache.entrySet().iterator();
+            while (cachedBytes > maxCachedBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().getValue().bytes().length;
+                eldest.remove();
+            }
+        }
+        return bytes;
+    }
+
+    static boolean accepts(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equals(encoding)) continue;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.matches("q=0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static BasicFileAttributes attributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    long cachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+}
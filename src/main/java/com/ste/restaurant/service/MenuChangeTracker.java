@@ -0,0 +1,112 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Version of everything the public menu is built from. Any insert, update or delete of a menu,
+// food item, category or translation (and their join tables) bumps it, so does MenuService for
+// the bulk deactivate that Hibernate does not report. Snapshots built for an older version are stale.
+@Service
+public class MenuChangeTracker {
+
+    private static final Set<Class<?>> MENU_ENTITIES = Set.of(
+            Menu.class, FoodItem.class, Category.class, FoodItemTranslation.class, CategoryTranslation.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AtomicLong version = new AtomicLong();
+
+    public MenuChangeTracker(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        Listener listener = new Listener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+    }
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    // bumps right away and again once the transaction is over, a snapshot taken in between
+    // may hold data that was rolled back or not yet visible to other readers
+    public void menuChanged() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MenuChangeTracker.this);
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void changed(Object entity) {
+        if (entity != null && MENU_ENTITIES.contains(Hibernate.getClass(entity))) {
+            menuChanged();
+        }
+    }
+
+    private class Listener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+            PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changed(event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            changed(event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changed(event.getEntity());
+        }
+
+        @Override
+        public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+            changed(event.getAffectedOwnerOrNull());
+        }
+
+        @Override
+        public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+            changed(event.getAffectedOwnerOrNull());
+        }
+
+        @Override
+        public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+            changed(event.getAffectedOwnerOrNull());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
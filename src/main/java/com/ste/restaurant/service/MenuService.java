@@ -33,13 +33,16 @@ public class MenuService {
     private final FoodItemRepository foodItemRepository;
     private final OrderMapper orderMapper;
     private final LanguageService languageService;
+    private final MenuChangeTracker menuChangeTracker;
 
     public MenuService(MenuRepository menuRepo, FoodItemRepository foodItemRepo, 
-                       OrderMapper orderMapper, LanguageService languageService) {
+                       OrderMapper orderMapper, LanguageService languageService,
+                       MenuChangeTracker menuChangeTracker) {
         this.menuRepository = menuRepo;
         this.foodItemRepository = foodItemRepo;
         this.orderMapper = orderMapper;
         this.languageService = languageService;
+        this.menuChangeTracker = menuChangeTracker;
     }
 
     public MenuDtoBasic saveMenu(MenuDtoBasic menu) {
@@ -101,6 +104,7 @@ public class MenuService {
         Set<String> menuNames = menuNamesDto.getNames();
 
         menuRepository.deactivateAll();
+        menuChangeTracker.menuChanged(); // bulk update, no entity events
 
         List<MenuDto> menuDtos = new ArrayList<>();
         List<String> failedMenuNames = new ArrayList<>();
@@ -119,66 +123,62 @@ public class MenuService {
     }
 
     public List<CategoryMenuDto> getActiveMenu(String langCode) {
-        // Fetch active menus
-        List<Menu> menus = menuRepository.findAllByActive(true);
-
         // Validate/fallback language
         if (languageService.countDistinctLanguages() > 0 && !languageService.existsByLanguageCode(langCode)) {
             langCode = "en";
         }
+        return buildActiveMenu(langCode);
+    }
+
+    // the active menu in an already resolved language, lazy relations are walked so call it in a transaction
+    public List<CategoryMenuDto> buildActiveMenu(String langCode) {
+        // foods of all active menus in one select, a food on two menus comes back once
+        List<FoodItem> foods = foodItemRepository.findAllInActiveMenus();
 
-        // Build categories -> foodItems map, deduping foods by ID to avoid cycles and equals/hashCode on entities
+        // Build categories -> foodItems map
         Map<String, Set<FoodItemMenuDto>> categoryMap = new LinkedHashMap<>();
 
-        for (Menu menu : menus) {
-            if (menu == null || menu.getFoodItems() == null) continue;
-            for (FoodItem food : menu.getFoodItems()) {
-                if (food == null) continue;
-
-                // already processed this food for another menu
-                // continue to map to its categories again (food can appear in multiple categories)
-
-                // map food -> dto with translation overlay
-                FoodItemMenuDto foodItemDto = orderMapper.foodItemToFoodItemMenuDto(food);
-                foodItemDto.setOriginalFoodName(food.getFoodName());
-
-                Map<String, FoodItemTranslation> translations = food.getTranslations();
-                if (translations != null) {
-                    FoodItemTranslation tr = translations.get(langCode);
-                    if (tr != null) {
-                        if (tr.getName() != null && !tr.getName().isBlank()) {
-                            foodItemDto.setFoodName(tr.getName());
-                        }
-                        if (tr.getDescription() != null && !tr.getDescription().isBlank()) {
-                            foodItemDto.setDescription(tr.getDescription());
-                        }
+        for (FoodItem food : foods) {
+            // map food -> dto with translation overlay
+            FoodItemMenuDto foodItemDto = orderMapper.foodItemToFoodItemMenuDto(food);
+            foodItemDto.setOriginalFoodName(food.getFoodName());
+
+            Map<String, FoodItemTranslation> translations = food.getTranslations();
+            if (translations != null) {
+                FoodItemTranslation tr = translations.get(langCode);
+                if (tr != null) {
+                    if (tr.getName() != null && !tr.getName().isBlank()) {
+                        foodItemDto.setFoodName(tr.getName());
+                    }
+                    if (tr.getDescription() != null && !tr.getDescription().isBlank()) {
+                        foodItemDto.setDescription(tr.getDescription());
                     }
                 }
+            }
 
-                if (food.getImage() != null && !food.getImage().isBlank()) {
-                    foodItemDto.setImage(food.getImage());
-                }
+            if (food.getImage() != null && !food.getImage().isBlank()) {
+                foodItemDto.setImage(food.getImage());
+            }
 
-                // Place this food into all of its categories
-                Set<Category> categories = food.getCategories();
-                if (categories == null) continue;
-                for (Category category : categories) {
-                    if (category == null) continue;
-                    String catName = category.getCategoryName();
-                    if (catName == null || catName.isBlank()) continue;
-
-                    Map<String, CategoryTranslation> catTrans = category.getTranslations();
-                    if (catTrans != null) {
-                        CategoryTranslation ctr = catTrans.get(langCode);
-                        if (ctr != null) {
-                            if (ctr.getName() != null && !ctr.getName().isBlank()) {
-                                catName = ctr.getName();
-                            }
+            // Place this food into all of its categories
+            Set<Category> categories = food.getCategories();
+            if (categories == null) continue;
+            for (Category category : categories) {
+                if (category == null) continue;
+                String catName = category.getCategoryName();
+                if (catName == null || catName.isBlank()) continue;
+
+                Map<String, CategoryTranslation> catTrans = category.getTranslations();
+                if (catTrans != null) {
+                    CategoryTranslation ctr = catTrans.get(langCode);
+                    if (ctr != null) {
+                        if (ctr.getName() != null && !ctr.getName().isBlank()) {
+                            catName = ctr.getName();
                         }
                     }
-
-                    categoryMap.computeIfAbsent(catName, k -> new HashSet<>()).add(foodItemDto);
                 }
+
+                categoryMap.computeIfAbsent(catName, k -> new HashSet<>()).add(foodItemDto);
             }
         }
 
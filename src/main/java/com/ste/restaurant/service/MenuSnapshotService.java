@@ -0,0 +1,113 @@
+package com.ste.restaurant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ste.restaurant.dto.CategoryMenuDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Serves the public active menu from pre-serialized JSON, one snapshot per language. A snapshot
+// is rebuilt the first time it is asked for after MenuChangeTracker moved on, otherwise a request
+// is two volatile reads and a map lookup.
+@Service
+public class MenuSnapshotService {
+
+    private static final String DEFAULT_LANGUAGE = "en";
+
+    private final MenuService menuService;
+    private final LanguageService languageService;
+    private final MenuChangeTracker menuChangeTracker;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<String, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+    private volatile SupportedLanguages supportedLanguages = new SupportedLanguages(-1, Set.of());
+
+    public MenuSnapshotService(MenuService menuService, LanguageService languageService,
+                               MenuChangeTracker menuChangeTracker, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.menuService = menuService;
+        this.languageService = languageService;
+        this.menuChangeTracker = menuChangeTracker;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class MenuSnapshot {
+        private final String language;
+        private final long version;
+        private final byte[] json;
+        private final String etag;
+    }
+
+    private record SupportedLanguages(long version, Set<String> codes) {
+    }
+
+    public MenuSnapshot getSnapshot(String langCode) {
+        long version = menuChangeTracker.currentVersion();
+        String language = resolveLanguage(langCode, version);
+
+        MenuSnapshot snapshot = snapshots.get(language);
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot;
+        }
+        return rebuild(language, version);
+    }
+
+    // same fallback as MenuService.getActiveMenu, unknown languages get the english menu; without any
+    // translations every language gets the same menu, so they share the english snapshot too
+    private String resolveLanguage(String langCode, long version) {
+        SupportedLanguages languages = supportedLanguages;
+        if (languages.version() != version) {
+            Set<String> codes = readOnlyTransaction.execute(status -> new HashSet<>(languageService.getSupportedLanguages()));
+            languages = new SupportedLanguages(version, codes != null ? Set.copyOf(codes) : Set.of());
+            supportedLanguages = languages;
+        }
+        return languages.codes().contains(langCode) ? langCode : DEFAULT_LANGUAGE;
+    }
+
+    private synchronized MenuSnapshot rebuild(String language, long version) {
+        MenuSnapshot current = snapshots.get(language);
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+
+        List<CategoryMenuDto> menu = readOnlyTransaction.execute(status -> menuService.buildActiveMenu(language));
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(menu);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Active menu could not be serialized", e);
+        }
+
+        // built against the version read before loading, a change during the build leaves it stale
+        MenuSnapshot snapshot = new MenuSnapshot(language, version, json, etagOf(json));
+        snapshots.put(language, snapshot);
+        return snapshot;
+    }
+
+    // content hash, an unchanged menu keeps its etag across rebuilds and restarts
+    static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ste.restaurant.service;
+
+import java.util.List;
+import java.util.Map;
+
+// What a translation job needs from a language model. Both calls throw RateLimitExceededException
+// when the provider refuses for quota reasons, the job then pauses instead of failing the items.
+public interface MenuTranslator {
+
+    record FoodText(long foodId, String name, String description) {
+    }
+
+    // source name -> translated name, names that could not be translated are left out
+    Map<String, String> translateCategoryNames(List<String> categoryNames, String language);
+
+    // food id -> [translated name, translated description or null], foods that could not be translated are left out
+    Map<Long, List<String>> translateFoodItems(List<FoodText> foods, String language);
+}
@@ -0,0 +1,156 @@
+package com.ste.restaurant.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Client side pacing for the language model, one token bucket per model. Callers wait for a token
+// instead of failing. The refill rate starts at the configured requests per minute, grows back
+// additively on every success and is halved on a 429, which also empties the bucket and blocks
+// the model for the retry delay the provider asked for (AIMD, the same idea as TCP congestion control).
+//
+// app.ai.rate-limit.<model>.requests-per-minute and .burst override the defaults below.
+@Service
+public class ModelRateLimiter {
+
+    private static final Map<String, Integer> DEFAULT_REQUESTS_PER_MINUTE = Map.of(
+            "gemini-2.0-flash", 15,
+            "gemini-2.5-flash", 10,
+            "gemini-2.5-flash-lite", 15);
+    private static final int FALLBACK_REQUESTS_PER_MINUTE = 10;
+    private static final int DEFAULT_BURST = 3;
+
+    // the rate never drops below a request per this many configured ones
+    private static final double MIN_RATE_FRACTION = 1.0 / 16;
+    // a success gives back this share of the configured rate
+    private static final double ADDITIVE_INCREASE_FRACTION = 1.0 / 20;
+
+    private static final Pattern RETRY_DELAY = Pattern.compile(
+            "(?i)(?:retry in|retryDelay\"?\\s*:\\s*\"?|retry-after:?)\\s*(\\d+(?:\\.\\d+)?)\\s*(ms|s)?");
+
+    private final Environment environment;
+    private final LongSupplier nanoClock;
+    private final Sleeper sleeper;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    @Autowired
+    public ModelRateLimiter(Environment environment) {
+        this(environment, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    ModelRateLimiter(Environment environment, LongSupplier nanoClock, Sleeper sleeper) {
+        this.environment = environment;
+        this.nanoClock = nanoClock;
+        this.sleeper = sleeper;
+    }
+
+    // blocks until the model may be called
+    public void acquire(String model) {
+        Bucket bucket = bucket(model);
+        while (true) {
+            long waitNanos;
+            synchronized (bucket) {
+                long now = nanoClock.getAsLong();
+                bucket.refill(now);
+                if (now >= bucket.blockedUntil && bucket.tokens >= 1) {
+                    bucket.tokens -= 1;
+                    return;
+                }
+                waitNanos = Math.max(bucket.blockedUntil - now, (long) ((1 - bucket.tokens) / bucket.ratePerNano));
+            }
+            try {
+                sleeper.sleep(Math.max(waitNanos, 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + model + " rate limit", e);
+            }
+        }
+    }
+
+    public void onSuccess(String model) {
+        Bucket bucket = bucket(model);
+        synchronized (bucket) {
+            bucket.ratePerNano = Math.min(bucket.maxRatePerNano,
+                    bucket.ratePerNano + bucket.maxRatePerNano * ADDITIVE_INCREASE_FRACTION);
+        }
+    }
+
+    public void onRateLimited(String model, Duration retryAfter) {
+        Bucket bucket = bucket(model);
+        synchronized (bucket) {
+            long now = nanoClock.getAsLong();
+            bucket.refill(now);
+            bucket.ratePerNano = Math.max(bucket.maxRatePerNano * MIN_RATE_FRACTION, bucket.ratePerNano / 2);
+            bucket.tokens = 0;
+            long delay = retryAfter != null ? retryAfter.toNanos() : (long) (1 / bucket.ratePerNano);
+            bucket.blockedUntil = Math.max(bucket.blockedUntil, now + delay);
+        }
+    }
+
+    // requests per minute the model is currently paced at
+    public double currentRequestsPerMinute(String model) {
+        Bucket bucket = bucket(model);
+        synchronized (bucket) {
+            return bucket.ratePerNano * TimeUnit.MINUTES.toNanos(1);
+        }
+    }
+
+    // the delay a 429 response asked for, e.g. "Please retry in 23.4s" or "retryDelay": "23s"
+    public static Duration retryAfterOf(String message) {
+        if (message == null) return null;
+        Matcher matcher = RETRY_DELAY.matcher(message);
+        if (!matcher.find()) return null;
+        double amount = Double.parseDouble(matcher.group(1));
+        return "ms".equalsIgnoreCase(matcher.group(2))
+                ? Duration.ofMillis((long) amount)
+                : Duration.ofMillis((long) (amount * 1000));
+    }
+
+    private Bucket bucket(String model) {
+        return buckets.computeIfAbsent(model, key -> {
+            int requestsPerMinute = environment.getProperty("app.ai.rate-limit." + key + ".requests-per-minute",
+                    Integer.class, DEFAULT_REQUESTS_PER_MINUTE.getOrDefault(key, FALLBACK_REQUESTS_PER_MINUTE));
+            int burst = environment.getProperty("app.ai.rate-limit." + key + ".burst", Integer.class, DEFAULT_BURST);
+            return new Bucket(requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1), burst, nanoClock.getAsLong());
+        });
+    }
+
+    private static final class Bucket {
+        private final double maxRatePerNano;
+        private final int capacity;
+        private double ratePerNano;
+        private double tokens;
+        private long lastRefill;
+        private long blockedUntil;
+
+        private Bucket(double maxRatePerNano, int capacity, long now) {
+            this.maxRatePerNano = maxRatePerNano;
+            this.capacity = Math.max(1, capacity);
+            this.ratePerNano = maxRatePerNano;
+            this.tokens = this.capacity;
+            this.lastRefill = now;
+            this.blockedUntil = now;
+        }
+
+        private void refill(long now) {
+            // nothing accrues while blocked, the provider's window has not reset yet
+            long from = Math.max(lastRefill, blockedUntil);
+            if (now > from) {
+                tokens = Math.min(capacity, tokens + (now - from) * ratePerNano);
+            }
+            lastRefill = Math.max(lastRefill, now);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.OrderBoardEventDto;
+import com.ste.restaurant.dto.OrderDto;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.entity.enums.UserRole;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+// Pushes order changes to the waiter and chef screens instead of letting them poll.
+// Every committed change gets a sequence number, the last few are kept so a reconnecting
+// screen can resume from its Last-Event-ID, otherwise it starts over with a snapshot.
+// Delivery goes through SseFanOut, a screen whose queue overflows gets a RESYNC with a fresh
+// snapshot, followed by whatever committed while that was loaded.
+// Snapshots are loaded in a read-only transaction of their own, resyncs run on a pool thread.
+@Service
+public class OrderBoardService {
+
+    public enum EventType {
+        SNAPSHOT,
+        RESYNC,
+        PLACED,
+        STATUS_CHANGED,
+        CANCELLED,
+        TABLE_CHANGED,
+        REMOVED
+    }
+
+    // same status windows as OrderService.getOrders
+    private static final Set<OrderStatus> CHEF_STATUSES = EnumSet.of(
+            OrderStatus.PLACED, OrderStatus.PREPARING, OrderStatus.READY, OrderStatus.CANCELLED);
+    private static final Set<OrderStatus> WAITER_STATUSES = EnumSet.complementOf(EnumSet.of(OrderStatus.COMPLETED));
+
+    private final int replaySize;
+    private final long emitterTimeout;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Deque<OrderBoardEventDto> recentEvents = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private long sequence = 0;
+
+    private final SseFanOut<OrderBoardEventDto> fanOut;
+
+    public OrderBoardService(@Value("${app.orders.board.replay-size:500}") int replaySize,
+                             @Value("${app.orders.board.queue-size:256}") int queueSize,
+                             @Value("${app.orders.board.timeout-ms:1800000}") long emitterTimeout,
+                             @Value("${app.orders.board.dispatch-threads:2}") int dispatchThreads,
+                             PlatformTransactionManager transactionManager) {
+        this.replaySize = replaySize;
+        this.emitterTimeout = emitterTimeout;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fanOut = new SseFanOut<>("order board", queueSize, dispatchThreads,
+                OrderBoardEventDto::getSequence, OrderBoardEventDto::getType);
+    }
+
+    public SseEmitter subscribe(UserRole role, Long lastEventId, Supplier<List<OrderDto>> snapshot) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(role, snapshot);
+        subscriber.channel = fanOut.channel(emitter, () -> resync(subscriber), () -> removeSubscriber(subscriber));
+        emitter.onCompletion(() -> removeSubscriber(subscriber));
+        emitter.onTimeout(() -> removeSubscriber(subscriber));
+        emitter.onError(e -> removeSubscriber(subscriber));
+
+        long since;
+        List<OrderDto> snapshotOrders = null;
+        if (lastEventId != null && canResumeFrom(lastEventId)) {
+            since = lastEventId;
+        } else {
+            // anything committed while the snapshot is loaded is replayed afterwards, deltas are idempotent
+            since = currentSequence();
+            snapshotOrders = load(snapshot);
+        }
+
+        synchronized (this) {
+            for (OrderBoardEventDto event : eventsSince(since, role)) {
+                subscriber.channel.offer(event);
+            }
+            subscribers.add(subscriber);
+            subscriber.channel.start(snapshotOrders != null
+                    ? new OrderBoardEventDto(since, EventType.SNAPSHOT.name(), null, null, snapshotOrders)
+                    : null);
+        }
+        return emitter;
+    }
+
+    // called from the OrderService mutations, the event goes out once the transaction commits
+    public void publish(EventType type, OrderDto order, OrderStatus previousStatus) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, order, previousStatus);
+                }
+            });
+        } else {
+            append(type, order, previousStatus);
+        }
+    }
+
+    public synchronized long currentSequence() {
+        return sequence;
+    }
+
+    synchronized boolean canResumeFrom(long lastEventId) {
+        if (lastEventId > sequence) {
+            return false;
+        }
+        long oldest = recentEvents.isEmpty() ? sequence + 1 : recentEvents.peekFirst().getSequence();
+        return lastEventId >= oldest - 1;
+    }
+
+    synchronized List<OrderBoardEventDto> eventsSince(long lastEventId, UserRole role) {
+        List<OrderBoardEventDto> events = new ArrayList<>();
+        for (OrderBoardEventDto event : recentEvents) {
+            if (event.getSequence() > lastEventId && isVisibleTo(role, event)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private synchronized void append(EventType type, OrderDto order, OrderStatus previousStatus) {
+        OrderBoardEventDto event = new OrderBoardEventDto(++sequence, type.name(),
+                previousStatus != null ? previousStatus.name() : null, order, null);
+
+        recentEvents.addLast(event);
+        while (recentEvents.size() > replaySize) {
+            recentEvents.removeFirst();
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (isVisibleTo(subscriber.role, event)) {
+                subscriber.channel.offer(event);
+            }
+        }
+    }
+
+    // a screen also gets the change that moves an order out of its window, so it can drop it
+    private boolean isVisibleTo(UserRole role, OrderBoardEventDto event) {
+        Set<OrderStatus> statuses;
+        if (role == UserRole.CHEF) {
+            statuses = CHEF_STATUSES;
+        } else if (role == UserRole.WAITER) {
+            statuses = WAITER_STATUSES;
+        } else {
+            return true;
+        }
+        if (EventType.REMOVED.name().equals(event.getType())) {
+            return true;
+        }
+        return isIn(statuses, event.getOrder() != null ? event.getOrder().getStatus() : null)
+                || isIn(statuses, event.getPreviousStatus());
+    }
+
+    private boolean isIn(Set<OrderStatus> statuses, String status) {
+        if (status == null) return false;
+        try {
+            return statuses.contains(OrderStatus.valueOf(status));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // same ordering as a fresh subscribe, the fan-out drops the queued events the snapshot covers
+    private OrderBoardEventDto resync(Subscriber subscriber) {
+        long since = currentSequence();
+        return new OrderBoardEventDto(since, EventType.RESYNC.name(), null, null, load(subscriber.snapshot));
+    }
+
+    // the orders come back with their items, which are lazy
+    private List<OrderDto> load(Supplier<List<OrderDto>> snapshot) {
+        return readOnlyTransaction.execute(status -> snapshot.get());
+    }
+
+    private synchronized void removeSubscriber(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @PreDestroy
+    public void shutdownDispatcher() {
+        synchronized (this) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.channel.emitter().complete();
+            }
+            subscribers.clear();
+        }
+        fanOut.shutdown();
+    }
+
+    private static final class Subscriber {
+        private final UserRole role;
+        private final Supplier<List<OrderDto>> snapshot;
+        private SseFanOut<OrderBoardEventDto>.Channel channel;
+
+        private Subscriber(UserRole role, Supplier<List<OrderDto>> snapshot) {
+            this.role = role;
+            this.snapshot = snapshot;
+        }
+    }
+}
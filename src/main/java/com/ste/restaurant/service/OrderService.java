@@ -1,6 +1,7 @@
 package com.ste.restaurant.service;
 
 import com.ste.restaurant.dto.*;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.dto.common.WarningResponse;
 import com.ste.restaurant.entity.*;
@@ -19,7 +20,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
@@ -33,10 +38,18 @@ public class OrderService {
     private final TableTopRepository tableTopRepository;
     private final AddressRepository addressRepository;
     private final OrderMapper orderMapper;
+    private final OrderBoardService orderBoardService;
+    private final LiveOrderBookService liveOrderBook;
+    private final RevenueRollupService revenueRollupService;
+    private final CustomerActivityService customerActivity;
+    private final OrderStatusHistoryService statusHistory;
 
     public OrderService(OrderRepository orderRepo, OrderItemRepository orderItemRepo,
                         FoodItemRepository foodItemRepo, MenuRepository menuRepo, UserRepository userRepo,
-                        TableTopRepository tableTopRepo, AddressRepository addressRepo, OrderMapper orderMapper) {
+                        TableTopRepository tableTopRepo, AddressRepository addressRepo, OrderMapper orderMapper,
+                        OrderBoardService orderBoardService, LiveOrderBookService liveOrderBook,
+                        RevenueRollupService revenueRollupService, CustomerActivityService customerActivity,
+                        OrderStatusHistoryService statusHistory) {
         this.orderRepository = orderRepo;
         this.orderItemRepository = orderItemRepo;
         this.foodItemRepository = foodItemRepo;
@@ -45,6 +58,11 @@ public class OrderService {
         this.tableTopRepository = tableTopRepo;
         this.addressRepository = addressRepo;
         this.orderMapper = orderMapper;
+        this.orderBoardService = orderBoardService;
+        this.liveOrderBook = liveOrderBook;
+        this.revenueRollupService = revenueRollupService;
+        this.customerActivity = customerActivity;
+        this.statusHistory = statusHistory;
     }
 
     public Page<OrderDto> getOrderList(Pageable pageable) {
@@ -53,6 +71,21 @@ public class OrderService {
         return orders.map(orderMapper::orderToOrderDto);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> scrollOrders(String cursor, int size, boolean includeTotal) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<Order> orders;
+        if (cursor == null) {
+            orders = orderRepository.findAllByOrderByOrderTimeDescOrderIdDesc(KeysetCursor.limitFor(pageSize));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            if (after.time() == null) throw new InvalidValueException("cursor", cursor);
+            orders = orderRepository.findAllBefore(after.time(), after.id(), KeysetCursor.limitFor(pageSize));
+        }
+        return KeysetCursor.page(orders, pageSize, order -> new KeysetCursor(order.getOrderTime(), order.getOrderId()),
+                orderMapper::orderToOrderDto, includeTotal ? orderRepository.count() : null);
+    }
+
     public Page<OrderDto> getAllOrdersBy(String status, Pageable pageable) {
         OrderStatus orderStatus;
         try {
@@ -67,6 +100,9 @@ public class OrderService {
 
     // get all orders for waiter or chef
     public Page<OrderDto> getAllOrdersBy(List<OrderStatus> statuses, Pageable pageable) {
+        if (liveOrderBook.canServe(pageable)) {
+            return liveOrderBook.getOrders(statuses, pageable);
+        }
         Page<Order> orders = orderRepository.findAllByStatusInAndOrderTimeAfter(statuses,
                 LocalDate.now().atStartOfDay().plusHours(6), pageable);
         return orders.map(orderMapper::orderToOrderDto);
@@ -105,18 +141,35 @@ public class OrderService {
         return orderItems.map(orderMapper::orderItemToOrderItemDto);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderItemDto> scrollOrderItems(String cursor, int size, boolean includeTotal) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<OrderItem> orderItems = cursor == null
+                ? orderItemRepository.findAllByOrderByOrderItemIdDesc(KeysetCursor.limitFor(pageSize))
+                : orderItemRepository.findAllByOrderItemIdLessThanOrderByOrderItemIdDesc(
+                        KeysetCursor.decode(cursor).id(), KeysetCursor.limitFor(pageSize));
+        return KeysetCursor.page(orderItems, pageSize, item -> KeysetCursor.ofId(item.getOrderItemId()),
+                orderMapper::orderItemToOrderItemDto, includeTotal ? orderItemRepository.count() : null);
+    }
+
     @Transactional
     public OrderDto deleteOrderById(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Order", id));
 
+        if (order.getStatus() == OrderStatus.COMPLETED) {
+            revenueRollupService.retract(order);
+        }
         orderRepository.delete(order);
-        return orderMapper.orderToOrderDto(order);
+        customerActivity.ordersRemoved(order.getCustomer());
+        OrderDto orderDto = orderMapper.orderToOrderDto(order);
+        orderChanged(OrderBoardService.EventType.REMOVED, orderDto, order.getStatus());
+        return orderDto;
     }
 
     //  by admin or waiter
     @Transactional
-    public OrderDto updateOrderStatus(Long orderId, StringDto statusDto) {
+    public OrderDto updateOrderStatus(Long orderId, StringDto statusDto, String actor) {
         String status = statusDto.getName();
 
         Order order = orderRepository.findById(orderId)
@@ -133,8 +186,17 @@ public class OrderService {
             throw new AlreadyHasException("Order", "status", status);
         }
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
         orderRepository.save(order);
+        statusHistory.statusChanged(order, previousStatus, actor);
+
+        if (newStatus == OrderStatus.COMPLETED) {
+            revenueRollupService.record(order);
+            customerActivity.orderCompleted(order);
+        } else if (previousStatus == OrderStatus.COMPLETED) {
+            revenueRollupService.retract(order);
+        }
 
         if (order.getTable() != null && newStatus == OrderStatus.COMPLETED) {
             order.getTable().setTableStatus(TableStatus.DIRTY);
@@ -143,7 +205,9 @@ public class OrderService {
         if (newStatus.equals(OrderStatus.DELIVERED)) {
             mergeRecentOrders(order);
         }
-        return getOrderById(orderId);
+        OrderDto orderDto = getOrderById(orderId);
+        orderChanged(OrderBoardService.EventType.STATUS_CHANGED, orderDto, previousStatus);
+        return orderDto;
     }
 
     // Customer
@@ -180,14 +244,27 @@ public class OrderService {
             throw new InvalidValueException("Order", "location", "Either table number or address must be provided");
         }
 
+        // one set-based lookup for every requested name, then validate the lines in memory
+        Set<String> foodNames = new HashSet<>();
+        for (OrderItemDtoBasic orderItemDto : placingDto.getOrderItems()) {
+            if (orderItemDto.getFoodName() != null) {
+                foodNames.add(orderItemDto.getFoodName());
+            }
+        }
+        Map<String, FoodItem> orderableFoods = new HashMap<>();
+        if (!foodNames.isEmpty()) {
+            for (FoodItem foodItem : foodItemRepository.findAllInActiveMenuByFoodNameIn(foodNames)) {
+                orderableFoods.put(foodItem.getFoodName(), foodItem);
+            }
+        }
+
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalPrice = BigDecimal.ZERO;
         List<String> failedNames = new ArrayList<>();
 
         for (OrderItemDtoBasic orderItemDto : placingDto.getOrderItems()) {
-            FoodItem foodItem = foodItemRepository.findByFoodName(orderItemDto.getFoodName())
-                    .orElse(null);
-            if (foodItem == null || !menuRepository.existsByActiveAndFoodItemsContains(true, Set.of(foodItem))) {
+            FoodItem foodItem = orderableFoods.get(orderItemDto.getFoodName());
+            if (foodItem == null) {
                 failedNames.add(orderItemDto.getFoodName());
                 continue;
             }
@@ -211,6 +288,9 @@ public class OrderService {
         order.setTotalPrice(totalPrice);
 
         orderRepository.save(order);
+        statusHistory.orderPlaced(order, email);
+        customerActivity.orderPlaced(user, order.getOrderTime());
+        orderChanged(OrderBoardService.EventType.PLACED, orderMapper.orderToOrderDto(order), null);
 
         OrderDto orderDto = orderMapper.orderToOrderDto(order);
         orderDto.setCustomer(null);
@@ -222,11 +302,17 @@ public class OrderService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new NotFoundException("User", email));
 
-        Order order = orderRepository.findFirstByCustomerEmailOrderByOrderTimeDesc(user.getEmail());
-        if (order == null) {
-            throw new NotFoundException("Order");
+        OrderDto orderDto = null;
+        if (liveOrderBook.isReady()) {
+            orderDto = liveOrderBook.getLastOrderOf(user.getEmail()).orElse(null);
+        }
+        if (orderDto == null) {
+            Order order = orderRepository.findFirstByCustomerEmailOrderByOrderTimeDesc(user.getEmail());
+            if (order == null) {
+                throw new NotFoundException("Order");
+            }
+            orderDto = orderMapper.orderToOrderDto(order);
         }
-        OrderDto orderDto = orderMapper.orderToOrderDto(order);
         orderDto.setCustomer(null);
         return orderDto;
     }
@@ -241,6 +327,9 @@ public class OrderService {
         }
         else if (user.getRole().equals(UserRole.WAITER)) {
             // get all the orders that are not completed
+            if (liveOrderBook.isReady()) {
+                return liveOrderBook.getOrders(EnumSet.complementOf(EnumSet.of(OrderStatus.COMPLETED)));
+            }
             orders = orderRepository.findAllByStatusNotAndOrderTimeAfterOrderByOrderTimeDesc(
                     OrderStatus.COMPLETED,
                     LocalDate.now().atStartOfDay().plusHours(6)
@@ -248,6 +337,10 @@ public class OrderService {
         }
         else if (user.getRole().equals(UserRole.CHEF)) {
             // get all the orders that are in placed, preparing, ready, cancelled.
+            if (liveOrderBook.isReady()) {
+                return liveOrderBook.getOrders(
+                        List.of(OrderStatus.PLACED, OrderStatus.PREPARING, OrderStatus.READY, OrderStatus.CANCELLED));
+            }
             orders = orderRepository.findAllByStatusInAndOrderTimeAfterOrderByOrderTimeDesc(
                     List.of(OrderStatus.PLACED, OrderStatus.PREPARING, OrderStatus.READY, OrderStatus.CANCELLED),
                     LocalDate.now().atStartOfDay().plusHours(6)
@@ -269,10 +362,19 @@ public class OrderService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new NotFoundException("User", email));
 
+        OrderStatus previousStatus = order.getStatus();
         if (user.getRole() == UserRole.ADMIN || user.getRole() == UserRole.WAITER) {
             order.setStatus(OrderStatus.CANCELLED);
             orderRepository.save(order);
-            return getOrderById(orderId);
+            if (previousStatus != OrderStatus.CANCELLED) {
+                statusHistory.statusChanged(order, previousStatus, email);
+            }
+            if (previousStatus == OrderStatus.COMPLETED) {
+                revenueRollupService.retract(order);
+            }
+            OrderDto orderDto = getOrderById(orderId);
+            orderChanged(OrderBoardService.EventType.CANCELLED, orderDto, previousStatus);
+            return orderDto;
         }
 
         if (!order.getCustomer().getEmail().equals(email)) {
@@ -282,9 +384,12 @@ public class OrderService {
         if (order.getStatus() == OrderStatus.PLACED || order.getStatus() == OrderStatus.PREPARING) {
             order.setStatus(OrderStatus.CANCELLED);
             orderRepository.save(order);
+            statusHistory.statusChanged(order, previousStatus, email);
         }
         else throw new InvalidValueException("Order", "status", "Cannot cancel this order is already in the way");
-        return getOrderById(orderId);
+        OrderDto orderDto = getOrderById(orderId);
+        orderChanged(OrderBoardService.EventType.CANCELLED, orderDto, previousStatus);
+        return orderDto;
     }
 
     // by admin or waiter
@@ -314,11 +419,23 @@ public class OrderService {
         table.setTableStatus(TableStatus.OCCUPIED);
         tableTopRepository.save(table);
 
+        // completed orders move their table rollup along with them
+        boolean completed = order.getStatus() == OrderStatus.COMPLETED;
+        if (completed) {
+            revenueRollupService.retract(order);
+        }
+
         // finally, set order with new table
         order.setTable(table);
         orderRepository.save(order);
 
-        return getOrderById(orderId);
+        if (completed) {
+            revenueRollupService.record(order);
+        }
+
+        OrderDto orderDto = getOrderById(orderId);
+        orderChanged(OrderBoardService.EventType.TABLE_CHANGED, orderDto, null);
+        return orderDto;
     }
 
     @Transactional(readOnly = true)
@@ -371,5 +488,25 @@ public class OrderService {
 
         orderRepository.save(mainOrder);
         orderRepository.deleteAll(recentOrders);
+        customerActivity.ordersRemoved(mainOrder.getCustomer());
+
+        // merged orders disappear from the boards, the main order is pushed by the status change
+        for (Order order : recentOrders) {
+            OrderDto removed = new OrderDto();
+            removed.setOrderId(order.getOrderId());
+            removed.setStatus(order.getStatus().name());
+            orderChanged(OrderBoardService.EventType.REMOVED, removed, order.getStatus());
+        }
+    }
+
+    // keeps the live order book and the order boards in step, both apply the change after commit
+    private void orderChanged(OrderBoardService.EventType type, OrderDto orderDto, OrderStatus previousStatus) {
+        if (type == OrderBoardService.EventType.REMOVED) {
+            liveOrderBook.evict(orderDto.getOrderId());
+            statusHistory.orderRemoved(orderDto.getOrderId());
+        } else {
+            liveOrderBook.put(orderDto);
+        }
+        orderBoardService.publish(type, orderDto, previousStatus);
     }
-}
\ No newline at end of file
+}
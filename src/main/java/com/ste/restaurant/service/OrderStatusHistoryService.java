@@ -0,0 +1,179 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.KitchenLatencyDto;
+import com.ste.restaurant.dto.OrderStatusChangeDto;
+import com.ste.restaurant.entity.Order;
+import com.ste.restaurant.entity.OrderStatusChange;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.repository.OrderStatusChangeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Writes a row per status transition in the caller's transaction, the inserts go out in the
+// same JDBC batch as the order update. After commit the time spent in the kitchen stages is
+// recorded on orders.stage.duration timers (histogram buckets plus p50/p95/p99 over a rolling
+// window), which the latency endpoint reads without touching the history table.
+// When each open order entered its status is kept in memory, an order unknown after a restart
+// falls back to its order time or its last logged transition.
+@Service
+public class OrderStatusHistoryService {
+
+    public enum Stage {
+        PLACED_PREPARING(OrderStatus.PLACED, OrderStatus.PREPARING),
+        PREPARING_READY(OrderStatus.PREPARING, OrderStatus.READY),
+        READY_DELIVERED(OrderStatus.READY, OrderStatus.DELIVERED);
+
+        private final OrderStatus from;
+        private final OrderStatus to;
+
+        Stage(OrderStatus from, OrderStatus to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public String tag() {
+            return from.name().toLowerCase() + "-" + to.name().toLowerCase();
+        }
+
+        static Stage of(OrderStatus from, OrderStatus to) {
+            for (Stage stage : values()) {
+                if (stage.from == from && stage.to == to) return stage;
+            }
+            return null;
+        }
+    }
+
+    private record Entered(OrderStatus status, LocalDateTime at) {}
+
+    private final OrderStatusChangeRepository changeRepository;
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Map<Long, Entered> entered = new ConcurrentHashMap<>();
+
+    public OrderStatusHistoryService(OrderStatusChangeRepository changeRepository, MeterRegistry meterRegistry,
+                                     @Value("${app.kitchen.latency.window:PT30M}") Duration window) {
+        this.changeRepository = changeRepository;
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("orders.stage.duration")
+                    .description("Time orders spend between two kitchen statuses")
+                    .tag("stage", stage.tag())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofSeconds(10))
+                    .maximumExpectedValue(Duration.ofHours(2))
+                    .distributionStatisticExpiry(window)
+                    .distributionStatisticBufferLength(3)
+                    .register(meterRegistry));
+        }
+    }
+
+    public void orderPlaced(Order order, String actor) {
+        record(order, null, actor);
+    }
+
+    // call after the new status is set on the order
+    public void statusChanged(Order order, OrderStatus previousStatus, String actor) {
+        record(order, previousStatus, actor);
+    }
+
+    private void record(Order order, OrderStatus previousStatus, String actor) {
+        Long orderId = order.getOrderId();
+        OrderStatus status = order.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        changeRepository.save(new OrderStatusChange(orderId, previousStatus, status, now, actor));
+
+        Stage stage = Stage.of(previousStatus, status);
+        Duration duration = stage == null ? null : enteredAt(order, previousStatus)
+                .map(start -> Duration.between(start, now))
+                .filter(d -> !d.isNegative())
+                .orElse(null);
+        LocalDateTime enteredAt = previousStatus == null ? order.getOrderTime() : now;
+
+        afterCommit(() -> {
+            if (status == OrderStatus.COMPLETED || status == OrderStatus.CANCELLED) {
+                entered.remove(orderId);
+            } else {
+                entered.put(orderId, new Entered(status, enteredAt));
+            }
+            if (duration != null) {
+                timers.get(stage).record(duration);
+            }
+        });
+    }
+
+    private Optional<LocalDateTime> enteredAt(Order order, OrderStatus status) {
+        Entered known = entered.get(order.getOrderId());
+        if (known != null && known.status() == status) {
+            return Optional.of(known.at());
+        }
+        if (status == OrderStatus.PLACED && order.getOrderTime() != null) {
+            return Optional.of(order.getOrderTime());
+        }
+        return changeRepository.findFirstByOrderIdAndToStatusOrderByChangedAtDesc(order.getOrderId(), status)
+                .map(OrderStatusChange::getChangedAt);
+    }
+
+    // deleted or merged away
+    public void orderRemoved(Long orderId) {
+        afterCommit(() -> entered.remove(orderId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderStatusChangeDto> getHistory(Long orderId) {
+        List<OrderStatusChangeDto> history = new ArrayList<>();
+        for (OrderStatusChange change : changeRepository.findAllByOrderIdOrderByChangedAtAscChangeIdAsc(orderId)) {
+            history.add(new OrderStatusChangeDto(
+                    change.getFromStatus() != null ? change.getFromStatus().name() : null,
+                    change.getToStatus().name(), change.getChangedAt(), change.getActor()));
+        }
+        return history;
+    }
+
+    public List<KitchenLatencyDto> getKitchenLatency() {
+        List<KitchenLatencyDto> latency = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            HistogramSnapshot snapshot = timers.get(stage).takeSnapshot();
+            double[] percentiles = new double[3];
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                int index = value.percentile() == 0.5 ? 0 : value.percentile() == 0.95 ? 1 : 2;
+                percentiles[index] = value.value(TimeUnit.SECONDS);
+            }
+            latency.add(new KitchenLatencyDto(stage.tag(), snapshot.count(),
+                    percentiles[0], percentiles[1], percentiles[2]));
+        }
+        return latency;
+    }
+
+    public int trackedOrders() {
+        return entered.size();
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.ste.restaurant.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.ste.restaurant.exception.ImageProcessingException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Table qr codes as print sized png, named after the hash of what they encode. A code whose file
+// is already on disk is never rendered again, a batch renders the missing ones on a pool sized to
+// the cores. Recently used pngs stay in memory for the zip export.
+@Service
+public class QrCodeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QrCodeService.class);
+
+    private static final int QUIET_ZONE_MODULES = 4;
+
+    private final String siteBaseUrl;
+    private final Path qrCodeDir;
+    private final int size;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, byte[]> pngCache;
+
+    public QrCodeService(@Value("${site.base.url}") String siteBaseUrl,
+                         @Value("${app.image.qr-code-dir}") String qrCodeDir,
+                         @Value("${app.qr.size:1024}") int size,
+                         @Value("${app.qr.workers:0}") int workerCount,
+                         @Value("${app.qr.cache.max-entries:512}") int maxCachedCodes) {
+        this.siteBaseUrl = siteBaseUrl;
+        this.qrCodeDir = Paths.get(qrCodeDir);
+        this.size = size;
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "qr-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pngCache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxCachedCodes;
+            }
+        };
+    }
+
+    public String urlFor(String tableNumber) {
+        return siteBaseUrl + "/menu?table=" + tableNumber;
+    }
+
+    // the size is part of the hash, a new print size gets new files
+    public String fileNameFor(String tableNumber) {
+        String content = urlFor(tableNumber) + "\n" + size;
+        return ImageRenditionService.hashOf(content.getBytes(StandardCharsets.UTF_8)) + ".png";
+    }
+
+    public boolean isCurrent(String tableNumber, String fileName) {
+        return fileNameFor(tableNumber).equals(fileName) && Files.exists(qrCodeDir.resolve(fileName));
+    }
+
+    public String render(String tableNumber) {
+        String fileName = fileNameFor(tableNumber);
+        if (!Files.exists(qrCodeDir.resolve(fileName))) {
+            write(fileName, encode(tableNumber));
+        }
+        return fileName;
+    }
+
+    // table number -> file name for every code that could be written, failures are logged and left out
+    public Map<String, String> renderAll(Collection<String> tableNumbers) {
+        List<String> numbers = new ArrayList<>(tableNumbers);
+        List<Future<String>> results = new ArrayList<>(numbers.size());
+        for (String tableNumber : numbers) {
+            results.add(workers.submit(() -> render(tableNumber)));
+        }
+
+        Map<String, String> fileNames = new LinkedHashMap<>();
+        for (int i = 0; i < numbers.size(); i++) {
+            try {
+                fileNames.put(numbers.get(i), results.get(i).get());
+            } catch (ExecutionException e) {
+                logger.error("Failed to generate QR code for table {}", numbers.get(i), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ImageProcessingException("Interrupted while generating QR codes");
+            }
+        }
+        return fileNames;
+    }
+
+    // one stored entry per table, pngs do not deflate any further. only one code is held at a time.
+    // the table id keeps names apart that sanitise to the same text, e.g. "A 1" and "A_1"
+    public void writeZip(Map<Long, String> tableNumbers, OutputStream output) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(output);
+        zip.setMethod(ZipOutputStream.STORED);
+        for (Map.Entry<Long, String> table : tableNumbers.entrySet()) {
+            String tableNumber = table.getValue();
+            byte[] png = pngOf(tableNumber);
+            CRC32 crc = new CRC32();
+            crc.update(png);
+            ZipEntry entry = new ZipEntry("table_" + tableNumber.replaceAll("[^A-Za-z0-9_-]", "_")
+                    + "_" + table.getKey() + ".png");
+            entry.setSize(png.length);
+            entry.setCompressedSize(png.length);
+            entry.setCrc(crc.getValue());
+            zip.putNextEntry(entry);
+            zip.write(png);
+            zip.closeEntry();
+            zip.flush();
+        }
+        zip.finish();
+    }
+
+    // memory, then disk, then a fresh render for codes that were never generated or went stale
+    byte[] pngOf(String tableNumber) {
+        String fileName = fileNameFor(tableNumber);
+        synchronized (pngCache) {
+            byte[] cached = pngCache.get(fileName);
+            if (cached != null) return cached;
+        }
+        byte[] png;
+        try {
+            png = Files.readAllBytes(qrCodeDir.resolve(fileName));
+        } catch (IOException e) {
+            png = encode(tableNumber);
+        }
+        cache(fileName, png);
+        return png;
+    }
+
+    public void delete(String fileName) {
+        if (fileName == null) return;
+        synchronized (pngCache) {
+            pngCache.remove(fileName);
+        }
+        try {
+            Files.deleteIfExists(qrCodeDir.resolve(fileName));
+        } catch (IOException e) {
+            logger.warn("Could not delete QR code {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private byte[] encode(String tableNumber) {
+        try {
+            BitMatrix matrix = new QRCodeWriter().encode(urlFor(tableNumber), BarcodeFormat.QR_CODE, size, size,
+                    Map.of(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+                            EncodeHintType.MARGIN, QUIET_ZONE_MODULES));
+            // black and white only, written as a 1 bit png
+            ByteArrayOutputStream png = new ByteArrayOutputStream(8192);
+            MatrixToImageWriter.writeToStream(matrix, "PNG", png);
+            return png.toByteArray();
+        } catch (WriterException | IOException e) {
+            throw new ImageProcessingException("Failed to generate QR code for table: " + tableNumber);
+        }
+    }
+
+    private void write(String fileName, byte[] png) {
+        try {
+            Files.createDirectories(qrCodeDir);
+            Path temp = Files.createTempFile(qrCodeDir, ".qr-", ".tmp");
+            Files.write(temp, png);
+            Files.move(temp, qrCodeDir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ImageProcessingException("Failed to write QR code " + fileName + ": " + e.getMessage());
+        }
+        cache(fileName, png);
+    }
+
+    private void cache(String fileName, byte[] png) {
+        synchronized (pngCache) {
+            pngCache.put(fileName, png);
+        }
+    }
+
+    int cachedCodes() {
+        synchronized (pngCache) {
+            return pngCache.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdownWorkers() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,269 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.*;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.entity.enums.RollupDimension;
+import com.ste.restaurant.repository.OrderRepository;
+import com.ste.restaurant.repository.RevenueRollupRepository;
+import com.ste.restaurant.repository.RollupBackfillRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+// Keeps the hourly revenue rollups the admin dashboard reads. A completed order is added once
+// when it reaches COMPLETED and taken out again if it leaves that status or is deleted.
+// A backfill commits week by week, so a long history never sits in one transaction or one
+// persistence context; the one on startup runs on its own thread and commits its watermark with
+// every week, so a crash or restart picks up where it stopped.
+@Service
+public class RevenueRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    private static final int BACKFILL_CHUNK_DAYS = 7;
+
+    private static final long STARTUP_BACKFILL_ID = 1L;
+
+    // category key of food items without a category, ids are never empty
+    static final String UNCATEGORIZED_KEY = "";
+
+    private final RevenueRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final RollupBackfillRepository backfillRepository;
+    private final TransactionTemplate transaction;
+    private final boolean backfillInBackground;
+
+    private final ExecutorService startupBackfill = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rollup-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RevenueRollupService(RevenueRollupRepository rollupRepository, OrderRepository orderRepository,
+                                RollupBackfillRepository backfillRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.rollups.backfill-in-background:true}") boolean backfillInBackground) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.backfillRepository = backfillRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.backfillInBackground = backfillInBackground;
+    }
+
+    @Transactional
+    public void record(Order order) {
+        apply(order, 1);
+    }
+
+    @Transactional
+    public void retract(Order order) {
+        apply(order, -1);
+    }
+
+    // the first start fixes the range to rebuild, from the first completed order up to the current
+    // hour, everything after it is rolled up as orders complete. Later starts resume the range
+    // from the watermark until it is done, and do nothing after that
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillInBackground) {
+            resumeBackfill();
+            return;
+        }
+        try {
+            startupBackfill.execute(this::resumeBackfill);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+        }
+    }
+
+    public void resumeBackfill() {
+        try {
+            RollupBackfill progress = backfillRepository.findById(STARTUP_BACKFILL_ID)
+                    .orElseGet(this::startBackfill);
+            if (!progress.getBackfilledUntil().isBefore(progress.getBackfillEnd())) return;
+
+            int orders = backfill(progress.getBackfilledUntil(), progress.getBackfillEnd(), until -> {
+                progress.setBackfilledUntil(until);
+                backfillRepository.save(progress);
+            });
+            if (orders > 0) {
+                logger.info("Revenue rollups backfilled from {} completed orders", orders);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Revenue rollup backfill failed", e);
+        }
+    }
+
+    private RollupBackfill startBackfill() {
+        Order firstOrder = orderRepository.findFirstByStatusOrderByOrderTimeAsc(OrderStatus.COMPLETED);
+        LocalDateTime end = bucketOf(LocalDateTime.now()).plusHours(1);
+
+        RollupBackfill progress = new RollupBackfill();
+        progress.setBackfillId(STARTUP_BACKFILL_ID);
+        progress.setBackfilledUntil(firstOrder != null ? bucketOf(firstOrder.getOrderTime()) : end);
+        progress.setBackfillEnd(end);
+        return backfillRepository.save(progress);
+    }
+
+    @PreDestroy
+    public void shutdownBackfill() {
+        startupBackfill.shutdownNow();
+    }
+
+    public int backfillAll() {
+        Order firstOrder = orderRepository.findFirstByStatusOrderByOrderTimeAsc(OrderStatus.COMPLETED);
+        if (firstOrder == null) return 0;
+        return backfill(firstOrder.getOrderTime(), LocalDateTime.now().plusDays(1));
+    }
+
+    public int backfill(LocalDate startDate, LocalDate endDate) {
+        return backfill(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+
+    // recomputes every bucket in [from, to) from the completed orders, a week per transaction
+    public int backfill(LocalDateTime from, LocalDateTime to) {
+        return backfill(from, to, until -> { });
+    }
+
+    // committed runs inside each week's transaction with the end of that week
+    private int backfill(LocalDateTime from, LocalDateTime to, Consumer<LocalDateTime> committed) {
+        LocalDateTime start = bucketOf(from);
+        LocalDateTime end = to.equals(bucketOf(to)) ? to : bucketOf(to).plusHours(1);
+
+        int orderCount = 0;
+        for (LocalDateTime chunkStart = start; chunkStart.isBefore(end); ) {
+            LocalDateTime chunkEnd = chunkStart.plusDays(BACKFILL_CHUNK_DAYS);
+            if (chunkEnd.isAfter(end)) chunkEnd = end;
+
+            LocalDateTime rangeStart = chunkStart;
+            LocalDateTime rangeEnd = chunkEnd;
+            Integer orders = transaction.execute(status -> {
+                int chunkOrders = backfillChunk(rangeStart, rangeEnd);
+                committed.accept(rangeEnd);
+                return chunkOrders;
+            });
+            orderCount += orders != null ? orders : 0;
+            chunkStart = chunkEnd;
+        }
+        return orderCount;
+    }
+
+    private int backfillChunk(LocalDateTime from, LocalDateTime to) {
+        rollupRepository.deleteRange(from, to);
+
+        List<Order> orders = orderRepository.findAllByStatusAndOrderTimeGreaterThanEqualAndOrderTimeLessThan(
+                OrderStatus.COMPLETED, from, to);
+
+        Map<String, RevenueRollup> rows = new LinkedHashMap<>();
+        for (Order order : orders) {
+            for (RevenueRollup contribution : contributionsOf(order)) {
+                rows.merge(rowKey(contribution), contribution, RevenueRollupService::add);
+            }
+        }
+        rollupRepository.saveAll(rows.values());
+        return orders.size();
+    }
+
+    private void apply(Order order, int sign) {
+        for (RevenueRollup contribution : contributionsOf(order)) {
+            long orderCount = sign * contribution.getOrderCount();
+            long quantity = sign * contribution.getQuantity();
+            BigDecimal revenue = contribution.getRevenue().multiply(BigDecimal.valueOf(sign));
+
+            // the first order of a bucket creates the row, the increment is what counts it
+            if (rollupRepository.increment(contribution.getDimension(), contribution.getDimensionKey(),
+                    contribution.getBucketHour(), orderCount, quantity, revenue) == 0) {
+                rollupRepository.insertIfAbsent(contribution.getDimension(),
+                        contribution.getDimensionKey(), contribution.getBucketHour());
+                rollupRepository.increment(contribution.getDimension(), contribution.getDimensionKey(),
+                        contribution.getBucketHour(), orderCount, quantity, revenue);
+            }
+        }
+    }
+
+    // what one completed order adds to each rollup row, categories split the line revenue
+    // the same way the dashboard always has. Rows are keyed by id so a renamed food, category
+    // or table keeps its history, the dashboard looks the names up when it reads
+    static List<RevenueRollup> contributionsOf(Order order) {
+        LocalDateTime bucketHour = bucketOf(order.getOrderTime());
+        Map<String, RevenueRollup> rows = new LinkedHashMap<>();
+
+        long itemQuantity = 0;
+        for (OrderItem item : order.getOrderItems()) {
+            int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+            BigDecimal itemRevenue = item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO;
+            itemQuantity += quantity;
+
+            if (item.getFoodItem() != null) {
+                merge(rows, bucketHour, RollupDimension.FOOD_ITEM, String.valueOf(item.getFoodItem().getFoodId()),
+                        1, quantity, itemRevenue);
+
+                Set<Category> categories = item.getFoodItem().getCategories();
+                if (categories != null && !categories.isEmpty()) {
+                    BigDecimal revenuePerCategory = itemRevenue.divide(
+                            BigDecimal.valueOf(categories.size()), 2, RoundingMode.HALF_UP);
+                    for (Category category : categories) {
+                        merge(rows, bucketHour, RollupDimension.CATEGORY, String.valueOf(category.getCategoryId()),
+                                1, quantity, revenuePerCategory);
+                    }
+                } else {
+                    merge(rows, bucketHour, RollupDimension.CATEGORY, UNCATEGORIZED_KEY, 1, quantity, itemRevenue);
+                }
+            }
+        }
+
+        BigDecimal orderRevenue = order.getTotalPrice() != null ? order.getTotalPrice() : BigDecimal.ZERO;
+        merge(rows, bucketHour, RollupDimension.TOTAL, "", 1, itemQuantity, orderRevenue);
+
+        if (order.getTable() != null && order.getTable().getTableId() != null) {
+            merge(rows, bucketHour, RollupDimension.TABLE, String.valueOf(order.getTable().getTableId()),
+                    1, itemQuantity, orderRevenue);
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    static LocalDateTime bucketOf(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static void merge(Map<String, RevenueRollup> rows, LocalDateTime bucketHour, RollupDimension dimension,
+                              String dimensionKey, long orderCount, long quantity, BigDecimal revenue) {
+        RevenueRollup rollup = new RevenueRollup();
+        rollup.setBucketHour(bucketHour);
+        rollup.setDimension(dimension);
+        rollup.setDimensionKey(dimensionKey);
+        rollup.setOrderCount(orderCount);
+        rollup.setQuantity(quantity);
+        rollup.setRevenue(revenue);
+        rows.merge(rowKey(rollup), rollup, RevenueRollupService::add);
+    }
+
+    private static String rowKey(RevenueRollup rollup) {
+        return rollup.getBucketHour() + "|" + rollup.getDimension() + "|" + rollup.getDimensionKey();
+    }
+
+    private static RevenueRollup add(RevenueRollup a, RevenueRollup b) {
+        a.setOrderCount(a.getOrderCount() + b.getOrderCount());
+        a.setQuantity(a.getQuantity() + b.getQuantity());
+        a.setRevenue(a.getRevenue().add(b.getRevenue()));
+        return a;
+    }
+}
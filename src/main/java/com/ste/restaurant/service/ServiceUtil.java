@@ -5,13 +5,8 @@ import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
 import java.beans.PropertyDescriptor;
-import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -49,32 +44,6 @@ public class ServiceUtil {
         return extension;
     }
 
-    public static boolean cropAndResizeToSquare(MultipartFile imageFile, String filePath, int size) {
-        try (InputStream is = imageFile.getInputStream()) {
-            BufferedImage originalImage = ImageIO.read(is);
-
-            // Crop to 1:1 ratio (center crop)
-            int width = originalImage.getWidth();
-            int height = originalImage.getHeight();
-            int squareSize = Math.min(width, height);
-            int x = (width - squareSize) / 2;
-            int y = (height - squareSize) / 2;
-            BufferedImage croppedImage = originalImage.getSubimage(x, y, squareSize, squareSize);
-
-            // Resize to fixed size
-            BufferedImage resizedImage = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
-            Graphics2D g2d = resizedImage.createGraphics();
-            g2d.drawImage(croppedImage, 0, 0, size, size, null);
-            g2d.dispose();
-
-            ImageIO.write(resizedImage, getFileExtension(imageFile.getOriginalFilename()), new java.io.File(filePath));
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
-    }
-
     public static <T> Page<T> createPage(List<T> list, Pageable pageable) {
         if (list == null || list.isEmpty()) {
             return new PageImpl<>(Collections.emptyList(), pageable, 0);
@@ -0,0 +1,162 @@
+package com.ste.restaurant.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+// Fans events out to SSE subscribers without making the publisher wait on any of them. Every
+// subscriber has its own bounded queue drained by a small shared pool, one drain per subscriber
+// at a time keeps its events in order. A send blocks its pool thread until the write goes through
+// or the container's write timeout fails it, so a subscriber that stops reading holds one dispatch
+// thread and delays the subscribers waiting behind it. When a queue overflows the backlog is
+// dropped and the subscriber gets its resync event instead, queued events the resync covers
+// (a sequence up to its own) are dropped as well.
+final class SseFanOut<E> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseFanOut.class);
+
+    private final String name;
+    private final int queueSize;
+    private final ToLongFunction<E> sequenceOf;
+    private final Function<E, String> typeOf;
+    private final ExecutorService dispatcher;
+
+    SseFanOut(String name, int queueSize, int dispatchThreads, ToLongFunction<E> sequenceOf, Function<E, String> typeOf) {
+        this.name = name;
+        this.queueSize = queueSize;
+        this.sequenceOf = sequenceOf;
+        this.typeOf = typeOf;
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads);
+    }
+
+    // nothing goes out before start, a subscriber can be registered before its snapshot is loaded
+    // and what is published meanwhile waits behind it. onClose runs when a send or resync fails
+    Channel channel(SseEmitter emitter, Supplier<E> resync, Runnable onClose) {
+        return new Channel(emitter, resync, onClose);
+    }
+
+    void shutdown() {
+        dispatcher.shutdown();
+        try {
+            if (!dispatcher.awaitTermination(5, TimeUnit.SECONDS)) {
+                dispatcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            dispatcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    final class Channel {
+        private final SseEmitter emitter;
+        private final Supplier<E> resync;
+        private final Runnable onClose;
+        private final Deque<E> queue = new ArrayDeque<>();
+        private boolean started;
+        private boolean draining;
+        private boolean lagging;
+
+        private Channel(SseEmitter emitter, Supplier<E> resync, Runnable onClose) {
+            this.emitter = emitter;
+            this.resync = resync;
+            this.onClose = onClose;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        // first goes out ahead of everything queued so far, null just starts sending
+        synchronized void start(E first) {
+            if (first != null) {
+                queue.addFirst(first);
+            }
+            started = true;
+            scheduleDrain();
+        }
+
+        synchronized void offer(E event) {
+            if (queue.size() >= queueSize) {
+                queue.clear();
+                lagging = true;
+            }
+            queue.addLast(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (started && !draining) {
+                draining = true;
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                E next;
+                boolean resyncing;
+                synchronized (this) {
+                    resyncing = lagging;
+                    lagging = false;
+                    next = resyncing ? null : queue.pollFirst();
+                    if (!resyncing && next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                // the resync is built outside the lock, offers to this subscriber carry on meanwhile
+                if (resyncing) {
+                    next = resync();
+                }
+                if (next == null || !send(next)) {
+                    return;
+                }
+            }
+        }
+
+        private E resync() {
+            E event;
+            try {
+                event = resync.get();
+            } catch (RuntimeException e) {
+                logger.warn("Could not resync a lagging {} subscriber", name, e);
+                close(e);
+                return null;
+            }
+            long covered = sequenceOf.applyAsLong(event);
+            synchronized (this) {
+                queue.removeIf(queued -> sequenceOf.applyAsLong(queued) <= covered);
+            }
+            return event;
+        }
+
+        private boolean send(E event) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(sequenceOf.applyAsLong(event)))
+                        .name(typeOf.apply(event))
+                        .data(event));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropped a {} subscriber: {}", name, e.getMessage());
+                close(e);
+                return false;
+            }
+        }
+
+        private void close(Exception e) {
+            onClose.run();
+            emitter.completeWithError(e);
+        }
+    }
+}
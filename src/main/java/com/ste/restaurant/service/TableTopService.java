@@ -9,39 +9,29 @@ import com.ste.restaurant.exception.*;
 import com.ste.restaurant.mapper.OrderMapper;
 import com.ste.restaurant.repository.TableTopRepository;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.WriterException;
-import com.google.zxing.qrcode.QRCodeWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class TableTopService {
 
     private final TableTopRepository tableRepository;
     private final OrderMapper orderMapper;
-    private final String siteBaseUrl;
-    private final String qrCodeDir;
-
-    private static final int QR_CODE_SIZE = 250;
+    private final QrCodeService qrCodeService;
 
     public TableTopService(TableTopRepository tableTopRepository, OrderMapper orderMapper,
-                           @Value("${site.base.url}") String siteBaseUrl,
-                           @Value("${app.image.qr-code-dir}") String qrCodeDir) {
+                           QrCodeService qrCodeService) {
         this.tableRepository = tableTopRepository;
         this.orderMapper = orderMapper;
-        this.siteBaseUrl = siteBaseUrl;
-        this.qrCodeDir = qrCodeDir;
+        this.qrCodeService = qrCodeService;
     }
 
     public TableTopDto saveTable(TableTopDto tableTopDto) {
@@ -55,13 +45,7 @@ public class TableTopService {
         TableTop tableTop = new TableTop();
         orderMapper.updateTableFromDto(tableTopDto, tableTop);
 
-        try {
-            String qrCodeFileName = createQrCodeFile(tableTop);
-            tableTop.setQrCode(qrCodeFileName);
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new ImageProcessingException("Failed to generate QR code for table: " + tableTop.getTableNumber());
-        }
+        tableTop.setQrCode(qrCodeService.render(tableTop.getTableNumber()));
 
         TableTop savedTable = tableRepository.save(tableTop);
         return orderMapper.tableTopToTableTopDto(savedTable);
@@ -149,61 +133,69 @@ public class TableTopService {
         return orderMapper.tableTopsToTableTopDtos(tableTops);
     }
 
-    public void createQrForTables() {
-        List<TableTop> tables = tableRepository.findAll();
-
-        for (TableTop table : tables) {
-            try {
-                String qrCodeFileName = createQrCodeFile(table);
-                table.setQrCode(qrCodeFileName);
-                tableRepository.save(table);
+    // only tables whose code is missing or encodes an outdated url are rendered, all in one batch
+    @Transactional
+    public int createQrForTables() {
+        List<TableTop> stale = new ArrayList<>();
+        for (TableTop table : tableRepository.findAll()) {
+            if (!qrCodeService.isCurrent(table.getTableNumber(), table.getQrCode())) {
+                stale.add(table);
             }
-            catch (Exception e) {
-                System.err.println("Failed to generate QR code for table: " + table.getTableNumber());
-                e.printStackTrace();
+        }
+        if (stale.isEmpty()) return 0;
+
+        Map<String, String> rendered = qrCodeService.renderAll(stale.stream().map(TableTop::getTableNumber).toList());
+        List<TableTop> updated = new ArrayList<>(rendered.size());
+        List<String> replacedFiles = new ArrayList<>();
+        for (TableTop table : stale) {
+            String fileName = rendered.get(table.getTableNumber());
+            if (fileName == null) continue;
+            if (table.getQrCode() != null && !table.getQrCode().equals(fileName)) {
+                replacedFiles.add(table.getQrCode());
             }
+            table.setQrCode(fileName);
+            updated.add(table);
         }
+        tableRepository.saveAll(updated);
+        deleteAfterCommit(replacedFiles);
+        return updated.size();
     }
 
-    private String createQrCodeFile(TableTop table) throws IOException {
-        String tableNumber = table.getTableNumber();
-        String qrCodeUrl = siteBaseUrl + "/menu?table=" + tableNumber;
-        String fileName = "table_" + tableNumber + ".jpg";
-
-        File qrCodeFile = new File(qrCodeDir + fileName);
-
-        File dir = new File(qrCodeDir);
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
+    // table id -> table number, ordered by number
+    public Map<Long, String> getTableNumbersById() {
+        Map<Long, String> tableNumbers = new LinkedHashMap<>();
+        tableRepository.findAll().stream()
+                .sorted(Comparator.comparing(TableTop::getTableNumber))
+                .forEach(table -> tableNumbers.put(table.getTableId(), table.getTableNumber()));
+        return tableNumbers;
+    }
 
-        try {
-            Path qrCodePath = qrCodeFile.toPath();
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(qrCodeUrl, BarcodeFormat.QR_CODE, QR_CODE_SIZE, QR_CODE_SIZE);
-            MatrixToImageWriter.writeToPath(bitMatrix, "JPG", qrCodePath);
-        } catch (WriterException e) {
-            throw new IOException("Failed to generate QR code", e);
+    private void deleteAfterCommit(List<String> fileNames) {
+        if (fileNames.isEmpty()) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fileNames.forEach(qrCodeService::delete);
+                }
+            });
+        } else {
+            fileNames.forEach(qrCodeService::delete);
         }
-
-        return fileName;
     }
 
+    @Transactional
     public void deleteAllQrCodes() {
-        List<TableTop> tables = tableRepository.findAll();
-
-        for (TableTop table : tables) {
-            String qrCodeFileName = table.getQrCode();
-            if (qrCodeFileName != null) {
-                File qrCodeFile = new File(qrCodeDir + qrCodeFileName);
-                if (qrCodeFile.exists()) {
-                    if (!qrCodeFile.delete()) {
-                        System.err.println("Failed to delete QR code file: " + qrCodeFileName);
-                    }
-                }
+        List<TableTop> cleared = new ArrayList<>();
+        List<String> fileNames = new ArrayList<>();
+        for (TableTop table : tableRepository.findAll()) {
+            if (table.getQrCode() != null) {
+                fileNames.add(table.getQrCode());
                 table.setQrCode(null);
-                tableRepository.save(table);
+                cleared.add(table);
             }
         }
+        tableRepository.saveAll(cleared);
+        deleteAfterCommit(fileNames);
     }
 }
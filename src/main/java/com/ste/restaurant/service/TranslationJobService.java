@@ -0,0 +1,409 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.TranslationItemEventDto;
+import com.ste.restaurant.dto.TranslationJobDto;
+import com.ste.restaurant.dto.TranslationPackDto;
+import com.ste.restaurant.entity.Category;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.TranslationJob;
+import com.ste.restaurant.entity.TranslationJobItem;
+import com.ste.restaurant.entity.enums.TranslationItemStatus;
+import com.ste.restaurant.entity.enums.TranslationItemType;
+import com.ste.restaurant.entity.enums.TranslationJobStatus;
+import com.ste.restaurant.exception.InvalidOperationException;
+import com.ste.restaurant.exception.InvalidValueException;
+import com.ste.restaurant.exception.NotFoundException;
+import com.ste.restaurant.exception.RateLimitExceededException;
+import com.ste.restaurant.repository.*;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Menu translations run as jobs stored in the database. A job snapshots what is untranslated when
+// it is queued, then one worker thread translates it a chunk at a time, category names and food
+// items in batches. Every chunk is committed before the next model call, so a restart or a
+// rate limit loses at most the chunk in flight. The translator retries a rate limited call at a
+// lower rate first, once it gives up the job is paused for the delay the provider asked for.
+// The model is called outside any transaction.
+@Service
+public class TranslationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranslationJobService.class);
+
+    private static final Set<TranslationJobStatus> ACTIVE_STATUSES = EnumSet.of(
+            TranslationJobStatus.QUEUED, TranslationJobStatus.RUNNING, TranslationJobStatus.PAUSED);
+
+    private final TranslationJobRepository jobRepository;
+    private final TranslationJobItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+    private final FoodItemRepository foodItemRepository;
+    private final CategoryTranslationRepository categoryTranslationRepository;
+    private final FoodItemTranslationRepository foodItemTranslationRepository;
+    private final LanguageService languageService;
+    private final ObjectProvider<MenuTranslator> translatorProvider;
+    private final TranslationProgressService progressService;
+    private final TransactionTemplate transaction;
+
+    private final int categoryBatchSize;
+    private final int foodBatchSize;
+    private final int maxAttempts;
+    private final Duration pollInterval;
+    private final Duration rateLimitBackoff;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "translation-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TranslationJobService(TranslationJobRepository jobRepository, TranslationJobItemRepository itemRepository,
+                                 CategoryRepository categoryRepository, FoodItemRepository foodItemRepository,
+                                 CategoryTranslationRepository categoryTranslationRepository,
+                                 FoodItemTranslationRepository foodItemTranslationRepository,
+                                 LanguageService languageService, ObjectProvider<MenuTranslator> translatorProvider,
+                                 TranslationProgressService progressService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.ai.translation.category-batch-size:10}") int categoryBatchSize,
+                                 @Value("${app.ai.translation.food-batch-size:40}") int foodBatchSize,
+                                 @Value("${app.ai.translation.max-attempts:3}") int maxAttempts,
+                                 @Value("${app.ai.translation.poll-interval:PT5S}") Duration pollInterval,
+                                 @Value("${app.ai.translation.rate-limit-backoff:PT1M}") Duration rateLimitBackoff) {
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.categoryRepository = categoryRepository;
+        this.foodItemRepository = foodItemRepository;
+        this.categoryTranslationRepository = categoryTranslationRepository;
+        this.foodItemTranslationRepository = foodItemTranslationRepository;
+        this.languageService = languageService;
+        this.translatorProvider = translatorProvider;
+        this.progressService = progressService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.categoryBatchSize = categoryBatchSize;
+        this.foodBatchSize = foodBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.pollInterval = pollInterval;
+        this.rateLimitBackoff = rateLimitBackoff;
+    }
+
+    // a chunk of pending items read in one transaction and written back in another
+    record Chunk(Long jobId, String language, TranslationItemType type, List<PendingItem> items) {
+    }
+
+    record PendingItem(Long itemId, Long sourceId, String sourceName, String sourceDescription) {
+    }
+
+    // jobs left unfinished by a previous run carry on, there is no model without an api key (tests)
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorker() {
+        if (translatorProvider.getIfAvailable() == null) {
+            logger.info("No menu translator configured, translation jobs will stay queued");
+            return;
+        }
+        schedule(Duration.ZERO);
+    }
+
+    @Transactional
+    public TranslationJobDto enqueue(String language) {
+        String languageCode = languageService.getTranslatableLanguageCode(language);
+        if (languageCode == null) {
+            throw new InvalidValueException("Language", language);
+        }
+
+        Optional<TranslationJob> active = jobRepository.findFirstByLanguageAndStatusIn(language, ACTIVE_STATUSES);
+        if (active.isPresent()) {
+            return toDto(active.get());
+        }
+
+        TranslationJob job = new TranslationJob();
+        job.setLanguage(language);
+        job.setLanguageCode(languageCode);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+
+        Set<Long> translatedCategories = categoryTranslationRepository.findTranslatedCategoryIds(languageCode);
+        for (Category category : categoryRepository.findAll()) {
+            if (!translatedCategories.contains(category.getCategoryId())) {
+                job.getItems().add(newItem(job, TranslationItemType.CATEGORY, category.getCategoryId(),
+                        category.getCategoryName(), null));
+            }
+        }
+        Set<Long> translatedFoods = foodItemTranslationRepository.findTranslatedFoodItemIds(languageCode);
+        for (FoodItem food : foodItemRepository.findAll()) {
+            if (!translatedFoods.contains(food.getFoodId())) {
+                job.getItems().add(newItem(job, TranslationItemType.FOOD_ITEM, food.getFoodId(),
+                        food.getFoodName(), food.getDescription()));
+            }
+        }
+
+        job.setTotalItems(job.getItems().size());
+        if (job.getItems().isEmpty()) {
+            job.setStatus(TranslationJobStatus.COMPLETED);
+        }
+        TranslationJobDto queued = toDto(jobRepository.save(job));
+        if (job.getStatus() == TranslationJobStatus.COMPLETED) {
+            progressService.finished(queued);
+        } else {
+            progressService.queued(queued);
+        }
+        return queued;
+    }
+
+    @Transactional(readOnly = true)
+    public TranslationJobDto getJob(Long jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TranslationJobDto> getJobs() {
+        return jobRepository.findAllByOrderByJobIdDesc().stream().map(this::toDto).toList();
+    }
+
+    @Transactional
+    public TranslationJobDto cancel(Long jobId) {
+        TranslationJob job = findJob(jobId);
+        if (!ACTIVE_STATUSES.contains(job.getStatus())) {
+            throw new InvalidOperationException("Translation job", "cancel " + job.getStatus().name().toLowerCase());
+        }
+        job.setStatus(TranslationJobStatus.CANCELLED);
+        job.setResumeAt(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        TranslationJobDto cancelled = toDto(job);
+        progressService.finished(cancelled);
+        return cancelled;
+    }
+
+    // what has been translated so far, in the shape the finalize endpoint takes after review
+    @Transactional(readOnly = true)
+    public TranslationPackDto getJobResult(Long jobId) {
+        TranslationJob job = findJob(jobId);
+
+        TranslationPackDto result = new TranslationPackDto();
+        result.setTargetLanguage(job.getLanguage());
+        result.setCategoryTranslations(new HashMap<>());
+        result.setFoodItemTranslations(new HashMap<>());
+        for (TranslationJobItem item : itemRepository.findAllByJobJobIdAndStatus(jobId, TranslationItemStatus.DONE)) {
+            if (item.getItemType() == TranslationItemType.CATEGORY) {
+                result.getCategoryTranslations().put(item.getSourceName(), item.getTranslatedName());
+            } else {
+                result.getFoodItemTranslations().put(item.getSourceName(),
+                        Arrays.asList(item.getTranslatedName(), item.getTranslatedDescription()));
+            }
+        }
+        return result;
+    }
+
+    // translates one chunk of the oldest runnable job, false when there was nothing to do
+    boolean runOnce() {
+        MenuTranslator translator = translatorProvider.getIfAvailable();
+        if (translator == null) return false;
+
+        Chunk chunk = transaction.execute(status -> nextChunk());
+        if (chunk == null) return false;
+        if (chunk.items().isEmpty()) return true;
+
+        try {
+            Map<Long, List<String>> translations = translate(translator, chunk);
+            transaction.executeWithoutResult(status -> saveResults(chunk, translations));
+        } catch (RateLimitExceededException e) {
+            Duration wait = e.getRetryAfter() != null ? e.getRetryAfter() : rateLimitBackoff;
+            logger.warn("Translation job {} rate limited, pausing for {}", chunk.jobId(), wait);
+            transaction.executeWithoutResult(status -> pause(chunk.jobId(), wait, e.getDetail()));
+        } catch (RuntimeException e) {
+            logger.warn("Translation job {} chunk failed: {}", chunk.jobId(), e.getMessage());
+            transaction.executeWithoutResult(status -> saveFailure(chunk, e.getMessage()));
+        }
+        return true;
+    }
+
+    private Chunk nextChunk() {
+        List<TranslationJob> runnable = jobRepository.findRunnable(LocalDateTime.now(), Limit.of(1));
+        if (runnable.isEmpty()) return null;
+
+        TranslationJob job = runnable.get(0);
+        job.setStatus(TranslationJobStatus.RUNNING);
+        job.setResumeAt(null);
+
+        TranslationItemType type = TranslationItemType.CATEGORY;
+        List<TranslationJobItem> items = itemRepository.findAllByJobJobIdAndItemTypeAndStatusOrderByItemId(
+                job.getJobId(), type, TranslationItemStatus.PENDING, Limit.of(categoryBatchSize));
+        if (items.isEmpty()) {
+            type = TranslationItemType.FOOD_ITEM;
+            items = itemRepository.findAllByJobJobIdAndItemTypeAndStatusOrderByItemId(
+                    job.getJobId(), type, TranslationItemStatus.PENDING, Limit.of(foodBatchSize));
+        }
+        if (items.isEmpty()) {
+            job.setStatus(TranslationJobStatus.COMPLETED);
+            job.setUpdatedAt(LocalDateTime.now());
+            logger.info("Translation job {} to {} completed: {} done, {} failed",
+                    job.getJobId(), job.getLanguage(), job.getDoneItems(), job.getFailedItems());
+            progressService.finished(toDto(job));
+        }
+
+        List<PendingItem> pending = items.stream()
+                .map(item -> new PendingItem(item.getItemId(), item.getSourceId(), item.getSourceName(), item.getSourceDescription()))
+                .toList();
+        return new Chunk(job.getJobId(), job.getLanguage(), type, pending);
+    }
+
+    // item id -> [name, description], items the model could not translate are left out
+    private Map<Long, List<String>> translate(MenuTranslator translator, Chunk chunk) {
+        Map<Long, List<String>> translations = new HashMap<>();
+        if (chunk.type() == TranslationItemType.CATEGORY) {
+            List<String> names = chunk.items().stream().map(PendingItem::sourceName).toList();
+            Map<String, String> translated = translator.translateCategoryNames(names, chunk.language());
+            for (PendingItem item : chunk.items()) {
+                String name = translated.get(item.sourceName());
+                if (name != null) {
+                    translations.put(item.itemId(), Collections.singletonList(name));
+                }
+            }
+        } else {
+            List<MenuTranslator.FoodText> foods = chunk.items().stream()
+                    .map(item -> new MenuTranslator.FoodText(item.sourceId(), item.sourceName(), item.sourceDescription()))
+                    .toList();
+            Map<Long, List<String>> translated = translator.translateFoodItems(foods, chunk.language());
+            for (PendingItem item : chunk.items()) {
+                List<String> food = translated.get(item.sourceId());
+                if (food != null) {
+                    translations.put(item.itemId(), food);
+                }
+            }
+        }
+        return translations;
+    }
+
+    private void saveResults(Chunk chunk, Map<Long, List<String>> translations) {
+        TranslationJob job = jobRepository.findById(chunk.jobId()).orElseThrow();
+        if (job.getStatus() != TranslationJobStatus.RUNNING) return; // cancelled meanwhile
+        List<TranslationItemEventDto> events = new ArrayList<>();
+        for (TranslationJobItem item : itemRepository.findAllById(ids(chunk))) {
+            List<String> translated = translations.get(item.getItemId());
+            item.setAttempts(item.getAttempts() + 1);
+            if (translated != null) {
+                item.setStatus(TranslationItemStatus.DONE);
+                item.setTranslatedName(translated.get(0));
+                item.setTranslatedDescription(translated.size() > 1 ? translated.get(1) : null);
+                job.setDoneItems(job.getDoneItems() + 1);
+            } else {
+                item.setStatus(TranslationItemStatus.FAILED);
+                item.setError("No translation available");
+                job.setFailedItems(job.getFailedItems() + 1);
+            }
+            events.add(toEvent(item));
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        progressService.itemsProcessed(toDto(job), events);
+    }
+
+    // the chunk stays pending until it failed maxAttempts times
+    private void saveFailure(Chunk chunk, String error) {
+        TranslationJob job = jobRepository.findById(chunk.jobId()).orElseThrow();
+        if (job.getStatus() != TranslationJobStatus.RUNNING) return; // cancelled meanwhile
+        List<TranslationItemEventDto> events = new ArrayList<>();
+        for (TranslationJobItem item : itemRepository.findAllById(ids(chunk))) {
+            item.setAttempts(item.getAttempts() + 1);
+            item.setError(truncate(error));
+            if (item.getAttempts() >= maxAttempts) {
+                item.setStatus(TranslationItemStatus.FAILED);
+                job.setFailedItems(job.getFailedItems() + 1);
+                events.add(toEvent(item));
+            }
+        }
+        job.setLastError(truncate(error));
+        job.setUpdatedAt(LocalDateTime.now());
+        progressService.itemsProcessed(toDto(job), events);
+    }
+
+    private void pause(Long jobId, Duration wait, String error) {
+        TranslationJob job = jobRepository.findById(jobId).orElseThrow();
+        if (job.getStatus() != TranslationJobStatus.RUNNING) return; // cancelled meanwhile
+        job.setStatus(TranslationJobStatus.PAUSED);
+        job.setResumeAt(LocalDateTime.now().plus(wait));
+        job.setLastError(truncate(error));
+        job.setUpdatedAt(LocalDateTime.now());
+        progressService.rateLimited(toDto(job), wait);
+    }
+
+    private void tick() {
+        boolean worked = false;
+        try {
+            worked = runOnce();
+        } catch (RuntimeException e) {
+            logger.error("Translation worker failed", e);
+        }
+        // pacing between calls is up to ModelRateLimiter
+        schedule(worked ? Duration.ZERO : pollInterval);
+    }
+
+    private void schedule(Duration delay) {
+        try {
+            worker.schedule(this::tick, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+        }
+    }
+
+    @PreDestroy
+    public void shutdownWorker() {
+        worker.shutdownNow();
+        try {
+            worker.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private TranslationJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("Translation job", jobId));
+    }
+
+    private static TranslationJobItem newItem(TranslationJob job, TranslationItemType type, Long sourceId,
+                                              String sourceName, String sourceDescription) {
+        TranslationJobItem item = new TranslationJobItem();
+        item.setJob(job);
+        item.setItemType(type);
+        item.setSourceId(sourceId);
+        item.setSourceName(sourceName);
+        item.setSourceDescription(sourceDescription);
+        return item;
+    }
+
+    private static List<Long> ids(Chunk chunk) {
+        return chunk.items().stream().map(PendingItem::itemId).toList();
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= 500) return error;
+        return error.substring(0, 500);
+    }
+
+    private static TranslationItemEventDto toEvent(TranslationJobItem item) {
+        return new TranslationItemEventDto(item.getItemType().name(), item.getSourceName(), item.getStatus().name(),
+                item.getTranslatedName(), item.getTranslatedDescription(), item.getError());
+    }
+
+    private TranslationJobDto toDto(TranslationJob job) {
+        return new TranslationJobDto(job.getJobId(), job.getLanguage(), job.getStatus().name(),
+                job.getTotalItems(), job.getDoneItems(), job.getFailedItems(),
+                job.getTotalItems() - job.getDoneItems() - job.getFailedItems(),
+                job.getCreatedAt(), job.getUpdatedAt(), job.getResumeAt(), job.getLastError());
+    }
+}
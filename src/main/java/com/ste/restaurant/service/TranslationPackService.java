@@ -0,0 +1,138 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.TranslationPackDto;
+import com.ste.restaurant.entity.Category;
+import com.ste.restaurant.entity.CategoryTranslation;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.FoodItemTranslation;
+import com.ste.restaurant.exception.InvalidValueException;
+import com.ste.restaurant.repository.CategoryRepository;
+import com.ste.restaurant.repository.CategoryTranslationRepository;
+import com.ste.restaurant.repository.FoodItemRepository;
+import com.ste.restaurant.repository.FoodItemTranslationRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Saves a reviewed translation pack. Names are resolved and the existing translations of the
+// language loaded with one query each, existing rows are updated in place and new ones persisted
+// directly, so the writes go out in jdbc batches (hibernate.jdbc.batch_size) without a select per row.
+@Service
+public class TranslationPackService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranslationPackService.class);
+
+    private final FoodItemRepository foodItemRepository;
+    private final CategoryRepository categoryRepository;
+    private final FoodItemTranslationRepository foodItemTranslationRepository;
+    private final CategoryTranslationRepository categoryTranslationRepository;
+    private final LanguageService languageService;
+    private final EntityManager entityManager;
+
+    public TranslationPackService(FoodItemRepository foodItemRepository, CategoryRepository categoryRepository,
+                                  FoodItemTranslationRepository foodItemTranslationRepository,
+                                  CategoryTranslationRepository categoryTranslationRepository,
+                                  LanguageService languageService, EntityManager entityManager) {
+        this.foodItemRepository = foodItemRepository;
+        this.categoryRepository = categoryRepository;
+        this.foodItemTranslationRepository = foodItemTranslationRepository;
+        this.categoryTranslationRepository = categoryTranslationRepository;
+        this.languageService = languageService;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public boolean finalizeTranslations(TranslationPackDto translationPack) {
+        String languageCode = translationPack == null ? null
+                : languageService.getTranslatableLanguageCode(translationPack.getTargetLanguage());
+        if (languageCode == null) {
+            throw new InvalidValueException("Language", "empty: " + translationPack);
+        }
+
+        Map<String, List<String>> foodInput = translationPack.getFoodItemTranslations() != null
+                ? translationPack.getFoodItemTranslations()
+                : Map.of();
+        Map<String, String> categoryInput = translationPack.getCategoryTranslations() != null
+                ? translationPack.getCategoryTranslations()
+                : Map.of();
+
+        saveCategoryTranslations(languageCode, categoryInput);
+        saveFoodTranslations(languageCode, foodInput);
+        return true;
+    }
+
+    private void saveFoodTranslations(String languageCode, Map<String, List<String>> input) {
+        if (input.isEmpty()) return;
+
+        Map<String, FoodItem> foods = foodItemRepository.findAllByFoodNameIn(input.keySet()).stream()
+                .collect(Collectors.toMap(FoodItem::getFoodName, Function.identity()));
+        Map<Long, FoodItemTranslation> existing = foodItemTranslationRepository
+                .findByFoodItemTranslationId_LanguageCode(languageCode).stream()
+                .collect(Collectors.toMap(t -> t.getFoodItemTranslationId().getFoodItemId(), Function.identity()));
+
+        for (Map.Entry<String, List<String>> entry : input.entrySet()) {
+            FoodItem food = foods.get(entry.getKey());
+            if (food == null) {
+                logger.warn("Food item not found for name: {}", entry.getKey());
+                continue;
+            }
+            List<String> values = entry.getValue();
+            if (values == null || values.isEmpty() || values.get(0) == null || values.get(0).isBlank()) {
+                continue;
+            }
+            String description = values.size() > 1 && values.get(1) != null && !values.get(1).isBlank()
+                    ? values.get(1)
+                    : null;
+
+            FoodItemTranslation translation = existing.get(food.getFoodId());
+            if (translation == null) {
+                translation = new FoodItemTranslation();
+                translation.setId(languageCode, food);
+                translation.setName(values.get(0).trim());
+                translation.setDescription(description);
+                entityManager.persist(translation);
+            } else {
+                translation.setName(values.get(0).trim());
+                translation.setDescription(description);
+            }
+        }
+    }
+
+    private void saveCategoryTranslations(String languageCode, Map<String, String> input) {
+        if (input.isEmpty()) return;
+
+        Map<String, Category> categories = categoryRepository.findAllByCategoryNameIn(input.keySet()).stream()
+                .collect(Collectors.toMap(Category::getCategoryName, Function.identity()));
+        Map<Long, CategoryTranslation> existing = categoryTranslationRepository
+                .findByCategoryTranslationId_LanguageCode(languageCode).stream()
+                .collect(Collectors.toMap(t -> t.getCategoryTranslationId().getCategoryId(), Function.identity()));
+
+        for (Map.Entry<String, String> entry : input.entrySet()) {
+            Category category = categories.get(entry.getKey());
+            if (category == null) {
+                logger.warn("Category not found for name: {}", entry.getKey());
+                continue;
+            }
+            if (entry.getValue() == null || entry.getValue().isBlank()) {
+                continue;
+            }
+
+            CategoryTranslation translation = existing.get(category.getCategoryId());
+            if (translation == null) {
+                translation = new CategoryTranslation();
+                translation.setId(languageCode, category);
+                translation.setName(entry.getValue().trim());
+                entityManager.persist(translation);
+            } else {
+                translation.setName(entry.getValue().trim());
+            }
+        }
+    }
+}
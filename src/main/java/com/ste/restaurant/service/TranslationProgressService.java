@@ -0,0 +1,215 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.TranslationItemEventDto;
+import com.ste.restaurant.dto.TranslationJobDto;
+import com.ste.restaurant.dto.TranslationProgressEventDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Streams translation job progress to admin screens: every translated or failed item, the job
+// counters with throughput and eta, rate limit pauses and the end of a job.
+// Delivery goes through SseFanOut, a screen whose queue overflows gets a RESYNC with the current
+// state of every job instead, items it missed can be read from /jobs/{jobId}/result.
+// A new screen is registered before its snapshot loads, what is published meanwhile follows it.
+@Service
+public class TranslationProgressService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranslationProgressService.class);
+
+    public enum EventType {
+        SNAPSHOT,
+        RESYNC,
+        QUEUED,
+        ITEM,
+        PROGRESS,
+        RATE_LIMITED,
+        FINISHED
+    }
+
+    private final long emitterTimeout;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, TranslationJobDto> latestJobs = new ConcurrentHashMap<>();
+    private final Map<Long, Throughput> throughputs = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    private final SseFanOut<TranslationProgressEventDto> fanOut;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public TranslationProgressService(@Value("${app.ai.translation.stream.queue-size:256}") int queueSize,
+                                      @Value("${app.ai.translation.stream.timeout-ms:1800000}") long emitterTimeout,
+                                      @Value("${app.ai.translation.stream.dispatch-threads:2}") int dispatchThreads) {
+        this(queueSize, emitterTimeout, dispatchThreads, System::nanoTime);
+    }
+
+    TranslationProgressService(int queueSize, long emitterTimeout, int dispatchThreads, LongSupplier nanoClock) {
+        this.emitterTimeout = emitterTimeout;
+        this.fanOut = new SseFanOut<>("translation progress", queueSize, dispatchThreads,
+                TranslationProgressEventDto::getSequence, TranslationProgressEventDto::getType);
+        this.nanoClock = nanoClock;
+    }
+
+    // items done since the first chunk after the job (re)started, a paused job starts a new window
+    // when it resumes. the first chunk only opens the window, its items took an unknown time
+    private static final class Throughput {
+        private final long startedAt;
+        private int processed;
+
+        private Throughput(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+
+    // jobId null follows every job
+    public SseEmitter subscribe(Long jobId, Supplier<List<TranslationJobDto>> snapshot) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(jobId);
+        subscriber.channel = fanOut.channel(emitter, () -> resync(subscriber), () -> removeSubscriber(subscriber));
+        emitter.onCompletion(() -> removeSubscriber(subscriber));
+        emitter.onTimeout(() -> removeSubscriber(subscriber));
+        emitter.onError(e -> removeSubscriber(subscriber));
+
+        long since;
+        synchronized (this) {
+            since = sequence.get();
+            subscribers.add(subscriber);
+        }
+        List<TranslationJobDto> jobs;
+        try {
+            jobs = snapshot.get().stream().filter(subscriber::follows).toList();
+        } catch (RuntimeException e) {
+            removeSubscriber(subscriber);
+            throw e;
+        }
+        subscriber.channel.start(new TranslationProgressEventDto(since, EventType.SNAPSHOT.name(),
+                jobId, null, null, null, null, jobs));
+        return emitter;
+    }
+
+    public void queued(TranslationJobDto job) {
+        afterCommit(() -> {
+            latestJobs.put(job.getJobId(), job);
+            publish(event(EventType.QUEUED, job, null));
+        });
+    }
+
+    public void itemsProcessed(TranslationJobDto job, List<TranslationItemEventDto> items) {
+        afterCommit(() -> {
+            latestJobs.put(job.getJobId(), job);
+            Throughput throughput = throughputs.get(job.getJobId());
+            if (throughput == null) {
+                throughputs.put(job.getJobId(), new Throughput(nanoClock.getAsLong()));
+            } else {
+                throughput.processed += items.size();
+            }
+            for (TranslationItemEventDto item : items) {
+                publish(event(EventType.ITEM, job, item));
+            }
+            publish(event(EventType.PROGRESS, job, null));
+        });
+    }
+
+    public void rateLimited(TranslationJobDto job, Duration wait) {
+        afterCommit(() -> {
+            latestJobs.put(job.getJobId(), job);
+            throughputs.remove(job.getJobId());
+            logger.debug("Translation job {} paused for {}", job.getJobId(), wait);
+            publish(event(EventType.RATE_LIMITED, job, null));
+        });
+    }
+
+    public void finished(TranslationJobDto job) {
+        afterCommit(() -> {
+            latestJobs.remove(job.getJobId());
+            throughputs.remove(job.getJobId());
+            publish(event(EventType.FINISHED, job, null));
+        });
+    }
+
+    TranslationProgressEventDto event(EventType type, TranslationJobDto job, TranslationItemEventDto item) {
+        Double itemsPerMinute = null;
+        Long etaSeconds = null;
+        Throughput throughput = throughputs.get(job.getJobId());
+        if (throughput != null && throughput.processed > 0) {
+            double minutes = Math.max(nanoClock.getAsLong() - throughput.startedAt, 1) / 60e9;
+            itemsPerMinute = throughput.processed / minutes;
+            etaSeconds = Math.round(job.getPendingItems() / itemsPerMinute * 60);
+        }
+        return new TranslationProgressEventDto(sequence.incrementAndGet(), type.name(), job.getJobId(),
+                item, job, itemsPerMinute, etaSeconds, null);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private synchronized void publish(TranslationProgressEventDto event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.jobId == null || subscriber.jobId.equals(event.getJobId())) {
+                subscriber.channel.offer(event);
+            }
+        }
+    }
+
+    private TranslationProgressEventDto resync(Subscriber subscriber) {
+        List<TranslationJobDto> jobs = latestJobs.values().stream().filter(subscriber::follows).toList();
+        return new TranslationProgressEventDto(sequence.incrementAndGet(), EventType.RESYNC.name(),
+                subscriber.jobId, null, null, null, null, jobs);
+    }
+
+    private synchronized void removeSubscriber(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdownDispatcher() {
+        synchronized (this) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.channel.emitter().complete();
+            }
+            subscribers.clear();
+        }
+        fanOut.shutdown();
+    }
+
+    private static final class Subscriber {
+        private final Long jobId;
+        private SseFanOut<TranslationProgressEventDto>.Channel channel;
+
+        private Subscriber(Long jobId) {
+            this.jobId = jobId;
+        }
+
+        private boolean follows(TranslationJobDto job) {
+            return jobId == null || jobId.equals(job.getJobId());
+        }
+    }
+}
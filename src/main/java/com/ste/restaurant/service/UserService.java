@@ -1,6 +1,7 @@
 package com.ste.restaurant.service;
 
 import com.ste.restaurant.dto.common.BigDecimalDto;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.dto.userdto.*;
 import com.ste.restaurant.entity.*;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -27,14 +29,19 @@ public class UserService {
     private final AddressRepository addressRepository;
     private final PasswordEncoder passwordEncoder;
     private final OrderMapper orderMapper;
+    private final LiveOrderBookService liveOrderBook;
+    private final CustomUserDetailsService userDetailsService;
 
     public UserService(UserRepository userRepository, OrderRepository orderRepository,
-                       AddressRepository addressRepository, PasswordEncoder passwordEncoder, OrderMapper orderMapper) {
+                       AddressRepository addressRepository, PasswordEncoder passwordEncoder, OrderMapper orderMapper,
+                       LiveOrderBookService liveOrderBook, CustomUserDetailsService userDetailsService) {
         this.userRepository = userRepository;
         this.orderRepository = orderRepository;
         this.addressRepository = addressRepository;
         this.passwordEncoder = passwordEncoder;
         this.orderMapper = orderMapper;
+        this.liveOrderBook = liveOrderBook;
+        this.userDetailsService = userDetailsService;
     }
 
     @Transactional
@@ -57,6 +64,17 @@ public class UserService {
         return users.map(orderMapper::userToUserDto);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserDto> scrollUsers(String cursor, int size, boolean includeTotal) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<User> users = cursor == null
+                ? userRepository.findAllByOrderByUserIdAsc(KeysetCursor.limitFor(pageSize))
+                : userRepository.findAllByUserIdGreaterThanOrderByUserIdAsc(
+                        KeysetCursor.decode(cursor).id(), KeysetCursor.limitFor(pageSize));
+        return KeysetCursor.page(users, pageSize, user -> KeysetCursor.ofId(user.getUserId()),
+                orderMapper::userToUserDto, includeTotal ? userRepository.count() : null);
+    }
+
     public Page<UserDto> getAllUsersByRole(String role, Pageable pageable) {
         UserRole userRole;
         try {
@@ -84,10 +102,12 @@ public class UserService {
         UserDto userDto = orderMapper.userToUserDto(userDel);
 
         orderRepository.updateCustomerAndAddressToNull(userDel);
+        liveOrderBook.detachCustomer(userDel.getEmail());
 
         if (userDel.getAddresses() != null) addressRepository.deleteAll(userDel.getAddresses());
 
         userRepository.delete(userDel);
+        userDetailsService.evict(userDel.getEmail());
 
         return userDto;
     }
@@ -106,9 +126,12 @@ public class UserService {
                 throw new AlreadyExistsException("User", userDto.getEmail());
             }
         }
+        String previousEmail = user.getEmail();
         orderMapper.updateUserFromDtoEmployee(userDto, user);
 
         User savedUser = userRepository.save(user);
+        // the dto can change the role as well as the email
+        userDetailsService.evict(previousEmail);
         return orderMapper.userToUserDto(savedUser);
     }
 
@@ -143,6 +166,7 @@ public class UserService {
         }
         user.setRole(newRole);
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
         return orderMapper.userToUserDto(user);
     }
 
@@ -175,6 +199,9 @@ public class UserService {
         }
 
         orderMapper.updateUserFromDtoIO(userDto, user);
+        if (!email.equals(user.getEmail())) {
+            userDetailsService.evict(email);
+        }
 
         User savedUser = userRepository.save(user);
         return orderMapper.userToUserDtoCustomer(savedUser);
@@ -0,0 +1,56 @@
+package com.ste.restaurant.configuration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// not @Transactional, alter sequence commits on its own
+@SpringBootTest
+@ActiveProfiles("test")
+class IdSequenceAlignerIntegrationTest {
+
+    private static final long LEGACY_ID = 9_000_000L;
+
+    @Autowired
+    private IdSequenceAligner idSequenceAligner;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate().update("delete from addresses where address_id = ?", LEGACY_ID);
+    }
+
+    @Test
+    void alignSequences_movesSequencePastRowsFromIdentityColumns() {
+        // a row written while ids still came from the identity column
+        jdbcTemplate().update("insert into addresses (address_id, name) values (?, ?)", LEGACY_ID, "Legacy Address " + System.nanoTime());
+
+        idSequenceAligner.alignSequences();
+
+        Long next = jdbcTemplate().queryForObject("select next value for addresses_seq", Long.class);
+        assertThat(next).isGreaterThan(LEGACY_ID);
+    }
+
+    @Test
+    void alignSequences_leavesSequenceAheadOfTableAlone() {
+        Long before = jdbcTemplate().queryForObject("select next value for tables_seq", Long.class);
+
+        idSequenceAligner.alignSequences();
+
+        Long after = jdbcTemplate().queryForObject("select next value for tables_seq", Long.class);
+        assertThat(after).isBetween(before, before + 2 * 50);
+    }
+}
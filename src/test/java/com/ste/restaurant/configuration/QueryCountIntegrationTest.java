@@ -0,0 +1,78 @@
+package com.ste.restaurant.configuration;
+
+import com.ste.restaurant.repository.UserRepository;
+import com.ste.restaurant.utils.QueryBudget;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.query-count.header=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class QueryCountIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void count_includesEveryStatementOnTheThread() {
+        long before = queryCounter.count();
+
+        userRepository.count();
+        userRepository.findByEmail("rick@gmail.com");
+
+        assertThat(queryCounter.count() - before).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = "rick@gmail.com", roles = "CUSTOMER")
+    void request_isCountedOnMetricsAndHeader() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/api/orders"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        long queries = QueryBudget.queries(result);
+        assertThat(queries).isPositive();
+        // the header is written when the response is committed, the attribute after the request
+        assertThat(Long.parseLong(result.getResponse().getHeader(QueryCountFilter.QUERY_COUNT_HEADER)))
+                .isBetween(1L, queries);
+
+        DistributionSummary request = meterRegistry.get("http.server.requests.queries")
+                .tag("method", "GET").tag("uri", "/rest/api/orders").summary();
+        assertThat(request.count()).isPositive();
+        DistributionSummary service = meterRegistry.get("service.method.queries")
+                .tag("service", "OrderService").tag("method", "getOrders").summary();
+        assertThat(service.count()).isPositive();
+        assertThat(service.max()).isPositive();
+    }
+
+    @Test
+    void staticPaths_areNotCounted() throws Exception {
+        MvcResult result = mockMvc.perform(get("/favicon.ico")).andReturn();
+
+        assertThat(result.getRequest().getAttribute(QueryCountFilter.QUERY_COUNT_ATTRIBUTE)).isNull();
+        assertThat(result.getResponse().getHeader(QueryCountFilter.QUERY_COUNT_HEADER)).isNull();
+    }
+}
@@ -1,5 +1,6 @@
 package com.ste.restaurant.controller;
 
+import com.ste.restaurant.utils.QueryBudget;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -321,6 +322,48 @@ public class AdminDashboardControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @SpringBootTest
+    @AutoConfigureMockMvc
+    @Transactional
+    class DashboardSummaryTests {
+
+        @Test
+        @WithMockUser(username = "somer@restaurant.com", roles = "ADMIN")
+        void shouldGetDashboardSummarySuccessfully() throws Exception {
+            mockMvc.perform(get("/rest/api/admin/dashboard/summary")
+                            .param("startDate", "2025-01-01")
+                            .param("endDate", "2025-08-07")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.stats.totalRevenue").exists())
+                    .andExpect(jsonPath("$.revenueChart").isArray())
+                    .andExpect(jsonPath("$.revenueHeatmap").isArray())
+                    .andExpect(jsonPath("$.topItems").isArray())
+                    .andExpect(jsonPath("$.topCategories").isArray())
+                    .andExpect(jsonPath("$.busiestTables").isArray())
+                    // plus one name lookup per food, category and table list, however long the range
+                    .andExpect(QueryBudget.atMost(7));
+        }
+
+        @Test
+        @WithMockUser(username = "somer@restaurant.com", roles = "ADMIN")
+        void shouldWorkWithDefaultDates() throws Exception {
+            mockMvc.perform(get("/rest/api/admin/dashboard/summary")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.stats.totalOrders").exists());
+        }
+
+        @Test
+        @WithMockUser(roles = "WAITER")
+        void shouldReturn403WhenWaiterTriesToAccessSummary() throws Exception {
+            mockMvc.perform(get("/rest/api/admin/dashboard/summary")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
     @Nested
     @SpringBootTest
     @AutoConfigureMockMvc
@@ -344,7 +387,8 @@ public class AdminDashboardControllerIntegrationTest {
                 "/rest/api/admin/dashboard/top-items",
                 "/rest/api/admin/dashboard/top-categories",
                 "/rest/api/admin/dashboard/busiest-tables",
-                "/rest/api/admin/dashboard/revenue-heatmap"
+                "/rest/api/admin/dashboard/revenue-heatmap",
+                "/rest/api/admin/dashboard/summary"
             };
 
             for (String endpoint : endpoints) {
@@ -406,7 +450,8 @@ public class AdminDashboardControllerIntegrationTest {
                 "/rest/api/admin/dashboard/top-items",
                 "/rest/api/admin/dashboard/top-categories",
                 "/rest/api/admin/dashboard/busiest-tables",
-                "/rest/api/admin/dashboard/revenue-heatmap"
+                "/rest/api/admin/dashboard/revenue-heatmap",
+                "/rest/api/admin/dashboard/summary"
             };
 
             for (String endpoint : endpoints) {
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ste.restaurant.dto.OrderDto;
 import com.ste.restaurant.dto.OrderItemDto;
 import com.ste.restaurant.dto.FoodItemDto;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.service.OrderService;
 import org.junit.jupiter.api.DisplayName;
@@ -28,6 +29,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -271,6 +274,54 @@ public class EmployeeOrderControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Scroll Orders Tests")
+    class ScrollOrdersTests {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should return a cursor page of orders as admin")
+        void shouldReturnCursorPageAsAdmin() throws Exception {
+            // Given
+            CursorPageDto<OrderDto> page = new CursorPageDto<>(
+                    List.of(createMockOrderDto(9L, "PLACED"), createMockOrderDto(8L, "READY")), "next-token", null);
+            when(orderService.scrollOrders("token", 2, false)).thenReturn(page);
+
+            // When & Then
+            mockMvc.perform(get("/rest/api/employee/orders/scroll")
+                            .param("cursor", "token")
+                            .param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(2))
+                    .andExpect(jsonPath("$.content[0].orderId").value(9))
+                    .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should scroll order items from the first page when no cursor is given")
+        void shouldScrollOrderItemsFromFirstPage() throws Exception {
+            when(orderService.scrollOrderItems(null, 20, true))
+                    .thenReturn(new CursorPageDto<>(List.of(createMockOrderItemDto(1L, "Burger", 1)), null, 1L));
+
+            mockMvc.perform(get("/rest/api/employee/orders/items/scroll").param("includeTotal", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].foodItem.foodName").value("Burger"))
+                    .andExpect(jsonPath("$.totalElements").value(1));
+        }
+
+        @Test
+        @WithMockUser(roles = "WAITER")
+        @DisplayName("Should return forbidden when waiter tries to scroll orders")
+        void shouldReturnForbiddenForWaiter() throws Exception {
+            mockMvc.perform(get("/rest/api/employee/orders/scroll"))
+                    .andExpect(status().isForbidden());
+
+            verify(orderService, never()).scrollOrders(any(), anyInt(), anyBoolean());
+        }
+    }
+
     @Nested
     @DisplayName("Get Order By ID Tests")
     class GetOrderByIdTests {
@@ -359,7 +410,7 @@ public class EmployeeOrderControllerIntegrationTest {
             statusDto.setName("READY");
             OrderDto updatedOrder = createMockOrderDto(orderId, "READY");
             
-            when(orderService.updateOrderStatus(eq(orderId), any(StringDto.class))).thenReturn(updatedOrder);
+            when(orderService.updateOrderStatus(eq(orderId), any(StringDto.class), eq("user"))).thenReturn(updatedOrder);
 
             // When & Then
             mockMvc.perform(patch("/rest/api/employee/orders/{orderId}/status", orderId)
@@ -370,7 +421,7 @@ public class EmployeeOrderControllerIntegrationTest {
                     .andExpect(jsonPath("$.orderId").value(orderId))
                     .andExpect(jsonPath("$.status").value("READY"));
 
-            verify(orderService).updateOrderStatus(eq(orderId), any(StringDto.class));
+            verify(orderService).updateOrderStatus(eq(orderId), any(StringDto.class), eq("user"));
         }
 
         @Test
@@ -383,7 +434,7 @@ public class EmployeeOrderControllerIntegrationTest {
             statusDto.setName("SERVED");
             OrderDto updatedOrder = createMockOrderDto(orderId, "SERVED");
             
-            when(orderService.updateOrderStatus(eq(orderId), any(StringDto.class))).thenReturn(updatedOrder);
+            when(orderService.updateOrderStatus(eq(orderId), any(StringDto.class), eq("user"))).thenReturn(updatedOrder);
 
             // When & Then
             mockMvc.perform(patch("/rest/api/employee/orders/{orderId}/status", orderId)
@@ -393,7 +444,7 @@ public class EmployeeOrderControllerIntegrationTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.status").value("SERVED"));
 
-            verify(orderService).updateOrderStatus(eq(orderId), any(StringDto.class));
+            verify(orderService).updateOrderStatus(eq(orderId), any(StringDto.class), eq("user"));
         }
 
         @Test
@@ -406,7 +457,7 @@ public class EmployeeOrderControllerIntegrationTest {
             statusDto.setName("PREPARING");
             OrderDto updatedOrder = createMockOrderDto(orderId, "PREPARING");
             
-            when(orderService.updateOrderStatus(eq(orderId), any(StringDto.class))).thenReturn(updatedOrder);
+            when(orderService.updateOrderStatus(eq(orderId), any(StringDto.class), eq("user"))).thenReturn(updatedOrder);
 
             // When & Then
             mockMvc.perform(patch("/rest/api/employee/orders/{orderId}/status", orderId)
@@ -416,7 +467,7 @@ public class EmployeeOrderControllerIntegrationTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.status").value("PREPARING"));
 
-            verify(orderService).updateOrderStatus(eq(orderId), any(StringDto.class));
+            verify(orderService).updateOrderStatus(eq(orderId), any(StringDto.class), eq("user"));
         }
 
         @Test
@@ -434,7 +485,7 @@ public class EmployeeOrderControllerIntegrationTest {
                             .content(objectMapper.writeValueAsString(statusDto)))
                     .andExpect(status().isForbidden());
 
-            verify(orderService, never()).updateOrderStatus(any(), any());
+            verify(orderService, never()).updateOrderStatus(any(), any(), any());
         }
 
         @Test
@@ -452,7 +503,7 @@ public class EmployeeOrderControllerIntegrationTest {
                             .content(objectMapper.writeValueAsString(statusDto)))
                     .andExpect(status().isBadRequest());
 
-            verify(orderService, never()).updateOrderStatus(any(), any());
+            verify(orderService, never()).updateOrderStatus(any(), any(), any());
         }
     }
 
@@ -698,7 +749,7 @@ public class EmployeeOrderControllerIntegrationTest {
                             .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isBadRequest());
 
-            verify(orderService, never()).updateOrderStatus(any(), any());
+            verify(orderService, never()).updateOrderStatus(any(), any(), any());
         }
 
         @Test
@@ -739,6 +790,38 @@ public class EmployeeOrderControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Order Board Stream Tests")
+    class OrderBoardStreamTests {
+
+        @Test
+        @WithMockUser(username = "chef@example.com", authorities = "ROLE_CHEF")
+        @DisplayName("Should open stream with snapshot as chef")
+        void shouldOpenStreamWithSnapshotAsChef() throws Exception {
+            // Given
+            when(orderService.getOrders("chef@example.com"))
+                    .thenReturn(List.of(createMockOrderDto(1L, "PLACED")));
+
+            // When & Then
+            mockMvc.perform(get("/rest/api/employee/orders/stream")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+
+            verify(orderService, timeout(1000)).getOrders("chef@example.com");
+        }
+
+        @Test
+        @WithMockUser(roles = "CUSTOMER")
+        @DisplayName("Should return 403 when customer opens stream")
+        void shouldReturn403WhenCustomerOpensStream() throws Exception {
+            mockMvc.perform(get("/rest/api/employee/orders/stream")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isForbidden());
+
+            verify(orderService, never()).getOrders(any());
+        }
+    }
+
     // Helper methods for creating mock data
     private OrderDto createMockOrderDto(Long id, String status) {
         OrderDto orderDto = new OrderDto();
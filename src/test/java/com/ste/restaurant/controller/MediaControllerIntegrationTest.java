@@ -0,0 +1,183 @@
+package com.ste.restaurant.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("MediaController Integration Tests")
+class MediaControllerIntegrationTest {
+
+    private static final String HASH = "fedcba9876543210fedcba9876543210";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${app.image.upload-dir}")
+    private String uploadDir;
+
+    @Value("${app.image.qr-code-dir}")
+    private String qrCodeDir;
+
+    private final List<Path> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(Paths.get(uploadDir));
+        Files.createDirectories(Paths.get(qrCodeDir));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Path path : written) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private byte[] write(String dir, String name, int size) throws IOException {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        Path path = Paths.get(dir, name);
+        Files.write(path, content);
+        written.add(path);
+        return content;
+    }
+
+    @Nested
+    @DisplayName("Caching Tests")
+    class CachingTests {
+
+        @Test
+        @DisplayName("Should serve hash named renditions as immutable")
+        void shouldServeRenditionsAsImmutable() throws Exception {
+            byte[] content = write(uploadDir, HASH + "-card.jpg", 500);
+
+            mockMvc.perform(get("/images/" + HASH + "-card.jpg"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("image/jpeg"))
+                    .andExpect(content().bytes(content))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andExpect(header().exists(HttpHeaders.ETAG));
+        }
+
+        @Test
+        @DisplayName("Should revalidate files without a content hash")
+        void shouldRevalidateUnhashedFiles() throws Exception {
+            write(qrCodeDir, "media_test_table.png", 200);
+
+            mockMvc.perform(get("/qr-codes/media_test_table.png"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("image/png"))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+        }
+
+        @Test
+        @DisplayName("Should return not modified for a matching etag")
+        void shouldReturnNotModified() throws Exception {
+            write(uploadDir, HASH + "-thumbnail.jpg", 100);
+
+            MvcResult first = mockMvc.perform(get("/images/" + HASH + "-thumbnail.jpg"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/images/" + HASH + "-thumbnail.jpg").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                    .andExpect(content().bytes(new byte[0]));
+        }
+
+        @Test
+        @DisplayName("Should return not found for missing or outside files")
+        void shouldReturnNotFound() throws Exception {
+            mockMvc.perform(get("/images/" + HASH + "-full.jpg"))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/images/..%2Fapplication.properties"))
+                    .andExpect(status().is4xxClientError());
+        }
+    }
+
+    @Nested
+    @DisplayName("Transfer Tests")
+    class TransferTests {
+
+        @Test
+        @DisplayName("Should stream files larger than the memory cache from disk")
+        void shouldStreamLargeFiles() throws Exception {
+            byte[] content = write(uploadDir, HASH + "-full.jpg", 200_000);
+
+            mockMvc.perform(get("/images/" + HASH + "-full.jpg"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 200_000))
+                    .andExpect(content().bytes(content));
+        }
+
+        @Test
+        @DisplayName("Should serve a single byte range")
+        void shouldServeByteRange() throws Exception {
+            byte[] content = write(uploadDir, HASH + "-full.jpg", 200_000);
+
+            mockMvc.perform(get("/images/" + HASH + "-full.jpg").header(HttpHeaders.RANGE, "bytes=100-199"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/200000"))
+                    .andExpect(content().bytes(Arrays.copyOfRange(content, 100, 200)));
+
+            mockMvc.perform(get("/images/" + HASH + "-full.jpg").header(HttpHeaders.RANGE, "bytes=300000-"))
+                    .andExpect(status().isRequestedRangeNotSatisfiable())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */200000"));
+        }
+
+        @Test
+        @DisplayName("Should serve the precompressed variant when accepted")
+        void shouldServePrecompressedVariant() throws Exception {
+            write(uploadDir, "media_test.svg", 300);
+            byte[] gzip = write(uploadDir, "media_test.svg.gz", 120);
+
+            MvcResult result = mockMvc.perform(get("/images/media_test.svg").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br;q=0"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(content().bytes(gzip))
+                    .andReturn();
+            assertThat(result.getResponse().getHeader(HttpHeaders.ACCEPT_RANGES)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should send only headers for head requests")
+        void shouldSendHeadersForHead() throws Exception {
+            write(uploadDir, HASH + "-card.jpg", 500);
+
+            mockMvc.perform(head("/images/" + HASH + "-card.jpg"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 500))
+                    .andExpect(content().bytes(new byte[0]));
+        }
+    }
+}
@@ -3,11 +3,20 @@ package com.ste.restaurant.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ste.restaurant.dto.MenuDtoBasic;
 import com.ste.restaurant.dto.common.StringsDto;
+import com.ste.restaurant.entity.Category;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.Menu;
+import com.ste.restaurant.repository.CategoryRepository;
+import com.ste.restaurant.repository.FoodItemRepository;
+import com.ste.restaurant.repository.MenuRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
+import com.ste.restaurant.utils.QueryBudget;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
@@ -15,8 +24,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +47,18 @@ class MenuControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Nested
     @DisplayName("Create Menu Tests")
     class CreateMenuTests {
@@ -335,7 +360,8 @@ class MenuControllerIntegrationTest {
         void shouldGetActiveMenuForPublicAccess() throws Exception {
             mockMvc.perform(get("/rest/api/menus/active")
                     .contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(status().isOk());
+                    .andExpect(status().isOk())
+                    .andExpect(QueryBudget.atMost(5));
         }
 
         @Test
@@ -355,5 +381,85 @@ class MenuControllerIntegrationTest {
                     .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk());
         }
+
+        @Test
+        @DisplayName("Should answer 304 when the client already has the current menu")
+        void shouldReturnNotModifiedForMatchingEtag() throws Exception {
+            String etag = mockMvc.perform(get("/rest/api/menus/active"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(jsonPath("$").isArray())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/rest/api/menus/active")
+                    .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("Should serve a new snapshot once the active menu changes")
+        void shouldChangeEtagWhenActiveMenuChanges() throws Exception {
+            String before = mockMvc.perform(get("/rest/api/menus/active"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            Category category = new Category();
+            category.setCategoryName("Snapshot Category " + System.currentTimeMillis());
+            categoryRepository.save(category);
+            FoodItem food = new FoodItem();
+            food.setFoodName("Snapshot Food " + System.currentTimeMillis());
+            food.setPrice(BigDecimal.valueOf(9.5));
+            food.setCategories(new HashSet<>(Set.of(category)));
+            foodItemRepository.save(food);
+            Menu menu = new Menu();
+            menu.setMenuName("Snapshot Menu " + System.currentTimeMillis());
+            menu.setActive(true);
+            menu.setFoodItems(new HashSet<>(Set.of(food)));
+            menuRepository.save(menu);
+            entityManager.flush();
+
+            mockMvc.perform(get("/rest/api/menus/active")
+                    .header(HttpHeaders.IF_NONE_MATCH, before))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, org.hamcrest.Matchers.not(before)))
+                    .andExpect(jsonPath("$[*].categoryName", org.hamcrest.Matchers.hasItem(category.getCategoryName())));
+            assertThat(before).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should build the active menu without a statement per food")
+        void shouldBuildActiveMenuWithinQueryBudget() throws Exception {
+            long stamp = System.currentTimeMillis();
+            Set<FoodItem> foods = new HashSet<>();
+            for (int c = 0; c < 3; c++) {
+                Category category = new Category();
+                category.setCategoryName("Budget Category " + c + " " + stamp);
+                categoryRepository.save(category);
+                for (int f = 0; f < 20; f++) {
+                    FoodItem food = new FoodItem();
+                    food.setFoodName("Budget Food " + c + "-" + f + " " + stamp);
+                    food.setPrice(BigDecimal.valueOf(10));
+                    food.setCategories(new HashSet<>(Set.of(category)));
+                    category.getFoodItems().add(food);
+                    foods.add(foodItemRepository.save(food));
+                }
+            }
+            Menu menu = new Menu();
+            menu.setMenuName("Budget Menu " + stamp);
+            menu.setActive(true);
+            menu.setFoodItems(foods);
+            menuRepository.save(menu);
+            entityManager.flush();
+            entityManager.clear();
+            entityManager.getEntityManagerFactory().getCache().evictAll();
+
+            // cold: no persistence context, no second level cache and a stale snapshot
+            mockMvc.perform(get("/rest/api/menus/active"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].foodItems[*].originalFoodName",
+                            org.hamcrest.Matchers.hasItem("Budget Food 2-19 " + stamp)))
+                    .andExpect(QueryBudget.atMost(6));
+        }
     }
 }
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ste.restaurant.TestConfig;
 import com.ste.restaurant.dto.OrderItemDtoBasic;
 import com.ste.restaurant.dto.PlaceOrderDto;
+import com.ste.restaurant.utils.QueryBudget;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -80,7 +81,8 @@ public class OrderControllerIntegrationTest {
                             .content(objectMapper.writeValueAsString(placeOrderDto)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.data.notes").value("Please make it spicy"))
-                    .andExpect(jsonPath("$.data.status").value("PLACED"));
+                    .andExpect(jsonPath("$.data.status").value("PLACED"))
+                    .andExpect(QueryBudget.atMost(7));
         }
 
         @Test
@@ -197,7 +199,8 @@ public class OrderControllerIntegrationTest {
             mockMvc.perform(get("/rest/api/orders")
                             .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$").isArray());
+                    .andExpect(jsonPath("$").isArray())
+                    .andExpect(QueryBudget.atMost(6));
         }
 
         @Test
@@ -215,7 +218,8 @@ public class OrderControllerIntegrationTest {
             mockMvc.perform(get("/rest/api/orders")
                             .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$").isArray());
+                    .andExpect(jsonPath("$").isArray())
+                    .andExpect(QueryBudget.atMost(2));
         }
 
         @Test
@@ -223,7 +227,8 @@ public class OrderControllerIntegrationTest {
         void shouldGetChefOrdersSuccessfully() throws Exception {
             mockMvc.perform(get("/rest/api/orders")
                             .contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(status().isOk());
+                    .andExpect(status().isOk())
+                    .andExpect(QueryBudget.atMost(2));
         }
 
         @Test
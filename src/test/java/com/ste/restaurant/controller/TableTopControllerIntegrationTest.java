@@ -17,9 +17,18 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -440,4 +449,48 @@ class TableTopControllerIntegrationTest {
             verify(tableTopService).getAvailableTables();
         }
     }
+
+    @Nested
+    @DisplayName("Export QR Codes Tests")
+    class ExportQrCodesTests {
+
+        @Test
+        @WithMockUser(roles = "WAITER")
+        @DisplayName("Should stream a zip with one png per table")
+        void exportQrCodes_asWaiter_success() throws Exception {
+            // Arrange
+            when(tableTopService.getTableNumbersById()).thenReturn(new TreeMap<>(Map.of(1L, "T01", 2L, "T02")));
+
+            // Act
+            MvcResult pending = mockMvc.perform(get("/rest/api/tables/qr-codes/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            MvcResult result = mockMvc.perform(asyncDispatch(pending))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"table-qr-codes.zip\""))
+                    .andReturn();
+
+            // Assert
+            List<String> names = new ArrayList<>();
+            try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    names.add(entry.getName());
+                    assertThat(zip.readAllBytes()).startsWith((byte) 0x89, (byte) 'P', (byte) 'N', (byte) 'G');
+                }
+            }
+            assertThat(names).containsExactly("table_T01_1.png", "table_T02_2.png");
+        }
+
+        @Test
+        @WithMockUser(roles = "CUSTOMER")
+        @DisplayName("Should deny access when customer exports qr codes")
+        void exportQrCodes_asCustomer_accessDenied() throws Exception {
+            // Act & Assert
+            mockMvc.perform(get("/rest/api/tables/qr-codes/export"))
+                    .andExpect(status().isForbidden());
+
+            verifyNoInteractions(tableTopService);
+        }
+    }
 }
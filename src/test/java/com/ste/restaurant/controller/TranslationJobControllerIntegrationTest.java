@@ -0,0 +1,198 @@
+package com.ste.restaurant.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ste.restaurant.dto.TranslationJobDto;
+import com.ste.restaurant.dto.TranslationPackDto;
+import com.ste.restaurant.dto.common.StringDto;
+import com.ste.restaurant.entity.Category;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.repository.CategoryRepository;
+import com.ste.restaurant.repository.FoodItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("TranslationJobController Integration Tests")
+class TranslationJobControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setCategoryName("Job Soups");
+        categoryRepository.save(category);
+
+        FoodItem food = new FoodItem();
+        food.setFoodName("Job Lentil Soup");
+        food.setDescription("Red lentils with mint");
+        food.setPrice(new BigDecimal("4.50"));
+        foodItemRepository.save(food);
+    }
+
+    private ResultActions enqueue(String language) throws Exception {
+        return mockMvc.perform(post("/rest/api/ai/translate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StringDto(language)))
+                .with(csrf()));
+    }
+
+    private TranslationJobDto enqueued(String language) throws Exception {
+        String body = enqueue(language).andExpect(status().isAccepted()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, TranslationJobDto.class);
+    }
+
+    @Nested
+    @DisplayName("Enqueue Tests")
+    class EnqueueTests {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should queue untranslated categories and food items")
+        void shouldQueueUntranslatedItems() throws Exception {
+            TranslationJobDto job = enqueued("Turkish");
+
+            assertThat(job.getStatus()).isEqualTo("QUEUED");
+            assertThat(job.getTotalItems()).isGreaterThanOrEqualTo(2);
+            assertThat(job.getPendingItems()).isEqualTo(job.getTotalItems());
+
+            mockMvc.perform(get("/rest/api/ai/translate/jobs/" + job.getJobId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.language").value("Turkish"))
+                    .andExpect(jsonPath("$.doneItems").value(0));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should return the active job when the language is queued again")
+        void shouldReturnActiveJobForSameLanguage() throws Exception {
+            TranslationJobDto first = enqueued("French");
+            TranslationJobDto second = enqueued("French");
+
+            assertThat(second.getJobId()).isEqualTo(first.getJobId());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should reject unsupported language")
+        void shouldRejectUnsupportedLanguage() throws Exception {
+            enqueue("Klingon").andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @WithMockUser(roles = "USER")
+        @DisplayName("Should return forbidden when user is not admin")
+        void shouldReturnForbiddenForNonAdmin() throws Exception {
+            enqueue("Turkish").andExpect(status().isForbidden());
+        }
+    }
+
+    @Nested
+    @DisplayName("Job Tests")
+    class JobTests {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should cancel an active job once")
+        void shouldCancelActiveJob() throws Exception {
+            TranslationJobDto job = enqueued("German");
+
+            mockMvc.perform(post("/rest/api/ai/translate/jobs/" + job.getJobId() + "/cancel").with(csrf()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("CANCELLED"));
+            mockMvc.perform(post("/rest/api/ai/translate/jobs/" + job.getJobId() + "/cancel").with(csrf()))
+                    .andExpect(status().isBadRequest());
+
+            // a cancelled job no longer blocks a new one
+            assertThat(enqueued("German").getJobId()).isNotEqualTo(job.getJobId());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should return empty result before anything is translated")
+        void shouldReturnEmptyResult() throws Exception {
+            TranslationJobDto job = enqueued("Italian");
+
+            mockMvc.perform(get("/rest/api/ai/translate/jobs/" + job.getJobId() + "/result"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.targetLanguage").value("Italian"))
+                    .andExpect(jsonPath("$.categoryTranslations").isEmpty())
+                    .andExpect(jsonPath("$.foodItemTranslations").isEmpty());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should return not found for unknown job")
+        void shouldReturnNotFoundForUnknownJob() throws Exception {
+            mockMvc.perform(get("/rest/api/ai/translate/jobs/999999"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Finalize Tests")
+    class FinalizeTests {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should save reviewed translations and skip them in the next job")
+        void shouldSaveReviewedTranslations() throws Exception {
+            TranslationPackDto pack = new TranslationPackDto("Spanish",
+                    Map.of("Job Lentil Soup", List.of("Sopa de lentejas", "Lentejas rojas con menta")),
+                    Map.of("Job Soups", "Sopas"));
+
+            mockMvc.perform(post("/rest/api/ai/translate/finalize")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(pack))
+                            .with(csrf()))
+                    .andExpect(status().isOk());
+
+            // both are translated now, a spanish job has two items less to do
+            assertThat(enqueued("German").getTotalItems() - enqueued("Spanish").getTotalItems()).isEqualTo(2);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should reject unsupported language")
+        void shouldRejectUnsupportedLanguage() throws Exception {
+            mockMvc.perform(post("/rest/api/ai/translate/finalize")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TranslationPackDto("Klingon", Map.of(), Map.of())))
+                            .with(csrf()))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+}
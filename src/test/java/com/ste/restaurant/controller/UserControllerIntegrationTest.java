@@ -5,20 +5,31 @@ import com.ste.restaurant.dto.common.BigDecimalDto;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.dto.userdto.PasswordChangeDto;
 import com.ste.restaurant.dto.userdto.UserDtoIO;
+import com.ste.restaurant.entity.User;
+import com.ste.restaurant.entity.enums.UserRole;
+import com.ste.restaurant.repository.UserRepository;
+import com.ste.restaurant.security.JwtUtil;
+import com.ste.restaurant.service.UserService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -452,4 +463,91 @@ public class UserControllerIntegrationTest {
                     .andExpect(status().isBadRequest());
         }
     }
+
+    @Nested
+    @SpringBootTest
+    @AutoConfigureMockMvc
+    @Transactional
+    class BearerTokenTests {
+
+        @Autowired
+        private JwtUtil jwtUtil;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private UserService userService;
+
+        @Autowired
+        private EntityManager entityManager;
+
+        // the jwt filter only runs for servlet paths under /rest/api, mock mvc leaves the servlet path empty
+        private MockHttpServletRequestBuilder userById(User user, String authorization) {
+            String path = "/rest/api/users/" + user.getUserId();
+            return get(path).servletPath(path).header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+
+        private User admin() {
+            User admin = new User();
+            admin.setFirstName("Token");
+            admin.setLastName("Admin");
+            admin.setEmail("token.admin" + System.nanoTime() + "@example.com");
+            admin.setPassword("encoded");
+            admin.setRole(UserRole.ADMIN);
+            return userRepository.save(admin);
+        }
+
+        @Test
+        void shouldAuthenticateRepeatedRequestsWithoutLoadingTheUserAgain() throws Exception {
+            User admin = admin();
+            String bearer = "Bearer " + jwtUtil.generateToken(admin);
+            entityManager.flush();
+
+            Statistics statistics = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            try {
+                statistics.clear();
+                mockMvc.perform(userById(admin, bearer))
+                        .andExpect(status().isOk());
+                long firstRequest = statistics.getPrepareStatementCount();
+
+                statistics.clear();
+                mockMvc.perform(userById(admin, bearer))
+                        .andExpect(status().isOk());
+                long secondRequest = statistics.getPrepareStatementCount();
+
+                assertThat(secondRequest).isLessThan(firstRequest);
+            } finally {
+                statistics.setStatisticsEnabled(false);
+            }
+        }
+
+        @Test
+        void shouldApplyRoleChangeToAlreadyIssuedToken() throws Exception {
+            User admin = admin();
+            String bearer = "Bearer " + jwtUtil.generateToken(admin);
+
+            mockMvc.perform(userById(admin, bearer))
+                    .andExpect(status().isOk());
+
+            StringDto role = new StringDto();
+            role.setName("WAITER");
+            userService.updateUserRoleById(admin.getUserId(), role, "someone.else@example.com");
+
+            mockMvc.perform(userById(admin, bearer))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void shouldRejectTamperedToken() throws Exception {
+            User admin = admin();
+            String token = jwtUtil.generateToken(admin);
+            String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+            mockMvc.perform(userById(admin, "Bearer " + tampered))
+                    .andExpect(status().isForbidden());
+        }
+    }
 }
@@ -138,7 +138,7 @@ class OrderRepositoryIntegrationTest extends RepositoryTestBase {
             Order order = createTestOrderWithItems(testCustomer1, testAddress1, OrderStatus.PLACED);
             
             // When
-            Order savedOrder = orderRepository.save(order);
+            Order savedOrder = orderRepository.saveAndFlush(order);
             clear(); // Clear persistence context to ensure a.java fresh load
             Order retrievedOrder = orderRepository.findById(savedOrder.getOrderId()).orElse(null);
             
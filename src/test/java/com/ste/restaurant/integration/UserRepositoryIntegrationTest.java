@@ -325,10 +325,8 @@ class UserRepositoryIntegrationTest {
             entityManager.flush();
 
             // When & Then
-            assertThatThrownBy(() -> {
-                userRepository.save(user2);
-                entityManager.flush();
-            }).isInstanceOf(DataIntegrityViolationException.class);
+            assertThatThrownBy(() -> userRepository.saveAndFlush(user2))
+                    .isInstanceOf(DataIntegrityViolationException.class);
         }
 
         @Test
@@ -338,10 +336,8 @@ class UserRepositoryIntegrationTest {
             User user = createTestUser("Test", "User", null, UserRole.CUSTOMER);
 
             // When & Then
-            assertThatThrownBy(() -> {
-                userRepository.save(user);
-                entityManager.flush();
-            }).isInstanceOf(DataIntegrityViolationException.class);
+            assertThatThrownBy(() -> userRepository.saveAndFlush(user))
+                    .isInstanceOf(DataIntegrityViolationException.class);
         }
 
         @Test
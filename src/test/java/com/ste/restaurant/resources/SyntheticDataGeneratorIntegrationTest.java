@@ -0,0 +1,100 @@
+package com.ste.restaurant.resources;
+
+import com.ste.restaurant.entity.TableTop;
+import com.ste.restaurant.entity.enums.RollupDimension;
+import com.ste.restaurant.repository.RevenueRollupRepository;
+import com.ste.restaurant.repository.TableTopRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the generator commits its own rows, the context and its database are thrown away afterwards
+@SpringBootTest(properties = {
+        "app.synthetic.orders=3000",
+        "app.synthetic.days=14",
+        "app.synthetic.customers=60",
+        "app.synthetic.tables=12",
+        "app.synthetic.call-requests=200",
+        "app.synthetic.batch-size=128",
+        "app.synthetic.end-date=2020-03-01",
+        "app.synthetic.exit-when-done=false"})
+@ActiveProfiles({"test", "synthetic"})
+@DirtiesContext
+class SyntheticDataGeneratorIntegrationTest {
+
+    private static final LocalDateTime FROM = LocalDate.of(2020, 2, 16).atStartOfDay();
+    private static final LocalDateTime TO = LocalDate.of(2020, 3, 1).atStartOfDay();
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private TableTopRepository tableTopRepository;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private long count(String sql, Object... args) {
+        return new JdbcTemplate(dataSource).queryForObject(sql, Long.class, args);
+    }
+
+    @Test
+    void generatesConsistentRowsOnStartup() {
+        assertThat(count("select count(*) from orders where order_time >= ? and order_time < ?", FROM, TO))
+                .isEqualTo(3000);
+        assertThat(count("select count(*) from users where email like 'synthetic-42-%'")).isEqualTo(60);
+        assertThat(count("select count(*) from tables where table_number like 'synthetic-42-%'")).isEqualTo(12);
+        assertThat(count("select count(*) from call_requests where created_at >= ? and created_at < ?", FROM, TO))
+                .isEqualTo(200);
+
+        // every order has lines adding up to its total and exactly one of table or address
+        assertThat(count("""
+                select count(*) from orders o where o.order_time >= ? and o.order_time < ?
+                and (o.total_price <> (select sum(i.total_price) from order_items i where i.order_id = o.order_id)
+                     or (o.table_id is null) = (o.address_id is null))""", FROM, TO)).isZero();
+        assertThat(count("""
+                select count(*) from users where email like 'synthetic-42-%' and first_order_at is null
+                and exists (select 1 from orders o where o.customer_id = user_id)""")).isZero();
+
+        BigDecimal completed = new JdbcTemplate(dataSource).queryForObject(
+                "select sum(total_price) from orders where status = 'COMPLETED' and order_time >= ? and order_time < ?",
+                BigDecimal.class, FROM, TO);
+        assertThat(revenueRollupRepository.sumByDimensionKey(RollupDimension.TOTAL, FROM, TO))
+                .singleElement()
+                .satisfies(total -> assertThat(total.getRevenue()).isEqualByComparingTo(completed));
+    }
+
+    @Test
+    void leavesIdsFreeForHibernate() throws Exception {
+        // more than one pooled block, so ids run through and past the generated range
+        List<TableTop> tables = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            TableTop table = new TableTop();
+            table.setTableNumber("after-synthetic-" + i);
+            table.setCapacity(4);
+            tables.add(table);
+        }
+        tableTopRepository.saveAllAndFlush(tables);
+        assertThat(count("select count(*) from tables where table_number like 'after-synthetic-%'")).isEqualTo(120);
+        tableTopRepository.deleteAll(tables);
+
+        // the same seed again is skipped
+        generator.generate(TO.toLocalDate());
+        assertThat(count("select count(*) from users where email like 'synthetic-42-%'")).isEqualTo(60);
+    }
+}
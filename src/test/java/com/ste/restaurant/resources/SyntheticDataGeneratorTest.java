@@ -0,0 +1,58 @@
+package com.ste.restaurant.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticDataGeneratorTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void ordersPerDay_splitsTotalByWeekday() {
+        long[] perDay = SyntheticDataGenerator.ordersPerDay(100_001, MONDAY, 14);
+
+        assertThat(LongStream.of(perDay).sum()).isEqualTo(100_001);
+        assertThat(MONDAY.plusDays(5).getDayOfWeek()).isEqualTo(DayOfWeek.SATURDAY);
+        assertThat(perDay[5]).isGreaterThan(perDay[1]);
+        assertThat(perDay[12]).isEqualTo(perDay[5]); // same weekday a week later
+    }
+
+    @Test
+    void orderTime_sameSeed_sameTimes() {
+        assertThat(times(7, 1000)).isEqualTo(times(7, 1000));
+        assertThat(times(7, 1000)).isNotEqualTo(times(8, 1000));
+    }
+
+    @Test
+    void orderTime_followsOpeningHoursAndMealPeaks() {
+        int[] perHour = new int[24];
+        for (LocalDateTime time : times(1, 50_000)) {
+            assertThat(time.toLocalDate()).isEqualTo(MONDAY);
+            perHour[time.getHour()]++;
+        }
+
+        for (int hour = 2; hour < 10; hour++) {
+            assertThat(perHour[hour]).isZero();
+        }
+        assertThat(perHour[13]).isGreaterThan(2 * perHour[16]); // lunch
+        assertThat(perHour[19]).isGreaterThan(2 * perHour[16]); // dinner
+    }
+
+    private List<LocalDateTime> times(long seed, int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<LocalDateTime> times = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            times.add(SyntheticDataGenerator.orderTime(random, MONDAY));
+        }
+        return times;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ste.restaurant.security;
+
+import com.ste.restaurant.entity.User;
+import com.ste.restaurant.entity.enums.UserRole;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(2);
+        user = new User();
+        user.setEmail("waiter@example.com");
+        user.setRole(UserRole.WAITER);
+    }
+
+    @Test
+    void verify_parsesTokenOnce() {
+        String token = jwtUtil.generateToken(user);
+
+        JwtUtil.VerifiedToken first = jwtUtil.verify(token);
+        JwtUtil.VerifiedToken second = jwtUtil.verify(token);
+
+        assertThat(first.username()).isEqualTo("waiter@example.com");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void verify_rejectsTamperedToken() {
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtUtil.verify(tampered)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtUtil.verify("not-a-token")).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void verify_keepsCacheBounded() {
+        User other = new User();
+        other.setEmail("chef@example.com");
+        other.setRole(UserRole.CHEF);
+        User third = new User();
+        third.setEmail("admin@example.com");
+        third.setRole(UserRole.ADMIN);
+        String token = jwtUtil.generateToken(user);
+        JwtUtil.VerifiedToken first = jwtUtil.verify(token);
+
+        jwtUtil.verify(jwtUtil.generateToken(other));
+        jwtUtil.verify(jwtUtil.generateToken(third));
+
+        assertThat(jwtUtil.verify(token)).isNotSameAs(first);
+    }
+}
@@ -39,6 +39,9 @@ class AddressServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private LiveOrderBookService liveOrderBook;
+
     @InjectMocks
     private AddressService addressService;
 
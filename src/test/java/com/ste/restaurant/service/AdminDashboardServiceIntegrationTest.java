@@ -1,11 +1,15 @@
 package com.ste.restaurant.service;
 
+import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.dto.dashboard.*;
 import com.ste.restaurant.entity.*;
 import com.ste.restaurant.entity.enums.OrderStatus;
 import com.ste.restaurant.entity.enums.TableStatus;
 import com.ste.restaurant.entity.enums.UserRole;
 import com.ste.restaurant.repository.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -21,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -46,6 +51,15 @@ public class AdminDashboardServiceIntegrationTest {
 
     @Autowired
     private AdminDashboardService adminDashboardService;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private CustomerActivityService customerActivityService;
+
+    @Autowired
+    private OrderService orderService;
     
     @Autowired
     private OrderRepository orderRepository;
@@ -65,6 +79,9 @@ public class AdminDashboardServiceIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User testCustomer1;
     private User testCustomer2;
     private TableTop testTable1;
@@ -88,6 +105,11 @@ public class AdminDashboardServiceIntegrationTest {
         setupTestTables();
         setupTestFoodItems();
         setupTestOrders();
+
+        // the orders above are written straight to the repository, roll them up like history
+        revenueRollupService.backfill(testStartDate, testEndDate);
+        customerActivityService.backfillFirstOrders();
+        customerActivityService.rebuildSketches(testStartDate, testEndDate);
     }
 
     @Nested
@@ -139,6 +161,7 @@ public class AdminDashboardServiceIntegrationTest {
             Order newCustomerOrder = createTestOrder(newCustomer, testTable1, LocalDateTime.now().minusDays(2));
             newCustomerOrder.setStatus(OrderStatus.COMPLETED);
             orderRepository.save(newCustomerOrder);
+            customerActivityService.backfillFirstOrders();
             
             // When
             DashboardStatsDto stats = adminDashboardService.getDashboardStats(testStartDate, testEndDate);
@@ -146,6 +169,74 @@ public class AdminDashboardServiceIntegrationTest {
             // Then
             assertThat(stats.getNewCustomers()).isGreaterThanOrEqualTo(1);
         }
+
+        @Test
+        @DisplayName("Should not count customers whose first order is before the range")
+        void shouldNotCountCustomersWithEarlierFirstOrder() {
+            // Given - a returning customer, first order a month ago and one completed order in range
+            String timestamp = String.valueOf(System.currentTimeMillis());
+            User returning = createTestCustomer("returning" + timestamp + "@customer.com", "Returning", "Customer");
+            orderRepository.save(createTestOrder(returning, testTable1, LocalDateTime.now().minusDays(30)));
+            orderRepository.save(createTestOrder(returning, testTable1, LocalDateTime.now().minusDays(1).withHour(12)));
+            User fresh = createTestCustomer("fresh" + timestamp + "@customer.com", "Fresh", "Customer");
+            orderRepository.save(createTestOrder(fresh, testTable2, LocalDateTime.now().minusDays(1).withHour(13)));
+            long before = adminDashboardService.getDashboardStats(testStartDate, testEndDate).getNewCustomers();
+
+            // When
+            customerActivityService.backfillFirstOrders();
+            DashboardStatsDto stats = adminDashboardService.getDashboardStats(testStartDate, testEndDate);
+
+            // Then - only the fresh customer is new
+            assertThat(stats.getNewCustomers()).isEqualTo(before + 1);
+        }
+
+        @Test
+        @DisplayName("Should leave users without orders alone when backfilling first order times")
+        void shouldSkipUsersWithoutOrdersWhenBackfilling() {
+            // Given - a user who never ordered
+            createTestCustomer("browser" + System.currentTimeMillis() + "@customer.com", "Just", "Browsing");
+
+            // When - every user with orders was backfilled in setUp
+            int backfilled = customerActivityService.backfillFirstOrders();
+
+            // Then
+            assertThat(backfilled).isZero();
+        }
+
+        @Test
+        @DisplayName("Should estimate unique customers from the daily sketches")
+        void shouldEstimateUniqueCustomersFromSketches() {
+            // When
+            DashboardStatsDto exact = adminDashboardService.getDashboardStats(testStartDate, testEndDate, false);
+            DashboardStatsDto approximate = adminDashboardService.getDashboardStats(testStartDate, testEndDate, true);
+
+            // Then - the estimate is exact at these sizes, everything else is the same
+            assertThat(exact.getUniqueCustomers()).isGreaterThanOrEqualTo(2);
+            assertThat(approximate.getUniqueCustomers()).isEqualTo(exact.getUniqueCustomers());
+            assertThat(approximate.getNewCustomers()).isEqualTo(exact.getNewCustomers());
+            assertThat(approximate.getTotalRevenue()).isEqualByComparingTo(exact.getTotalRevenue());
+        }
+
+        @Test
+        @DisplayName("Should keep first order time when orders are placed and deleted")
+        void shouldMaintainFirstOrderTimeThroughOrderService() {
+            // Given - the earliest order is removed
+            Order earliest = createTestOrder(testCustomer1, testTable1, LocalDateTime.now().minusDays(60).withNano(0));
+            orderRepository.save(earliest);
+            userRepository.refreshFirstOrderAt(testCustomer1);
+            entityManager.clear();
+            assertThat(userRepository.findById(testCustomer1.getUserId()).orElseThrow().getFirstOrderAt())
+                    .isEqualTo(earliest.getOrderTime());
+
+            // When
+            orderService.deleteOrderById(earliest.getOrderId());
+            entityManager.flush();
+            entityManager.clear();
+
+            // Then - moves on to the next order of the customer
+            User reloaded = userRepository.findById(testCustomer1.getUserId()).orElseThrow();
+            assertThat(reloaded.getFirstOrderAt()).isAfter(earliest.getOrderTime());
+        }
     }
 
     @Nested
@@ -272,6 +363,7 @@ public class AdminDashboardServiceIntegrationTest {
             OrderItem orderItem = createTestOrderItem(uncategorizedOrder, uncategorizedItem, 1);
             uncategorizedOrder.getOrderItems().add(orderItem);
             orderRepository.save(uncategorizedOrder);
+            revenueRollupService.backfill(testStartDate, testEndDate);
             
             // When
             List<TopPerformingCategoryDto> topCategories = adminDashboardService.getTopPerformingCategories(testStartDate, testEndDate);
@@ -351,6 +443,181 @@ public class AdminDashboardServiceIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Revenue Rollup Maintenance Integration Tests")
+    class RevenueRollupMaintenanceIntegrationTests {
+
+        @Test
+        @DisplayName("Should add an order to the rollups when it is completed")
+        void shouldAddOrderToRollupsWhenCompleted() {
+            // Given
+            DashboardStatsDto before = adminDashboardService.getDashboardStats(testStartDate, testEndDate);
+            Order order = createTestOrder(testCustomer1, testTable1, LocalDateTime.now().minusDays(1).withHour(12));
+            order.setStatus(OrderStatus.DELIVERED);
+            order.getOrderItems().add(createTestOrderItem(order, testFoodItem1, 2));
+            orderRepository.save(order);
+
+            // When
+            orderService.updateOrderStatus(order.getOrderId(), new StringDto("COMPLETED"), "admin@test.com");
+
+            // Then
+            DashboardStatsDto after = adminDashboardService.getDashboardStats(testStartDate, testEndDate);
+            assertThat(after.getTotalOrders()).isEqualTo(before.getTotalOrders() + 1);
+            assertThat(after.getTotalRevenue()).isEqualByComparingTo(before.getTotalRevenue().add(order.getTotalPrice()));
+        }
+
+        @Test
+        @DisplayName("Should take an order out of the rollups when it leaves completed")
+        void shouldTakeOrderOutOfRollupsWhenLeavingCompleted() {
+            // Given
+            Order order = createTestOrder(testCustomer2, testTable2, LocalDateTime.now().minusDays(1).withHour(20));
+            order.setStatus(OrderStatus.DELIVERED);
+            order.getOrderItems().add(createTestOrderItem(order, testFoodItem2, 1));
+            orderRepository.save(order);
+            List<BusiestTableDto> before = adminDashboardService.getBusiestTables(testStartDate, testEndDate);
+
+            // When
+            orderService.updateOrderStatus(order.getOrderId(), new StringDto("COMPLETED"), "admin@test.com");
+            orderService.updateOrderStatus(order.getOrderId(), new StringDto("DELIVERED"), "admin@test.com");
+
+            // Then
+            assertThat(adminDashboardService.getBusiestTables(testStartDate, testEndDate))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyInAnyOrderElementsOf(before);
+        }
+
+        @Test
+        @DisplayName("Should match a backfill after incremental updates")
+        void shouldMatchBackfillAfterIncrementalUpdates() {
+            // Given
+            for (int i = 0; i < 3; i++) {
+                Order order = createTestOrder(testCustomer1, i == 0 ? testTable2 : testTable1,
+                        LocalDateTime.now().minusDays(i + 1).withHour(13));
+                order.setStatus(OrderStatus.DELIVERED);
+                order.getOrderItems().add(createTestOrderItem(order, testFoodItem1, 1));
+                order.getOrderItems().add(createTestOrderItem(order, testFoodItem2, i + 1));
+                orderRepository.save(order);
+                orderService.updateOrderStatus(order.getOrderId(), new StringDto("COMPLETED"), "admin@test.com");
+            }
+            List<TopPerformingItemDto> incrementalItems = adminDashboardService.getTopPerformingItems(testStartDate, testEndDate);
+            List<TopPerformingCategoryDto> incrementalCategories = adminDashboardService.getTopPerformingCategories(testStartDate, testEndDate);
+            List<RevenueHeatmapPointDto> incrementalHeatmap = adminDashboardService.getRevenueHeatmap(testStartDate, testEndDate);
+
+            // When
+            revenueRollupService.backfill(testStartDate, testEndDate);
+
+            // Then
+            assertThat(adminDashboardService.getTopPerformingItems(testStartDate, testEndDate))
+                    .usingRecursiveFieldByFieldElementComparatorOnFields("foodName", "quantitySold")
+                    .containsExactlyInAnyOrderElementsOf(incrementalItems);
+            assertThat(adminDashboardService.getTopPerformingCategories(testStartDate, testEndDate))
+                    .extracting(TopPerformingCategoryDto::getCategoryName)
+                    .containsExactlyInAnyOrderElementsOf(incrementalCategories.stream()
+                            .map(TopPerformingCategoryDto::getCategoryName).toList());
+            assertThat(adminDashboardService.getRevenueHeatmap(testStartDate, testEndDate)).hasSameSizeAs(incrementalHeatmap);
+        }
+        @Test
+        @DisplayName("Should keep a renamed food item's history under its new name")
+        void shouldKeepHistoryOfRenamedFoodItem() {
+            // Given
+            TopPerformingItemDto before = adminDashboardService.getTopPerformingItems(testStartDate, testEndDate).stream()
+                    .filter(item -> item.getFoodName().equals(testFoodItem1.getFoodName()))
+                    .findFirst().orElseThrow();
+            String newName = testFoodItem1.getFoodName() + " Deluxe";
+
+            // When
+            testFoodItem1.setFoodName(newName);
+            foodItemRepository.saveAndFlush(testFoodItem1);
+
+            // Then
+            assertThat(adminDashboardService.getTopPerformingItems(testStartDate, testEndDate))
+                    .filteredOn(item -> item.getFoodName().equals(newName))
+                    .singleElement()
+                    .satisfies(item -> {
+                        assertThat(item.getQuantitySold()).isEqualTo(before.getQuantitySold());
+                        assertThat(item.getTotalRevenue()).isEqualByComparingTo(before.getTotalRevenue());
+                    });
+        }
+    }
+
+    @Nested
+    @DisplayName("Dashboard Summary Integration Tests")
+    class DashboardSummaryIntegrationTests {
+
+        @Test
+        @DisplayName("Should return the same widgets as the separate endpoints")
+        void shouldMatchSeparateEndpoints() {
+            // When
+            DashboardSummaryDto summary = adminDashboardService.getDashboardSummary(testStartDate, testEndDate);
+
+            // Then
+            assertThat(summary.getStats()).usingRecursiveComparison()
+                    .isEqualTo(adminDashboardService.getDashboardStats(testStartDate, testEndDate));
+            assertThat(summary.getRevenueChart()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(adminDashboardService.getRevenueChart(testStartDate, testEndDate));
+            assertThat(summary.getRevenueHeatmap()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(adminDashboardService.getRevenueHeatmap(testStartDate, testEndDate));
+            assertThat(summary.getTopItems()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(adminDashboardService.getTopPerformingItems(testStartDate, testEndDate));
+            assertThat(summary.getTopCategories()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(adminDashboardService.getTopPerformingCategories(testStartDate, testEndDate));
+            assertThat(summary.getBusiestTables()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(adminDashboardService.getBusiestTables(testStartDate, testEndDate));
+        }
+
+        @Test
+        @DisplayName("Should read the range with fewer statements than the six separate calls")
+        void shouldReadRangeWithFewerStatementsThanSeparateCalls() {
+            // Given - a few months of completed orders spread over tables, foods and hours
+            LocalDate benchStart = LocalDate.now().minusDays(90);
+            List<TableTop> tables = new ArrayList<>();
+            List<FoodItem> foods = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                tables.add(createTestTable("B" + i + "-" + System.nanoTime()));
+                FoodItem food = createTestFoodItem("Bench " + i + " " + System.nanoTime(), BigDecimal.valueOf(5 + i));
+                food.getCategories().add(i % 2 == 0 ? testCategory1 : testCategory2);
+                foods.add(foodItemRepository.save(food));
+            }
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                Order order = createTestOrder(i % 2 == 0 ? testCustomer1 : testCustomer2, tables.get(i % tables.size()),
+                        benchStart.atStartOfDay().plusDays(i % 90).plusHours(10 + i % 12));
+                order.getOrderItems().add(createTestOrderItem(order, foods.get(i % foods.size()), 1 + i % 3));
+                order.getOrderItems().add(createTestOrderItem(order, foods.get((i + 3) % foods.size()), 1));
+                orders.add(order);
+            }
+            orderRepository.saveAll(orders);
+            revenueRollupService.backfill(benchStart, testEndDate);
+            entityManager.flush();
+            entityManager.clear();
+
+            Statistics statistics = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+
+            // When
+            statistics.clear();
+            adminDashboardService.getDashboardStats(benchStart, testEndDate);
+            adminDashboardService.getRevenueChart(benchStart, testEndDate);
+            adminDashboardService.getRevenueHeatmap(benchStart, testEndDate);
+            adminDashboardService.getTopPerformingItems(benchStart, testEndDate);
+            adminDashboardService.getTopPerformingCategories(benchStart, testEndDate);
+            adminDashboardService.getBusiestTables(benchStart, testEndDate);
+            long separateStatements = statistics.getPrepareStatementCount();
+            entityManager.clear();
+
+            statistics.clear();
+            DashboardSummaryDto summary = adminDashboardService.getDashboardSummary(benchStart, testEndDate);
+            long summaryStatements = statistics.getPrepareStatementCount();
+            statistics.setStatisticsEnabled(false);
+
+            // Then - the four per dimension sums and the second hourly read are folded away
+            assertThat(summary.getStats().getTotalOrders()).isGreaterThanOrEqualTo(2000);
+            assertThat(summary.getBusiestTables()).hasSizeGreaterThanOrEqualTo(10);
+            assertThat(separateStatements - summaryStatements).isGreaterThanOrEqualTo(4);
+        }
+    }
+
     // Helper methods for creating test data
     private void setupTestCategories() {
         String timestamp = String.valueOf(System.currentTimeMillis());
@@ -3,7 +3,8 @@ package com.ste.restaurant.service;
 import com.ste.restaurant.dto.dashboard.*;
 import com.ste.restaurant.entity.*;
 import com.ste.restaurant.entity.enums.OrderStatus;
-import com.ste.restaurant.repository.OrderRepository;
+import com.ste.restaurant.entity.enums.RollupDimension;
+import com.ste.restaurant.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,9 +23,12 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +37,24 @@ class AdminDashboardServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private RevenueRollupRepository rollupRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FoodItemRepository foodItemRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private TableTopRepository tableRepository;
+
+    @Mock
+    private CustomerActivityService customerActivity;
+
     @InjectMocks
     private AdminDashboardService adminDashboardService;
 
@@ -97,6 +119,11 @@ class AdminDashboardServiceTest {
         testTable2.setTableId(2L);
         testTable2.setTableNumber("T2");
 
+        // rollups hold ids, the names come from the current rows
+        lenient().when(foodItemRepository.findAllById(any())).thenReturn(List.of(testFoodItem1, testFoodItem2));
+        lenient().when(categoryRepository.findAllById(any())).thenReturn(List.of(testCategory1, testCategory2));
+        lenient().when(tableRepository.findAllById(any())).thenReturn(List.of(testTable1, testTable2));
+
         // Order 1: Completed, Customer 1, Table 1, Pizza (10.00)
         testOrder1 = new Order();
         testOrder1.setOrderId(1L);
@@ -144,15 +171,25 @@ class AdminDashboardServiceTest {
     void getDashboardStats_success() {
         // Arrange
         List<Order> completedOrders = Arrays.asList(testOrder1, testOrder2, testOrder3);
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.TOTAL,
+                startDate.atStartOfDay().plusHours(6),
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.TOTAL, completedOrders));
+
+        // new customers come from the indexed first order time, one count query
+        when(userRepository.countNewCustomers(
+                startDate.atStartOfDay(),
+                endDate.plusDays(1).atStartOfDay(),
                 OrderStatus.COMPLETED,
                 startDate.atStartOfDay().plusHours(6),
                 endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(completedOrders);
-
-        // Mock first order for new customer calculation
-        when(orderRepository.findFirstByCustomerOrderByOrderTimeAsc(testCustomer1)).thenReturn(testOrder1);
-        when(orderRepository.findFirstByCustomerOrderByOrderTimeAsc(testCustomer2)).thenReturn(testOrder3);
+        )).thenReturn(2L);
+        when(orderRepository.countDistinctCustomersByStatusAndOrderTimeBetween(
+                OrderStatus.COMPLETED,
+                startDate.atStartOfDay().plusHours(6),
+                endDate.atTime(LocalTime.MAX).plusHours(3)
+        )).thenReturn(2L);
 
         // Act
         DashboardStatsDto stats = adminDashboardService.getDashboardStats(startDate, endDate);
@@ -163,25 +200,26 @@ class AdminDashboardServiceTest {
         assertEquals(3, stats.getTotalOrders());
         assertEquals(0, new BigDecimal("11.67").compareTo(stats.getAverageOrderValue())); // Corrected BigDecimal comparison
         assertEquals(2, stats.getNewCustomers()); // Both customer1 and customer2 are 'new' in this range
+        assertEquals(2, stats.getUniqueCustomers());
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).sumByDimensionKey(
+                RollupDimension.TOTAL,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
         );
-        verify(orderRepository, times(1)).findFirstByCustomerOrderByOrderTimeAsc(testCustomer1);
-        verify(orderRepository, times(1)).findFirstByCustomerOrderByOrderTimeAsc(testCustomer2);
+        verify(orderRepository, never()).findFirstByCustomerOrderByOrderTimeAsc(any(User.class));
+        verify(customerActivity, never()).estimateCustomers(any(), any());
     }
 
     @Test
     void getDashboardStats_noOrders() {
         // Arrange
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.TOTAL,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(Collections.emptyList());
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.TOTAL, Collections.emptyList()));
 
         // Act
         DashboardStatsDto stats = adminDashboardService.getDashboardStats(startDate, endDate);
@@ -194,12 +232,12 @@ class AdminDashboardServiceTest {
         assertEquals(0, stats.getNewCustomers());
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).sumByDimensionKey(
+                RollupDimension.TOTAL,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
         );
-        verify(orderRepository, never()).findFirstByCustomerOrderByOrderTimeAsc(any(User.class));
+        verify(userRepository, never()).countNewCustomers(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -223,15 +261,26 @@ class AdminDashboardServiceTest {
         
         List<Order> completedOrders = Arrays.asList(testOrder1, orderInRange);
         
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.TOTAL,
+                startDate.atStartOfDay().plusHours(6),
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.TOTAL, completedOrders));
+
+        // the old customer's first order time is before the range, the count query leaves them out
+        customerWithOldFirstOrder.setFirstOrderAt(firstOrderOutsideRange.getOrderTime());
+        when(userRepository.countNewCustomers(
+                startDate.atStartOfDay(),
+                endDate.plusDays(1).atStartOfDay(),
                 OrderStatus.COMPLETED,
                 startDate.atStartOfDay().plusHours(6),
                 endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(completedOrders);
-
-        // Mock first order queries
-        when(orderRepository.findFirstByCustomerOrderByOrderTimeAsc(testCustomer1)).thenReturn(testOrder1);
-        when(orderRepository.findFirstByCustomerOrderByOrderTimeAsc(customerWithOldFirstOrder)).thenReturn(firstOrderOutsideRange);
+        )).thenReturn(1L);
+        when(orderRepository.countDistinctCustomersByStatusAndOrderTimeBetween(
+                OrderStatus.COMPLETED,
+                startDate.atStartOfDay().plusHours(6),
+                endDate.atTime(LocalTime.MAX).plusHours(3)
+        )).thenReturn(2L);
 
         // Act
         DashboardStatsDto stats = adminDashboardService.getDashboardStats(startDate, endDate);
@@ -241,10 +290,29 @@ class AdminDashboardServiceTest {
         assertEquals(0, new BigDecimal("30.00").compareTo(stats.getTotalRevenue()));
         assertEquals(2, stats.getTotalOrders());
         assertEquals(1, stats.getNewCustomers()); // Only testCustomer1 is new, not the old customer
+        assertEquals(2, stats.getUniqueCustomers());
 
         // Verify
-        verify(orderRepository, times(1)).findFirstByCustomerOrderByOrderTimeAsc(testCustomer1);
-        verify(orderRepository, times(1)).findFirstByCustomerOrderByOrderTimeAsc(customerWithOldFirstOrder);
+        verify(orderRepository, never()).findFirstByCustomerOrderByOrderTimeAsc(any(User.class));
+    }
+
+    @Test
+    void getDashboardStats_approximateUsesCustomerSketches() {
+        // Arrange
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.TOTAL,
+                startDate.atStartOfDay().plusHours(6),
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.TOTAL, Arrays.asList(testOrder1, testOrder2, testOrder3)));
+        when(userRepository.countNewCustomers(any(), any(), any(), any(), any())).thenReturn(2L);
+        when(customerActivity.estimateCustomers(startDate, endDate)).thenReturn(2L);
+
+        // Act
+        DashboardStatsDto stats = adminDashboardService.getDashboardStats(startDate, endDate, true);
+
+        // Assert
+        assertEquals(2, stats.getUniqueCustomers());
+        verify(orderRepository, never()).countDistinctCustomersByStatusAndOrderTimeBetween(any(), any(), any());
     }
 
     @Test
@@ -254,11 +322,11 @@ class AdminDashboardServiceTest {
         LocalDate chartEndDate = LocalDate.of(2024, 1, 10);
         List<Order> ordersForChart = Arrays.asList(testOrder1, testOrder2);
 
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL,
                 chartStartDate.atStartOfDay().plusHours(6),
-                chartEndDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(ordersForChart);
+                chartEndDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(hourlyTotals(ordersForChart));
 
         // Act
         List<RevenueDataPointDto> result = adminDashboardService.getRevenueChart(chartStartDate, chartEndDate);
@@ -272,10 +340,10 @@ class AdminDashboardServiceTest {
         assertEquals(0, new BigDecimal("15.00").compareTo(result.get(1).getRevenue())); // Corrected BigDecimal comparison
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL,
                 chartStartDate.atStartOfDay().plusHours(6),
-                chartEndDate.atTime(LocalTime.MAX).plusHours(3)
+                chartEndDate.plusDays(1).atStartOfDay().plusHours(3)
         );
     }
 
@@ -286,11 +354,11 @@ class AdminDashboardServiceTest {
         LocalDate chartEndDate = LocalDate.of(2024, 1, 31);
         List<Order> ordersForChart = Arrays.asList(testOrder1, testOrder2, testOrder3);
 
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL,
                 chartStartDate.atStartOfDay().plusHours(6),
-                chartEndDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(ordersForChart);
+                chartEndDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(hourlyTotals(ordersForChart));
 
         // Act
         List<RevenueDataPointDto> result = adminDashboardService.getRevenueChart(chartStartDate, chartEndDate);
@@ -304,10 +372,10 @@ class AdminDashboardServiceTest {
         assertEquals(0, new BigDecimal("10.00").compareTo(result.get(1).getRevenue())); // Corrected BigDecimal comparison
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL,
                 chartStartDate.atStartOfDay().plusHours(6),
-                chartEndDate.atTime(LocalTime.MAX).plusHours(3)
+                chartEndDate.plusDays(1).atStartOfDay().plusHours(3)
         );
     }
 
@@ -315,11 +383,11 @@ class AdminDashboardServiceTest {
     void getTopPerformingItems_success() {
         // Arrange
         List<Order> completedOrders = Arrays.asList(testOrder1, testOrder2, testOrder3);
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.FOOD_ITEM,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(completedOrders);
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.FOOD_ITEM, completedOrders));
 
         // Act
         List<TopPerformingItemDto> resultList = adminDashboardService.getTopPerformingItems(startDate, endDate);
@@ -333,21 +401,21 @@ class AdminDashboardServiceTest {
         assertEquals(0, new BigDecimal("15.00").compareTo(resultList.get(1).getTotalRevenue())); // Corrected BigDecimal comparison
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).sumByDimensionKey(
+                RollupDimension.FOOD_ITEM,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
         );
     }
 
     @Test
     void getTopPerformingItems_noOrders() {
         // Arrange
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.FOOD_ITEM,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(Collections.emptyList());
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.FOOD_ITEM, Collections.emptyList()));
 
         // Act
         List<TopPerformingItemDto> resultList = adminDashboardService.getTopPerformingItems(startDate, endDate);
@@ -357,10 +425,10 @@ class AdminDashboardServiceTest {
         assertTrue(resultList.isEmpty());
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).sumByDimensionKey(
+                RollupDimension.FOOD_ITEM,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
         );
     }
 
@@ -368,11 +436,11 @@ class AdminDashboardServiceTest {
     void getTopPerformingCategories_success() {
         // Arrange
         List<Order> completedOrders = Arrays.asList(testOrder1, testOrder2, testOrder3);
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.CATEGORY,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(completedOrders);
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.CATEGORY, completedOrders));
 
         // Act
         List<TopPerformingCategoryDto> resultList = adminDashboardService.getTopPerformingCategories(startDate, endDate);
@@ -386,21 +454,21 @@ class AdminDashboardServiceTest {
         assertEquals(0, new BigDecimal("15.00").compareTo(resultList.get(1).getTotalRevenue())); // Corrected BigDecimal comparison
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).sumByDimensionKey(
+                RollupDimension.CATEGORY,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
         );
     }
 
     @Test
     void getTopPerformingCategories_noOrders() {
         // Arrange
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.CATEGORY,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(Collections.emptyList());
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.CATEGORY, Collections.emptyList()));
 
         // Act
         List<TopPerformingCategoryDto> resultList = adminDashboardService.getTopPerformingCategories(startDate, endDate);
@@ -410,10 +478,10 @@ class AdminDashboardServiceTest {
         assertTrue(resultList.isEmpty());
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).sumByDimensionKey(
+                RollupDimension.CATEGORY,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
         );
     }
 
@@ -421,11 +489,11 @@ class AdminDashboardServiceTest {
     void getBusiestTables_success() {
         // Arrange
         List<Order> completedOrders = Arrays.asList(testOrder1, testOrder2, testOrder3);
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.TABLE,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(completedOrders);
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.TABLE, completedOrders));
 
         // Act
         List<BusiestTableDto> resultList = adminDashboardService.getBusiestTables(startDate, endDate);
@@ -439,21 +507,21 @@ class AdminDashboardServiceTest {
         assertEquals(1, resultList.get(1).getOrderCount());
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).sumByDimensionKey(
+                RollupDimension.TABLE,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
         );
     }
 
     @Test
     void getBusiestTables_noOrders() {
         // Arrange
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.sumByDimensionKey(
+                RollupDimension.TABLE,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(Collections.emptyList());
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(sums(RollupDimension.TABLE, Collections.emptyList()));
 
         // Act
         List<BusiestTableDto> resultList = adminDashboardService.getBusiestTables(startDate, endDate);
@@ -463,10 +531,10 @@ class AdminDashboardServiceTest {
         assertTrue(resultList.isEmpty());
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).sumByDimensionKey(
+                RollupDimension.TABLE,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
         );
     }
 
@@ -474,11 +542,11 @@ class AdminDashboardServiceTest {
     void getRevenueHeatmap_success() {
         // Arrange
         List<Order> completedOrders = Arrays.asList(testOrder1, testOrder2, testOrder3);
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(completedOrders);
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(hourlyTotals(completedOrders));
 
         // Act
         List<RevenueHeatmapPointDto> result = adminDashboardService.getRevenueHeatmap(startDate, endDate);
@@ -502,21 +570,21 @@ class AdminDashboardServiceTest {
         assertEquals(0, new BigDecimal("10.00").compareTo(result.get(2).getRevenue()));
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        verify(rollupRepository, times(1)).findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
         );
     }
 
     @Test
     void getRevenueHeatmap_noOrders() {
         // Arrange
-        when(orderRepository.findAllByStatusAndOrderTimeBetween(
-                OrderStatus.COMPLETED,
+        when(rollupRepository.findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL,
                 startDate.atStartOfDay().plusHours(6),
-                endDate.atTime(LocalTime.MAX).plusHours(3)
-        )).thenReturn(Collections.emptyList());
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(hourlyTotals(Collections.emptyList()));
 
         // Act
         List<RevenueHeatmapPointDto> result = adminDashboardService.getRevenueHeatmap(startDate, endDate);
@@ -526,10 +594,81 @@ class AdminDashboardServiceTest {
         assertTrue(result.isEmpty());
 
         // Verify
-        verify(orderRepository, times(1)).findAllByStatusAndOrderTimeBetween(
+        verify(rollupRepository, times(1)).findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL,
+                startDate.atStartOfDay().plusHours(6),
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        );
+    }
+
+    @Test
+    void getDashboardSummary_buildsEveryWidgetFromOneRead() {
+        // Arrange
+        List<Order> completedOrders = Arrays.asList(testOrder1, testOrder2, testOrder3);
+        List<RollupTotalDto> allSums = new java.util.ArrayList<>();
+        for (RollupDimension dimension : RollupDimension.values()) {
+            allSums.addAll(sums(dimension, completedOrders));
+        }
+        when(rollupRepository.sumAllDimensions(
+                startDate.atStartOfDay().plusHours(6),
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(allSums);
+        when(rollupRepository.findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                RollupDimension.TOTAL,
+                startDate.atStartOfDay().plusHours(6),
+                endDate.plusDays(1).atStartOfDay().plusHours(3)
+        )).thenReturn(hourlyTotals(completedOrders));
+        when(userRepository.countNewCustomers(
+                startDate.atStartOfDay(),
+                endDate.plusDays(1).atStartOfDay(),
                 OrderStatus.COMPLETED,
                 startDate.atStartOfDay().plusHours(6),
                 endDate.atTime(LocalTime.MAX).plusHours(3)
-        );
+        )).thenReturn(2L);
+        when(orderRepository.countDistinctCustomersByStatusAndOrderTimeBetween(
+                OrderStatus.COMPLETED,
+                startDate.atStartOfDay().plusHours(6),
+                endDate.atTime(LocalTime.MAX).plusHours(3)
+        )).thenReturn(2L);
+
+        // Act
+        DashboardSummaryDto summary = adminDashboardService.getDashboardSummary(startDate, endDate);
+
+        // Assert - same answers the separate endpoints give
+        assertEquals(0, new BigDecimal("35.00").compareTo(summary.getStats().getTotalRevenue()));
+        assertEquals(3, summary.getStats().getTotalOrders());
+        assertEquals(2, summary.getStats().getNewCustomers());
+        assertEquals(3, summary.getRevenueHeatmap().size());
+        assertFalse(summary.getRevenueChart().isEmpty());
+        assertEquals("Pizza", summary.getTopItems().get(0).getFoodName());
+        assertFalse(summary.getTopCategories().isEmpty());
+        assertEquals(2, summary.getBusiestTables().size());
+
+        // Verify - the per dimension queries are not used
+        verify(rollupRepository, never()).sumByDimensionKey(any(), any(), any());
+        verify(rollupRepository, times(1)).findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                any(), any(), any());
+    }
+
+    // rollup rows the given orders produce once they are completed
+    private List<RollupTotalDto> sums(RollupDimension dimension, List<Order> orders) {
+        Map<String, RollupTotalDto> totals = new LinkedHashMap<>();
+        for (Order order : orders) {
+            for (RevenueRollup rollup : RevenueRollupService.contributionsOf(order)) {
+                if (rollup.getDimension() != dimension) continue;
+                totals.merge(rollup.getDimensionKey(),
+                        new RollupTotalDto(dimension, rollup.getDimensionKey(), rollup.getOrderCount(), rollup.getQuantity(), rollup.getRevenue()),
+                        (a, b) -> new RollupTotalDto(dimension, a.getDimensionKey(), a.getOrderCount() + b.getOrderCount(),
+                                a.getQuantity() + b.getQuantity(), a.getRevenue().add(b.getRevenue())));
+            }
+        }
+        return List.copyOf(totals.values());
+    }
+
+    private List<RevenueRollup> hourlyTotals(List<Order> orders) {
+        return orders.stream()
+                .flatMap(order -> RevenueRollupService.contributionsOf(order).stream())
+                .filter(rollup -> rollup.getDimension() == RollupDimension.TOTAL)
+                .toList();
     }
-}
\ No newline at end of file
+}
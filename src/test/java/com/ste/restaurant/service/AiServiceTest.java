@@ -0,0 +1,152 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.exception.RateLimitExceededException;
+import com.ste.restaurant.repository.CategoryRepository;
+import com.ste.restaurant.repository.CategoryTranslationRepository;
+import com.ste.restaurant.repository.FoodDescriptionRepository;
+import com.ste.restaurant.repository.FoodItemRepository;
+import com.ste.restaurant.repository.FoodItemTranslationRepository;
+import com.ste.restaurant.service.MenuTranslator.FoodText;
+import com.ste.restaurant.utils.StubGeminiServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+// runs the real Gemini client against a local stub of the endpoint
+class AiServiceTest {
+
+    private StubGeminiServer gemini;
+    private ModelRateLimiter rateLimiter;
+    private FoodItemRepository foodItemRepository;
+    private AiService aiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gemini = new StubGeminiServer();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.ai.rate-limit.gemini-2.5-flash-lite.requests-per-minute", "60000")
+                .withProperty("app.ai.rate-limit.gemini-2.5-flash-lite.burst", "100")
+                .withProperty("app.ai.rate-limit.gemini-2.0-flash.requests-per-minute", "60000")
+                .withProperty("app.ai.rate-limit.gemini-2.5-flash.requests-per-minute", "60000");
+        rateLimiter = new ModelRateLimiter(environment);
+        foodItemRepository = mock(FoodItemRepository.class);
+        FoodDescriptionCache descriptionCache = new FoodDescriptionCache(
+                mock(FoodDescriptionRepository.class), 100, Duration.ofHours(1));
+        aiService = new AiService(gemini.client(), foodItemRepository, mock(CategoryRepository.class),
+                mock(CategoryTranslationRepository.class), mock(FoodItemTranslationRepository.class),
+                mock(LanguageService.class), rateLimiter, descriptionCache, 3, 4000, 40);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gemini.close();
+    }
+
+    private static List<FoodText> foods(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new FoodText(id, "Food " + id, "Grilled with herbs and lemon " + id))
+                .toList();
+    }
+
+    @Test
+    void translateFoodItems_packsManyFoodsPerRequest() {
+        Map<Long, List<String>> translated = aiService.translateFoodItems(foods(200), "Turkish");
+
+        assertThat(translated).hasSize(200);
+        assertThat(translated.get(17L)).containsExactly("[Turkish] Food 17", "[Turkish] Grilled with herbs and lemon 17");
+        // one request per food before batching
+        assertThat(gemini.requestCount()).isLessThanOrEqualTo(20);
+        assertThat(gemini.foodBatchSizes()).allMatch(size -> size <= 40);
+    }
+
+    @Test
+    void translateFoodItems_retriesOnlyMissingIds() {
+        gemini.dropFoodIdsOnce(List.of(3L, 7L));
+
+        Map<Long, List<String>> translated = aiService.translateFoodItems(foods(10), "French");
+
+        assertThat(translated).hasSize(10);
+        assertThat(gemini.foodBatchSizes()).containsExactly(10, 2);
+    }
+
+    @Test
+    void foodBatches_cutAtTokenBudget() {
+        List<FoodText> longFoods = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> new FoodText(id, "Food " + id, "x".repeat(1200)))
+                .toList();
+
+        List<List<FoodText>> batches = aiService.foodBatches(longFoods);
+
+        // ~766 estimated tokens each, five fit in 4000
+        assertThat(batches).extracting(List::size).containsExactly(5, 5);
+        assertThat(aiService.foodBatches(foods(100))).extracting(List::size).containsExactly(40, 40, 20);
+    }
+
+    @Test
+    void translateFoodItems_waitsOutRateLimitAndSlowsDown() {
+        gemini.rateLimitNext(1, "0.05s");
+
+        Map<Long, List<String>> translated = aiService.translateFoodItems(foods(5), "German");
+
+        assertThat(translated).hasSize(5);
+        assertThat(gemini.requestCount()).isEqualTo(2);
+        assertThat(rateLimiter.currentRequestsPerMinute("gemini-2.5-flash-lite")).isLessThan(60000);
+    }
+
+    @Test
+    void translateFoodItems_givesUpAfterMaxRetries() {
+        gemini.rateLimitNext(3, "0.01s");
+
+        assertThatThrownBy(() -> aiService.translateFoodItems(foods(5), "German"))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void translateCategoryNames_translatesBatchInOneRequest() {
+        Map<String, String> translated = aiService.translateCategoryNames(List.of("Soups", "Desserts"), "Italian");
+
+        assertThat(translated).containsEntry("Soups", "[Italian] Soups").containsEntry("Desserts", "[Italian] Desserts");
+        assertThat(gemini.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getFoodDescriptionFromAi_asksModelOncePerFood() {
+        assertThat(aiService.getFoodDescriptionFromAi("lentil soup")).isEqualTo("Stub description");
+        assertThat(aiService.getFoodDescriptionFromAi("Lentil Soup")).isEqualTo("Stub description");
+
+        assertThat(gemini.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fillDescriptions_writesOnlyFoodsStillWithoutOne() {
+        FoodItem soup = new FoodItem();
+        soup.setFoodId(1L);
+        soup.setFoodName("Lentil Soup");
+        FoodItem kebab = new FoodItem();
+        kebab.setFoodId(2L);
+        kebab.setFoodName("Adana Kebab");
+        FoodItem kebabWithDescription = new FoodItem();
+        kebabWithDescription.setFoodId(2L);
+        kebabWithDescription.setDescription("Written by hand meanwhile");
+        when(foodItemRepository.findById(1L)).thenReturn(Optional.of(soup));
+        when(foodItemRepository.findById(2L)).thenReturn(Optional.of(kebabWithDescription));
+
+        assertThat(aiService.fillDescriptions(List.of(soup, kebab))).isEqualTo(1);
+
+        assertThat(soup.getDescription()).isEqualTo("Stub description");
+        verify(foodItemRepository).save(soup);
+        verify(foodItemRepository, never()).save(kebabWithDescription);
+    }
+}
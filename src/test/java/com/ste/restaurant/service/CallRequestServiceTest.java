@@ -3,6 +3,7 @@ package com.ste.restaurant.service;
 import com.ste.restaurant.dto.CallRequestDto;
 import com.ste.restaurant.dto.CallRequestDtoBasic;
 import com.ste.restaurant.dto.TableTopDto;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.dto.userdto.UserDto;
 import com.ste.restaurant.entity.*;
 import com.ste.restaurant.entity.enums.OrderStatus;
@@ -21,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -575,4 +577,18 @@ class CallRequestServiceTest {
             assertThat(result.getMessage()).isEqualTo("Test message for " + type);
         }
     }
+
+    @Test
+    void scrollCallRequests_newestFirstWithTotalOnRequest() {
+        when(callRequestRepository.findAllByCallRequestIdLessThanOrderByCallRequestIdDesc(10L, Limit.of(21)))
+                .thenReturn(List.of(testCallRequest));
+        when(callRequestRepository.count()).thenReturn(12L);
+        when(orderMapper.callRequestToCallRequestDto(testCallRequest)).thenReturn(testCallRequestDto);
+
+        CursorPageDto<CallRequestDto> page = callRequestService.scrollCallRequests(KeysetCursor.ofId(10).encode(), 20, true);
+
+        assertThat(page.getContent()).containsExactly(testCallRequestDto);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(12L);
+    }
 }
@@ -0,0 +1,144 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.FoodItemDto;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.Menu;
+import com.ste.restaurant.repository.FoodItemRepository;
+import com.ste.restaurant.repository.MenuRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// not @Transactional, the second level cache only sees committed data
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogCacheIntegrationTest {
+
+    @Autowired
+    private FoodItemService foodItemService;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private String foodName;
+    private String menuName;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        foodName = "Cached Soup " + System.nanoTime();
+        FoodItemDto food = new FoodItemDto();
+        food.setFoodName(foodName);
+        food.setPrice(BigDecimal.valueOf(7.50));
+        foodItemService.saveFoodItem(food);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        transaction.executeWithoutResult(status -> {
+            foodItemRepository.findByFoodName(foodName).ifPresent(foodItemRepository::delete);
+            if (menuName != null) menuRepository.findByMenuName(menuName).ifPresent(menuRepository::delete);
+        });
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        return transaction.execute(status -> reader.get());
+    }
+
+    private long statementsFor(Runnable work) {
+        statistics.clear();
+        work.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated lookup by name without touching the database")
+    void shouldServeRepeatedNameLookupFromCache() {
+        read(() -> foodItemRepository.findByFoodName(foodName));
+
+        long statements = statementsFor(() -> read(() -> foodItemRepository.findByFoodName(foodName)));
+
+        assertThat(statements).isZero();
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", FoodItem.class.getName()).tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should see an update made through FoodItemService on the next lookup")
+    void shouldInvalidateOnServiceUpdate() {
+        read(() -> foodItemRepository.findByFoodName(foodName));
+
+        FoodItemDto update = new FoodItemDto();
+        update.setPrice(BigDecimal.valueOf(9.25));
+        transaction.executeWithoutResult(status -> foodItemService.updateFoodItemByName(foodName, update));
+
+        FoodItem reloaded = read(() -> foodItemRepository.findByFoodName(foodName)).orElseThrow();
+        assertThat(reloaded.getPrice()).isEqualByComparingTo("9.25");
+    }
+
+    @Test
+    @DisplayName("Should not return a renamed food under its old name")
+    void shouldInvalidateCachedQueryOnRename() {
+        read(() -> foodItemRepository.findByFoodName(foodName));
+
+        String renamed = foodName + " Renamed";
+        FoodItemDto update = new FoodItemDto();
+        update.setFoodName(renamed);
+        transaction.executeWithoutResult(status -> foodItemService.updateFoodItemByName(foodName, update));
+
+        assertThat(read(() -> foodItemRepository.findByFoodName(foodName))).isEmpty();
+        assertThat(read(() -> foodItemRepository.findByFoodName(renamed))).isPresent();
+        foodName = renamed;
+    }
+
+    @Test
+    @DisplayName("Should evict cached menus after the bulk deactivate")
+    void shouldInvalidateOnBulkUpdate() {
+        menuName = "Cached Menu " + System.nanoTime();
+        Long menuId = transaction.execute(status -> {
+            Menu menu = new Menu();
+            menu.setMenuName(menuName);
+            menu.setActive(true);
+            return menuRepository.save(menu).getMenuId();
+        });
+        assertThat(read(() -> menuRepository.findById(menuId)).orElseThrow().isActive()).isTrue();
+
+        transaction.executeWithoutResult(status -> menuRepository.deactivateAll());
+
+        assertThat(read(() -> menuRepository.findById(menuId)).orElseThrow().isActive()).isFalse();
+    }
+}
@@ -6,12 +6,12 @@ import com.ste.restaurant.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,13 +23,14 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
     private CustomUserDetailsService customUserDetailsService;
 
     private User testUser;
 
     @BeforeEach
     void setUp() {
+        customUserDetailsService = new CustomUserDetailsService(userRepository, 100, Duration.ofMinutes(5));
+
         testUser = new User();
         testUser.setUserId(1L);
         testUser.setEmail("test@example.com");
@@ -136,4 +137,41 @@ class CustomUserDetailsServiceTest {
         // Verify
         verify(userRepository, times(1)).findByEmail(email);
     }
+
+    @Test
+    void loadAuthenticatedUser_cachesWithoutPassword() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        UserDetails first = customUserDetailsService.loadAuthenticatedUser("test@example.com");
+        UserDetails second = customUserDetailsService.loadAuthenticatedUser("test@example.com");
+
+        assertSame(first, second);
+        assertEquals("", first.getPassword());
+        assertTrue(first.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_CUSTOMER")));
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void loadAuthenticatedUser_reloadsAfterEvict() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        customUserDetailsService.loadAuthenticatedUser("test@example.com");
+
+        testUser.setRole(UserRole.WAITER);
+        customUserDetailsService.evict("test@example.com");
+        UserDetails reloaded = customUserDetailsService.loadAuthenticatedUser("test@example.com");
+
+        assertTrue(reloaded.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_WAITER")));
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void loadAuthenticatedUser_reloadsAfterTtl() {
+        customUserDetailsService = new CustomUserDetailsService(userRepository, 100, Duration.ZERO);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        customUserDetailsService.loadAuthenticatedUser("test@example.com");
+        customUserDetailsService.loadAuthenticatedUser("test@example.com");
+
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
 }
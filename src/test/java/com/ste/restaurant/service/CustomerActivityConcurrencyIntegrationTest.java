@@ -0,0 +1,88 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.Order;
+import com.ste.restaurant.entity.User;
+import com.ste.restaurant.repository.CustomerDaySketchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// not @Transactional, the sketch is written after each order's transaction commits
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerActivityConcurrencyIntegrationTest {
+
+    private static final int CUSTOMERS = 8;
+
+    @Autowired
+    private CustomerActivityService customerActivityService;
+
+    @Autowired
+    private CustomerDaySketchRepository sketchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private ExecutorService executor;
+    private LocalDate businessDay;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(CUSTOMERS);
+        // a day no other test writes to
+        businessDay = LocalDate.of(2099, 1, 1).plusDays(System.nanoTime() % 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        transaction.executeWithoutResult(status -> sketchRepository.deleteRange(businessDay, businessDay));
+    }
+
+    private Order order(long customerId) {
+        User customer = new User();
+        customer.setUserId(customerId);
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setOrderTime(businessDay.atTime(19, 0));
+        return order;
+    }
+
+    @Test
+    @DisplayName("Should count every customer when the first orders of a day complete concurrently")
+    void shouldCountConcurrentFirstOrdersOfDay() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> completions = new ArrayList<>();
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            Order order = order(customerId);
+            completions.add(executor.submit(() -> {
+                start.await();
+                transaction.executeWithoutResult(status -> customerActivityService.orderCompleted(order));
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> completion : completions) {
+            completion.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(sketchRepository.findAllByBusinessDayBetween(businessDay, businessDay)).hasSize(1);
+        assertThat(customerActivityService.estimateCustomers(businessDay, businessDay)).isEqualTo(CUSTOMERS);
+    }
+}
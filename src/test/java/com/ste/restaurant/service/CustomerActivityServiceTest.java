@@ -0,0 +1,196 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.CustomerDaySketch;
+import com.ste.restaurant.entity.Order;
+import com.ste.restaurant.entity.User;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.repository.CustomerDaySketchRepository;
+import com.ste.restaurant.repository.OrderRepository;
+import com.ste.restaurant.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerActivityServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private CustomerDaySketchRepository sketchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CustomerActivityService customerActivityService;
+
+    @BeforeEach
+    void setUp() {
+        customerActivityService = new CustomerActivityService(userRepository, orderRepository, sketchRepository,
+                transactionManager, false);
+    }
+
+    private Order completedOrder(long customerId, LocalDateTime orderTime) {
+        User customer = new User();
+        customer.setUserId(customerId);
+        Order order = new Order();
+        order.setStatus(OrderStatus.COMPLETED);
+        order.setOrderTime(orderTime);
+        order.setCustomer(customer);
+        return order;
+    }
+
+    @Test
+    void hyperLogLog_estimatesWithinFewPercent() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 50_000; id++) {
+            sketch.add(id);
+            sketch.add(id); // repeats do not count
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(50_000, within(50_000 * 0.08));
+    }
+
+    @Test
+    void hyperLogLog_mergeIsUnionOfDays() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        for (long id = 1; id <= 300; id++) monday.add(id);
+        for (long id = 201; id <= 500; id++) tuesday.add(id);
+
+        monday.merge(new HyperLogLog(tuesday.toBytes()));
+
+        assertThat((double) monday.estimate()).isCloseTo(500, within(500 * 0.08));
+    }
+
+    @Test
+    void orderPlaced_keepsEarliestOrderTime() {
+        User customer = new User();
+        LocalDateTime first = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+        customerActivityService.orderPlaced(customer, first);
+        customerActivityService.orderPlaced(customer, first.plusDays(3));
+
+        assertThat(customer.getFirstOrderAt()).isEqualTo(first);
+    }
+
+    @Test
+    void ordersRemoved_recomputesFirstOrder() {
+        User customer = new User();
+
+        customerActivityService.ordersRemoved(customer);
+        customerActivityService.ordersRemoved(null);
+
+        verify(userRepository, times(1)).refreshFirstOrderAt(customer);
+    }
+
+    @Test
+    void orderCompleted_addsCustomerToBusinessDaySketch() {
+        CustomerDaySketch created = new CustomerDaySketch();
+        created.setBusinessDay(LocalDate.of(2024, 1, 10));
+        created.setRegisters(new byte[HyperLogLog.REGISTER_COUNT]);
+        when(sketchRepository.findByBusinessDay(LocalDate.of(2024, 1, 10)))
+                .thenReturn(Optional.empty(), Optional.of(created));
+
+        // 01:30 still belongs to the evening before
+        customerActivityService.orderCompleted(completedOrder(7L, LocalDateTime.of(2024, 1, 11, 1, 30)));
+
+        verify(sketchRepository).insertIfAbsent(eq(LocalDate.of(2024, 1, 10)), any());
+        verify(sketchRepository).save(created);
+        assertThat(new HyperLogLog(created.getRegisters()).estimate()).isEqualTo(1);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void orderCompleted_swallowsSketchFailures() {
+        when(sketchRepository.findByBusinessDay(any())).thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        customerActivityService.orderCompleted(completedOrder(7L, LocalDateTime.of(2024, 1, 10, 12, 0)));
+
+        verify(transactionManager).rollback(any());
+        verify(sketchRepository, never()).save(any());
+    }
+
+    @Test
+    void orderCompleted_ignoresGuestOrders() {
+        Order order = completedOrder(1L, LocalDateTime.of(2024, 1, 10, 12, 0));
+        order.setCustomer(null);
+
+        customerActivityService.orderCompleted(order);
+
+        verifyNoInteractions(sketchRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildSketches_replacesDaysWithRecomputedSketches() {
+        when(orderRepository.findAllByStatusAndOrderTimeGreaterThanEqualAndOrderTimeLessThan(
+                eq(OrderStatus.COMPLETED), any(), any()))
+                .thenReturn(List.of(
+                        completedOrder(1L, LocalDateTime.of(2024, 1, 10, 12, 0)),
+                        completedOrder(1L, LocalDateTime.of(2024, 1, 10, 19, 0)),
+                        completedOrder(2L, LocalDateTime.of(2024, 1, 11, 13, 0))));
+
+        int orders = customerActivityService.rebuildSketches(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 11));
+
+        assertThat(orders).isEqualTo(3);
+        verify(sketchRepository).deleteRange(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 11));
+        ArgumentCaptor<Collection<CustomerDaySketch>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(sketchRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(CustomerDaySketch::getBusinessDay)
+                .containsExactly(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 11));
+    }
+
+    @Test
+    void rebuildSketches_commitsWeekByWeek() {
+        when(orderRepository.findAllByStatusAndOrderTimeGreaterThanEqualAndOrderTimeLessThan(
+                eq(OrderStatus.COMPLETED), any(), any())).thenReturn(List.of());
+
+        customerActivityService.rebuildSketches(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10));
+
+        verify(sketchRepository).deleteRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7));
+        verify(sketchRepository).deleteRange(LocalDate.of(2024, 1, 8), LocalDate.of(2024, 1, 10));
+        verify(orderRepository).findAllByStatusAndOrderTimeGreaterThanEqualAndOrderTimeLessThan(
+                OrderStatus.COMPLETED, LocalDateTime.of(2024, 1, 8, 3, 0), LocalDateTime.of(2024, 1, 11, 3, 0));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void estimateCustomers_mergesSketchesOfRange() {
+        HyperLogLog day1 = new HyperLogLog();
+        day1.add(1L);
+        day1.add(2L);
+        HyperLogLog day2 = new HyperLogLog();
+        day2.add(2L);
+        day2.add(3L);
+        when(sketchRepository.findAllByBusinessDayBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
+                .thenReturn(List.of(sketch(day1), sketch(day2)));
+
+        assertThat(customerActivityService.estimateCustomers(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
+                .isEqualTo(3);
+    }
+
+    private CustomerDaySketch sketch(HyperLogLog customers) {
+        CustomerDaySketch sketch = new CustomerDaySketch();
+        sketch.setRegisters(customers.toBytes());
+        return sketch;
+    }
+}
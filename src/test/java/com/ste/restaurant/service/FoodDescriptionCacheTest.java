@@ -0,0 +1,132 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.FoodDescription;
+import com.ste.restaurant.exception.InvalidValueException;
+import com.ste.restaurant.repository.FoodDescriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FoodDescriptionCacheTest {
+
+    private static final String MODEL = "gemini-2.5-flash";
+
+    @Mock
+    private FoodDescriptionRepository foodDescriptionRepository;
+
+    private FoodDescriptionCache cache;
+    private final AtomicInteger generated = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new FoodDescriptionCache(foodDescriptionRepository, 2, Duration.ofHours(1));
+    }
+
+    private Supplier<String> generator(String description) {
+        return () -> {
+            generated.incrementAndGet();
+            return description;
+        };
+    }
+
+    private FoodDescription stored(String description) {
+        FoodDescription stored = new FoodDescription();
+        stored.setDescription(description);
+        return stored;
+    }
+
+    @Test
+    void get_generatesOnceAndPersistsUnderNormalizedName() {
+        when(foodDescriptionRepository.findByFoodNameAndModel("adana kebab", MODEL)).thenReturn(Optional.empty());
+
+        assertThat(cache.get("  Adana   KEBAB ", MODEL, generator("Spicy minced lamb"))).isEqualTo("Spicy minced lamb");
+        assertThat(cache.get("adana kebab", MODEL, generator("other"))).isEqualTo("Spicy minced lamb");
+
+        assertThat(generated).hasValue(1);
+        ArgumentCaptor<FoodDescription> saved = ArgumentCaptor.forClass(FoodDescription.class);
+        verify(foodDescriptionRepository).save(saved.capture());
+        assertThat(saved.getValue().getFoodName()).isEqualTo("adana kebab");
+        assertThat(saved.getValue().getModel()).isEqualTo(MODEL);
+    }
+
+    @Test
+    void get_servesPersistedDescriptionWithoutModel() {
+        when(foodDescriptionRepository.findByFoodNameAndModel("baklava", MODEL))
+                .thenReturn(Optional.of(stored("Layered pastry with pistachio")));
+
+        assertThat(cache.get("Baklava", MODEL, generator("other"))).isEqualTo("Layered pastry with pistachio");
+
+        assertThat(generated).hasValue(0);
+        verify(foodDescriptionRepository, never()).save(any());
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsedBeyondMaxEntries() {
+        when(foodDescriptionRepository.findByFoodNameAndModel(any(), any())).thenReturn(Optional.empty());
+
+        cache.get("soup", MODEL, generator("a"));
+        cache.get("salad", MODEL, generator("b"));
+        cache.get("soup", MODEL, generator("a"));
+        cache.get("kebab", MODEL, generator("c"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        // salad went to the database tier only
+        cache.get("salad", MODEL, generator("b"));
+        verify(foodDescriptionRepository, times(2)).findByFoodNameAndModel("salad", MODEL);
+        verify(foodDescriptionRepository, times(1)).findByFoodNameAndModel("soup", MODEL);
+    }
+
+    @Test
+    void get_expiredEntryIsReloadedFromDatabase() {
+        cache = new FoodDescriptionCache(foodDescriptionRepository, 10, Duration.ZERO);
+        when(foodDescriptionRepository.findByFoodNameAndModel("soup", MODEL))
+                .thenReturn(Optional.empty(), Optional.of(stored("Lentil soup")));
+
+        cache.get("soup", MODEL, generator("Lentil soup"));
+        cache.get("soup", MODEL, generator("other"));
+
+        assertThat(generated).hasValue(1);
+        verify(foodDescriptionRepository, times(2)).findByFoodNameAndModel("soup", MODEL);
+    }
+
+    @Test
+    void get_failedGenerationIsNotCached() {
+        when(foodDescriptionRepository.findByFoodNameAndModel("soup", MODEL)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cache.get("soup", MODEL, () -> {
+            throw new InvalidValueException("Food item", "Food name", "soup");
+        })).isInstanceOf(InvalidValueException.class);
+
+        assertThat(cache.get("soup", MODEL, generator("Lentil soup"))).isEqualTo("Lentil soup");
+    }
+
+    @Test
+    void bindTo_publishesHitsPerTier() {
+        when(foodDescriptionRepository.findByFoodNameAndModel("soup", MODEL)).thenReturn(Optional.empty());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get("soup", MODEL, generator("Lentil soup"));
+        cache.get("soup", MODEL, generator("Lentil soup"));
+
+        assertThat(registry.get("cache.gets").tag("tier", "memory").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("tier", "memory").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("tier", "database").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").tag("cache", "foodDescriptions").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.FoodItemDto;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.enums.ImageStatus;
+import com.ste.restaurant.exception.RateLimitExceededException;
+import com.ste.restaurant.repository.FoodItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// not @Transactional, the upload has to roll back on its own when the queue turns it away
+@SpringBootTest(properties = {"app.image.workers=1", "app.image.queue-capacity=1"})
+@ActiveProfiles("test")
+class FoodImageUploadIntegrationTest {
+
+    @Autowired
+    private FoodItemService foodItemService;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @MockitoSpyBean
+    private ImageRenditionService imageRenditionService;
+
+    @Value("${app.image.upload-dir}")
+    private String uploadDir;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private String foodName;
+
+    @BeforeEach
+    void setUp() {
+        foodName = "Upload Soup " + System.nanoTime();
+        FoodItemDto food = new FoodItemDto();
+        food.setFoodName(foodName);
+        food.setPrice(BigDecimal.valueOf(6.50));
+        foodItemService.saveFoodItem(food);
+
+        // the single worker waits until the test is done with it
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(imageRenditionService).process(any(), any());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        release.countDown();
+        foodItemRepository.findByFoodName(foodName).ifPresent(foodItemRepository::delete);
+        Path originals = Paths.get(uploadDir).resolve("originals");
+        Files.deleteIfExists(originals.resolve("busy"));
+        Files.deleteIfExists(originals.resolve("queued"));
+    }
+
+    private byte[] png(int size) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB), "png", output);
+        return output.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should leave the food as it was when a full queue turns the upload away")
+    void shouldRollBackPendingWhenQueueIsFull() throws IOException {
+        // one upload on the worker, one in the queue of one
+        imageRenditionService.submit(-1L, "busy", png(4));
+        while (imageRenditionService.queuedImages() > 0) Thread.onSpinWait();
+        imageRenditionService.submit(-2L, "queued", png(4));
+
+        MockMultipartFile upload = new MockMultipartFile("image", "soup.png", "image/png", png(8));
+        assertThatThrownBy(() -> foodItemService.addImageToFood(foodName, upload))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        FoodItem food = foodItemRepository.findByFoodName(foodName).orElseThrow();
+        assertThat(food.getImageStatus()).isNotEqualTo(ImageStatus.PENDING);
+        assertThat(food.getPendingImageHash()).isNull();
+    }
+}
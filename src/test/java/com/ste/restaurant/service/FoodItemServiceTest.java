@@ -4,6 +4,7 @@ import com.ste.restaurant.dto.CategoryDtoBasic;
 import com.ste.restaurant.dto.FoodItemDto;
 import com.ste.restaurant.entity.Category;
 import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.enums.ImageStatus;
 import com.ste.restaurant.exception.AlreadyExistsException;
 import com.ste.restaurant.exception.ImageProcessingException;
 import com.ste.restaurant.exception.NotFoundException;
@@ -16,7 +17,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -45,6 +45,12 @@ class FoodItemServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private ImageRenditionService imageRenditionService;
+
+    @Mock
+    private FoodSearchIndex foodSearchIndex;
+
     @InjectMocks
     private FoodItemService foodItemService;
 
@@ -359,31 +365,85 @@ class FoodItemServiceTest {
     }
 
     @Test
-    void addImageToFood_success() throws IOException {
+    void addImageToFood_queuesRenditionsAndKeepsCurrentImage() throws IOException {
         // Arrange
-        testFoodItem.setImage(null); // No old image
+        byte[] bytes = "photo".getBytes();
+        String hash = ImageRenditionService.hashOf(bytes);
         MultipartFile mockFile = mock(MultipartFile.class);
         when(mockFile.getOriginalFilename()).thenReturn("test-image.jpg");
+        when(mockFile.getBytes()).thenReturn(bytes);
+        when(foodItemRepository.findByFoodName("Margherita Pizza")).thenReturn(Optional.of(testFoodItem));
+        when(foodItemRepository.save(testFoodItem)).thenReturn(testFoodItem);
+        when(orderMapper.foodItemToFoodItemDto(testFoodItem)).thenReturn(testFoodItemDto);
+
+        // Act
+        FoodItemDto result = foodItemService.addImageToFood("Margherita Pizza", mockFile);
+
+        // Assert
+        assertThat(result).isNotNull();
+        assertThat(testFoodItem.getImageStatus()).isEqualTo(ImageStatus.PENDING);
+        assertThat(testFoodItem.getPendingImageHash()).isEqualTo(hash);
+        assertThat(testFoodItem.getImage()).isEqualTo("pizza-image.jpg"); // shown until the renditions are done
+        verify(imageRenditionService).requireReadableImage(bytes);
+        verify(imageRenditionService).submit(1L, hash, bytes);
+    }
 
+    @Test
+    void addImageToFood_reusesRenderedPhoto() throws IOException {
+        // Arrange
+        byte[] bytes = "photo".getBytes();
+        String hash = ImageRenditionService.hashOf(bytes);
+        MultipartFile mockFile = mock(MultipartFile.class);
+        when(mockFile.getOriginalFilename()).thenReturn("test-image.jpg");
+        when(mockFile.getBytes()).thenReturn(bytes);
         when(foodItemRepository.findByFoodName("Margherita Pizza")).thenReturn(Optional.of(testFoodItem));
         when(foodItemRepository.save(testFoodItem)).thenReturn(testFoodItem);
+        when(imageRenditionService.hasRenditions(hash)).thenReturn(true);
         when(orderMapper.foodItemToFoodItemDto(testFoodItem)).thenReturn(testFoodItemDto);
 
-        try (MockedStatic<ServiceUtil> serviceUtilMock = mockStatic(ServiceUtil.class)) {
-            serviceUtilMock.when(() -> ServiceUtil.getFileExtension("test-image.jpg")).thenReturn("jpg");
-            serviceUtilMock.when(() -> ServiceUtil.cropAndResizeToSquare(eq(mockFile), any(String.class), eq(600)))
-                    .thenReturn(true);
+        // Act
+        foodItemService.addImageToFood("Margherita Pizza", mockFile);
 
-            // Act
-            FoodItemDto result = foodItemService.addImageToFood("Margherita Pizza", mockFile);
+        // Assert
+        assertThat(testFoodItem.getImageStatus()).isEqualTo(ImageStatus.READY);
+        assertThat(testFoodItem.getImage()).isEqualTo(hash + "-card.jpg");
+        verify(imageRenditionService).deleteIfUnused("pizza-image.jpg", null);
+        verify(imageRenditionService, never()).submit(any(), any(), any());
+    }
 
-            // Assert
-            assertThat(result).isNotNull();
-            verify(foodItemRepository).findByFoodName("Margherita Pizza");
-            verify(foodItemRepository).save(testFoodItem);
-            verify(orderMapper).foodItemToFoodItemDto(testFoodItem);
-            serviceUtilMock.verify(() -> ServiceUtil.cropAndResizeToSquare(eq(mockFile), any(String.class), eq(600)));
-        }
+    @Test
+    void addImageToFood_sameImageAgain_changesNothing() throws IOException {
+        // Arrange
+        byte[] bytes = "photo".getBytes();
+        testFoodItem.setImageHash(ImageRenditionService.hashOf(bytes));
+        MultipartFile mockFile = mock(MultipartFile.class);
+        when(mockFile.getOriginalFilename()).thenReturn("test-image.jpg");
+        when(mockFile.getBytes()).thenReturn(bytes);
+        when(foodItemRepository.findByFoodName("Margherita Pizza")).thenReturn(Optional.of(testFoodItem));
+
+        // Act
+        foodItemService.addImageToFood("Margherita Pizza", mockFile);
+
+        // Assert
+        verify(foodItemRepository, never()).save(any());
+        verify(imageRenditionService, never()).submit(any(), any(), any());
+    }
+
+    @Test
+    void addImageToFood_unreadableImage() throws IOException {
+        // Arrange
+        MultipartFile mockFile = mock(MultipartFile.class);
+        when(mockFile.getOriginalFilename()).thenReturn("notes.txt");
+        when(mockFile.getBytes()).thenReturn("not an image".getBytes());
+        when(foodItemRepository.findByFoodName("Margherita Pizza")).thenReturn(Optional.of(testFoodItem));
+        doThrow(new ImageProcessingException("Unsupported image format"))
+                .when(imageRenditionService).requireReadableImage(any());
+
+        // Act & Assert
+        assertThatThrownBy(() -> foodItemService.addImageToFood("Margherita Pizza", mockFile))
+                .isInstanceOf(ImageProcessingException.class)
+                .hasMessageContaining("Unsupported image format");
+        verify(foodItemRepository, never()).save(any());
     }
 
     @Test
@@ -427,76 +487,6 @@ class FoodItemServiceTest {
         verify(foodItemRepository, never()).save(any());
     }
 
-    @Test
-    void addImageToFood_noFileExtension() {
-        // Arrange
-        MultipartFile mockFile = mock(MultipartFile.class);
-        when(mockFile.getOriginalFilename()).thenReturn("test-image");
-        when(foodItemRepository.findByFoodName("Margherita Pizza")).thenReturn(Optional.of(testFoodItem));
-
-        try (MockedStatic<ServiceUtil> serviceUtilMock = mockStatic(ServiceUtil.class)) {
-            serviceUtilMock.when(() -> ServiceUtil.getFileExtension("test-image")).thenReturn("");
-
-            // Act & Assert
-            assertThatThrownBy(() -> foodItemService.addImageToFood("Margherita Pizza", mockFile))
-                    .isInstanceOf(ImageProcessingException.class)
-                    .hasMessageContaining("Image extension cannot be null");
-            verify(foodItemRepository).findByFoodName("Margherita Pizza");
-        }
-    }
-
-    @Test
-    void addImageToFood_imageProcessingFails() throws IOException {
-        // Arrange
-        testFoodItem.setImage(null); // No old image
-        MultipartFile mockFile = mock(MultipartFile.class);
-        when(mockFile.getOriginalFilename()).thenReturn("test-image.jpg");
-        when(foodItemRepository.findByFoodName("Margherita Pizza")).thenReturn(Optional.of(testFoodItem));
-
-        try (MockedStatic<ServiceUtil> serviceUtilMock = mockStatic(ServiceUtil.class)) {
-            serviceUtilMock.when(() -> ServiceUtil.getFileExtension("test-image.jpg")).thenReturn("jpg");
-            serviceUtilMock.when(() -> ServiceUtil.cropAndResizeToSquare(eq(mockFile), any(String.class), eq(600)))
-                    .thenReturn(false);
-
-            // Act & Assert
-            assertThatThrownBy(() -> foodItemService.addImageToFood("Margherita Pizza", mockFile))
-                    .isInstanceOf(ImageProcessingException.class)
-                    .hasMessageContaining("Image crop and resizing failed");
-            verify(foodItemRepository).findByFoodName("Margherita Pizza");
-        }
-    }
-
-    @Test
-    void addImageToFood_replacesOldImage() throws IOException {
-        // Arrange
-        testFoodItem.setImage("old-image.jpg");
-        MultipartFile mockFile = mock(MultipartFile.class);
-        when(mockFile.getOriginalFilename()).thenReturn("new-image.jpg");
-
-        // Create the old image file in temp directory
-        File oldImageFile = new File(uploadDir + "old-image.jpg");
-        oldImageFile.getParentFile().mkdirs();
-        oldImageFile.createNewFile();
-
-        when(foodItemRepository.findByFoodName("Margherita Pizza")).thenReturn(Optional.of(testFoodItem));
-        when(foodItemRepository.save(testFoodItem)).thenReturn(testFoodItem);
-        when(orderMapper.foodItemToFoodItemDto(testFoodItem)).thenReturn(testFoodItemDto);
-
-        try (MockedStatic<ServiceUtil> serviceUtilMock = mockStatic(ServiceUtil.class)) {
-            serviceUtilMock.when(() -> ServiceUtil.getFileExtension("new-image.jpg")).thenReturn("jpg");
-            serviceUtilMock.when(() -> ServiceUtil.cropAndResizeToSquare(eq(mockFile), any(String.class), eq(600)))
-                    .thenReturn(true);
-
-            // Act
-            FoodItemDto result = foodItemService.addImageToFood("Margherita Pizza", mockFile);
-
-            // Assert
-            assertThat(result).isNotNull();
-            assertThat(oldImageFile).doesNotExist(); // Old image should be deleted
-            verify(foodItemRepository, times(2)).save(testFoodItem); // Once for deleting old image, once for setting new
-        }
-    }
-
     @Test
     void deleteImageFile_byName_success() {
         // Arrange
@@ -592,6 +582,24 @@ class FoodItemServiceTest {
         verify(foodItemRepository, never()).save(any());
     }
 
+    @Test
+    void deleteImageFile_byEntity_renditions() {
+        // Arrange
+        testFoodItem.setImage("abc-card.jpg");
+        testFoodItem.setImageHash("abc");
+        testFoodItem.setImageStatus(ImageStatus.READY);
+        when(foodItemRepository.save(testFoodItem)).thenReturn(testFoodItem);
+
+        // Act
+        Boolean result = foodItemService.deleteImageFile(testFoodItem);
+
+        // Assert
+        assertThat(result).isTrue();
+        assertThat(testFoodItem.getImage()).isNull();
+        assertThat(testFoodItem.getImageHash()).isNull();
+        verify(imageRenditionService).deleteIfUnused(null, "abc");
+    }
+
     @Test
     void deleteImageFile_byEntity_fileNotExists() {
         // Arrange
@@ -626,4 +634,48 @@ class FoodItemServiceTest {
         verify(orderMapper).updateFoodItemFromDto(updateDto, testFoodItem);
         verify(foodItemRepository).save(testFoodItem);
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchFoodItems_indexReady_pagesRankedIds() {
+        // Arrange
+        FoodItem second = new FoodItem();
+        second.setFoodId(2L);
+        FoodItem third = new FoodItem();
+        third.setFoodId(3L);
+        FoodItemDto secondDto = new FoodItemDto();
+        secondDto.setFoodName("Second");
+        FoodItemDto thirdDto = new FoodItemDto();
+        thirdDto.setFoodName("Third");
+
+        when(foodSearchIndex.isReady()).thenReturn(true);
+        when(foodSearchIndex.search("pizza")).thenReturn(List.of(1L, 4L, 3L, 2L, 5L));
+        when(foodItemRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(second, third));
+        when(orderMapper.foodItemToFoodItemDto(second)).thenReturn(secondDto);
+        when(orderMapper.foodItemToFoodItemDto(third)).thenReturn(thirdDto);
+
+        // Act
+        Page<FoodItemDto> result = foodItemService.searchFoodItems("pizza", PageRequest.of(1, 2));
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(thirdDto, secondDto);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        verify(foodItemRepository, never()).findAllByFoodNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(any(), any(), any());
+    }
+
+    @Test
+    void searchFoodItems_indexNotReady_queriesDatabase() {
+        // Arrange
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(foodSearchIndex.isReady()).thenReturn(false);
+        when(foodItemRepository.findAllByFoodNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase("pizza", "pizza", pageable))
+                .thenReturn(new PageImpl<>(List.of(testFoodItem)));
+        when(orderMapper.foodItemToFoodItemDto(testFoodItem)).thenReturn(testFoodItemDto);
+
+        // Act
+        Page<FoodItemDto> result = foodItemService.searchFoodItems("pizza", pageable);
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(testFoodItemDto);
+        verify(foodSearchIndex, never()).search(any());
+    }
+}
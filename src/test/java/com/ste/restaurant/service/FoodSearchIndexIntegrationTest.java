@@ -0,0 +1,141 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.FoodItemDto;
+import com.ste.restaurant.dto.FoodItemTranslationDto;
+import com.ste.restaurant.repository.FoodItemRepository;
+import com.ste.restaurant.repository.FoodItemTranslationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+
+// not @Transactional, the index only picks up committed changes
+@SpringBootTest
+@ActiveProfiles("test")
+class FoodSearchIndexIntegrationTest {
+
+    @Autowired
+    private FoodItemService foodItemService;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private FoodSearchIndex foodSearchIndex;
+
+    @MockitoSpyBean
+    private FoodItemTranslationRepository foodItemTranslationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private String foodName;
+    private String lateFoodName;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        foodName = "Quokkaberry Tart " + System.nanoTime();
+        FoodItemDto food = new FoodItemDto();
+        food.setFoodName(foodName);
+        food.setDescription("Buttery crust with wild berries");
+        food.setPrice(BigDecimal.valueOf(6.50));
+        foodItemService.saveFoodItem(food);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            foodItemRepository.findByFoodName(foodName).ifPresent(foodItemRepository::delete);
+            if (lateFoodName != null) {
+                foodItemRepository.findByFoodName(lateFoodName).ifPresent(foodItemRepository::delete);
+            }
+        });
+    }
+
+    private Page<FoodItemDto> search(String query) {
+        return transaction.execute(status -> foodItemService.searchFoodItems(query, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    @DisplayName("Should find a committed food by prefix and typo")
+    void shouldFindCommittedFood() {
+        assertThat(foodSearchIndex.isReady()).isTrue();
+
+        assertThat(search("quokkab").getContent()).extracting(FoodItemDto::getFoodName).containsExactly(foodName);
+        assertThat(search("quokaberry tart").getContent()).extracting(FoodItemDto::getFoodName).containsExactly(foodName);
+        assertThat(search("quokkaberry").getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should follow translations, renames and deletes after commit")
+    void shouldFollowChanges() {
+        transaction.executeWithoutResult(status ->
+                foodItemService.addFoodItemTranslation(foodName, new FoodItemTranslationDto("de", "Quokkabeerenkuchen", "Mürbeteig")));
+        assertThat(search("quokkabeerenkuchen").getContent()).extracting(FoodItemDto::getFoodName).containsExactly(foodName);
+
+        // rolled back changes never reach the index
+        transaction.executeWithoutResult(status -> {
+            foodItemRepository.findByFoodName(foodName).orElseThrow().setDescription("Wombatfruit filling");
+            foodItemRepository.flush();
+            status.setRollbackOnly();
+        });
+        assertThat(search("wombatfruit").getContent()).isEmpty();
+
+        transaction.executeWithoutResult(status ->
+                foodItemRepository.findByFoodName(foodName).orElseThrow().setDescription("Wombatfruit filling"));
+        assertThat(search("wombatfruit").getContent()).hasSize(1);
+        assertThat(search("berries").getContent()).extracting(FoodItemDto::getFoodName).doesNotContain(foodName);
+
+        transaction.executeWithoutResult(status -> foodItemService.deleteFoodItemTranslation(foodName, "de"));
+        assertThat(search("quokkabeerenkuchen").getContent()).isEmpty();
+
+        transaction.executeWithoutResult(status ->
+                foodItemRepository.findByFoodName(foodName).ifPresent(foodItemRepository::delete));
+        assertThat(search("quokkaberry").getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep a food committed while the index is rebuilt")
+    void shouldKeepFoodCommittedDuringRebuild() throws Exception {
+        lateFoodName = "Numbatplum Crumble " + System.nanoTime();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // the foods are already read when this one commits, before the index swaps them in
+            doAnswer(invocation -> {
+                executor.submit(() -> {
+                    FoodItemDto food = new FoodItemDto();
+                    food.setFoodName(lateFoodName);
+                    food.setPrice(BigDecimal.valueOf(5.00));
+                    foodItemService.saveFoodItem(food);
+                }).get(10, TimeUnit.SECONDS);
+                // the spy wraps the repository proxy, the unstubbed overload reaches the real query
+                return foodItemTranslationRepository.findAll(Sort.unsorted());
+            }).when(foodItemTranslationRepository).findAll();
+
+            foodSearchIndex.rebuild();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(search("numbatplum").getContent()).extracting(FoodItemDto::getFoodName).containsExactly(lateFoodName);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.FoodItemTranslation;
+import com.ste.restaurant.repository.FoodItemRepository;
+import com.ste.restaurant.repository.FoodItemTranslationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FoodSearchIndexTest {
+
+    @Mock
+    private FoodItemRepository foodItemRepository;
+
+    @Mock
+    private FoodItemTranslationRepository foodItemTranslationRepository;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    private FoodSearchIndex foodSearchIndex;
+
+    private final List<FoodItem> foods = new ArrayList<>();
+    private final List<FoodItemTranslation> translations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        foodSearchIndex = new FoodSearchIndex(foodItemRepository, foodItemTranslationRepository, entityManagerFactory, true);
+
+        food(1L, "Margherita Pizza", "Tomato, mozzarella and basil");
+        food(2L, "Pepperoni Pizza", "Spicy salami with mozzarella");
+        food(3L, "Caesar Salad", "Romaine lettuce, parmesan and croutons");
+        food(4L, "Crème Brûlée", "Vanilla custard with caramelized sugar");
+        food(5L, "Tiramisu", "Coffee soaked ladyfingers, mascarpone");
+        translation(3L, "de", "Caesar Salat", "Römersalat mit Parmesan");
+        translation(5L, "tr", "Tiramisu", "Kahveli İtalyan tatlısı");
+    }
+
+    private void food(Long id, String name, String description) {
+        FoodItem food = new FoodItem();
+        food.setFoodId(id);
+        food.setFoodName(name);
+        food.setDescription(description);
+        foods.add(food);
+    }
+
+    private void translation(Long foodId, String languageCode, String name, String description) {
+        FoodItem food = foods.stream().filter(f -> f.getFoodId().equals(foodId)).findFirst().orElseThrow();
+        FoodItemTranslation translation = new FoodItemTranslation();
+        translation.setId(languageCode, food);
+        translation.setName(name);
+        translation.setDescription(description);
+        translations.add(translation);
+    }
+
+    private void build() {
+        when(foodItemRepository.findAll()).thenReturn(foods);
+        when(foodItemTranslationRepository.findAll()).thenReturn(translations);
+        foodSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_beforeBuild_isNotReady() {
+        assertThat(foodSearchIndex.isReady()).isFalse();
+
+        build();
+
+        assertThat(foodSearchIndex.isReady()).isTrue();
+    }
+
+    @Test
+    void search_exactWord_ranksNameAboveDescription() {
+        food(6L, "Mozzarella Sticks", "Fried cheese");
+        build();
+
+        assertThat(foodSearchIndex.search("mozzarella")).containsExactly(6L, 2L, 1L);
+    }
+
+    @Test
+    void search_prefix_matchesWordStarts() {
+        build();
+
+        assertThat(foodSearchIndex.search("piz")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(foodSearchIndex.search("pep piz")).containsExactly(2L);
+    }
+
+    @Test
+    void search_typo_matchesWordsOneEditAway() {
+        build();
+
+        assertThat(foodSearchIndex.search("pizaz")).containsExactlyInAnyOrder(1L, 2L); // swapped letters
+        assertThat(foodSearchIndex.search("tiramiso")).containsExactly(5L); // replaced letter
+        assertThat(foodSearchIndex.search("ceasar salad")).containsExactly(3L);
+        assertThat(foodSearchIndex.search("salsd")).containsExactly(3L);
+        assertThat(foodSearchIndex.search("pzz")).isEmpty(); // too short to guess
+    }
+
+    @Test
+    void search_accentsAndCase_areIgnored() {
+        build();
+
+        assertThat(foodSearchIndex.search("CREME brulee")).containsExactly(4L);
+        assertThat(foodSearchIndex.search("römersalat")).containsExactly(3L);
+        assertThat(foodSearchIndex.search("romersalat")).containsExactly(3L);
+    }
+
+    @Test
+    void search_translations_areIndexed() {
+        build();
+
+        assertThat(foodSearchIndex.search("salat")).containsExactly(3L);
+        assertThat(foodSearchIndex.search("kahveli")).containsExactly(5L);
+    }
+
+    @Test
+    void search_everyWordMustMatch() {
+        build();
+
+        assertThat(foodSearchIndex.search("pizza basil")).containsExactly(1L);
+        assertThat(foodSearchIndex.search("pizza croutons")).isEmpty();
+        assertThat(foodSearchIndex.search("  ,. ")).isEmpty();
+    }
+
+    @Test
+    void withinOneEdit_coversInsertDeleteReplaceAndSwap() {
+        assertThat(FoodSearchIndex.withinOneEdit("pizza", "pizza")).isTrue();
+        assertThat(FoodSearchIndex.withinOneEdit("pizza", "piza")).isTrue();
+        assertThat(FoodSearchIndex.withinOneEdit("piza", "pizza")).isTrue();
+        assertThat(FoodSearchIndex.withinOneEdit("pizza", "pizze")).isTrue();
+        assertThat(FoodSearchIndex.withinOneEdit("pizza", "pizaz")).isTrue();
+        assertThat(FoodSearchIndex.withinOneEdit("pizza", "pazzi")).isFalse();
+        assertThat(FoodSearchIndex.withinOneEdit("pizza", "pi")).isFalse();
+    }
+
+    @Test
+    void tokenize_lowercasesAndStripsAccents() {
+        assertThat(FoodSearchIndex.tokenize("Crème Brûlée, 2x!")).containsExactly("creme", "brulee", "2x");
+        assertThat(FoodSearchIndex.tokenize(null)).isEmpty();
+    }
+}
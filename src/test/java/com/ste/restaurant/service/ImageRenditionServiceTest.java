@@ -0,0 +1,191 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.enums.ImageStatus;
+import com.ste.restaurant.exception.ImageProcessingException;
+import com.ste.restaurant.exception.RateLimitExceededException;
+import com.ste.restaurant.repository.FoodItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageRenditionServiceTest {
+
+    @Mock
+    private FoodItemRepository foodItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageRenditionService imageRenditionService;
+
+    @BeforeEach
+    void setUp() {
+        imageRenditionService = new ImageRenditionService(foodItemRepository, transactionManager,
+                uploadDir + "/", 1, 1, 0.85f);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageRenditionService.shutdownWorkers();
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(Color.ORANGE);
+        g2d.fillRect(0, 0, width / 2, height);
+        g2d.dispose();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
+    private FoodItem pendingFood(String hash) {
+        FoodItem food = new FoodItem();
+        food.setFoodId(1L);
+        food.setImage("old-photo.jpg");
+        food.setPendingImageHash(hash);
+        food.setImageStatus(ImageStatus.PENDING);
+        return food;
+    }
+
+    private int sizeOf(ImageRendition rendition, String hash) throws IOException {
+        BufferedImage image = ImageIO.read(uploadDir.resolve(rendition.fileName(hash)).toFile());
+        assertThat(image.getWidth()).isEqualTo(image.getHeight());
+        return image.getWidth();
+    }
+
+    @Test
+    void renderAll_writesSquareJpegRenditions() throws IOException {
+        imageRenditionService.renderAll(png(1600, 1000), "abc");
+
+        assertThat(sizeOf(ImageRendition.THUMBNAIL, "abc")).isEqualTo(160);
+        assertThat(sizeOf(ImageRendition.CARD, "abc")).isEqualTo(600);
+        assertThat(sizeOf(ImageRendition.FULL, "abc")).isEqualTo(1000); // never upscaled
+        assertThat(imageRenditionService.hasRenditions("abc")).isTrue();
+    }
+
+    @Test
+    void process_switchesFoodToNewRenditions() throws IOException {
+        byte[] bytes = png(800, 800);
+        String hash = ImageRenditionService.hashOf(bytes);
+        FoodItem food = pendingFood(hash);
+        Files.createFile(uploadDir.resolve("old-photo.jpg"));
+        Files.createDirectories(uploadDir.resolve("originals"));
+        Files.write(uploadDir.resolve("originals").resolve(hash), bytes);
+        when(foodItemRepository.findById(1L)).thenReturn(Optional.of(food));
+
+        imageRenditionService.process(1L, hash);
+
+        assertThat(food.getImageStatus()).isEqualTo(ImageStatus.READY);
+        assertThat(food.getImage()).isEqualTo(hash + "-card.jpg");
+        assertThat(food.getImageHash()).isEqualTo(hash);
+        assertThat(food.getPendingImageHash()).isNull();
+        assertThat(uploadDir.resolve("old-photo.jpg")).doesNotExist();
+        assertThat(uploadDir.resolve("originals").resolve(hash)).doesNotExist();
+    }
+
+    @Test
+    void process_undecodableUpload_marksFailedAndKeepsImage() throws IOException {
+        Files.createDirectories(uploadDir.resolve("originals"));
+        Files.write(uploadDir.resolve("originals").resolve("bad"), "not an image".getBytes());
+        FoodItem food = pendingFood("bad");
+        when(foodItemRepository.findById(1L)).thenReturn(Optional.of(food));
+
+        imageRenditionService.process(1L, "bad");
+
+        assertThat(food.getImageStatus()).isEqualTo(ImageStatus.FAILED);
+        assertThat(food.getImage()).isEqualTo("old-photo.jpg");
+        assertThat(food.getPendingImageHash()).isNull();
+    }
+
+    @Test
+    void process_foodGotNewerUpload_discardsRenditions() throws IOException {
+        byte[] bytes = png(400, 400);
+        String hash = ImageRenditionService.hashOf(bytes);
+        Files.createDirectories(uploadDir.resolve("originals"));
+        Files.write(uploadDir.resolve("originals").resolve(hash), bytes);
+        FoodItem food = pendingFood("newer");
+        when(foodItemRepository.findById(1L)).thenReturn(Optional.of(food));
+
+        imageRenditionService.process(1L, hash);
+
+        assertThat(food.getPendingImageHash()).isEqualTo("newer");
+        assertThat(imageRenditionService.hasRenditions(hash)).isFalse();
+        verify(foodItemRepository, never()).save(any());
+    }
+
+    @Test
+    void submit_fullQueue_rejectsUpload() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(foodItemRepository.findById(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        byte[] bytes = png(10, 10);
+
+        // one upload on the single worker, one in the queue of one
+        imageRenditionService.submit(1L, "first", bytes);
+        while (imageRenditionService.queuedImages() > 0) Thread.onSpinWait();
+        imageRenditionService.submit(2L, "second", bytes);
+
+        assertThatThrownBy(() -> imageRenditionService.submit(3L, "third", bytes))
+                .isInstanceOf(RateLimitExceededException.class);
+        release.countDown();
+    }
+
+    @Test
+    void submit_rolledBackTransaction_deletesStoredUpload() throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            imageRenditionService.submit(1L, "rolled-back", png(10, 10));
+            assertThat(uploadDir.resolve("originals").resolve("rolled-back")).exists();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(uploadDir.resolve("originals").resolve("rolled-back")).doesNotExist();
+        assertThat(imageRenditionService.queuedImages()).isZero();
+        verifyNoInteractions(foodItemRepository);
+    }
+
+    @Test
+    void requireReadableImage_rejectsOtherFiles() throws IOException {
+        imageRenditionService.requireReadableImage(png(4, 4));
+
+        assertThatThrownBy(() -> imageRenditionService.requireReadableImage("plain text".getBytes()))
+                .isInstanceOf(ImageProcessingException.class);
+    }
+}
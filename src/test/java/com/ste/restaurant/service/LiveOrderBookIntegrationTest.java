@@ -0,0 +1,163 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.OrderBookReconciliationDto;
+import com.ste.restaurant.dto.OrderDto;
+import com.ste.restaurant.dto.OrderItemDtoBasic;
+import com.ste.restaurant.dto.PlaceOrderDto;
+import com.ste.restaurant.dto.common.StringDto;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.Menu;
+import com.ste.restaurant.entity.TableTop;
+import com.ste.restaurant.entity.User;
+import com.ste.restaurant.entity.enums.TableStatus;
+import com.ste.restaurant.entity.enums.UserRole;
+import com.ste.restaurant.repository.FoodItemRepository;
+import com.ste.restaurant.repository.MenuRepository;
+import com.ste.restaurant.repository.TableTopRepository;
+import com.ste.restaurant.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// not @Transactional, the book only hears about orders once their transaction commits
+@SpringBootTest(properties = "app.orders.live-book.enabled=true")
+@ActiveProfiles("test")
+class LiveOrderBookIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private LiveOrderBookService liveOrderBook;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private TableTopRepository tableTopRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final List<Long> placedOrderIds = Collections.synchronizedList(new ArrayList<>());
+    private ExecutorService executor;
+    private User customer;
+    private User waiter;
+    private FoodItem food;
+    private Menu menu;
+    private TableTop table;
+
+    @BeforeEach
+    void setUp() {
+        String timestamp = String.valueOf(System.nanoTime());
+        executor = Executors.newSingleThreadExecutor();
+
+        customer = userRepository.save(user("book-customer" + timestamp + "@test.com", UserRole.CUSTOMER));
+        waiter = userRepository.save(user("book-waiter" + timestamp + "@test.com", UserRole.WAITER));
+
+        food = new FoodItem();
+        food.setFoodName("Book Soup " + timestamp);
+        food.setPrice(BigDecimal.valueOf(7.25));
+        food = foodItemRepository.save(food);
+
+        menu = new Menu();
+        menu.setMenuName("Book Menu " + timestamp);
+        menu.setActive(true);
+        menu.setFoodItems(new HashSet<>(List.of(food)));
+        menu = menuRepository.save(menu);
+
+        table = new TableTop();
+        table.setTableNumber("B" + timestamp);
+        table.setCapacity(4);
+        table.setTableStatus(TableStatus.AVAILABLE);
+        table = tableTopRepository.save(table);
+
+        // other test classes commit orders with the book switched off, start from the database
+        liveOrderBook.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        for (Long orderId : placedOrderIds) {
+            orderService.deleteOrderById(orderId);
+        }
+        menuRepository.delete(menu);
+        tableTopRepository.delete(table);
+        foodItemRepository.delete(food);
+        userRepository.delete(customer);
+        userRepository.delete(waiter);
+    }
+
+    private User user(String email, UserRole role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName("Book");
+        user.setLastName(role.name());
+        user.setRole(role);
+        user.setPassword(passwordEncoder.encode("TestPass123"));
+        return user;
+    }
+
+    private OrderDto placeOrder() {
+        PlaceOrderDto placing = new PlaceOrderDto();
+        placing.setTableNumber(table.getTableNumber());
+        placing.setOrderItems(new ArrayList<>(List.of(new OrderItemDtoBasic(1, null, food.getFoodName()))));
+        OrderDto placed = orderService.placeOrder(placing, customer.getEmail()).getData();
+        placedOrderIds.add(placed.getOrderId());
+        return placed;
+    }
+
+    @Test
+    @DisplayName("Should follow placed orders and status changes through the service")
+    void shouldFollowPlacedOrdersAndStatusChanges() {
+        OrderDto placed = placeOrder();
+        orderService.updateOrderStatus(placed.getOrderId(), new StringDto("PREPARING"), waiter.getEmail());
+        placeOrder();
+
+        OrderBookReconciliationDto report = liveOrderBook.reconcile();
+
+        assertThat(liveOrderBook.isReady()).isTrue();
+        assertThat(report.isConsistent()).as("missing %s, unexpected %s, mismatched %s",
+                report.getMissingOrderIds(), report.getUnexpectedOrderIds(), report.getMismatchedOrderIds()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep orders placed while the book is rebuilt")
+    void shouldKeepOrdersPlacedDuringRebuild() throws Exception {
+        CountDownLatch placing = new CountDownLatch(1);
+        Future<?> orders = executor.submit(() -> {
+            placing.countDown();
+            for (int i = 0; i < 20; i++) {
+                placeOrder();
+            }
+        });
+
+        placing.await(10, TimeUnit.SECONDS);
+        while (!orders.isDone()) {
+            liveOrderBook.rebuild();
+        }
+        orders.get(10, TimeUnit.SECONDS);
+
+        OrderBookReconciliationDto report = liveOrderBook.reconcile();
+        assertThat(report.isConsistent()).as("missing %s, unexpected %s, mismatched %s",
+                report.getMissingOrderIds(), report.getUnexpectedOrderIds(), report.getMismatchedOrderIds()).isTrue();
+    }
+}
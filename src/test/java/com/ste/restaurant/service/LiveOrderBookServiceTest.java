@@ -0,0 +1,219 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.OrderBookReconciliationDto;
+import com.ste.restaurant.dto.OrderDto;
+import com.ste.restaurant.dto.TableTopDto;
+import com.ste.restaurant.dto.userdto.UserDto;
+import com.ste.restaurant.entity.Order;
+import com.ste.restaurant.entity.TableTop;
+import com.ste.restaurant.entity.User;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.mapper.OrderMapper;
+import com.ste.restaurant.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LiveOrderBookServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    private LiveOrderBookService liveOrderBook;
+
+    private final LocalDateTime today = LocalDate.now().atStartOfDay().plusHours(7);
+
+    @BeforeEach
+    void setUp() {
+        liveOrderBook = new LiveOrderBookService(orderRepository, orderMapper, true);
+        when(orderRepository.findAllByOrderTimeAfter(any())).thenReturn(List.of());
+        when(orderMapper.ordersToOrderDtos(List.of())).thenReturn(List.of());
+        liveOrderBook.rebuild();
+    }
+
+    private OrderDto orderDto(long id, OrderStatus status, LocalDateTime time, String table, String email) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setOrderId(id);
+        orderDto.setStatus(status.name());
+        orderDto.setOrderTime(time);
+        orderDto.setTotalPrice(BigDecimal.valueOf(20));
+        if (table != null) {
+            TableTopDto tableDto = new TableTopDto();
+            tableDto.setTableNumber(table);
+            orderDto.setTable(tableDto);
+        }
+        if (email != null) {
+            UserDto customer = new UserDto();
+            customer.setEmail(email);
+            orderDto.setCustomer(customer);
+        }
+        return orderDto;
+    }
+
+    @Test
+    void isReady_falseWhenDisabled() {
+        LiveOrderBookService disabled = new LiveOrderBookService(orderRepository, orderMapper, false);
+        disabled.rebuild();
+
+        assertThat(disabled.isReady()).isFalse();
+        assertThat(liveOrderBook.isReady()).isTrue();
+    }
+
+    @Test
+    void rebuild_keepsChangesCommittedWhileLoading() {
+        OrderDto placed = orderDto(5L, OrderStatus.PLACED, today, "T1", null);
+        when(orderRepository.findAllByOrderTimeAfter(any())).thenAnswer(invocation -> {
+            liveOrderBook.put(placed); // commits after the read saw the table
+            return List.of();
+        });
+
+        liveOrderBook.rebuild();
+
+        assertThat(liveOrderBook.getOrdersOfTable("T1")).extracting(OrderDto::getOrderId).containsExactly(5L);
+    }
+
+    @Test
+    void put_indexesByStatusTableAndCustomer() {
+        liveOrderBook.put(orderDto(1L, OrderStatus.PLACED, today, "T01", "a@test.com"));
+        liveOrderBook.put(orderDto(2L, OrderStatus.READY, today.plusMinutes(5), "T01", "b@test.com"));
+        liveOrderBook.put(orderDto(3L, OrderStatus.COMPLETED, today.plusMinutes(10), "T02", "a@test.com"));
+
+        assertThat(liveOrderBook.getOrders(List.of(OrderStatus.PLACED, OrderStatus.READY)))
+                .extracting(OrderDto::getOrderId).containsExactly(2L, 1L);
+        assertThat(liveOrderBook.getOrdersOfTable("T01")).hasSize(2);
+        assertThat(liveOrderBook.getLastOrderOf("a@test.com")).map(OrderDto::getOrderId).contains(3L);
+        assertThat(liveOrderBook.getLastOrderOf("nobody@test.com")).isEmpty();
+    }
+
+    @Test
+    void put_replacesPreviousVersionOfOrder() {
+        liveOrderBook.put(orderDto(1L, OrderStatus.PLACED, today, "T01", null));
+        liveOrderBook.put(orderDto(1L, OrderStatus.PREPARING, today, "T02", null));
+
+        assertThat(liveOrderBook.getOrders(List.of(OrderStatus.PLACED))).isEmpty();
+        assertThat(liveOrderBook.getOrders(List.of(OrderStatus.PREPARING))).hasSize(1);
+        assertThat(liveOrderBook.getOrdersOfTable("T01")).isEmpty();
+    }
+
+    @Test
+    void put_ignoresOrdersBeforeWindow() {
+        liveOrderBook.put(orderDto(1L, OrderStatus.PLACED, today.minusDays(1), null, null));
+
+        assertThat(liveOrderBook.getOrders(List.of(OrderStatus.PLACED))).isEmpty();
+    }
+
+    @Test
+    void evict_removesOrder() {
+        liveOrderBook.put(orderDto(1L, OrderStatus.PLACED, today, "T01", "a@test.com"));
+        liveOrderBook.evict(1L);
+
+        assertThat(liveOrderBook.getOrders(List.of(OrderStatus.PLACED))).isEmpty();
+        assertThat(liveOrderBook.getLastOrderOf("a@test.com")).isEmpty();
+    }
+
+    @Test
+    void detachCustomer_clearsCustomerOfOrders() {
+        liveOrderBook.put(orderDto(1L, OrderStatus.PLACED, today, null, "a@test.com"));
+        liveOrderBook.detachCustomer("a@test.com");
+
+        assertThat(liveOrderBook.getLastOrderOf("a@test.com")).isEmpty();
+        assertThat(liveOrderBook.getOrders(List.of(OrderStatus.PLACED)).get(0).getCustomer()).isNull();
+    }
+
+    @Test
+    void getOrders_returnsCopies() {
+        liveOrderBook.put(orderDto(1L, OrderStatus.PLACED, today, null, "a@test.com"));
+
+        liveOrderBook.getLastOrderOf("a@test.com").ifPresent(order -> order.setCustomer(null));
+
+        assertThat(liveOrderBook.getLastOrderOf("a@test.com")).isPresent();
+    }
+
+    @Test
+    void getOrdersPage_sortsAndSlices() {
+        for (long i = 1; i <= 5; i++) {
+            liveOrderBook.put(orderDto(i, OrderStatus.PLACED, today.plusMinutes(i), null, null));
+        }
+
+        Page<OrderDto> page = liveOrderBook.getOrders(List.of(OrderStatus.PLACED),
+                PageRequest.of(1, 2, Sort.by("orderTime")));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(OrderDto::getOrderId).containsExactly(3L, 4L);
+        assertThat(liveOrderBook.canServe(PageRequest.of(0, 2, Sort.by("totalPrice")))).isFalse();
+        assertThat(liveOrderBook.canServe(PageRequest.of(0, 2, Sort.by("orderTime")))).isTrue();
+    }
+
+    @Test
+    void reconcile_reportsDifferencesWithDatabase() {
+        liveOrderBook.put(orderDto(1L, OrderStatus.PLACED, today, "T01", "a@test.com"));
+        liveOrderBook.put(orderDto(2L, OrderStatus.PLACED, today, null, null));
+        liveOrderBook.put(orderDto(3L, OrderStatus.PLACED, today, null, null));
+
+        Order same = order(1L, OrderStatus.PLACED, "T01", "a@test.com");
+        Order changed = order(2L, OrderStatus.READY, null, null);
+        Order notInBook = order(4L, OrderStatus.PLACED, null, null);
+        when(orderRepository.findAllByOrderTimeAfter(any())).thenReturn(List.of(same, changed, notInBook));
+
+        OrderBookReconciliationDto report = liveOrderBook.reconcile();
+
+        assertThat(report.isConsistent()).isFalse();
+        assertThat(report.getBookSize()).isEqualTo(3);
+        assertThat(report.getDatabaseSize()).isEqualTo(3);
+        assertThat(report.getMissingOrderIds()).containsExactly(4L);
+        assertThat(report.getUnexpectedOrderIds()).containsExactly(3L);
+        assertThat(report.getMismatchedOrderIds()).containsExactly(2L);
+    }
+
+    @Test
+    void reconcile_consistentAfterRebuild() {
+        Order order = order(1L, OrderStatus.PLACED, "T01", "a@test.com");
+        OrderDto mapped = orderDto(1L, OrderStatus.PLACED, today, "T01", "a@test.com");
+        when(orderRepository.findAllByOrderTimeAfter(any())).thenReturn(List.of(order));
+        when(orderMapper.ordersToOrderDtos(List.of(order))).thenReturn(List.of(mapped));
+
+        liveOrderBook.rebuild();
+
+        assertThat(liveOrderBook.reconcile().isConsistent()).isTrue();
+        assertThat(liveOrderBook.getOrdersOfTable("T01")).extracting(OrderDto::getOrderId).containsExactly(1L);
+        assertThat(liveOrderBook.getLastOrderOf("a@test.com")).map(OrderDto::getOrderId).isEqualTo(Optional.of(1L));
+    }
+
+    private Order order(long id, OrderStatus status, String tableNumber, String email) {
+        Order order = new Order();
+        order.setOrderId(id);
+        order.setStatus(status);
+        order.setOrderTime(today);
+        order.setTotalPrice(new BigDecimal("20.00"));
+        if (tableNumber != null) {
+            TableTop table = new TableTop();
+            table.setTableNumber(tableNumber);
+            order.setTable(table);
+        }
+        if (email != null) {
+            User customer = new User();
+            customer.setEmail(email);
+            order.setCustomer(customer);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MediaFileServiceTest {
+
+    private static final String HASH = "0123456789abcdef0123456789abcdef";
+
+    @TempDir
+    Path uploadDir;
+
+    @TempDir
+    Path qrCodeDir;
+
+    private MediaFileService mediaFileService;
+
+    @BeforeEach
+    void setUp() {
+        mediaFileService = new MediaFileService(uploadDir.toString(), qrCodeDir.toString(), 100, 250);
+    }
+
+    private Path write(Path dir, String name, int size) throws IOException {
+        return Files.write(dir.resolve(name), new byte[size]);
+    }
+
+    @Test
+    void resolve_hashNamedRendition_isFingerprinted() throws IOException {
+        write(uploadDir, HASH + "-card.jpg", 10);
+        write(uploadDir, "legacy_photo.jpg", 10);
+
+        MediaFileService.MediaFile rendition = mediaFileService.resolve(MediaFileService.Directory.IMAGES, HASH + "-card.jpg", null);
+        MediaFileService.MediaFile legacy = mediaFileService.resolve(MediaFileService.Directory.IMAGES, "legacy_photo.jpg", null);
+
+        assertThat(rendition.isFingerprinted()).isTrue();
+        assertThat(rendition.getContentType()).isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(rendition.getLength()).isEqualTo(10);
+        assertThat(legacy.isFingerprinted()).isFalse();
+    }
+
+    @Test
+    void resolve_usesDirectoryOfTheRoute() throws IOException {
+        write(qrCodeDir, "table_1.png", 10);
+
+        assertThat(mediaFileService.resolve(MediaFileService.Directory.QR_CODES, "table_1.png", null).getContentType())
+                .isEqualTo(MediaType.IMAGE_PNG);
+        assertThatThrownBy(() -> mediaFileService.resolve(MediaFileService.Directory.IMAGES, "table_1.png", null))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void resolve_outsideDirectoryOrHidden_throwsNotFound() throws IOException {
+        write(uploadDir, ".tmp-upload.jpg", 10);
+        Files.createDirectory(uploadDir.resolve("originals"));
+
+        assertThatThrownBy(() -> mediaFileService.resolve(MediaFileService.Directory.IMAGES, "..", null))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> mediaFileService.resolve(MediaFileService.Directory.IMAGES, "../secret.jpg", null))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> mediaFileService.resolve(MediaFileService.Directory.IMAGES, ".tmp-upload.jpg", null))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> mediaFileService.resolve(MediaFileService.Directory.IMAGES, "originals", null))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void resolve_precompressedVariant_servedWhenAcceptedAndCurrent() throws IOException {
+        Path original = write(uploadDir, "menu.svg", 50);
+        Path gzip = write(uploadDir, "menu.svg.gz", 20);
+        Files.setLastModifiedTime(original, FileTime.fromMillis(1_000_000));
+        Files.setLastModifiedTime(gzip, FileTime.fromMillis(2_000_000));
+
+        MediaFileService.MediaFile compressed = mediaFileService.resolve(MediaFileService.Directory.IMAGES, "menu.svg", "br;q=0, gzip");
+        MediaFileService.MediaFile plain = mediaFileService.resolve(MediaFileService.Directory.IMAGES, "menu.svg", "identity");
+
+        assertThat(compressed.getContentEncoding()).isEqualTo("gzip");
+        assertThat(compressed.getLength()).isEqualTo(20);
+        assertThat(compressed.getContentType().toString()).isEqualTo("image/svg+xml");
+        assertThat(plain.getContentEncoding()).isNull();
+        assertThat(compressed.getEtag()).isNotEqualTo(plain.getEtag());
+
+        // the original was replaced after the variant was written
+        Files.setLastModifiedTime(original, FileTime.fromMillis(3_000_000));
+        assertThat(mediaFileService.resolve(MediaFileService.Directory.IMAGES, "menu.svg", "gzip").getContentEncoding()).isNull();
+    }
+
+    @Test
+    void resolve_changedFile_getsNewEtagAndContent() throws IOException {
+        Path file = write(uploadDir, "logo.png", 10);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+        MediaFileService.MediaFile before = mediaFileService.resolve(MediaFileService.Directory.IMAGES, "logo.png", null);
+
+        Files.write(file, new byte[12]);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+        MediaFileService.MediaFile after = mediaFileService.resolve(MediaFileService.Directory.IMAGES, "logo.png", null);
+
+        assertThat(after.getEtag()).isNotEqualTo(before.getEtag());
+        assertThat(mediaFileService.content(after)).hasSize(12);
+    }
+
+    @Test
+    void resolve_readsAttributesOnly() throws IOException {
+        write(uploadDir, "logo.png", 10);
+
+        mediaFileService.resolve(MediaFileService.Directory.IMAGES, "logo.png", null);
+
+        // a revalidation that ends in 304 never loads the file
+        assertThat(mediaFileService.cachedBytes()).isZero();
+    }
+
+    @Test
+    void resolve_cache_holdsSmallFilesWithinByteLimit() throws IOException {
+        write(uploadDir, "large.jpg", 101);
+        for (int i = 0; i < 4; i++) {
+            write(uploadDir, "small" + i + ".jpg", 100);
+        }
+
+        assertThat(mediaFileService.content(
+                mediaFileService.resolve(MediaFileService.Directory.IMAGES, "large.jpg", null))).isNull();
+        for (int i = 0; i < 4; i++) {
+            assertThat(mediaFileService.content(
+                    mediaFileService.resolve(MediaFileService.Directory.IMAGES, "small" + i + ".jpg", null))).hasSize(100);
+        }
+
+        assertThat(mediaFileService.cachedBytes()).isEqualTo(200);
+    }
+
+    @Test
+    void accepts_honoursZeroQuality() {
+        assertThat(MediaFileService.accepts("gzip, deflate, br", "br")).isTrue();
+        assertThat(MediaFileService.accepts("GZIP;q=0.5", "gzip")).isTrue();
+        assertThat(MediaFileService.accepts("gzip;q=0", "gzip")).isFalse();
+        assertThat(MediaFileService.accepts("gzip; q=0.000", "gzip")).isFalse();
+        assertThat(MediaFileService.accepts("gzip", "br")).isFalse();
+        assertThat(MediaFileService.accepts(null, "gzip")).isFalse();
+    }
+}
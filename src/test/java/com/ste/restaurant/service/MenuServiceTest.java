@@ -42,6 +42,9 @@ class MenuServiceTest {
     @Mock
     private LanguageService languageService;
 
+    @Mock
+    private MenuChangeTracker menuChangeTracker;
+
     @InjectMocks
     private MenuService menuService;
 
@@ -355,6 +358,7 @@ class MenuServiceTest {
         assertThat(result.getWarnings()).isEmpty();
         assertThat(result.getData().get(0).getMenuName()).isEqualTo("Lunch Menu");
         verify(menuRepository).deactivateAll();
+        verify(menuChangeTracker).menuChanged();
         verify(menuRepository).findByMenuName("Lunch Menu");
         verify(menuRepository).save(testMenu);
         verify(orderMapper).menuToMenuDto(testMenu);
@@ -408,9 +412,7 @@ class MenuServiceTest {
     @Test
     void getActiveMenu_success() {
         // Arrange
-        testMenu.setActive(true);
-        List<Menu> activeMenus = Arrays.asList(testMenu);
-        when(menuRepository.findAllByActive(true)).thenReturn(activeMenus);
+        when(foodItemRepository.findAllInActiveMenus()).thenReturn(List.of(testFoodItem));
         FoodItemMenuDto foodItemMenuDto = new FoodItemMenuDto();
         when(orderMapper.foodItemToFoodItemMenuDto(testFoodItem)).thenReturn(foodItemMenuDto);
         when(languageService.countDistinctLanguages()).thenReturn(1L);
@@ -424,7 +426,7 @@ class MenuServiceTest {
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getCategoryName()).isEqualTo("Main Course");
         assertThat(result.get(0).getFoodItems()).hasSize(1);
-        verify(menuRepository).findAllByActive(true);
+        verify(foodItemRepository).findAllInActiveMenus();
         verify(orderMapper).foodItemToFoodItemMenuDto(testFoodItem);
         verify(languageService).countDistinctLanguages();
         verify(languageService).existsByLanguageCode("en");
@@ -433,13 +435,10 @@ class MenuServiceTest {
     @Test
     void getActiveMenu_withImagePath() {
         // Arrange
-        testMenu.setActive(true);
         testFoodItem.setImage("pizza.jpg");
-        List<Menu> activeMenus = Arrays.asList(testMenu);
-        
         FoodItemMenuDto foodItemMenuDto = new FoodItemMenuDto();
-        
-        when(menuRepository.findAllByActive(true)).thenReturn(activeMenus);
+
+        when(foodItemRepository.findAllInActiveMenus()).thenReturn(List.of(testFoodItem));
         when(orderMapper.foodItemToFoodItemMenuDto(testFoodItem)).thenReturn(foodItemMenuDto);
         when(languageService.countDistinctLanguages()).thenReturn(1L);
         when(languageService.existsByLanguageCode("en")).thenReturn(true);
@@ -451,7 +450,7 @@ class MenuServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
         // The image path should be modified by the service
-        verify(menuRepository).findAllByActive(true);
+        verify(foodItemRepository).findAllInActiveMenus();
         verify(orderMapper).foodItemToFoodItemMenuDto(testFoodItem);
         verify(languageService).countDistinctLanguages();
         verify(languageService).existsByLanguageCode("en");
@@ -460,7 +459,7 @@ class MenuServiceTest {
     @Test
     void getActiveMenu_noActiveMenus() {
         // Arrange
-        when(menuRepository.findAllByActive(true)).thenReturn(Collections.emptyList());
+        when(foodItemRepository.findAllInActiveMenus()).thenReturn(Collections.emptyList());
         when(languageService.countDistinctLanguages()).thenReturn(1L);
         when(languageService.existsByLanguageCode("en")).thenReturn(true);
 
@@ -470,7 +469,7 @@ class MenuServiceTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
-        verify(menuRepository).findAllByActive(true);
+        verify(foodItemRepository).findAllInActiveMenus();
         verify(languageService).countDistinctLanguages();
         verify(languageService).existsByLanguageCode("en");
     }
@@ -0,0 +1,106 @@
+package com.ste.restaurant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ste.restaurant.dto.CategoryMenuDto;
+import com.ste.restaurant.dto.FoodItemMenuDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuSnapshotServiceTest {
+
+    @Mock
+    private MenuService menuService;
+
+    @Mock
+    private LanguageService languageService;
+
+    @Mock
+    private MenuChangeTracker menuChangeTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MenuSnapshotService menuSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        menuSnapshotService = new MenuSnapshotService(menuService, languageService, menuChangeTracker,
+                new ObjectMapper(), transactionManager);
+    }
+
+    private List<CategoryMenuDto> menu(String foodName) {
+        FoodItemMenuDto food = new FoodItemMenuDto();
+        food.setFoodName(foodName);
+        food.setPrice(BigDecimal.TEN);
+        return List.of(new CategoryMenuDto("Main", Set.of(food)));
+    }
+
+    @Test
+    void getSnapshot_reusesSnapshotWhileVersionUnchanged() {
+        when(menuChangeTracker.currentVersion()).thenReturn(1L);
+        when(languageService.getSupportedLanguages()).thenReturn(List.of("en", "tr"));
+        when(menuService.buildActiveMenu("tr")).thenReturn(menu("Pide"));
+
+        MenuSnapshotService.MenuSnapshot first = menuSnapshotService.getSnapshot("tr");
+        MenuSnapshotService.MenuSnapshot second = menuSnapshotService.getSnapshot("tr");
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.getJson(), StandardCharsets.UTF_8)).contains("\"foodName\":\"Pide\"");
+        assertThat(first.getEtag()).startsWith("\"").endsWith("\"");
+        verify(menuService, times(1)).buildActiveMenu("tr");
+        verify(languageService, times(1)).getSupportedLanguages();
+    }
+
+    @Test
+    void getSnapshot_rebuildsAfterChange() {
+        when(menuChangeTracker.currentVersion()).thenReturn(1L, 2L);
+        when(languageService.getSupportedLanguages()).thenReturn(List.of("en"));
+        when(menuService.buildActiveMenu("en")).thenReturn(menu("Pizza"), menu("Pasta"));
+
+        MenuSnapshotService.MenuSnapshot before = menuSnapshotService.getSnapshot("en");
+        MenuSnapshotService.MenuSnapshot after = menuSnapshotService.getSnapshot("en");
+
+        assertThat(after.getVersion()).isEqualTo(2L);
+        assertThat(after.getEtag()).isNotEqualTo(before.getEtag());
+    }
+
+    @Test
+    void getSnapshot_unchangedContentKeepsEtag() {
+        when(menuChangeTracker.currentVersion()).thenReturn(1L, 2L);
+        when(languageService.getSupportedLanguages()).thenReturn(List.of("en"));
+        when(menuService.buildActiveMenu("en")).thenReturn(menu("Pizza"), menu("Pizza"));
+
+        String before = menuSnapshotService.getSnapshot("en").getEtag();
+        String after = menuSnapshotService.getSnapshot("en").getEtag();
+
+        assertThat(after).isEqualTo(before);
+        verify(menuService, times(2)).buildActiveMenu("en");
+    }
+
+    @Test
+    void getSnapshot_unknownLanguageSharesEnglishSnapshot() {
+        when(menuChangeTracker.currentVersion()).thenReturn(1L);
+        when(languageService.getSupportedLanguages()).thenReturn(List.of("en", "tr"));
+        when(menuService.buildActiveMenu("en")).thenReturn(menu("Pizza"));
+
+        MenuSnapshotService.MenuSnapshot unknown = menuSnapshotService.getSnapshot("en-US,en;q=0.9");
+        MenuSnapshotService.MenuSnapshot english = menuSnapshotService.getSnapshot("en");
+
+        assertThat(unknown).isSameAs(english);
+        assertThat(unknown.getLanguage()).isEqualTo("en");
+        verify(menuService, never()).buildActiveMenu("en-US,en;q=0.9");
+    }
+}
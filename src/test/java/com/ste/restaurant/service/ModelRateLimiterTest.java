@@ -0,0 +1,88 @@
+package com.ste.restaurant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ModelRateLimiterTest {
+
+    private static final String MODEL = "gemini-2.5-flash-lite";
+
+    private long now;
+    private long slept;
+    private ModelRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.ai.rate-limit." + MODEL + ".requests-per-minute", "60")
+                .withProperty("app.ai.rate-limit." + MODEL + ".burst", "2");
+        // sleeping moves the fake clock, so acquire returns once enough time has "passed"
+        rateLimiter = new ModelRateLimiter(environment, () -> now, nanos -> {
+            now += nanos;
+            slept += nanos;
+        });
+    }
+
+    @Test
+    void acquire_allowsBurstThenPacesAtConfiguredRate() {
+        rateLimiter.acquire(MODEL);
+        rateLimiter.acquire(MODEL);
+        assertThat(slept).isZero();
+
+        rateLimiter.acquire(MODEL);
+        assertThat((double) slept).isCloseTo(TimeUnit.SECONDS.toNanos(1), within(1e6));
+    }
+
+    @Test
+    void onRateLimited_halvesRateAndWaitsForRetryDelay() {
+        rateLimiter.acquire(MODEL);
+        rateLimiter.onRateLimited(MODEL, Duration.ofSeconds(30));
+
+        assertThat(rateLimiter.currentRequestsPerMinute(MODEL)).isCloseTo(30, within(0.01));
+
+        rateLimiter.acquire(MODEL);
+        // the retry delay, then one token at 30 per minute
+        assertThat((double) slept).isCloseTo(TimeUnit.SECONDS.toNanos(32), within(1e6));
+    }
+
+    @Test
+    void onSuccess_recoversRateAdditivelyUpToConfigured() {
+        rateLimiter.onRateLimited(MODEL, null);
+        rateLimiter.onRateLimited(MODEL, null);
+        assertThat(rateLimiter.currentRequestsPerMinute(MODEL)).isCloseTo(15, within(0.01));
+
+        rateLimiter.onSuccess(MODEL);
+        assertThat(rateLimiter.currentRequestsPerMinute(MODEL)).isCloseTo(18, within(0.01));
+
+        for (int i = 0; i < 100; i++) rateLimiter.onSuccess(MODEL);
+        assertThat(rateLimiter.currentRequestsPerMinute(MODEL)).isCloseTo(60, within(0.01));
+    }
+
+    @Test
+    void onRateLimited_neverDropsBelowFloor() {
+        for (int i = 0; i < 20; i++) rateLimiter.onRateLimited(MODEL, null);
+
+        assertThat(rateLimiter.currentRequestsPerMinute(MODEL)).isCloseTo(60 / 16.0, within(0.01));
+    }
+
+    @Test
+    void unconfiguredModelUsesDefaults() {
+        assertThat(rateLimiter.currentRequestsPerMinute("gemini-2.5-flash")).isCloseTo(10, within(0.01));
+    }
+
+    @Test
+    void retryAfterOf_readsProviderHints() {
+        assertThat(ModelRateLimiter.retryAfterOf("429 Quota exceeded. Please retry in 23.5s."))
+                .isEqualTo(Duration.ofMillis(23500));
+        assertThat(ModelRateLimiter.retryAfterOf("{\"retryDelay\": \"41s\"}")).isEqualTo(Duration.ofSeconds(41));
+        assertThat(ModelRateLimiter.retryAfterOf("429 Too Many Requests")).isNull();
+        assertThat(ModelRateLimiter.retryAfterOf(null)).isNull();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.OrderBoardEventDto;
+import com.ste.restaurant.dto.OrderDto;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.entity.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class OrderBoardServiceTest {
+
+    private OrderBoardService orderBoardService;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        orderBoardService = new OrderBoardService(3, 4, 60_000L, 1, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderBoardService.shutdownDispatcher();
+    }
+
+    private OrderDto order(long id, OrderStatus status) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setOrderId(id);
+        orderDto.setStatus(status.name());
+        return orderDto;
+    }
+
+    @Test
+    void publish_assignsIncreasingSequence() {
+        orderBoardService.publish(OrderBoardService.EventType.PLACED, order(1L, OrderStatus.PLACED), null);
+        orderBoardService.publish(OrderBoardService.EventType.STATUS_CHANGED,
+                order(1L, OrderStatus.PREPARING), OrderStatus.PLACED);
+
+        List<OrderBoardEventDto> events = orderBoardService.eventsSince(0, UserRole.WAITER);
+
+        assertThat(orderBoardService.currentSequence()).isEqualTo(2);
+        assertThat(events).extracting(OrderBoardEventDto::getSequence).containsExactly(1L, 2L);
+        assertThat(events.get(1).getPreviousStatus()).isEqualTo("PLACED");
+        assertThat(orderBoardService.eventsSince(1, UserRole.WAITER)).hasSize(1);
+    }
+
+    @Test
+    void eventsSince_filtersByRoleWindow() {
+        orderBoardService.publish(OrderBoardService.EventType.STATUS_CHANGED,
+                order(1L, OrderStatus.DELIVERED), OrderStatus.READY);
+        orderBoardService.publish(OrderBoardService.EventType.STATUS_CHANGED,
+                order(1L, OrderStatus.COMPLETED), OrderStatus.DELIVERED);
+
+        // chef sees the order leaving ready, but not what happens after
+        assertThat(orderBoardService.eventsSince(0, UserRole.CHEF))
+                .extracting(OrderBoardEventDto::getSequence).containsExactly(1L);
+        // waiter sees both, the second one drops the order from the board
+        assertThat(orderBoardService.eventsSince(0, UserRole.WAITER)).hasSize(2);
+    }
+
+    @Test
+    void canResumeFrom_onlyWhileEventsAreBuffered() {
+        for (long i = 1; i <= 5; i++) {
+            orderBoardService.publish(OrderBoardService.EventType.PLACED, order(i, OrderStatus.PLACED), null);
+        }
+
+        // replay size is 3, so events 3..5 are kept
+        assertThat(orderBoardService.canResumeFrom(5)).isTrue();
+        assertThat(orderBoardService.canResumeFrom(2)).isTrue();
+        assertThat(orderBoardService.canResumeFrom(1)).isFalse();
+        assertThat(orderBoardService.canResumeFrom(9)).isFalse();
+    }
+
+    @Test
+    void subscribe_withUnknownEventId_loadsSnapshot() {
+        orderBoardService.publish(OrderBoardService.EventType.PLACED, order(1L, OrderStatus.PLACED), null);
+        AtomicInteger snapshotLoads = new AtomicInteger();
+
+        SseEmitter emitter = orderBoardService.subscribe(UserRole.CHEF, 42L, () -> {
+            snapshotLoads.incrementAndGet();
+            return List.of(order(1L, OrderStatus.PLACED));
+        });
+
+        assertThat(emitter).isNotNull();
+        assertThat(snapshotLoads.get()).isEqualTo(1);
+        assertThat(orderBoardService.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void subscribe_loadsSnapshotInReadOnlyTransaction() {
+        orderBoardService.subscribe(UserRole.WAITER, null, List::of);
+
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+    }
+
+    @Test
+    void subscribe_withBufferedEventId_skipsSnapshot() {
+        orderBoardService.publish(OrderBoardService.EventType.PLACED, order(1L, OrderStatus.PLACED), null);
+        AtomicInteger snapshotLoads = new AtomicInteger();
+
+        orderBoardService.subscribe(UserRole.WAITER, 1L, () -> {
+            snapshotLoads.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(snapshotLoads.get()).isZero();
+    }
+
+    @Test
+    void publish_overflowingSlowSubscriber_keepsPublishing() {
+        orderBoardService.subscribe(UserRole.WAITER, null, List::of);
+
+        // far more events than the queue holds, the backlog is dropped for a resync
+        for (long i = 1; i <= 50; i++) {
+            orderBoardService.publish(OrderBoardService.EventType.PLACED, order(i, OrderStatus.PLACED), null);
+        }
+
+        assertThat(orderBoardService.currentSequence()).isEqualTo(50);
+        assertThat(orderBoardService.subscriberCount()).isEqualTo(1);
+    }
+}
@@ -1,6 +1,7 @@
 package com.ste.restaurant.service;
 
 import com.ste.restaurant.dto.*;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.dto.common.WarningResponse;
 import com.ste.restaurant.entity.*;
@@ -9,6 +10,10 @@ import com.ste.restaurant.entity.enums.TableStatus;
 import com.ste.restaurant.entity.enums.UserRole;
 import com.ste.restaurant.exception.*;
 import com.ste.restaurant.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,6 +23,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
@@ -76,6 +82,12 @@ public class OrderServiceIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private OrderStatusHistoryService statusHistory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private User testCustomer;
     private User testWaiter;
     private User testChef;
@@ -369,7 +381,7 @@ public class OrderServiceIntegrationTest {
             statusDto.setName("PREPARING");
             
             // When
-            OrderDto updatedOrder = orderService.updateOrderStatus(testOrder.getOrderId(), statusDto);
+            OrderDto updatedOrder = orderService.updateOrderStatus(testOrder.getOrderId(), statusDto, "waiter@test.com");
             
             // Then
             assertThat(updatedOrder.getStatus()).isEqualTo("PREPARING");
@@ -379,6 +391,24 @@ public class OrderServiceIntegrationTest {
             assertThat(dbOrder.getStatus()).isEqualTo(OrderStatus.PREPARING);
         }
 
+        @Test
+        @DisplayName("Should log every status change with its actor")
+        void shouldLogStatusChangesWithActor() {
+            // When
+            orderService.updateOrderStatus(testOrder.getOrderId(), new StringDto("PREPARING"), testChef.getEmail());
+            orderService.updateOrderStatus(testOrder.getOrderId(), new StringDto("READY"), testChef.getEmail());
+            orderService.cancelOrderIfNotReady(testOrder.getOrderId(), testWaiter.getEmail());
+
+            // Then
+            List<OrderStatusChangeDto> history = statusHistory.getHistory(testOrder.getOrderId());
+            assertThat(history).extracting(OrderStatusChangeDto::getToStatus)
+                    .containsExactly("PREPARING", "READY", "CANCELLED");
+            assertThat(history).extracting(OrderStatusChangeDto::getFromStatus)
+                    .containsExactly("PLACED", "PREPARING", "READY");
+            assertThat(history).extracting(OrderStatusChangeDto::getActor)
+                    .containsExactly(testChef.getEmail(), testChef.getEmail(), testWaiter.getEmail());
+        }
+
         @Test
         @DisplayName("Should throw exception when setting same status")
         void shouldThrowExceptionWhenSettingSameStatus() {
@@ -387,7 +417,7 @@ public class OrderServiceIntegrationTest {
             statusDto.setName("PLACED"); // Same as current status
             
             // When & Then
-            assertThatThrownBy(() -> orderService.updateOrderStatus(testOrder.getOrderId(), statusDto))
+            assertThatThrownBy(() -> orderService.updateOrderStatus(testOrder.getOrderId(), statusDto, "waiter@test.com"))
                     .isInstanceOf(AlreadyHasException.class)
                     .hasMessageContaining("PLACED");
         }
@@ -400,7 +430,7 @@ public class OrderServiceIntegrationTest {
             statusDto.setName("INVALID_STATUS");
             
             // When & Then
-            assertThatThrownBy(() -> orderService.updateOrderStatus(testOrder.getOrderId(), statusDto))
+            assertThatThrownBy(() -> orderService.updateOrderStatus(testOrder.getOrderId(), statusDto, "waiter@test.com"))
                     .isInstanceOf(InvalidValueException.class)
                     .hasMessageContaining("INVALID_STATUS");
         }
@@ -420,7 +450,7 @@ public class OrderServiceIntegrationTest {
             BigDecimal expectedTotal = testOrder.getTotalPrice().add(additionalOrder.getTotalPrice());
             
             // When
-            OrderDto updatedOrder = orderService.updateOrderStatus(testOrder.getOrderId(), statusDto);
+            OrderDto updatedOrder = orderService.updateOrderStatus(testOrder.getOrderId(), statusDto, "waiter@test.com");
             
             // Then
             assertThat(updatedOrder.getStatus()).isEqualTo("DELIVERED");
@@ -765,6 +795,185 @@ public class OrderServiceIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Keyset Scrolling Integration Tests")
+    class KeysetScrollingIntegrationTests {
+
+        @Test
+        @DisplayName("Should hand out every order exactly once, newest first, across equal order times")
+        void shouldWalkAllOrdersWithoutGapsOrRepeats() {
+            // Given - orders sharing order times, so the id has to break ties
+            LocalDateTime base = LocalDateTime.now().minusDays(1).withNano(0);
+            for (int i = 0; i < 25; i++) {
+                Order order = createTestOrderForTableAndCustomer(testCustomer, testTable);
+                order.setOrderTime(base.minusMinutes(i / 3));
+                orderRepository.save(order);
+            }
+            entityManager.flush();
+            List<Long> expected = orderRepository.findAll(Sort.by(Sort.Order.desc("orderTime"), Sort.Order.desc("orderId")))
+                    .stream().map(Order::getOrderId).toList();
+
+            // When
+            List<Long> walked = new ArrayList<>();
+            CursorPageDto<OrderDto> page = orderService.scrollOrders(null, 7, true);
+            assertThat(page.getTotalElements()).isEqualTo(expected.size());
+            while (true) {
+                page.getContent().forEach(order -> walked.add(order.getOrderId()));
+                if (page.getNextCursor() == null) break;
+                page = orderService.scrollOrders(page.getNextCursor(), 7, false);
+                assertThat(page.getTotalElements()).isNull();
+            }
+
+            // Then
+            assertThat(walked).containsExactlyElementsOf(expected);
+        }
+
+        @Test
+        @DisplayName("Should keep its place when rows are added in front of the cursor")
+        void shouldBeStableUnderInserts() {
+            for (int i = 0; i < 5; i++) {
+                Order order = createTestOrderForTableAndCustomer(testCustomer, testTable);
+                order.setOrderTime(LocalDateTime.now().minusHours(i + 1));
+                orderRepository.save(order);
+            }
+            CursorPageDto<OrderDto> first = orderService.scrollOrders(null, 2, false);
+
+            orderRepository.save(createTestOrderForTableAndCustomer(testCustomer, testTable));
+            CursorPageDto<OrderDto> second = orderService.scrollOrders(first.getNextCursor(), 2, false);
+
+            assertThat(second.getContent()).extracting(OrderDto::getOrderId)
+                    .doesNotContainAnyElementsOf(first.getContent().stream().map(OrderDto::getOrderId).toList());
+        }
+    }
+
+    @Nested
+    @DisplayName("Order Placement Statement Count Tests")
+    class OrderPlacementStatementCountTests {
+
+        @Test
+        @DisplayName("Should resolve order lines without per-line lookups at 1, 10 and 50 lines")
+        void shouldResolveOrderLinesWithoutPerLineLookups() {
+            // Given - 50 distinct foods on an active menu
+            List<FoodItem> foods = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                foods.add(foodItemRepository.save(
+                        createTestFoodItem("Bench" + i + "_" + timestamp, "Benchmark food", BigDecimal.valueOf(5 + i))));
+            }
+            Menu menu = new Menu();
+            menu.setMenuName("Bench Menu " + timestamp);
+            menu.setActive(true);
+            menu.setFoodItems(new HashSet<>(foods));
+            menuRepository.save(menu);
+            entityManager.flush();
+            entityManager.clear();
+
+            Statistics statistics = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+
+            Map<Integer, Long> statementsByLines = new LinkedHashMap<>();
+            for (int lines : new int[]{1, 10, 50}) {
+                PlaceOrderDto placeOrderDto = new PlaceOrderDto();
+                placeOrderDto.setTableNumber(testTable.getTableNumber());
+                List<OrderItemDtoBasic> items = new ArrayList<>();
+                for (int i = 0; i < lines; i++) {
+                    items.add(new OrderItemDtoBasic(1, null, foods.get(i).getFoodName()));
+                }
+                placeOrderDto.setOrderItems(items);
+
+                statistics.clear();
+                WarningResponse<OrderDto> response = orderService.placeOrder(placeOrderDto, testCustomer.getEmail());
+                entityManager.flush();
+                entityManager.clear();
+
+                assertThat(response.getWarnings()).isEmpty();
+                assertThat(response.getData().getOrderItems()).hasSize(lines);
+
+                statementsByLines.put(lines, statistics.getPrepareStatementCount());
+            }
+            statistics.setStatisticsEnabled(false);
+
+            // Lookups are constant; only the order item inserts grow with the number of lines
+            assertThat(statementsByLines.get(10) - statementsByLines.get(1)).isLessThanOrEqualTo(9);
+            assertThat(statementsByLines.get(50) - statementsByLines.get(1)).isLessThanOrEqualTo(49);
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Insert Tests")
+    class BatchInsertTests {
+
+        @Test
+        @DisplayName("Should batch order item inserts when placing orders")
+        void shouldBatchOrderItemInserts() {
+            // Given - 50 distinct foods on an active menu
+            List<FoodItem> foods = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                foods.add(createTestFoodItem("Batch" + i + "_" + timestamp, "Benchmark food", BigDecimal.valueOf(5 + i)));
+            }
+            foodItemRepository.saveAll(foods);
+            Menu menu = new Menu();
+            menu.setMenuName("Batch Menu " + timestamp);
+            menu.setActive(true);
+            menu.setFoodItems(new HashSet<>(foods));
+            menuRepository.save(menu);
+            entityManager.flush();
+            entityManager.clear();
+
+            Statistics statistics = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            statistics.clear();
+
+            int orders = 20;
+            for (int n = 0; n < orders; n++) {
+                PlaceOrderDto placeOrderDto = new PlaceOrderDto();
+                placeOrderDto.setTableNumber(testTable.getTableNumber());
+                List<OrderItemDtoBasic> items = new ArrayList<>();
+                for (FoodItem food : foods) {
+                    items.add(new OrderItemDtoBasic(1, null, food.getFoodName()));
+                }
+                placeOrderDto.setOrderItems(items);
+                orderService.placeOrder(placeOrderDto, testCustomer.getEmail());
+                entityManager.flush();
+                entityManager.clear();
+            }
+            long inserted = statistics.getEntityInsertCount();
+            long statements = statistics.getPrepareStatementCount();
+            statistics.setStatisticsEnabled(false);
+
+            // order, 50 lines and the status log row; without batching that alone is 52 statements per order
+            assertThat(inserted).isEqualTo(orders * 52L);
+            assertThat(statements).isLessThan(orders * 20L);
+        }
+
+        @Test
+        @DisplayName("Should batch bulk inserts through saveAll")
+        void shouldBatchBulkSaveAll() {
+            Statistics statistics = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            statistics.clear();
+
+            int rows = 5_000;
+            List<Address> addresses = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                Address address = new Address();
+                address.setName("Seed Address " + i + "_" + timestamp);
+                address.setCity("Istanbul");
+                addresses.add(address);
+            }
+            addressRepository.saveAll(addresses);
+            entityManager.flush();
+            long statements = statistics.getPrepareStatementCount();
+            statistics.setStatisticsEnabled(false);
+            entityManager.clear();
+
+            // one insert per batch of 50 and one sequence call per 50 ids
+            assertThat(statements).isLessThanOrEqualTo(rows / 50 * 2 + 2);
+        }
+    }
+
     // Helper methods for test data creation
     private void setupTestUsers() {
         testCustomer = createTestUser("customer" + timestamp + "@test.com", "Test", "Customer", UserRole.CUSTOMER);
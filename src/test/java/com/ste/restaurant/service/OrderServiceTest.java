@@ -1,6 +1,7 @@
 package com.ste.restaurant.service;
 
 import com.ste.restaurant.dto.*;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.dto.common.WarningResponse;
 import com.ste.restaurant.entity.*;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -57,6 +59,21 @@ class OrderServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private OrderBoardService orderBoardService;
+
+    @Mock
+    private LiveOrderBookService liveOrderBook;
+
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
+    @Mock
+    private CustomerActivityService customerActivity;
+
+    @Mock
+    private OrderStatusHistoryService statusHistory;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -290,6 +307,7 @@ class OrderServiceTest {
         verify(orderRepository).findById(1L);
         verify(orderRepository).delete(testOrder);
         verify(orderMapper).orderToOrderDto(testOrder);
+        verify(customerActivity).ordersRemoved(testOrder.getCustomer());
     }
 
     @Test
@@ -301,13 +319,47 @@ class OrderServiceTest {
         when(orderMapper.orderToOrderDto(testOrder)).thenReturn(testOrderDto);
 
         // Act
-        OrderDto result = orderService.updateOrderStatus(1L, statusDto);
+        OrderDto result = orderService.updateOrderStatus(1L, statusDto, "waiter@test.com");
 
         // Assert
         assertThat(result).isNotNull();
         verify(orderRepository, times(2)).findById(1L); // Called twice: once in updateOrderStatus, once in getOrderById
         verify(orderRepository).save(testOrder);
         assertThat(testOrder.getStatus()).isEqualTo(OrderStatus.PREPARING);
+        verify(orderBoardService).publish(OrderBoardService.EventType.STATUS_CHANGED, testOrderDto, OrderStatus.PLACED);
+        verify(statusHistory).statusChanged(testOrder, OrderStatus.PLACED, "waiter@test.com");
+    }
+
+    @Test
+    void updateOrderStatus_completed_recordsRevenueRollup() {
+        // Arrange
+        testOrder.setStatus(OrderStatus.DELIVERED);
+        testOrder.setTable(null);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderMapper.orderToOrderDto(testOrder)).thenReturn(testOrderDto);
+
+        // Act
+        orderService.updateOrderStatus(1L, new StringDto("COMPLETED"), "waiter@test.com");
+
+        // Assert
+        verify(revenueRollupService).record(testOrder);
+        verify(revenueRollupService, never()).retract(any());
+        verify(customerActivity).orderCompleted(testOrder);
+    }
+
+    @Test
+    void updateOrderStatus_leavingCompleted_retractsRevenueRollup() {
+        // Arrange
+        testOrder.setStatus(OrderStatus.COMPLETED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderMapper.orderToOrderDto(testOrder)).thenReturn(testOrderDto);
+
+        // Act
+        orderService.updateOrderStatus(1L, new StringDto("CANCELLED"), "waiter@test.com");
+
+        // Assert
+        verify(revenueRollupService).retract(testOrder);
+        verify(revenueRollupService, never()).record(any());
     }
 
     @Test
@@ -317,7 +369,7 @@ class OrderServiceTest {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
 
         // Act & Assert
-        assertThatThrownBy(() -> orderService.updateOrderStatus(1L, statusDto))
+        assertThatThrownBy(() -> orderService.updateOrderStatus(1L, statusDto, "waiter@test.com"))
                 .isInstanceOf(InvalidValueException.class);
         verify(orderRepository).findById(1L);
         verify(orderRepository, never()).save(any());
@@ -330,7 +382,7 @@ class OrderServiceTest {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
 
         // Act & Assert
-        assertThatThrownBy(() -> orderService.updateOrderStatus(1L, statusDto))
+        assertThatThrownBy(() -> orderService.updateOrderStatus(1L, statusDto, "waiter@test.com"))
                 .isInstanceOf(AlreadyHasException.class);
         verify(orderRepository).findById(1L);
         verify(orderRepository, never()).save(any());
@@ -341,8 +393,7 @@ class OrderServiceTest {
         // Arrange
         when(userRepository.findByEmail("customer@test.com")).thenReturn(Optional.of(testCustomer));
         when(tableTopRepository.findByTableNumber("T01")).thenReturn(Optional.of(testTable));
-        when(foodItemRepository.findByFoodName("Pizza")).thenReturn(Optional.of(testFoodItem));
-        when(menuRepository.existsByActiveAndFoodItemsContains(anyBoolean(), anySet())).thenReturn(true);
+        when(foodItemRepository.findAllInActiveMenuByFoodNameIn(Set.of("Pizza"))).thenReturn(List.of(testFoodItem));
         when(orderMapper.orderItemDtoBasicToOrderItem(any())).thenReturn(testOrderItem);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
         when(orderMapper.orderToOrderDto(any(Order.class))).thenReturn(testOrderDto);
@@ -356,9 +407,10 @@ class OrderServiceTest {
         assertThat(result.getWarnings()).isEmpty();
         verify(userRepository).findByEmail("customer@test.com");
         verify(tableTopRepository).findByTableNumber("T01");
-        verify(foodItemRepository).findByFoodName("Pizza");
+        verify(foodItemRepository).findAllInActiveMenuByFoodNameIn(Set.of("Pizza"));
         verify(orderRepository).save(any(Order.class));
         verify(tableTopRepository).save(testTable);
+        verify(customerActivity).orderPlaced(eq(testCustomer), any(LocalDateTime.class));
         assertThat(testTable.getTableStatus()).isEqualTo(TableStatus.OCCUPIED);
     }
 
@@ -369,8 +421,7 @@ class OrderServiceTest {
         testPlaceOrderDto.setAddressId(1L);
         when(userRepository.findByEmail("customer@test.com")).thenReturn(Optional.of(testCustomer));
         when(addressRepository.findById(1L)).thenReturn(Optional.of(testAddress));
-        when(foodItemRepository.findByFoodName("Pizza")).thenReturn(Optional.of(testFoodItem));
-        when(menuRepository.existsByActiveAndFoodItemsContains(anyBoolean(), anySet())).thenReturn(true);
+        when(foodItemRepository.findAllInActiveMenuByFoodNameIn(Set.of("Pizza"))).thenReturn(List.of(testFoodItem));
         when(orderMapper.orderItemDtoBasicToOrderItem(any())).thenReturn(testOrderItem);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
         when(orderMapper.orderToOrderDto(any(Order.class))).thenReturn(testOrderDto);
@@ -384,7 +435,7 @@ class OrderServiceTest {
         assertThat(result.getWarnings()).isEmpty();
         verify(userRepository).findByEmail("customer@test.com");
         verify(addressRepository).findById(1L);
-        verify(foodItemRepository).findByFoodName("Pizza");
+        verify(foodItemRepository).findAllInActiveMenuByFoodNameIn(Set.of("Pizza"));
         verify(orderRepository).save(any(Order.class));
     }
 
@@ -417,7 +468,7 @@ class OrderServiceTest {
         // Arrange
         when(userRepository.findByEmail("customer@test.com")).thenReturn(Optional.of(testCustomer));
         when(tableTopRepository.findByTableNumber("T01")).thenReturn(Optional.of(testTable));
-        when(foodItemRepository.findByFoodName("Pizza")).thenReturn(Optional.empty());
+        when(foodItemRepository.findAllInActiveMenuByFoodNameIn(Set.of("Pizza"))).thenReturn(List.of());
 
         // Act & Assert
         assertThatThrownBy(() -> orderService.placeOrder(testPlaceOrderDto, "customer@test.com"))
@@ -425,7 +476,40 @@ class OrderServiceTest {
                 .hasMessageContaining("No valid order items found");
         verify(userRepository).findByEmail("customer@test.com");
         verify(tableTopRepository).findByTableNumber("T01");
-        verify(foodItemRepository).findByFoodName("Pizza");
+        verify(foodItemRepository).findAllInActiveMenuByFoodNameIn(Set.of("Pizza"));
+    }
+
+    @Test
+    void placeOrder_resolvesAllLinesInSingleLookup() {
+        // Arrange
+        FoodItem burger = new FoodItem();
+        burger.setFoodId(2L);
+        burger.setFoodName("Burger");
+        burger.setPrice(BigDecimal.valueOf(10.00));
+
+        testPlaceOrderDto.setOrderItems(Arrays.asList(
+                new OrderItemDtoBasic(1, null, "Pizza"),
+                new OrderItemDtoBasic(2, null, "Burger"),
+                new OrderItemDtoBasic(1, null, "Pizza"),
+                new OrderItemDtoBasic(1, null, "Soup")));
+        when(userRepository.findByEmail("customer@test.com")).thenReturn(Optional.of(testCustomer));
+        when(tableTopRepository.findByTableNumber("T01")).thenReturn(Optional.of(testTable));
+        when(foodItemRepository.findAllInActiveMenuByFoodNameIn(Set.of("Pizza", "Burger", "Soup")))
+                .thenReturn(List.of(testFoodItem, burger));
+        when(orderMapper.orderItemDtoBasicToOrderItem(any())).thenAnswer(invocation -> new OrderItem());
+        when(orderMapper.orderToOrderDto(any(Order.class))).thenReturn(testOrderDto);
+
+        // Act
+        WarningResponse<OrderDto> result = orderService.placeOrder(testPlaceOrderDto, "customer@test.com");
+
+        // Assert
+        assertThat(result.getWarnings()).containsExactly("Soup");
+        verify(foodItemRepository, times(1)).findAllInActiveMenuByFoodNameIn(anySet());
+        verify(foodItemRepository, never()).findByFoodName(anyString());
+        verify(menuRepository, never()).existsByActiveAndFoodItemsContains(anyBoolean(), anySet());
+        verify(orderRepository).save(argThat(order ->
+                order.getOrderItems().size() == 3
+                        && order.getTotalPrice().compareTo(BigDecimal.valueOf(50.00)) == 0));
     }
 
     @Test
@@ -446,6 +530,7 @@ class OrderServiceTest {
         verify(userRepository).findByEmail("customer@test.com");
         verify(orderRepository).save(testOrder);
         assertThat(testOrder.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(statusHistory).statusChanged(testOrder, OrderStatus.PLACED, "customer@test.com");
     }
 
     @Test
@@ -578,6 +663,43 @@ class OrderServiceTest {
         verify(orderMapper).ordersToOrderDtos(orders);
     }
 
+    @Test
+    void getOrders_chef_servedFromLiveOrderBook() {
+        // Arrange
+        User chef = new User();
+        chef.setEmail("chef@test.com");
+        chef.setRole(UserRole.CHEF);
+        when(userRepository.findByEmail("chef@test.com")).thenReturn(Optional.of(chef));
+        when(liveOrderBook.isReady()).thenReturn(true);
+        when(liveOrderBook.getOrders(List.of(OrderStatus.PLACED, OrderStatus.PREPARING, OrderStatus.READY, OrderStatus.CANCELLED)))
+                .thenReturn(List.of(testOrderDto));
+
+        // Act
+        List<OrderDto> result = orderService.getOrders("chef@test.com");
+
+        // Assert
+        assertThat(result).containsExactly(testOrderDto);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void getLastOrder_servedFromLiveOrderBook() {
+        // Arrange
+        OrderDto bookOrder = new OrderDto();
+        bookOrder.setOrderId(1L);
+        when(userRepository.findByEmail("customer@test.com")).thenReturn(Optional.of(testCustomer));
+        when(liveOrderBook.isReady()).thenReturn(true);
+        when(liveOrderBook.getLastOrderOf("customer@test.com")).thenReturn(Optional.of(bookOrder));
+
+        // Act
+        OrderDto result = orderService.getLastOrder("customer@test.com");
+
+        // Assert
+        assertThat(result.getOrderId()).isEqualTo(1L);
+        assertThat(result.getCustomer()).isNull();
+        verify(orderRepository, never()).findFirstByCustomerEmailOrderByOrderTimeDesc(any());
+    }
+
     @Test
     void getOrderItemsFromOrder_success() {
         // Arrange
@@ -643,4 +765,56 @@ class OrderServiceTest {
                 .isInstanceOf(NotFoundException.class);
         verify(orderRepository).findById(1L);
     }
+
+    @Test
+    void scrollOrders_returnsCursorOfLastRowAndSeeksPastIt() {
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 19, 30);
+        List<Order> rows = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            Order order = new Order();
+            order.setOrderId(id);
+            order.setOrderTime(time);
+            rows.add(order);
+        }
+        when(orderRepository.findAllByOrderByOrderTimeDescOrderIdDesc(any())).thenReturn(rows);
+        when(orderMapper.orderToOrderDto(any(Order.class))).thenReturn(new OrderDto());
+
+        CursorPageDto<OrderDto> first = orderService.scrollOrders(null, 2, false);
+
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(first.getTotalElements()).isNull();
+        assertThat(first.getNextCursor()).isNotNull();
+        verify(orderRepository).findAllByOrderByOrderTimeDescOrderIdDesc(Limit.of(3));
+
+        when(orderRepository.findAllBefore(time, 2L, Limit.of(3))).thenReturn(List.of(rows.get(2)));
+        CursorPageDto<OrderDto> second = orderService.scrollOrders(first.getNextCursor(), 2, true);
+
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(second.getNextCursor()).isNull();
+        verify(orderRepository).count();
+        verify(orderRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void scrollOrders_rejectsForeignCursor() {
+        assertThatThrownBy(() -> orderService.scrollOrders("not a cursor", 20, false))
+                .isInstanceOf(InvalidValueException.class);
+        assertThatThrownBy(() -> orderService.scrollOrders(KeysetCursor.ofId(5).encode(), 20, false))
+                .isInstanceOf(InvalidValueException.class);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void scrollOrderItems_seeksById() {
+        OrderItem item = new OrderItem();
+        item.setOrderItemId(41L);
+        when(orderItemRepository.findAllByOrderItemIdLessThanOrderByOrderItemIdDesc(42L, Limit.of(21)))
+                .thenReturn(List.of(item));
+        when(orderMapper.orderItemToOrderItemDto(item)).thenReturn(new OrderItemDto());
+
+        CursorPageDto<OrderItemDto> page = orderService.scrollOrderItems(KeysetCursor.ofId(42).encode(), 20, false);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
 }
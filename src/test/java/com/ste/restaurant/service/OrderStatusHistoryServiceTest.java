@@ -0,0 +1,132 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.KitchenLatencyDto;
+import com.ste.restaurant.entity.Order;
+import com.ste.restaurant.entity.OrderStatusChange;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.repository.OrderStatusChangeRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusHistoryServiceTest {
+
+    @Mock
+    private OrderStatusChangeRepository changeRepository;
+
+    private SimpleMeterRegistry registry;
+    private OrderStatusHistoryService statusHistory;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        statusHistory = new OrderStatusHistoryService(changeRepository, registry, Duration.ofMinutes(30));
+    }
+
+    private Order order(Long id, OrderStatus status, LocalDateTime orderTime) {
+        Order order = new Order();
+        order.setOrderId(id);
+        order.setStatus(status);
+        order.setOrderTime(orderTime);
+        return order;
+    }
+
+    private void move(Order order, OrderStatus status) {
+        OrderStatus previous = order.getStatus();
+        order.setStatus(status);
+        statusHistory.statusChanged(order, previous, "chef@test.com");
+    }
+
+    private Timer timer(String stage) {
+        return registry.get("orders.stage.duration").tag("stage", stage).timer();
+    }
+
+    @Test
+    void statusChanged_writesOneRowPerTransition() {
+        Order order = order(1L, OrderStatus.PLACED, LocalDateTime.now());
+        statusHistory.orderPlaced(order, "customer@test.com");
+        move(order, OrderStatus.PREPARING);
+
+        ArgumentCaptor<OrderStatusChange> changes = ArgumentCaptor.forClass(OrderStatusChange.class);
+        verify(changeRepository, times(2)).save(changes.capture());
+        assertThat(changes.getAllValues()).extracting(OrderStatusChange::getFromStatus)
+                .containsExactly(null, OrderStatus.PLACED);
+        assertThat(changes.getAllValues()).extracting(OrderStatusChange::getToStatus)
+                .containsExactly(OrderStatus.PLACED, OrderStatus.PREPARING);
+        assertThat(changes.getAllValues()).extracting(OrderStatusChange::getActor)
+                .containsExactly("customer@test.com", "chef@test.com");
+    }
+
+    @Test
+    void statusChanged_recordsKitchenStages() {
+        Order order = order(1L, OrderStatus.PLACED, LocalDateTime.now().minusMinutes(12));
+        statusHistory.orderPlaced(order, "customer@test.com");
+
+        move(order, OrderStatus.PREPARING);
+        move(order, OrderStatus.READY);
+        move(order, OrderStatus.DELIVERED);
+
+        assertThat(timer("placed-preparing").count()).isEqualTo(1);
+        assertThat(timer("placed-preparing").totalTime(TimeUnit.MINUTES)).isBetween(11.9, 12.1);
+        assertThat(timer("preparing-ready").count()).isEqualTo(1);
+        assertThat(timer("ready-delivered").count()).isEqualTo(1);
+        verify(changeRepository, never()).findFirstByOrderIdAndToStatusOrderByChangedAtDesc(any(), any());
+    }
+
+    @Test
+    void statusChanged_otherTransitions_areNotTimed() {
+        Order order = order(1L, OrderStatus.PLACED, LocalDateTime.now());
+        move(order, OrderStatus.CANCELLED);
+
+        assertThat(registry.get("orders.stage.duration").timers()).allMatch(timer -> timer.count() == 0);
+        assertThat(statusHistory.trackedOrders()).isZero();
+    }
+
+    @Test
+    void statusChanged_unknownOrder_fallsBackToLoggedTransition() {
+        Order order = order(1L, OrderStatus.PREPARING, LocalDateTime.now().minusHours(1));
+        when(changeRepository.findFirstByOrderIdAndToStatusOrderByChangedAtDesc(1L, OrderStatus.PREPARING))
+                .thenReturn(Optional.of(new OrderStatusChange(1L, OrderStatus.PLACED, OrderStatus.PREPARING,
+                        LocalDateTime.now().minusMinutes(20), "chef@test.com")));
+
+        move(order, OrderStatus.READY);
+
+        assertThat(timer("preparing-ready").totalTime(TimeUnit.MINUTES)).isBetween(19.9, 20.1);
+        assertThat(statusHistory.trackedOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void getKitchenLatency_reportsPercentilesPerStage() {
+        for (int i = 1; i <= 100; i++) {
+            Order order = order((long) i, OrderStatus.PLACED, LocalDateTime.now().minusMinutes(i));
+            move(order, OrderStatus.PREPARING);
+        }
+
+        List<KitchenLatencyDto> latency = statusHistory.getKitchenLatency();
+
+        assertThat(latency).extracting(KitchenLatencyDto::getStage)
+                .containsExactly("placed-preparing", "preparing-ready", "ready-delivered");
+        KitchenLatencyDto placed = latency.get(0);
+        assertThat(placed.getCount()).isEqualTo(100);
+        assertThat(placed.getP50Seconds()).isBetween(45 * 60.0, 55 * 60.0);
+        assertThat(placed.getP95Seconds()).isBetween(90 * 60.0, 100 * 60.0);
+        assertThat(placed.getP99Seconds()).isGreaterThanOrEqualTo(placed.getP95Seconds());
+        assertThat(latency.get(1).getCount()).isZero();
+    }
+}
@@ -0,0 +1,131 @@
+package com.ste.restaurant.service;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QrCodeServiceTest {
+
+    @TempDir
+    Path qrCodeDir;
+
+    private QrCodeService qrCodeService;
+
+    @BeforeEach
+    void setUp() {
+        qrCodeService = new QrCodeService("http://localhost:8080", qrCodeDir + "/", 400, 2, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        qrCodeService.shutdownWorkers();
+    }
+
+    private String decode(byte[] png) throws Exception {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        return new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)))).getText();
+    }
+
+    @Test
+    void fileNameFor_isContentHashOfUrlAndSize() {
+        String fileName = qrCodeService.fileNameFor("T01");
+
+        assertThat(fileName).matches("[0-9a-f]{32}\\.png");
+        assertThat(qrCodeService.fileNameFor("T01")).isEqualTo(fileName);
+        assertThat(qrCodeService.fileNameFor("T02")).isNotEqualTo(fileName);
+        assertThat(new QrCodeService("http://localhost:8080", qrCodeDir + "/", 800, 1, 8).fileNameFor("T01"))
+                .isNotEqualTo(fileName);
+    }
+
+    @Test
+    void render_writesPrintSizedPngEncodingTableUrl() throws Exception {
+        String fileName = qrCodeService.render("T01");
+
+        byte[] png = Files.readAllBytes(qrCodeDir.resolve(fileName));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertThat(image.getWidth()).isEqualTo(400);
+        assertThat(decode(png)).isEqualTo("http://localhost:8080/menu?table=T01");
+        assertThat(qrCodeService.isCurrent("T01", fileName)).isTrue();
+        assertThat(qrCodeService.isCurrent("T01", "table_T01.jpg")).isFalse();
+    }
+
+    @Test
+    void render_existingFile_isNotRenderedAgain() throws IOException {
+        Path file = qrCodeDir.resolve(qrCodeService.render("T01"));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+
+        qrCodeService.render("T01");
+
+        assertThat(Files.getLastModifiedTime(file).toMillis()).isEqualTo(1_000_000);
+    }
+
+    @Test
+    void renderAll_rendersEveryTable() {
+        List<String> tableNumbers = IntStream.rangeClosed(1, 20).mapToObj(i -> "T" + i).toList();
+
+        Map<String, String> fileNames = qrCodeService.renderAll(tableNumbers);
+
+        assertThat(fileNames).hasSize(20);
+        assertThat(fileNames.keySet()).containsExactlyElementsOf(tableNumbers);
+        fileNames.values().forEach(fileName -> assertThat(qrCodeDir.resolve(fileName)).exists());
+        assertThat(qrCodeService.cachedCodes()).isEqualTo(8);
+    }
+
+    @Test
+    void writeZip_containsOnePngPerTableWithUniqueNames() throws Exception {
+        qrCodeService.render("T01");
+        qrCodeService.delete(qrCodeService.fileNameFor("T01"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Map<Long, String> tables = new LinkedHashMap<>();
+        tables.put(1L, "T01");
+        tables.put(2L, "Patio 2");
+        tables.put(3L, "Patio_2");
+        qrCodeService.writeZip(tables, output);
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                String text = decode(zip.readAllBytes());
+                assertThat(text).startsWith("http://localhost:8080/menu?table=");
+            }
+        }
+        assertThat(names).containsExactly("table_T01_1.png", "table_Patio_2_2.png", "table_Patio_2_3.png");
+    }
+
+    @Test
+    void delete_removesFile() {
+        String fileName = qrCodeService.render("T01");
+
+        qrCodeService.delete(fileName);
+        qrCodeService.delete(null);
+
+        assertThat(qrCodeDir.resolve(fileName)).doesNotExist();
+        assertThat(qrCodeService.isCurrent("T01", fileName)).isFalse();
+    }
+}
@@ -0,0 +1,105 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.Order;
+import com.ste.restaurant.entity.RevenueRollup;
+import com.ste.restaurant.entity.enums.RollupDimension;
+import com.ste.restaurant.repository.RevenueRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// not @Transactional, both orders have to commit from their own threads
+@SpringBootTest
+@ActiveProfiles("test")
+class RevenueRollupConcurrencyIntegrationTest {
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private RevenueRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private ExecutorService executor;
+    private LocalDateTime bucketHour;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(2);
+        // an hour no other test writes to
+        bucketHour = LocalDateTime.of(2099, 1, 1, 0, 0).plusHours(System.nanoTime() % 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        transaction.executeWithoutResult(status -> rollupRepository.deleteRange(bucketHour, bucketHour.plusHours(1)));
+    }
+
+    private Order order(String total) {
+        Order order = new Order();
+        order.setOrderTime(bucketHour.plusMinutes(5));
+        order.setTotalPrice(new BigDecimal(total));
+        return order;
+    }
+
+    @Test
+    @DisplayName("Should count both first orders of a new bucket when they complete concurrently")
+    void shouldCountConcurrentFirstOrdersOfBucket() throws Exception {
+        CountDownLatch firstRecorded = new CountDownLatch(1);
+
+        // the first order holds its uncommitted row while the second one records
+        Future<?> first = executor.submit(() -> transaction.executeWithoutResult(status -> {
+            revenueRollupService.record(order("10.00"));
+            firstRecorded.countDown();
+            sleep(300);
+        }));
+        Future<?> second = executor.submit(() -> {
+            await(firstRecorded);
+            transaction.executeWithoutResult(status -> revenueRollupService.record(order("5.50")));
+        });
+
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        List<RevenueRollup> rows = transaction.execute(status -> rollupRepository
+                .findAllByDimensionAndBucketHourGreaterThanEqualAndBucketHourLessThanOrderByBucketHour(
+                        RollupDimension.TOTAL, bucketHour, bucketHour.plusHours(1)));
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getOrderCount()).isEqualTo(2);
+        assertThat(rows.get(0).getRevenue()).isEqualByComparingTo("15.50");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
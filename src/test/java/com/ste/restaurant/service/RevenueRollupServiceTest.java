@@ -0,0 +1,222 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.entity.*;
+import com.ste.restaurant.entity.enums.OrderStatus;
+import com.ste.restaurant.entity.enums.RollupDimension;
+import com.ste.restaurant.repository.OrderRepository;
+import com.ste.restaurant.repository.RevenueRollupRepository;
+import com.ste.restaurant.repository.RollupBackfillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueRollupServiceTest {
+
+    @Mock
+    private RevenueRollupRepository rollupRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private RollupBackfillRepository backfillRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RevenueRollupService revenueRollupService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        revenueRollupService = new RevenueRollupService(rollupRepository, orderRepository, backfillRepository,
+                transactionManager, false);
+
+        Category italian = new Category();
+        italian.setCategoryId(11L);
+        italian.setCategoryName("Italian");
+        Category vegetarian = new Category();
+        vegetarian.setCategoryId(12L);
+        vegetarian.setCategoryName("Vegetarian");
+
+        FoodItem pizza = new FoodItem();
+        pizza.setFoodId(21L);
+        pizza.setFoodName("Pizza");
+        pizza.setCategories(new HashSet<>(List.of(italian, vegetarian)));
+
+        FoodItem water = new FoodItem();
+        water.setFoodId(22L);
+        water.setFoodName("Water");
+        water.setCategories(new HashSet<>());
+
+        TableTop table = new TableTop();
+        table.setTableId(31L);
+        table.setTableNumber("T1");
+
+        order = new Order();
+        order.setOrderId(1L);
+        order.setStatus(OrderStatus.COMPLETED);
+        order.setOrderTime(LocalDateTime.of(2024, 1, 10, 12, 35));
+        order.setTable(table);
+        order.setTotalPrice(new BigDecimal("23.00"));
+        order.setOrderItems(new ArrayList<>(List.of(
+                orderItem(pizza, 2, "20.00"),
+                orderItem(pizza, 1, "1.00"),
+                orderItem(water, 1, "2.00"))));
+    }
+
+    private OrderItem orderItem(FoodItem foodItem, int quantity, String totalPrice) {
+        OrderItem item = new OrderItem();
+        item.setFoodItem(foodItem);
+        item.setQuantity(quantity);
+        item.setTotalPrice(new BigDecimal(totalPrice));
+        return item;
+    }
+
+    private RevenueRollup find(List<RevenueRollup> rollups, RollupDimension dimension, String key) {
+        return rollups.stream()
+                .filter(r -> r.getDimension() == dimension && r.getDimensionKey().equals(key))
+                .findFirst().orElseThrow();
+    }
+
+    @Test
+    void contributionsOf_bucketsByHourAndDimension() {
+        List<RevenueRollup> rollups = RevenueRollupService.contributionsOf(order);
+
+        assertThat(rollups).allMatch(r -> r.getBucketHour().equals(LocalDateTime.of(2024, 1, 10, 12, 0)));
+        assertThat(rollups).hasSize(7); // total, table, 2 foods, 3 categories
+
+        RevenueRollup total = find(rollups, RollupDimension.TOTAL, "");
+        assertThat(total.getOrderCount()).isEqualTo(1);
+        assertThat(total.getQuantity()).isEqualTo(4);
+        assertThat(total.getRevenue()).isEqualByComparingTo("23.00");
+
+        RevenueRollup pizza = find(rollups, RollupDimension.FOOD_ITEM, "21");
+        assertThat(pizza.getQuantity()).isEqualTo(3);
+        assertThat(pizza.getRevenue()).isEqualByComparingTo("21.00");
+
+        // line revenue split evenly over the categories, rounded per line
+        assertThat(find(rollups, RollupDimension.CATEGORY, "11").getRevenue()).isEqualByComparingTo("10.50");
+        assertThat(find(rollups, RollupDimension.CATEGORY, RevenueRollupService.UNCATEGORIZED_KEY).getRevenue()).isEqualByComparingTo("2.00");
+        assertThat(find(rollups, RollupDimension.TABLE, "31").getOrderCount()).isEqualTo(1);
+    }
+
+    @Test
+    void record_incrementsExistingRows() {
+        when(rollupRepository.increment(any(), any(), any(), anyLong(), anyLong(), any())).thenReturn(1);
+
+        revenueRollupService.record(order);
+
+        verify(rollupRepository).increment(RollupDimension.TOTAL, "", LocalDateTime.of(2024, 1, 10, 12, 0),
+                1L, 4L, new BigDecimal("23.00"));
+        verify(rollupRepository, never()).insertIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    void record_insertsMissingRows() {
+        when(rollupRepository.increment(any(), any(), any(), anyLong(), anyLong(), any())).thenReturn(0);
+
+        revenueRollupService.record(order);
+
+        verify(rollupRepository).insertIfAbsent(RollupDimension.TOTAL, "", LocalDateTime.of(2024, 1, 10, 12, 0));
+        verify(rollupRepository, times(7)).insertIfAbsent(any(), any(), any());
+        verify(rollupRepository, never()).save(any());
+    }
+
+    @Test
+    void retract_subtractsContribution() {
+        when(rollupRepository.increment(any(), any(), any(), anyLong(), anyLong(), any())).thenReturn(1);
+
+        revenueRollupService.retract(order);
+
+        verify(rollupRepository).increment(eq(RollupDimension.TABLE), eq("31"), any(),
+                eq(-1L), eq(-4L), argThat(revenue -> revenue.compareTo(new BigDecimal("-23.00")) == 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfill_replacesRangeWithRecomputedRowsWeekByWeek() {
+        Order sameHour = new Order();
+        sameHour.setStatus(OrderStatus.COMPLETED);
+        sameHour.setOrderTime(LocalDateTime.of(2024, 1, 10, 12, 50));
+        sameHour.setTotalPrice(new BigDecimal("7.00"));
+        when(orderRepository.findAllByStatusAndOrderTimeGreaterThanEqualAndOrderTimeLessThan(
+                eq(OrderStatus.COMPLETED), any(), any()))
+                .thenReturn(List.of(order, sameHour), List.of());
+
+        int orders = revenueRollupService.backfill(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 20));
+
+        assertThat(orders).isEqualTo(2);
+        verify(rollupRepository).deleteRange(LocalDateTime.of(2024, 1, 10, 0, 0), LocalDateTime.of(2024, 1, 17, 0, 0));
+        verify(rollupRepository).deleteRange(LocalDateTime.of(2024, 1, 17, 0, 0), LocalDateTime.of(2024, 1, 21, 0, 0));
+        verify(transactionManager, times(2)).commit(any());
+
+        ArgumentCaptor<Collection<RevenueRollup>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository, times(2)).saveAll(saved.capture());
+        RevenueRollup total = find(new ArrayList<>(saved.getAllValues().get(0)), RollupDimension.TOTAL, "");
+        assertThat(total.getOrderCount()).isEqualTo(2);
+        assertThat(total.getRevenue()).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void resumeBackfill_continuesFromWatermark() {
+        RollupBackfill progress = new RollupBackfill();
+        progress.setBackfillId(1L);
+        progress.setBackfilledUntil(LocalDateTime.of(2024, 1, 17, 0, 0));
+        progress.setBackfillEnd(LocalDateTime.of(2024, 1, 20, 0, 0));
+        when(backfillRepository.findById(1L)).thenReturn(Optional.of(progress));
+
+        revenueRollupService.resumeBackfill();
+
+        // the weeks before the watermark are not rebuilt again
+        verify(rollupRepository).deleteRange(LocalDateTime.of(2024, 1, 17, 0, 0), LocalDateTime.of(2024, 1, 20, 0, 0));
+        verify(rollupRepository, times(1)).deleteRange(any(), any());
+        verify(backfillRepository).save(progress);
+        assertThat(progress.getBackfilledUntil()).isEqualTo(LocalDateTime.of(2024, 1, 20, 0, 0));
+    }
+
+    @Test
+    void resumeBackfill_doesNothingOnceDone() {
+        RollupBackfill progress = new RollupBackfill();
+        progress.setBackfillId(1L);
+        progress.setBackfilledUntil(LocalDateTime.of(2024, 1, 20, 0, 0));
+        progress.setBackfillEnd(LocalDateTime.of(2024, 1, 20, 0, 0));
+        when(backfillRepository.findById(1L)).thenReturn(Optional.of(progress));
+
+        revenueRollupService.resumeBackfill();
+
+        verifyNoInteractions(rollupRepository, orderRepository);
+    }
+
+    @Test
+    void resumeBackfill_firstStartRebuildsFromFirstCompletedOrder() {
+        when(backfillRepository.findById(1L)).thenReturn(Optional.empty());
+        when(backfillRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.findFirstByStatusOrderByOrderTimeAsc(OrderStatus.COMPLETED)).thenReturn(order);
+        when(orderRepository.findAllByStatusAndOrderTimeGreaterThanEqualAndOrderTimeLessThan(
+                eq(OrderStatus.COMPLETED), any(), any())).thenReturn(List.of());
+
+        revenueRollupService.resumeBackfill();
+
+        verify(rollupRepository).deleteRange(eq(LocalDateTime.of(2024, 1, 10, 12, 0)), any());
+        ArgumentCaptor<RollupBackfill> saved = ArgumentCaptor.forClass(RollupBackfill.class);
+        verify(backfillRepository, atLeast(2)).save(saved.capture());
+        RollupBackfill last = saved.getValue();
+        assertThat(last.getBackfilledUntil()).isEqualTo(last.getBackfillEnd());
+    }
+}
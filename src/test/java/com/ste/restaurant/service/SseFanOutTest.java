@@ -0,0 +1,75 @@
+package com.ste.restaurant.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseFanOutTest {
+
+    record Event(long sequence, String type) {
+    }
+
+    private final SseFanOut<Event> fanOut = new SseFanOut<>("test", 2, 1, Event::sequence, Event::type);
+    private final BlockingQueue<Event> sent = new LinkedBlockingQueue<>();
+
+    // records what goes out instead of writing it to a response
+    private final SseEmitter emitter = new SseEmitter() {
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof Event event) {
+                    sent.add(event);
+                }
+            }
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        fanOut.shutdown();
+    }
+
+    private List<Event> take(int count) throws InterruptedException {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Event event = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            events.add(event);
+        }
+        return events;
+    }
+
+    @Test
+    void start_sendsFirstAheadOfWhatWasOfferedBefore() throws InterruptedException {
+        SseFanOut<Event>.Channel channel = fanOut.channel(emitter, () -> new Event(0, "RESYNC"), () -> { });
+        channel.offer(new Event(2, "DELTA"));
+        channel.offer(new Event(3, "DELTA"));
+
+        channel.start(new Event(1, "SNAPSHOT"));
+
+        assertThat(take(3)).extracting(Event::sequence).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void offer_overflowingQueue_sendsResyncAndDropsWhatItCovers() throws InterruptedException {
+        SseFanOut<Event>.Channel channel = fanOut.channel(emitter, () -> new Event(3, "RESYNC"), () -> { });
+        for (long sequence = 1; sequence <= 4; sequence++) {
+            channel.offer(new Event(sequence, "DELTA"));
+        }
+
+        channel.start(null);
+
+        // 1 and 2 overflowed, 3 is covered by the resync, 4 came after it
+        assertThat(take(2)).containsExactly(new Event(3, "RESYNC"), new Event(4, "DELTA"));
+        assertThat(sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+}
@@ -13,8 +13,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.junit.jupiter.api.io.TempDir;
-import java.nio.file.Path;
 
 import java.util.*;
 
@@ -32,12 +30,12 @@ class TableTopServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private QrCodeService qrCodeService;
+
     @InjectMocks
     private TableTopService tableTopService;
 
-    @TempDir
-    Path tempDir;
-
     private TableTop testTable;
     private TableTopDto testTableDto;
     private StringDto testStringDto;
@@ -60,9 +58,6 @@ class TableTopServiceTest {
         // Test string DTO
         testStringDto = new StringDto();
         testStringDto.setName("OCCUPIED");
-
-        org.springframework.test.util.ReflectionTestUtils.setField(tableTopService, "siteBaseUrl", "http://localhost:8080");
-        org.springframework.test.util.ReflectionTestUtils.setField(tableTopService, "qrCodeDir", tempDir.toString() + "/");
     }
 
     @Test
@@ -77,6 +72,7 @@ class TableTopServiceTest {
             entity.setTableStatus(dto.getTableStatus());
             return null;
         }).when(orderMapper).updateTableFromDto(any(TableTopDto.class), any(TableTop.class));
+        when(qrCodeService.render("T01")).thenReturn("qr-t01.png");
         when(tableRepository.save(any(TableTop.class))).thenReturn(testTable);
         when(orderMapper.tableTopToTableTopDto(testTable)).thenReturn(testTableDto);
 
@@ -90,7 +86,7 @@ class TableTopServiceTest {
         assertThat(result.getTableStatus()).isEqualTo(TableStatus.AVAILABLE);
         verify(tableRepository).existsTableTopByTableNumber("T01");
         verify(orderMapper).updateTableFromDto(eq(testTableDto), any(TableTop.class));
-        verify(tableRepository).save(any(TableTop.class));
+        verify(tableRepository).save(argThat(table -> "qr-t01.png".equals(table.getQrCode())));
         verify(orderMapper).tableTopToTableTopDto(testTable);
     }
 
@@ -511,4 +507,83 @@ class TableTopServiceTest {
         verify(tableRepository).findAllByTableStatus(TableStatus.AVAILABLE);
         verify(orderMapper).tableTopsToTableTopDtos(availableTables);
     }
+
+    @Test
+    void createQrForTables_rendersOnlyStaleTablesInOneBatch() {
+        // Arrange
+        testTable.setQrCode("current.png");
+        TableTop legacy = new TableTop();
+        legacy.setTableNumber("T02");
+        legacy.setQrCode("table_T02.jpg");
+        TableTop missing = new TableTop();
+        missing.setTableNumber("T03");
+
+        when(tableRepository.findAll()).thenReturn(List.of(testTable, legacy, missing));
+        when(qrCodeService.isCurrent("T01", "current.png")).thenReturn(true);
+        when(qrCodeService.isCurrent("T02", "table_T02.jpg")).thenReturn(false);
+        when(qrCodeService.isCurrent("T03", null)).thenReturn(false);
+        when(qrCodeService.renderAll(List.of("T02", "T03"))).thenReturn(Map.of("T02", "new-t02.png", "T03", "new-t03.png"));
+
+        // Act
+        int updated = tableTopService.createQrForTables();
+
+        // Assert
+        assertThat(updated).isEqualTo(2);
+        assertThat(legacy.getQrCode()).isEqualTo("new-t02.png");
+        assertThat(missing.getQrCode()).isEqualTo("new-t03.png");
+        verify(tableRepository).saveAll(List.of(legacy, missing));
+        verify(tableRepository, never()).save(any());
+        verify(qrCodeService).delete("table_T02.jpg");
+        verify(qrCodeService, never()).delete("current.png");
+    }
+
+    @Test
+    void createQrForTables_allCurrent_writesNothing() {
+        // Arrange
+        testTable.setQrCode("current.png");
+        when(tableRepository.findAll()).thenReturn(List.of(testTable));
+        when(qrCodeService.isCurrent("T01", "current.png")).thenReturn(true);
+
+        // Act
+        int updated = tableTopService.createQrForTables();
+
+        // Assert
+        assertThat(updated).isZero();
+        verify(qrCodeService, never()).renderAll(any());
+        verify(tableRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createQrForTables_failedRender_keepsPreviousCode() {
+        // Arrange
+        testTable.setQrCode("table_T01.jpg");
+        when(tableRepository.findAll()).thenReturn(List.of(testTable));
+        when(qrCodeService.isCurrent("T01", "table_T01.jpg")).thenReturn(false);
+        when(qrCodeService.renderAll(List.of("T01"))).thenReturn(Map.of());
+
+        // Act
+        int updated = tableTopService.createQrForTables();
+
+        // Assert
+        assertThat(updated).isZero();
+        assertThat(testTable.getQrCode()).isEqualTo("table_T01.jpg");
+        verify(qrCodeService, never()).delete(any());
+    }
+
+    @Test
+    void deleteAllQrCodes_clearsInOneBatch() {
+        // Arrange
+        testTable.setQrCode("qr-t01.png");
+        TableTop withoutCode = new TableTop();
+        withoutCode.setTableNumber("T02");
+        when(tableRepository.findAll()).thenReturn(List.of(testTable, withoutCode));
+
+        // Act
+        tableTopService.deleteAllQrCodes();
+
+        // Assert
+        assertThat(testTable.getQrCode()).isNull();
+        verify(tableRepository).saveAll(List.of(testTable));
+        verify(qrCodeService).delete("qr-t01.png");
+    }
 }
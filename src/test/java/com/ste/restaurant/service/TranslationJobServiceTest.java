@@ -0,0 +1,317 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.TranslationJobDto;
+import com.ste.restaurant.entity.Category;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.TranslationJob;
+import com.ste.restaurant.entity.TranslationJobItem;
+import com.ste.restaurant.entity.enums.TranslationItemStatus;
+import com.ste.restaurant.entity.enums.TranslationItemType;
+import com.ste.restaurant.entity.enums.TranslationJobStatus;
+import com.ste.restaurant.exception.InvalidOperationException;
+import com.ste.restaurant.exception.InvalidValueException;
+import com.ste.restaurant.exception.RateLimitExceededException;
+import com.ste.restaurant.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TranslationJobServiceTest {
+
+    @Mock
+    private TranslationJobRepository jobRepository;
+
+    @Mock
+    private TranslationJobItemRepository itemRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private FoodItemRepository foodItemRepository;
+
+    @Mock
+    private CategoryTranslationRepository categoryTranslationRepository;
+
+    @Mock
+    private FoodItemTranslationRepository foodItemTranslationRepository;
+
+    @Mock
+    private LanguageService languageService;
+
+    @Mock
+    private ObjectProvider<MenuTranslator> translatorProvider;
+
+    @Mock
+    private MenuTranslator translator;
+
+    @Mock
+    private TranslationProgressService progressService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TranslationJobService translationJobService;
+
+    @BeforeEach
+    void setUp() {
+        translationJobService = new TranslationJobService(jobRepository, itemRepository, categoryRepository,
+                foodItemRepository, categoryTranslationRepository, foodItemTranslationRepository, languageService,
+                translatorProvider, progressService, transactionManager, 10, 40, 2, Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    private TranslationJob job(TranslationJobStatus status, int totalItems) {
+        TranslationJob job = new TranslationJob();
+        job.setJobId(1L);
+        job.setLanguage("Turkish");
+        job.setLanguageCode("tr");
+        job.setStatus(status);
+        job.setTotalItems(totalItems);
+        return job;
+    }
+
+    private TranslationJobItem item(long itemId, TranslationItemType type, String name) {
+        TranslationJobItem item = new TranslationJobItem();
+        item.setItemId(itemId);
+        item.setSourceId(itemId + 100);
+        item.setItemType(type);
+        item.setSourceName(name);
+        return item;
+    }
+
+    private void runnable(TranslationJob job, List<TranslationJobItem> categories, List<TranslationJobItem> foods) {
+        when(translatorProvider.getIfAvailable()).thenReturn(translator);
+        when(jobRepository.findRunnable(any(LocalDateTime.class), eq(Limit.of(1)))).thenReturn(List.of(job));
+        when(itemRepository.findAllByJobJobIdAndItemTypeAndStatusOrderByItemId(
+                1L, TranslationItemType.CATEGORY, TranslationItemStatus.PENDING, Limit.of(10))).thenReturn(categories);
+        if (categories.isEmpty()) {
+            when(itemRepository.findAllByJobJobIdAndItemTypeAndStatusOrderByItemId(
+                    1L, TranslationItemType.FOOD_ITEM, TranslationItemStatus.PENDING, Limit.of(40))).thenReturn(foods);
+        }
+    }
+
+    @Test
+    void enqueue_snapshotsOnlyUntranslatedItems() {
+        Category soups = new Category();
+        soups.setCategoryId(1L);
+        soups.setCategoryName("Soups");
+        FoodItem soup = new FoodItem();
+        soup.setFoodId(5L);
+        soup.setFoodName("Lentil Soup");
+        when(languageService.getTranslatableLanguageCode("Turkish")).thenReturn("tr");
+        when(jobRepository.findFirstByLanguageAndStatusIn(eq("Turkish"), anyCollection())).thenReturn(Optional.empty());
+        when(categoryRepository.findAll()).thenReturn(List.of(soups));
+        when(foodItemRepository.findAll()).thenReturn(List.of(soup));
+        when(jobRepository.save(any(TranslationJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TranslationJobDto result = translationJobService.enqueue("Turkish");
+
+        assertThat(result.getStatus()).isEqualTo("QUEUED");
+        assertThat(result.getTotalItems()).isEqualTo(2);
+        assertThat(result.getPendingItems()).isEqualTo(2);
+    }
+
+    @Test
+    void enqueue_completesRightAwayWhenNothingIsLeft() {
+        when(languageService.getTranslatableLanguageCode("Turkish")).thenReturn("tr");
+        when(jobRepository.findFirstByLanguageAndStatusIn(eq("Turkish"), anyCollection())).thenReturn(Optional.empty());
+        when(jobRepository.save(any(TranslationJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(translationJobService.enqueue("Turkish").getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void enqueue_returnsActiveJobOfLanguage() {
+        when(languageService.getTranslatableLanguageCode("Turkish")).thenReturn("tr");
+        when(jobRepository.findFirstByLanguageAndStatusIn(eq("Turkish"), anyCollection()))
+                .thenReturn(Optional.of(job(TranslationJobStatus.PAUSED, 4)));
+
+        assertThat(translationJobService.enqueue("Turkish").getJobId()).isEqualTo(1L);
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void enqueue_rejectsUnknownLanguage() {
+        assertThatThrownBy(() -> translationJobService.enqueue("Klingon"))
+                .isInstanceOf(InvalidValueException.class);
+    }
+
+    @Test
+    void cancel_rejectsFinishedJob() {
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job(TranslationJobStatus.COMPLETED, 0)));
+
+        assertThatThrownBy(() -> translationJobService.cancel(1L))
+                .isInstanceOf(InvalidOperationException.class);
+    }
+
+    @Test
+    void runOnce_translatesCategoryBatchInOneCall() {
+        TranslationJob job = job(TranslationJobStatus.QUEUED, 2);
+        TranslationJobItem soups = item(10L, TranslationItemType.CATEGORY, "Soups");
+        TranslationJobItem drinks = item(11L, TranslationItemType.CATEGORY, "Drinks");
+        runnable(job, List.of(soups, drinks), List.of());
+        when(translator.translateCategoryNames(List.of("Soups", "Drinks"), "Turkish"))
+                .thenReturn(Map.of("Soups", "Çorbalar"));
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(itemRepository.findAllById(List.of(10L, 11L))).thenReturn(List.of(soups, drinks));
+
+        assertThat(translationJobService.runOnce()).isTrue();
+
+        assertThat(soups.getStatus()).isEqualTo(TranslationItemStatus.DONE);
+        assertThat(soups.getTranslatedName()).isEqualTo("Çorbalar");
+        assertThat(drinks.getStatus()).isEqualTo(TranslationItemStatus.FAILED);
+        assertThat(job.getStatus()).isEqualTo(TranslationJobStatus.RUNNING);
+        assertThat(job.getDoneItems()).isEqualTo(1);
+        assertThat(job.getFailedItems()).isEqualTo(1);
+    }
+
+    @Test
+    void runOnce_translatesFoodBatchKeyedByFoodId() {
+        TranslationJob job = job(TranslationJobStatus.RUNNING, 2);
+        TranslationJobItem soup = item(20L, TranslationItemType.FOOD_ITEM, "Lentil Soup");
+        TranslationJobItem kebab = item(21L, TranslationItemType.FOOD_ITEM, "Adana Kebab");
+        runnable(job, List.of(), List.of(soup, kebab));
+        when(translator.translateFoodItems(List.of(new MenuTranslator.FoodText(120L, "Lentil Soup", null),
+                new MenuTranslator.FoodText(121L, "Adana Kebab", null)), "Turkish"))
+                .thenReturn(Map.of(121L, Arrays.asList("Adana Kebap", null)));
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(itemRepository.findAllById(List.of(20L, 21L))).thenReturn(List.of(soup, kebab));
+
+        translationJobService.runOnce();
+
+        assertThat(kebab.getStatus()).isEqualTo(TranslationItemStatus.DONE);
+        assertThat(kebab.getTranslatedName()).isEqualTo("Adana Kebap");
+        assertThat(soup.getStatus()).isEqualTo(TranslationItemStatus.FAILED);
+    }
+
+    @Test
+    void runOnce_pausesJobOnRateLimitAndKeepsItemPending() {
+        TranslationJob job = job(TranslationJobStatus.QUEUED, 1);
+        TranslationJobItem soup = item(20L, TranslationItemType.FOOD_ITEM, "Lentil Soup");
+        runnable(job, List.of(), List.of(soup));
+        when(translator.translateFoodItems(List.of(new MenuTranslator.FoodText(120L, "Lentil Soup", null)), "Turkish"))
+                .thenThrow(new RateLimitExceededException("Gemini", "429 quota exceeded"));
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        translationJobService.runOnce();
+
+        assertThat(job.getStatus()).isEqualTo(TranslationJobStatus.PAUSED);
+        assertThat(job.getResumeAt()).isAfter(LocalDateTime.now());
+        assertThat(soup.getStatus()).isEqualTo(TranslationItemStatus.PENDING);
+        assertThat(soup.getAttempts()).isZero();
+    }
+
+    @Test
+    void runOnce_pausesForRetryDelayOfProvider() {
+        TranslationJob job = job(TranslationJobStatus.RUNNING, 1);
+        TranslationJobItem soup = item(20L, TranslationItemType.FOOD_ITEM, "Lentil Soup");
+        runnable(job, List.of(), List.of(soup));
+        when(translator.translateFoodItems(List.of(new MenuTranslator.FoodText(120L, "Lentil Soup", null)), "Turkish"))
+                .thenThrow(new RateLimitExceededException("Gemini", "429", Duration.ofMinutes(10)));
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        translationJobService.runOnce();
+
+        assertThat(job.getResumeAt()).isAfter(LocalDateTime.now().plusMinutes(9));
+    }
+
+    @Test
+    void runOnce_failsItemAfterMaxAttempts() {
+        TranslationJob job = job(TranslationJobStatus.RUNNING, 1);
+        TranslationJobItem soup = item(20L, TranslationItemType.FOOD_ITEM, "Lentil Soup");
+        runnable(job, List.of(), List.of(soup));
+        when(translator.translateFoodItems(List.of(new MenuTranslator.FoodText(120L, "Lentil Soup", null)), "Turkish")).thenThrow(new IllegalStateException("boom"));
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(itemRepository.findAllById(List.of(20L))).thenReturn(List.of(soup));
+
+        translationJobService.runOnce();
+        assertThat(soup.getStatus()).isEqualTo(TranslationItemStatus.PENDING);
+
+        translationJobService.runOnce();
+        assertThat(soup.getStatus()).isEqualTo(TranslationItemStatus.FAILED);
+        assertThat(soup.getAttempts()).isEqualTo(2);
+        assertThat(job.getFailedItems()).isEqualTo(1);
+        assertThat(job.getLastError()).isEqualTo("boom");
+    }
+
+    @Test
+    void runOnce_dropsResultsOfJobCancelledWhileTranslating() {
+        TranslationJob job = job(TranslationJobStatus.RUNNING, 1);
+        TranslationJobItem soup = item(20L, TranslationItemType.FOOD_ITEM, "Lentil Soup");
+        runnable(job, List.of(), List.of(soup));
+        when(translator.translateFoodItems(List.of(new MenuTranslator.FoodText(120L, "Lentil Soup", null)), "Turkish"))
+                .thenAnswer(invocation -> {
+                    job.setStatus(TranslationJobStatus.CANCELLED);
+                    return Map.of(120L, List.of("Mercimek Çorbası"));
+                });
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        translationJobService.runOnce();
+
+        assertThat(soup.getStatus()).isEqualTo(TranslationItemStatus.PENDING);
+        assertThat(job.getDoneItems()).isZero();
+        verify(itemRepository, never()).findAllById(any());
+        verify(progressService, never()).itemsProcessed(any(), any());
+    }
+
+    @Test
+    void runOnce_dropsFailureOfJobCancelledWhileTranslating() {
+        TranslationJob job = job(TranslationJobStatus.RUNNING, 1);
+        TranslationJobItem soup = item(20L, TranslationItemType.FOOD_ITEM, "Lentil Soup");
+        runnable(job, List.of(), List.of(soup));
+        when(translator.translateFoodItems(List.of(new MenuTranslator.FoodText(120L, "Lentil Soup", null)), "Turkish"))
+                .thenAnswer(invocation -> {
+                    job.setStatus(TranslationJobStatus.CANCELLED);
+                    throw new IllegalStateException("boom");
+                });
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        translationJobService.runOnce();
+
+        assertThat(soup.getAttempts()).isZero();
+        assertThat(job.getLastError()).isNull();
+        verify(progressService, never()).itemsProcessed(any(), any());
+    }
+
+    @Test
+    void runOnce_completesJobWithoutPendingItems() {
+        TranslationJob job = job(TranslationJobStatus.RUNNING, 0);
+        runnable(job, List.of(), List.of());
+
+        assertThat(translationJobService.runOnce()).isTrue();
+
+        assertThat(job.getStatus()).isEqualTo(TranslationJobStatus.COMPLETED);
+        verifyNoInteractions(translator);
+    }
+
+    @Test
+    void runOnce_idleWithoutRunnableJobs() {
+        when(translatorProvider.getIfAvailable()).thenReturn(translator);
+        when(jobRepository.findRunnable(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of());
+
+        assertThat(translationJobService.runOnce()).isFalse();
+
+        ArgumentCaptor<Limit> limit = ArgumentCaptor.forClass(Limit.class);
+        verify(jobRepository).findRunnable(any(LocalDateTime.class), limit.capture());
+        assertThat(limit.getValue().max()).isEqualTo(1);
+    }
+}
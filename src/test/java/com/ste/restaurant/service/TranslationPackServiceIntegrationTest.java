@@ -0,0 +1,189 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.TranslationJobDto;
+import com.ste.restaurant.dto.TranslationPackDto;
+import com.ste.restaurant.entity.Category;
+import com.ste.restaurant.entity.FoodItem;
+import com.ste.restaurant.entity.FoodItemTranslation;
+import com.ste.restaurant.entity.id.FoodItemTranslationId;
+import com.ste.restaurant.exception.InvalidValueException;
+import com.ste.restaurant.repository.CategoryRepository;
+import com.ste.restaurant.repository.CategoryTranslationRepository;
+import com.ste.restaurant.repository.FoodItemRepository;
+import com.ste.restaurant.repository.FoodItemTranslationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+@DisplayName("TranslationPackService Integration Tests")
+class TranslationPackServiceIntegrationTest {
+
+    @Autowired
+    private TranslationPackService translationPackService;
+
+    @Autowired
+    private TranslationJobService translationJobService;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private FoodItemTranslationRepository foodItemTranslationRepository;
+
+    @Autowired
+    private CategoryTranslationRepository categoryTranslationRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private FoodItem food(String name) {
+        FoodItem food = new FoodItem();
+        food.setFoodName(name);
+        food.setDescription("Description of " + name);
+        food.setPrice(new BigDecimal("5.00"));
+        return food;
+    }
+
+    private FoodItemTranslation translation(String languageCode, FoodItem food, String name) {
+        FoodItemTranslation translation = new FoodItemTranslation();
+        translation.setId(languageCode, food);
+        translation.setName(name);
+        return translation;
+    }
+
+    private FoodItemTranslationId translationId(String languageCode, FoodItem food) {
+        FoodItemTranslationId id = new FoodItemTranslationId();
+        id.setLanguageCode(languageCode);
+        id.setFoodItemId(food.getFoodId());
+        return id;
+    }
+
+    @Nested
+    @DisplayName("Finalize Tests")
+    class FinalizeTests {
+
+        @Test
+        @DisplayName("Should insert new and update existing translations")
+        void shouldUpsertTranslations() {
+            FoodItem soup = foodItemRepository.save(food("Pack Soup"));
+            FoodItem salad = foodItemRepository.save(food("Pack Salad"));
+            Category category = new Category();
+            category.setCategoryName("Pack Starters");
+            categoryRepository.save(category);
+            foodItemTranslationRepository.save(translation("fr", soup, "Vieille soupe"));
+            entityManager.flush();
+            entityManager.clear();
+
+            Map<String, List<String>> foods = new HashMap<>();
+            foods.put("Pack Soup", List.of("Soupe", "Une soupe"));
+            foods.put("Pack Salad", List.of("Salade"));
+            foods.put("Pack Unknown", List.of("Inconnu"));
+            translationPackService.finalizeTranslations(
+                    new TranslationPackDto("French", foods, Map.of("Pack Starters", " Entrées ")));
+            entityManager.flush();
+            entityManager.clear();
+
+            FoodItemTranslation updated = foodItemTranslationRepository.findById(translationId("fr", soup)).orElseThrow();
+            assertThat(updated.getName()).isEqualTo("Soupe");
+            assertThat(updated.getDescription()).isEqualTo("Une soupe");
+            assertThat(foodItemTranslationRepository.findById(translationId("fr", salad)).orElseThrow().getName())
+                    .isEqualTo("Salade");
+            assertThat(categoryTranslationRepository.findTranslatedCategoryIds("fr"))
+                    .containsExactly(category.getCategoryId());
+        }
+
+        @Test
+        @DisplayName("Should skip blank translations")
+        void shouldSkipBlankTranslations() {
+            FoodItem soup = foodItemRepository.save(food("Pack Soup"));
+
+            Map<String, List<String>> foods = new HashMap<>();
+            foods.put("Pack Soup", Arrays.asList(" ", "Une soupe"));
+            translationPackService.finalizeTranslations(new TranslationPackDto("French", foods, null));
+            entityManager.flush();
+
+            assertThat(foodItemTranslationRepository.findTranslatedFoodItemIds("fr")).doesNotContain(soup.getFoodId());
+        }
+
+        @Test
+        @DisplayName("Should reject unsupported language")
+        void shouldRejectUnsupportedLanguage() {
+            assertThatThrownBy(() -> translationPackService.finalizeTranslations(
+                    new TranslationPackDto("Klingon", Map.of(), Map.of())))
+                    .isInstanceOf(InvalidValueException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Translation Diff Benchmark")
+    class TranslationDiffBenchmark {
+
+        @Test
+        @DisplayName("Should diff and finalize a 5,000 item catalog with set based statements")
+        void shouldDiffAndFinalizeLargeCatalog() {
+            // Given - 5,000 foods, the first half already in french
+            int catalogSize = 5_000;
+            List<FoodItem> foods = new ArrayList<>();
+            for (int i = 0; i < catalogSize; i++) {
+                foods.add(food("Bench Food " + i));
+            }
+            foods = foodItemRepository.saveAll(foods);
+            for (int i = 0; i < catalogSize / 2; i++) {
+                entityManager.persist(translation("fr", foods.get(i), "Plat " + i));
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            Statistics statistics = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+
+            // diff: one id query per type, the rest are the job item inserts
+            statistics.clear();
+            TranslationJobDto job = translationJobService.enqueue("French");
+            entityManager.flush();
+            long diffStatements = statistics.getPrepareStatementCount();
+            entityManager.clear();
+
+            // finalize: every food, half updates and half inserts
+            Map<String, List<String>> pack = new HashMap<>();
+            for (int i = 0; i < catalogSize; i++) {
+                pack.put("Bench Food " + i, List.of("Plat revu " + i, "Description " + i));
+            }
+            statistics.clear();
+            translationPackService.finalizeTranslations(new TranslationPackDto("French", pack, Map.of()));
+            entityManager.flush();
+            long finalizeStatements = statistics.getPrepareStatementCount();
+            entityManager.clear();
+            statistics.setStatisticsEnabled(false);
+
+            assertThat(job.getTotalItems()).isGreaterThanOrEqualTo(catalogSize / 2);
+            // no lookup per catalog entry, only the job item inserts grow with the catalog
+            assertThat(diffStatements).isLessThanOrEqualTo(job.getTotalItems() + 20L);
+            // two lookups plus batched writes, per entry lookups and merges were about 10,000
+            assertThat(finalizeStatements).isLessThan(catalogSize / 10);
+            assertThat(foodItemTranslationRepository.findTranslatedFoodItemIds("fr"))
+                    .hasSizeGreaterThanOrEqualTo(catalogSize);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ste.restaurant.service;
+
+import com.ste.restaurant.dto.TranslationItemEventDto;
+import com.ste.restaurant.dto.TranslationJobDto;
+import com.ste.restaurant.dto.TranslationProgressEventDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TranslationProgressServiceTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private TranslationProgressService progressService;
+
+    @BeforeEach
+    void setUp() {
+        progressService = new TranslationProgressService(4, 60_000L, 1, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        progressService.shutdownDispatcher();
+    }
+
+    private TranslationJobDto job(long jobId, int done, int pending) {
+        TranslationJobDto job = new TranslationJobDto();
+        job.setJobId(jobId);
+        job.setStatus("RUNNING");
+        job.setDoneItems(done);
+        job.setPendingItems(pending);
+        return job;
+    }
+
+    private List<TranslationItemEventDto> items(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new TranslationItemEventDto("FOOD_ITEM", "Food " + i, "DONE", "[fr] Food " + i, null, null))
+                .toList();
+    }
+
+    @Test
+    void event_withoutSecondChunk_hasNoEta() {
+        progressService.itemsProcessed(job(1L, 40, 60), items(40));
+
+        TranslationProgressEventDto event = progressService.event(
+                TranslationProgressService.EventType.PROGRESS, job(1L, 40, 60), null);
+
+        // the first chunk only opens the window
+        assertThat(event.getItemsPerMinute()).isNull();
+        assertThat(event.getEtaSeconds()).isNull();
+    }
+
+    @Test
+    void event_computesThroughputAndEta() {
+        progressService.itemsProcessed(job(1L, 40, 60), items(40));
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        progressService.itemsProcessed(job(1L, 60, 40), items(20));
+
+        TranslationProgressEventDto event = progressService.event(
+                TranslationProgressService.EventType.PROGRESS, job(1L, 60, 40), null);
+
+        // 20 items in half a minute, 40 left
+        assertThat(event.getItemsPerMinute()).isEqualTo(40.0);
+        assertThat(event.getEtaSeconds()).isEqualTo(60L);
+    }
+
+    @Test
+    void rateLimited_startsNewThroughputWindow() {
+        progressService.itemsProcessed(job(1L, 40, 60), items(40));
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        progressService.itemsProcessed(job(1L, 60, 40), items(20));
+
+        progressService.rateLimited(job(1L, 60, 40), Duration.ofMinutes(1));
+
+        TranslationProgressEventDto event = progressService.event(
+                TranslationProgressService.EventType.PROGRESS, job(1L, 60, 40), null);
+        assertThat(event.getItemsPerMinute()).isNull();
+    }
+
+    @Test
+    void event_assignsIncreasingSequence() {
+        TranslationProgressEventDto first = progressService.event(
+                TranslationProgressService.EventType.QUEUED, job(1L, 0, 10), null);
+        TranslationProgressEventDto second = progressService.event(
+                TranslationProgressService.EventType.FINISHED, job(1L, 10, 0), null);
+
+        assertThat(second.getSequence()).isGreaterThan(first.getSequence());
+        assertThat(second.getType()).isEqualTo("FINISHED");
+    }
+
+    @Test
+    void subscribe_loadsSnapshotAndRegisters() {
+        progressService.subscribe(null, () -> List.of(job(1L, 0, 10)));
+        progressService.subscribe(2L, () -> List.of(job(1L, 0, 10), job(2L, 0, 5)));
+
+        assertThat(progressService.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void subscribe_registersBeforeSnapshotLoads() {
+        // a job that changes while the snapshot loads reaches the new screen right after it
+        progressService.subscribe(null, () -> {
+            assertThat(progressService.subscriberCount()).isEqualTo(1);
+            return List.of();
+        });
+    }
+
+    @Test
+    void publish_overflowingSlowSubscriber_keepsPublishing() {
+        progressService.subscribe(null, List::of);
+
+        // far more events than the queue holds, the backlog is dropped for a resync
+        for (int chunk = 0; chunk < 50; chunk++) {
+            progressService.itemsProcessed(job(1L, chunk, 100 - chunk), items(5));
+        }
+
+        assertThat(progressService.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdown_completesSubscribers() {
+        progressService.subscribe(null, List::of);
+
+        progressService.shutdownDispatcher();
+
+        assertThat(progressService.subscriberCount()).isZero();
+    }
+}
@@ -56,6 +56,9 @@ public class UserServiceIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
     private User testCustomer;
     private User testWaiter;
     private User testChef;
@@ -276,6 +279,20 @@ public class UserServiceIntegrationTest {
                     .hasMessageContaining("User already exists");
         }
 
+        @Test
+        @DisplayName("Should drop cached authorities when the role changes through the user update")
+        void shouldEvictCachedAuthoritiesWhenRoleIsUpdated() {
+            assertThat(userDetailsService.loadAuthenticatedUser(testChef.getEmail()).getAuthorities())
+                    .extracting(Object::toString).containsExactly("ROLE_CHEF");
+
+            UserDtoEmployee updateDto = new UserDtoEmployee();
+            updateDto.setRole(UserRole.CUSTOMER);
+            userService.updateUserById(testChef.getUserId(), updateDto, testAdmin.getEmail());
+
+            assertThat(userDetailsService.loadAuthenticatedUser(testChef.getEmail()).getAuthorities())
+                    .extracting(Object::toString).containsExactly("ROLE_CUSTOMER");
+        }
+
         @Test
         @DisplayName("Should ignore password in update operations")
         void shouldIgnorePasswordInUpdateOperations() {
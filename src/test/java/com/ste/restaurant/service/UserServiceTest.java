@@ -1,6 +1,7 @@
 package com.ste.restaurant.service;
 
 import com.ste.restaurant.dto.common.BigDecimalDto;
+import com.ste.restaurant.dto.common.CursorPageDto;
 import com.ste.restaurant.dto.common.StringDto;
 import com.ste.restaurant.dto.userdto.*;
 import com.ste.restaurant.entity.Address;
@@ -18,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -52,6 +54,12 @@ class UserServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private LiveOrderBookService liveOrderBook;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
     @InjectMocks
     private UserService userService;
 
@@ -296,6 +304,7 @@ class UserServiceTest {
         verify(orderRepository).updateCustomerAndAddressToNull(testUser);
         verify(addressRepository).deleteAll(testUser.getAddresses());
         verify(userRepository).delete(testUser);
+        verify(userDetailsService).evict("john.doe@example.com");
         verify(orderMapper).userToUserDto(testUser);
     }
 
@@ -422,6 +431,7 @@ class UserServiceTest {
         verify(userRepository).findById(1L);
         verify(userRepository).save(testUser);
         verify(orderMapper).userToUserDto(testUser);
+        verify(userDetailsService).evict("john.doe@example.com");
         assertThat(testUser.getRole()).isEqualTo(UserRole.WAITER);
     }
 
@@ -799,4 +809,22 @@ class UserServiceTest {
         verify(passwordEncoder).matches("OldPassword123", "encodedPassword123");
         verify(userRepository, never()).save(any());
     }
+
+    @Test
+    void scrollUsers_pagesByIdWithoutCounting() {
+        User second = new User();
+        second.setUserId(2L);
+        when(userRepository.findAllByOrderByUserIdAsc(Limit.of(2))).thenReturn(List.of(testUser, second));
+        when(orderMapper.userToUserDto(testUser)).thenReturn(testUserDto);
+
+        CursorPageDto<UserDto> page = userService.scrollUsers(null, 1, false);
+
+        assertThat(page.getContent()).containsExactly(testUserDto);
+        assertThat(page.getNextCursor()).isNotNull();
+        verify(userRepository, never()).count();
+
+        when(userRepository.findAllByUserIdGreaterThanOrderByUserIdAsc(1L, Limit.of(2))).thenReturn(List.of(second));
+        userService.scrollUsers(page.getNextCursor(), 1, false);
+        verify(userRepository).findAllByUserIdGreaterThanOrderByUserIdAsc(1L, Limit.of(2));
+    }
 }
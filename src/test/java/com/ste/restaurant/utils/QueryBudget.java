@@ -0,0 +1,37 @@
+package com.ste.restaurant.utils;
+
+import com.ste.restaurant.configuration.QueryCountFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc matcher that pins how many SQL statements an endpoint may issue, counted by
+ * {@link QueryCountFilter} across the whole request including lazy loads during serialization.
+ * A new N+1 fails the test instead of slowly showing up on the query metrics.
+ * <pre>
+ * mockMvc.perform(get("/rest/api/menus/active"))
+ *         .andExpect(status().isOk())
+ *         .andExpect(QueryBudget.atMost(3));
+ * </pre>
+ * Tests that run in a transaction see entities they saved from the persistence context, keep the
+ * budget to what a request on its own would issue.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher atMost(long maxQueries) {
+        return result -> assertThat(queries(result))
+                .as("SQL statements for %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(maxQueries);
+    }
+
+    public static long queries(MvcResult result) {
+        Object queries = result.getRequest().getAttribute(QueryCountFilter.QUERY_COUNT_ATTRIBUTE);
+        assertThat(queries).as("query count, is the request under /rest/api?").isNotNull();
+        return (Long) queries;
+    }
+}
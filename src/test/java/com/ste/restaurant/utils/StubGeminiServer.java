@@ -0,0 +1,145 @@
+package com.ste.restaurant.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.genai.Client;
+import com.google.genai.types.HttpOptions;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the Gemini generateContent endpoint, so a real {@link Client} can be used offline.
+ * Answers the menu translation prompts of AiService with "[language] source" texts, counts requests
+ * and can be told to answer 429 or to leave ids out of a food translation answer.
+ */
+public class StubGeminiServer implements AutoCloseable {
+
+    private static final Pattern LANGUAGE = Pattern.compile("target language: ([^.\\n]+)\\.");
+    private static final String FOOD_MARKER = "Food items: ";
+    private static final String CATEGORY_MARKER = "Category names to translate: ";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger rateLimitedRequests = new AtomicInteger();
+    private final List<Integer> foodBatchSizes = new CopyOnWriteArrayList<>();
+    private final Set<Long> droppedFoodIds = Collections.synchronizedSet(new HashSet<>());
+    private volatile String retryDelay = "0.01s";
+
+    public StubGeminiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public Client client() {
+        return Client.builder()
+                .apiKey("stub-key")
+                .httpOptions(HttpOptions.builder().baseUrl("http://localhost:" + server.getAddress().getPort()).build())
+                .build();
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    /** Number of foods in each food translation request, in order. */
+    public List<Integer> foodBatchSizes() {
+        return foodBatchSizes;
+    }
+
+    /** The next {@code count} requests are answered with 429 asking to retry after {@code delay}. */
+    public void rateLimitNext(int count, String delay) {
+        rateLimitedRequests.set(count);
+        retryDelay = delay;
+    }
+
+    /** The first answer containing one of these ids leaves it out. */
+    public void dropFoodIdsOnce(Collection<Long> foodIds) {
+        droppedFoodIds.addAll(foodIds);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+
+        if (rateLimitedRequests.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+            String error = """
+                {"error": {"code": 429, "message": "Resource has been exhausted. Please retry in %s.", "status": "RESOURCE_EXHAUSTED"}}
+                """.formatted(retryDelay);
+            respond(exchange, 429, error);
+            return;
+        }
+
+        String prompt = request.path("contents").path(0).path("parts").path(0).path("text").asText();
+        Matcher languageMatcher = LANGUAGE.matcher(prompt);
+        String language = languageMatcher.find() ? languageMatcher.group(1).trim() : "xx";
+
+        String text;
+        if (prompt.contains(FOOD_MARKER)) {
+            text = answerFoods(prompt.substring(prompt.indexOf(FOOD_MARKER) + FOOD_MARKER.length()).trim(), language);
+        } else if (prompt.contains(CATEGORY_MARKER)) {
+            text = answerCategories(prompt.substring(prompt.indexOf(CATEGORY_MARKER) + CATEGORY_MARKER.length()).trim(), language);
+        } else {
+            text = "Stub description";
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode candidate = response.putArray("candidates").addObject();
+        candidate.putObject("content").put("role", "model").putArray("parts").addObject().put("text", text);
+        candidate.put("finishReason", "STOP");
+        respond(exchange, 200, objectMapper.writeValueAsString(response));
+    }
+
+    private String answerFoods(String foodJson, String language) throws IOException {
+        JsonNode foods = objectMapper.readTree(foodJson);
+        foodBatchSizes.add(foods.size());
+        ObjectNode answer = objectMapper.createObjectNode();
+        for (JsonNode food : foods) {
+            long id = food.path("id").asLong();
+            if (droppedFoodIds.remove(id)) continue;
+            ObjectNode translated = answer.putObject(String.valueOf(id));
+            translated.put("name", "[" + language + "] " + food.path("name").asText());
+            if (food.hasNonNull("description")) {
+                translated.put("description", "[" + language + "] " + food.path("description").asText());
+            } else {
+                translated.putNull("description");
+            }
+        }
+        return objectMapper.writeValueAsString(answer);
+    }
+
+    private String answerCategories(String names, String language) throws IOException {
+        ObjectNode answer = objectMapper.createObjectNode();
+        for (String name : names.split(", ")) {
+            answer.put(name, "[" + language + "] " + name);
+        }
+        return objectMapper.writeValueAsString(answer);
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}